@@ -0,0 +1,23 @@
+package com.maplewood.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Tunables for the reference-data cache, bound from {@code maplewood.cache.*}.
+ */
+@ConfigurationProperties(prefix = "maplewood.cache")
+@Getter
+@Setter
+public class CacheProperties {
+
+    /** Entries kept per reference table; least recently used entries are evicted beyond this. */
+    private int maxEntries = 1000;
+
+    /**
+     * Minimum time between checks of {@code data_versions}. Writes from other processes become
+     * visible at most this long after they commit; 0 checks on every read.
+     */
+    private long versionCheckIntervalMillis = 1000;
+}
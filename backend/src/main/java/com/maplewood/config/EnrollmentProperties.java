@@ -0,0 +1,49 @@
+package com.maplewood.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Tunables for student enrollment writes, bound from {@code maplewood.enrollment.*}.
+ */
+@ConfigurationProperties(prefix = "maplewood.enrollment")
+@Getter
+@Setter
+public class EnrollmentProperties {
+
+    private final Pipeline pipeline = new Pipeline();
+
+    private final Auto auto = new Auto();
+
+    private final Waitlist waitlist = new Waitlist();
+
+    @Getter
+    @Setter
+    public static class Pipeline {
+        /** Commit enrollments in group transactions; when off each enrollment commits on its own. */
+        private boolean enabled = true;
+        /** Most enrollments committed in one transaction. */
+        private int maxBatchSize = 64;
+        /** Longest a queued enrollment waits for others to share its commit. */
+        private long maxWaitMillis = 2;
+        /** Enrollments that may wait for the writer before new ones are turned away. */
+        private int queueCapacity = 10000;
+    }
+
+    @Getter
+    @Setter
+    public static class Auto {
+        /** Worker threads preparing students' candidate sections; 0 uses one per available processor. */
+        private int parallelism = 0;
+        /** Students handed to a worker at a time. */
+        private int partitionSize = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class Waitlist {
+        /** How often queued waitlist changes are written to the database in one batch. */
+        private long flushIntervalMillis = 200;
+    }
+}
@@ -0,0 +1,97 @@
+package com.maplewood.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Tunables for master schedule generation, bound from {@code maplewood.scheduling.*}.
+ */
+@ConfigurationProperties(prefix = "maplewood.scheduling")
+@Getter
+@Setter
+public class SchedulingProperties {
+
+    /**
+     * Length of one availability-grid period in minutes. Must divide an hour evenly;
+     * finer periods allow sessions to start on the quarter or half hour.
+     */
+    private int slotMinutes = 60;
+
+    /**
+     * Strategy used when a generate request does not name one.
+     */
+    private String defaultStrategy = "greedy";
+
+    private final Demand demand = new Demand();
+
+    private final Decomposition decomposition = new Decomposition();
+
+    private final Backtracking backtracking = new Backtracking();
+
+    private final Improver improver = new Improver();
+
+    private final Portfolio portfolio = new Portfolio();
+
+    private final Jobs jobs = new Jobs();
+
+    @Getter
+    @Setter
+    public static class Demand {
+        /** Size sections from student demand; when off, the hours-based heuristic is used. */
+        private boolean enabled = true;
+        /** Seats in one section (room capacity). */
+        private int seatsPerSection = 10;
+        /** Courses a student may take in one semester. */
+        private int maxCoursesPerStudent = 5;
+    }
+
+    @Getter
+    @Setter
+    public static class Decomposition {
+        /** Solve each room-type component separately and merge the results. */
+        private boolean enabled = true;
+        /** Worker threads; 0 uses one per available processor. */
+        private int parallelism = 0;
+    }
+
+    @Getter
+    @Setter
+    public static class Backtracking {
+        /** Search nodes to expand before returning the best schedule found so far. */
+        private long maxNodes = 200_000;
+        /** Wall-clock budget for one solve. */
+        private long timeLimitMillis = 2_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Improver {
+        /** Lets the local search put a section in a general classroom when its room type is full (penalized). */
+        private boolean allowRoomFallback = false;
+        /** Seed for the annealing walk, so a given budget replays the same moves. */
+        private long seed = 42L;
+    }
+
+    @Getter
+    @Setter
+    public static class Portfolio {
+        /** Seeded variants per solve; variant 0 is the plain greedy pass. */
+        private int variants = 8;
+        /** Worker threads; 0 uses one per available processor. */
+        private int parallelism = 0;
+        /** Base seed; variant i uses seed + i. */
+        private long seed = 1L;
+    }
+
+    @Getter
+    @Setter
+    public static class Jobs {
+        /** Generation jobs running at the same time. */
+        private int workers = 2;
+        /** Jobs that may wait for a worker before submissions are rejected. */
+        private int queueCapacity = 8;
+        /** Finished jobs kept for status polling. */
+        private int retainedJobs = 50;
+    }
+}
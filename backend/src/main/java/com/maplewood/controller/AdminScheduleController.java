@@ -3,13 +3,23 @@ package com.maplewood.controller;
 import com.maplewood.dto.*;
 import com.maplewood.entity.Semester;
 import com.maplewood.repository.SemesterRepository;
+import com.maplewood.service.AutoEnrollmentService;
+import com.maplewood.service.BatchProgressService;
+import com.maplewood.service.BulkEnrollmentService;
 import com.maplewood.service.MasterScheduleService;
+import com.maplewood.service.ReferenceDataCache;
+import com.maplewood.service.ScheduleJob;
+import com.maplewood.service.ScheduleJobService;
+import com.maplewood.service.ScheduleReplanner;
+import com.maplewood.service.WaitlistService;
 import com.maplewood.util.DtoMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -20,15 +30,47 @@ import java.util.stream.Collectors;
 public class AdminScheduleController {
 
     private final MasterScheduleService scheduleService;
+    private final ScheduleJobService scheduleJobService;
+    private final ScheduleReplanner scheduleReplanner;
+    private final BulkEnrollmentService bulkEnrollmentService;
+    private final AutoEnrollmentService autoEnrollmentService;
+    private final BatchProgressService batchProgressService;
+    private final WaitlistService waitlistService;
+    private final ReferenceDataCache referenceDataCache;
     private final SemesterRepository semesterRepository;
     private final DtoMapper dtoMapper;
 
     @PostMapping("/schedules/generate")
     public ResponseEntity<ScheduleResponse> generateSchedule(@Valid @RequestBody GenerateScheduleRequest request) {
-        ScheduleResponse response = scheduleService.generateSchedule(request.getSemesterId());
+        ScheduleResponse response = scheduleJobService.runNow(request.getSemesterId(), request.getStrategy(),
+                improveTimeMillis(request));
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/schedules/jobs")
+    public ResponseEntity<ScheduleJobDto> submitScheduleJob(@Valid @RequestBody GenerateScheduleRequest request) {
+        ScheduleJob job = scheduleJobService.submit(request.getSemesterId(), request.getStrategy(),
+                improveTimeMillis(request));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(scheduleJobService.toDto(job));
+    }
+
+    @GetMapping("/schedules/jobs/{jobId}")
+    public ResponseEntity<ScheduleJobDto> getScheduleJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(scheduleJobService.toDto(scheduleJobService.getJob(jobId)));
+    }
+
+    @DeleteMapping("/schedules/jobs/{jobId}")
+    public ResponseEntity<ScheduleJobDto> cancelScheduleJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(scheduleJobService.toDto(scheduleJobService.cancel(jobId)));
+    }
+
+    @PostMapping("/schedules/replan")
+    public ResponseEntity<ReplanResponse> replanSchedule(@Valid @RequestBody ReplanRequest request) {
+        ReplanResponse response = scheduleJobService.runExclusive(request.getSemesterId(), "replan",
+                () -> scheduleReplanner.replan(request));
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/schedules/{semesterId}")
     public ResponseEntity<ScheduleResponse> getSchedule(@PathVariable Integer semesterId) {
         ScheduleResponse response = scheduleService.getSchedule(semesterId);
@@ -55,5 +97,41 @@ public class AdminScheduleController {
                 .collect(Collectors.toList());
         return ResponseEntity.ok(semesterDtos);
     }
-}
 
+    @PostMapping("/enrollments/bulk")
+    public ResponseEntity<BulkEnrollResponse> bulkEnroll(@Valid @RequestBody BulkEnrollRequest request) {
+        return ResponseEntity.ok(bulkEnrollmentService.enroll(request));
+    }
+
+    @PostMapping("/enrollments/auto")
+    public ResponseEntity<AutoEnrollResponse> autoEnroll(@Valid @RequestBody AutoEnrollRequest request) {
+        return ResponseEntity.ok(autoEnrollmentService.autoEnroll(request));
+    }
+
+    @PutMapping("/waitlists")
+    public ResponseEntity<WaitlistEntryDto> placeOnWaitlist(@Valid @RequestBody WaitlistPlacementRequest request) {
+        return ResponseEntity.ok(waitlistService.place(request));
+    }
+
+    @GetMapping(value = "/progress", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getAllProgress() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(batchProgressService::writeAll);
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<List<CacheStatsDto>> getCacheStats() {
+        return ResponseEntity.ok(referenceDataCache.stats());
+    }
+
+    @DeleteMapping("/cache")
+    public ResponseEntity<Void> invalidateCache() {
+        referenceDataCache.invalidateAll();
+        return ResponseEntity.noContent().build();
+    }
+
+    private long improveTimeMillis(GenerateScheduleRequest request) {
+        return request.getImproveTimeMillis() != null ? request.getImproveTimeMillis() : 0L;
+    }
+}
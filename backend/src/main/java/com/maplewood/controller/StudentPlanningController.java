@@ -1,24 +1,34 @@
 package com.maplewood.controller;
 
 import com.maplewood.dto.*;
+import com.maplewood.service.GraduationPlanner;
 import com.maplewood.service.StudentPlanningService;
+import com.maplewood.service.TimetableBuilder;
+import com.maplewood.service.WaitlistService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/students")
 @RequiredArgsConstructor
 public class StudentPlanningController {
 
     private final StudentPlanningService planningService;
+    private final TimetableBuilder timetableBuilder;
+    private final WaitlistService waitlistService;
+    private final GraduationPlanner graduationPlanner;
 
     @GetMapping("/{studentId}/plan")
     public ResponseEntity<StudentPlanResponse> getStudentPlan(
             @PathVariable Integer studentId,
-            @RequestParam Integer semesterId) {
-        StudentPlanResponse response = planningService.getStudentPlan(studentId, semesterId);
+            @RequestParam Integer semesterId,
+            @RequestParam(defaultValue = "false") boolean eligibleOnly) {
+        StudentPlanResponse response = planningService.getStudentPlan(studentId, semesterId, eligibleOnly);
         return ResponseEntity.ok(response);
     }
 
@@ -30,6 +40,54 @@ public class StudentPlanningController {
         return ResponseEntity.ok(response);
     }
 
+    @DeleteMapping("/{studentId}/enrollments/{sectionId}")
+    public ResponseEntity<DropResponse> dropEnrollment(
+            @PathVariable Integer studentId,
+            @PathVariable Integer sectionId) {
+        return ResponseEntity.ok(planningService.dropEnrollment(studentId, sectionId));
+    }
+
+    @GetMapping("/{studentId}/waitlist")
+    public ResponseEntity<List<WaitlistEntryDto>> getWaitlist(@PathVariable Integer studentId) {
+        return ResponseEntity.ok(waitlistService.forStudent(studentId));
+    }
+
+    @PostMapping("/{studentId}/waitlist")
+    public ResponseEntity<WaitlistEntryDto> joinWaitlist(
+            @PathVariable Integer studentId,
+            @Valid @RequestBody WaitlistRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(waitlistService.join(studentId, request));
+    }
+
+    @DeleteMapping("/{studentId}/waitlist/{sectionId}")
+    public ResponseEntity<Void> leaveWaitlist(
+            @PathVariable Integer studentId,
+            @PathVariable Integer sectionId) {
+        waitlistService.leave(studentId, sectionId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/{studentId}/timetables")
+    public ResponseEntity<TimetableResponse> buildTimetables(
+            @PathVariable Integer studentId,
+            @Valid @RequestBody TimetableRequest request) {
+        return ResponseEntity.ok(timetableBuilder.build(studentId, request));
+    }
+
+    @GetMapping("/{studentId}/next-courses")
+    public ResponseEntity<List<NextCourseDto>> getNextCourses(
+            @PathVariable Integer studentId,
+            @RequestParam(required = false) Integer semesterId) {
+        return ResponseEntity.ok(graduationPlanner.nextCourses(studentId, semesterId));
+    }
+
+    @GetMapping("/{studentId}/graduation-plan")
+    public ResponseEntity<GraduationPlanDto> getGraduationPlan(
+            @PathVariable Integer studentId,
+            @RequestParam(required = false) Integer semesterId) {
+        return ResponseEntity.ok(graduationPlanner.graduationPlan(studentId, semesterId));
+    }
+
     @GetMapping("/{studentId}/progress")
     public ResponseEntity<AcademicProgressDto> getStudentProgress(@PathVariable Integer studentId) {
         AcademicProgressDto progress = planningService.getStudentProgress(studentId);
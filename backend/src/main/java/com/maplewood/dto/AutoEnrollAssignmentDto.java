@@ -0,0 +1,17 @@
+package com.maplewood.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class AutoEnrollAssignmentDto {
+    private Integer studentId;
+    private List<Integer> courseSectionIds;
+    private List<Integer> assignedCourseIds;
+    private List<Integer> unassignedCourseIds;
+    // Why requested courses could not be assigned or written
+    private List<String> errors;
+}
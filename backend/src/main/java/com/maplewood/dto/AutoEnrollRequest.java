@@ -0,0 +1,25 @@
+package com.maplewood.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class AutoEnrollRequest {
+    @NotNull(message = "Semester ID is required")
+    private Integer semesterId;
+
+    @NotEmpty(message = "At least one student is required")
+    @Size(max = 100000, message = "At most 100000 students per request")
+    @Valid
+    private List<AutoEnrollStudentRequest> students;
+
+    // Compute the assignment without writing any enrollments
+    private boolean dryRun = false;
+}
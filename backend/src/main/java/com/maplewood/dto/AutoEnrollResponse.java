@@ -0,0 +1,19 @@
+package com.maplewood.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class AutoEnrollResponse {
+    private Integer semesterId;
+    private Boolean dryRun;
+    private Integer students;
+    private Integer requestedCourses;
+    private Integer assignedCourses;
+    private Integer fullyServedStudents;
+    private Long elapsedMillis;
+    private List<AutoEnrollAssignmentDto> assignments;
+}
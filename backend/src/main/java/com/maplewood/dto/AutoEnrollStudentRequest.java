@@ -0,0 +1,21 @@
+package com.maplewood.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class AutoEnrollStudentRequest {
+    @NotNull(message = "Student ID is required")
+    private Integer studentId;
+
+    // Requested courses, most wanted first
+    @NotEmpty(message = "At least one course is required")
+    @Size(max = 15, message = "At most 15 requested courses per student")
+    private List<Integer> courseIds;
+}
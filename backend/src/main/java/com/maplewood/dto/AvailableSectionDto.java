@@ -17,7 +17,9 @@ public class AvailableSectionDto {
     private Long enrolledCount;
     private Integer remainingCapacity;
     private Boolean prerequisitesMet;
+    private Boolean eligible;
     private Boolean hasTimeConflict;
     private String conflictReason;
+    private Integer conflictingSectionId;
 }
 
@@ -0,0 +1,22 @@
+package com.maplewood.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BulkEnrollRequest {
+    @NotNull(message = "Semester ID is required")
+    private Integer semesterId;
+
+    @NotEmpty(message = "At least one row is required")
+    @Size(max = 20000, message = "At most 20000 rows per request")
+    @Valid
+    private List<BulkEnrollRow> rows;
+}
@@ -0,0 +1,17 @@
+package com.maplewood.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BulkEnrollResponse {
+    private Integer semesterId;
+    private Integer totalRows;
+    private Integer enrolledRows;
+    private Integer rejectedRows;
+    private Long elapsedMillis;
+    private List<BulkEnrollRowResult> results;
+}
@@ -0,0 +1,17 @@
+package com.maplewood.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BulkEnrollRowResult {
+    // Position of the row in the request
+    private Integer row;
+    private Integer studentId;
+    private List<Integer> courseSectionIds;
+    private Boolean success;
+    private List<String> errors;
+}
@@ -0,0 +1,16 @@
+package com.maplewood.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class DropResponse {
+    private Boolean success;
+    private String message;
+    private Integer courseSectionId;
+    // Waitlisted students who were enrolled into the freed seat
+    private List<Integer> promotedStudentIds;
+}
@@ -0,0 +1,17 @@
+package com.maplewood.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class EnrollmentMoveDto {
+    private Integer enrollmentId;
+    private Integer studentId;
+    private Integer courseSectionId;
+    private String courseCode;
+    // REASSIGNED (same times, new teacher or room), RESCHEDULED (new times) or DROPPED (section removed)
+    private String change;
+    // The section's new room seats fewer students; this enrollment is beyond its capacity
+    private boolean overCapacity;
+}
@@ -1,6 +1,8 @@
 package com.maplewood.dto;
 
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -9,5 +11,13 @@ import lombok.Setter;
 public class GenerateScheduleRequest {
     @NotNull(message = "Semester ID is required")
     private Integer semesterId;
+
+    // Optional: "greedy" (default), "backtracking" or "portfolio"
+    private String strategy;
+
+    // Optional: wall-clock budget for the local-search improvement phase; 0 or absent skips it
+    @PositiveOrZero(message = "Improvement time must not be negative")
+    @Max(value = 60000, message = "Improvement time must be at most 60000 ms")
+    private Long improveTimeMillis;
 }
 
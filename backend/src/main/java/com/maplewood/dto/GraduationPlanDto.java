@@ -0,0 +1,21 @@
+package com.maplewood.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class GraduationPlanDto {
+    private Integer studentId;
+    // False when the requirements cannot be met with the current course catalog
+    private Boolean feasible;
+    // Totals once every planned semester is passed
+    private Integer plannedCredits;
+    private Integer creditsRequired;
+    private Integer plannedCoreCourses;
+    private Integer coreCoursesRequired;
+    private Integer projectedGraduationYear;
+    private List<PlannedSemesterDto> semesters;
+}
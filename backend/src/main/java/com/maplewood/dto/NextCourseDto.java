@@ -0,0 +1,14 @@
+package com.maplewood.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class NextCourseDto {
+    private CourseDto course;
+    // Courses that require this one, directly or through others
+    private Integer unlocks;
+    // Semesters in the longest prerequisite chain starting here, this course included
+    private Integer chainLength;
+}
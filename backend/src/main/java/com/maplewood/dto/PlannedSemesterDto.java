@@ -0,0 +1,17 @@
+package com.maplewood.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Getter
+@Setter
+public class PlannedSemesterDto {
+    private String name;
+    private Integer year;
+    private Integer gradeLevel;
+    private BigDecimal credits;
+    private List<CourseDto> courses;
+}
@@ -0,0 +1,24 @@
+package com.maplewood.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class ReplanRequest {
+    @NotNull(message = "Semester ID is required")
+    private Integer semesterId;
+
+    // Teachers no longer available this semester; their sections are re-placed
+    private List<Integer> removedTeacherIds = new ArrayList<>();
+
+    // Classrooms no longer available this semester; their sections are re-placed
+    private List<Integer> removedClassroomIds = new ArrayList<>();
+
+    // Courses to add to the published schedule
+    private List<Integer> addedCourseIds = new ArrayList<>();
+}
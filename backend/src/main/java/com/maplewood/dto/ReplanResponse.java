@@ -0,0 +1,22 @@
+package com.maplewood.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class ReplanResponse {
+    private Integer semesterId;
+    private Integer scheduleVersionId;
+    private Integer keptSections;
+    private Integer reassignedSections;
+    private Integer rescheduledSections;
+    private Integer droppedSections;
+    private Integer addedSections;
+    private Integer unplacedSections;
+    private List<EnrollmentMoveDto> movedEnrollments;
+    private Integer overCapacityEnrollments;
+    private String message;
+}
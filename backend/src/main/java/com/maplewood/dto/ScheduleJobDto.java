@@ -0,0 +1,25 @@
+package com.maplewood.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+public class ScheduleJobDto {
+    private String jobId;
+    private Integer semesterId;
+    private String strategy;
+    private String status;
+    private String phase;
+    private Integer sectionsPlaced;
+    private Integer sectionsNeeded;
+    private Long bestScore;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+    // Present once the job has succeeded
+    private ScheduleResponse result;
+}
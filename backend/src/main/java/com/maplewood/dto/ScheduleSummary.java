@@ -10,5 +10,9 @@ public class ScheduleSummary {
     private Integer totalCourses;
     private Integer unassignedCourses;
     private String message;
+    private String strategy;
+    private Integer scheduleVersionId;
+    private Integer enrollmentsCarriedOver;
+    private Integer enrollmentsNeedingReenrollment;
 }
 
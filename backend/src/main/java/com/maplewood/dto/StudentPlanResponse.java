@@ -13,6 +13,8 @@ public class StudentPlanResponse {
     private String semesterName;
     private List<AvailableSectionDto> availableSections;
     private List<EnrolledSectionDto> enrolledSections;
+    // Enrollments left on sections of a replaced schedule version
+    private List<EnrolledSectionDto> needsReenrollment;
     private AcademicProgressDto progress;
 }
 
@@ -0,0 +1,14 @@
+package com.maplewood.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class StudentProgressDto {
+    private Integer studentId;
+    private String firstName;
+    private String lastName;
+    private Integer gradeLevel;
+    private AcademicProgressDto progress;
+}
@@ -0,0 +1,16 @@
+package com.maplewood.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class TimetableOptionDto {
+    private Integer rank;
+    private Integer score;
+    private List<EnrolledSectionDto> sections;
+    // Wished courses that could be placed on their own but are not part of this timetable
+    private List<Integer> omittedCourseIds;
+}
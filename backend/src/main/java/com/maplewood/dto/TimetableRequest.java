@@ -0,0 +1,30 @@
+package com.maplewood.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class TimetableRequest {
+    @NotNull(message = "Semester ID is required")
+    private Integer semesterId;
+
+    @NotEmpty(message = "At least one course is required")
+    @Size(max = 30, message = "At most 30 courses per wish list")
+    @Valid
+    private List<TimetableWish> courses;
+
+    // Number of alternative timetables to return, best first
+    @NotNull(message = "Number of alternatives is required")
+    @Min(value = 1, message = "Alternatives must be between 1 and 10")
+    @Max(value = 10, message = "Alternatives must be between 1 and 10")
+    private Integer alternatives = 3;
+}
@@ -0,0 +1,19 @@
+package com.maplewood.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class TimetableResponse {
+    private Integer studentId;
+    private Integer semesterId;
+    private List<TimetableOptionDto> options;
+    // Why wished courses cannot be taken at all (eligibility, no open section that fits)
+    private List<String> unavailableCourses;
+    private Long searchedNodes;
+    // False when the search stopped at its node limit; options are then the best found so far
+    private Boolean complete;
+}
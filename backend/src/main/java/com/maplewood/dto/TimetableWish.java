@@ -0,0 +1,20 @@
+package com.maplewood.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class TimetableWish {
+    @NotNull(message = "Course ID is required")
+    private Integer courseId;
+
+    // Higher is wanted more; a timetable's score is the sum of its courses' priorities
+    @NotNull(message = "Priority is required")
+    @Min(value = 1, message = "Priority must be between 1 and 100")
+    @Max(value = 100, message = "Priority must be between 1 and 100")
+    private Integer priority = 1;
+}
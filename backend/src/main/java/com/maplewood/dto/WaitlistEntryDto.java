@@ -0,0 +1,18 @@
+package com.maplewood.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+public class WaitlistEntryDto {
+    private Integer courseSectionId;
+    private CourseDto course;
+    private Integer priority;
+    // 1 is next in line
+    private Integer position;
+    private Integer waiting;
+    private LocalDateTime joinedAt;
+}
@@ -0,0 +1,23 @@
+package com.maplewood.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class WaitlistPlacementRequest {
+    @NotNull(message = "Student ID is required")
+    private Integer studentId;
+
+    @NotNull(message = "Course section ID is required")
+    private Integer courseSectionId;
+
+    // Higher priorities are promoted first; equal priorities in the order they joined
+    @NotNull(message = "Priority is required")
+    @Min(value = 0, message = "Priority must be between 0 and 100")
+    @Max(value = 100, message = "Priority must be between 0 and 100")
+    private Integer priority;
+}
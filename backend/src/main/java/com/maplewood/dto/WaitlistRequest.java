@@ -0,0 +1,12 @@
+package com.maplewood.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class WaitlistRequest {
+    @NotNull(message = "Course section ID is required")
+    private Integer courseSectionId;
+}
@@ -30,6 +30,9 @@ public class CourseSection {
     @Column(name = "semester_id", nullable = false)
     private Integer semesterId;
 
+    @Column(name = "schedule_version_id")
+    private Integer scheduleVersionId;
+
     @Column(nullable = false)
     private Integer capacity;
 
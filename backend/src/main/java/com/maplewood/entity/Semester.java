@@ -35,5 +35,9 @@ public class Semester {
 
     @Column(name = "is_active")
     private Boolean isActive;
+
+    // Schedule version students and admins see; swapped atomically on publish
+    @Column(name = "published_schedule_version_id")
+    private Integer publishedScheduleVersionId;
 }
 
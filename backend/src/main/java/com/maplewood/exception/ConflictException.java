@@ -0,0 +1,11 @@
+package com.maplewood.exception;
+
+/**
+ * Request clashes with work already in progress; mapped to 409 Conflict.
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -10,12 +10,19 @@ import java.util.List;
 
 @Repository
 public interface CourseSectionRepository extends JpaRepository<CourseSection, Integer> {
+    // All versions (drafts and retired ones included)
     List<CourseSection> findBySemesterId(Integer semesterId);
+
+    @Query("SELECT cs FROM CourseSection cs WHERE cs.semesterId = :semesterId AND cs.scheduleVersionId = "
+            + "(SELECT s.publishedScheduleVersionId FROM Semester s WHERE s.id = :semesterId)")
+    List<CourseSection> findPublishedBySemesterId(@Param("semesterId") Integer semesterId);
     
-    @Query("SELECT cs FROM CourseSection cs WHERE cs.semesterId = :semesterId AND cs.teacherId = :teacherId")
+    @Query("SELECT cs FROM CourseSection cs WHERE cs.semesterId = :semesterId AND cs.teacherId = :teacherId AND cs.scheduleVersionId = "
+            + "(SELECT s.publishedScheduleVersionId FROM Semester s WHERE s.id = :semesterId)")
     List<CourseSection> findBySemesterIdAndTeacherId(@Param("semesterId") Integer semesterId, @Param("teacherId") Integer teacherId);
     
-    @Query("SELECT cs FROM CourseSection cs WHERE cs.semesterId = :semesterId AND cs.classroomId = :classroomId")
+    @Query("SELECT cs FROM CourseSection cs WHERE cs.semesterId = :semesterId AND cs.classroomId = :classroomId AND cs.scheduleVersionId = "
+            + "(SELECT s.publishedScheduleVersionId FROM Semester s WHERE s.id = :semesterId)")
     List<CourseSection> findBySemesterIdAndClassroomId(@Param("semesterId") Integer semesterId, @Param("classroomId") Integer classroomId);
 }
 
@@ -12,5 +12,9 @@ import java.util.Optional;
 public interface SemesterRepository extends JpaRepository<Semester, Integer> {
     @Query("SELECT s FROM Semester s WHERE s.name = :name AND s.year = :year")
     Optional<Semester> findByNameAndYear(@Param("name") String name, @Param("year") Integer year);
+
+    // Read as a scalar so a Semester cached earlier in the transaction cannot hide a publish
+    @Query("SELECT s.publishedScheduleVersionId FROM Semester s WHERE s.id = :semesterId")
+    Integer findPublishedScheduleVersionId(@Param("semesterId") Integer semesterId);
 }
 
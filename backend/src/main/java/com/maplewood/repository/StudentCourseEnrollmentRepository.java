@@ -6,16 +6,40 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface StudentCourseEnrollmentRepository extends JpaRepository<StudentCourseEnrollment, Integer> {
     List<StudentCourseEnrollment> findByStudentId(Integer studentId);
     
-    @Query("SELECT e FROM StudentCourseEnrollment e WHERE e.studentId = :studentId AND e.courseSection.semesterId = :semesterId")
+    // Enrollments in the semester's published schedule version
+    @Query("SELECT e FROM StudentCourseEnrollment e WHERE e.studentId = :studentId AND e.courseSection.semesterId = :semesterId "
+            + "AND e.courseSection.scheduleVersionId = (SELECT s.publishedScheduleVersionId FROM Semester s WHERE s.id = :semesterId)")
     List<StudentCourseEnrollment> findByStudentIdAndSemesterId(@Param("studentId") Integer studentId, @Param("semesterId") Integer semesterId);
     
+    // Enrollments left on sections of the semester's retired schedule versions
+    @Query("SELECT e FROM StudentCourseEnrollment e WHERE e.studentId = :studentId AND e.courseSection.semesterId = :semesterId "
+            + "AND e.courseSection.scheduleVersionId <> (SELECT s.publishedScheduleVersionId FROM Semester s WHERE s.id = :semesterId)")
+    List<StudentCourseEnrollment> findRetiredByStudentIdAndSemesterId(@Param("studentId") Integer studentId,
+                                                                      @Param("semesterId") Integer semesterId);
+
+    // Rows of [studentId, courseSectionId] for the students' enrollments in the published schedule version
+    @Query("SELECT e.studentId, e.courseSectionId FROM StudentCourseEnrollment e WHERE e.studentId IN :studentIds "
+            + "AND e.courseSection.semesterId = :semesterId AND e.courseSection.scheduleVersionId = "
+            + "(SELECT s.publishedScheduleVersionId FROM Semester s WHERE s.id = :semesterId)")
+    List<Object[]> findSectionIdsByStudentIdInAndSemesterId(@Param("studentIds") Collection<Integer> studentIds,
+                                                            @Param("semesterId") Integer semesterId);
+
+    @Query("SELECT e FROM StudentCourseEnrollment e WHERE e.courseSectionId IN :sectionIds")
+    List<StudentCourseEnrollment> findByCourseSectionIdIn(@Param("sectionIds") List<Integer> sectionIds);
+
     @Query("SELECT COUNT(e) FROM StudentCourseEnrollment e WHERE e.courseSectionId = :courseSectionId")
     Long countByCourseSectionId(@Param("courseSectionId") Integer courseSectionId);
+
+    // Rows of [courseSectionId, count]; sections without enrollments are absent
+    @Query("SELECT e.courseSectionId, COUNT(e) FROM StudentCourseEnrollment e WHERE e.courseSectionId IN :sectionIds "
+            + "GROUP BY e.courseSectionId")
+    List<Object[]> countByCourseSectionIdIn(@Param("sectionIds") List<Integer> sectionIds);
 }
 
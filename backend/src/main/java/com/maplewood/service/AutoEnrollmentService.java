@@ -0,0 +1,311 @@
+package com.maplewood.service;
+
+import com.maplewood.config.EnrollmentProperties;
+import com.maplewood.dto.AutoEnrollAssignmentDto;
+import com.maplewood.dto.AutoEnrollRequest;
+import com.maplewood.dto.AutoEnrollResponse;
+import com.maplewood.dto.AutoEnrollStudentRequest;
+import com.maplewood.entity.Student;
+import com.maplewood.repository.SemesterRepository;
+import com.maplewood.repository.StudentCourseEnrollmentRepository;
+import com.maplewood.repository.StudentRepository;
+import com.maplewood.service.EligibilityIndex.StudentEligibility;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Places a whole semester's course requests into sections at once.
+ * <ol>
+ *   <li>Students are partitioned across a worker pool; each worker turns its students' requests
+ *       into candidate sections (eligibility, fit around current sections, open seats) against the
+ *       shared, immutable catalog. Results are gathered in request order.</li>
+ *   <li>A single deterministic pass hands out seats: the most constrained students (fewest
+ *       candidate sections, then lowest id) go first, and each gets the best conflict-free
+ *       timetable from the sections still open, via {@link TimetableBuilder.Search}.</li>
+ *   <li>Assignments are written through the {@link EnrollmentPipeline} in group commits.</li>
+ * </ol>
+ * The same request against the same data always produces the same assignment.
+ */
+@Service
+@Slf4j
+public class AutoEnrollmentService {
+
+    private final SemesterRepository semesterRepository;
+    private final StudentRepository studentRepository;
+    private final StudentCourseEnrollmentRepository enrollmentRepository;
+    private final SectionCatalogService sectionCatalogService;
+    private final EligibilityIndex eligibilityIndex;
+    private final TimetableBuilder timetableBuilder;
+    private final SeatReservationService seatReservationService;
+    private final EnrollmentPipeline enrollmentPipeline;
+    private final EnrollmentProperties.Auto settings;
+    private final ForkJoinPool pool;
+
+    public AutoEnrollmentService(SemesterRepository semesterRepository, StudentRepository studentRepository,
+                                 StudentCourseEnrollmentRepository enrollmentRepository,
+                                 SectionCatalogService sectionCatalogService, EligibilityIndex eligibilityIndex,
+                                 TimetableBuilder timetableBuilder, SeatReservationService seatReservationService,
+                                 EnrollmentPipeline enrollmentPipeline, EnrollmentProperties enrollmentProperties) {
+        this.semesterRepository = semesterRepository;
+        this.studentRepository = studentRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.sectionCatalogService = sectionCatalogService;
+        this.eligibilityIndex = eligibilityIndex;
+        this.timetableBuilder = timetableBuilder;
+        this.seatReservationService = seatReservationService;
+        this.enrollmentPipeline = enrollmentPipeline;
+        this.settings = enrollmentProperties.getAuto();
+        int parallelism = settings.getParallelism();
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public AutoEnrollResponse autoEnroll(AutoEnrollRequest request) {
+        long started = System.currentTimeMillis();
+        Integer semesterId = request.getSemesterId();
+        semesterRepository.findById(semesterId)
+                .orElseThrow(() -> new IllegalArgumentException("Semester not found: " + semesterId));
+
+        SectionCatalog catalog = sectionCatalogService.get(semesterId);
+        List<AutoEnrollStudentRequest> rows = request.getStudents();
+        Set<Integer> studentIds = rows.stream().map(AutoEnrollStudentRequest::getStudentId).collect(Collectors.toSet());
+        Map<Integer, Student> students = studentRepository.findAllById(studentIds).stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+        Map<Integer, List<Integer>> enrolledByStudent = new HashMap<>();
+        for (Object[] row : enrollmentRepository.findSectionIdsByStudentIdInAndSemesterId(studentIds, semesterId)) {
+            enrolledByStudent.computeIfAbsent((Integer) row[0], id -> new ArrayList<>()).add((Integer) row[1]);
+        }
+        Map<Integer, Integer> taken = seatReservationService.taken(catalog.sectionIds());
+        Map<Integer, List<SectionCatalog.Entry>> sectionsByCourse = catalog.getSections().stream()
+                .collect(Collectors.groupingBy(SectionCatalog.Entry::getCourseId));
+        Snapshot snapshot = new Snapshot(catalog, students, enrolledByStudent, taken, sectionsByCourse);
+
+        List<Demand> demands = prepare(rows, snapshot);
+        Map<Integer, Integer> remaining = new HashMap<>();
+        catalog.getSections().forEach(entry -> remaining.put(entry.getSectionId(),
+                entry.getCapacity() - taken.getOrDefault(entry.getSectionId(), 0)));
+        assign(demands, remaining);
+        long assigned = System.currentTimeMillis();
+
+        if (!request.isDryRun()) {
+            write(demands);
+        }
+
+        AutoEnrollResponse response = new AutoEnrollResponse();
+        response.setSemesterId(semesterId);
+        response.setDryRun(request.isDryRun());
+        response.setStudents(demands.size());
+        response.setRequestedCourses(demands.stream().mapToInt(demand -> demand.getRequestedCourseIds().size()).sum());
+        response.setAssignedCourses(demands.stream().mapToInt(demand -> demand.getAssigned().size()).sum());
+        response.setFullyServedStudents((int) demands.stream()
+                .filter(demand -> demand.getAssigned().size() == demand.getRequestedCourseIds().size())
+                .count());
+        response.setAssignments(demands.stream().map(this::toAssignmentDto).toList());
+        response.setElapsedMillis(System.currentTimeMillis() - started);
+        log.info("Auto-enrollment for semester {}: {} of {} requested courses assigned to {} students "
+                        + "(assignment {} ms, total {} ms, dry run {})", semesterId, response.getAssignedCourses(),
+                response.getRequestedCourses(), response.getStudents(), assigned - started,
+                response.getElapsedMillis(), request.isDryRun());
+        return response;
+    }
+
+    /**
+     * Builds every student's candidates on the worker pool, one partition per task,
+     * and returns them in request order.
+     */
+    private List<Demand> prepare(List<AutoEnrollStudentRequest> rows, Snapshot snapshot) {
+        int partitionSize = Math.max(1, settings.getPartitionSize());
+        List<Callable<List<Demand>>> tasks = new ArrayList<>();
+        for (int from = 0; from < rows.size(); from += partitionSize) {
+            int start = from;
+            int end = Math.min(rows.size(), from + partitionSize);
+            tasks.add(() -> {
+                List<Demand> partition = new ArrayList<>(end - start);
+                for (int index = start; index < end; index++) {
+                    partition.add(demandOf(index, rows.get(index), snapshot));
+                }
+                return partition;
+            });
+        }
+        List<Demand> demands = new ArrayList<>(rows.size());
+        for (Future<List<Demand>> future : pool.invokeAll(tasks)) {
+            demands.addAll(await(future));
+        }
+
+        // A student listed twice keeps only the first row
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; i < demands.size(); i++) {
+            Demand demand = demands.get(i);
+            if (!seen.add(demand.getStudentId())) {
+                demands.set(i, Demand.rejected(demand.getIndex(), demand.getStudentId(), demand.getRequestedCourseIds(),
+                        "Student is listed more than once; only the first row is used"));
+            }
+        }
+        return demands;
+    }
+
+    private Demand demandOf(int index, AutoEnrollStudentRequest row, Snapshot snapshot) {
+        List<Integer> requested = row.getCourseIds().stream().distinct().toList();
+        Student student = snapshot.students.get(row.getStudentId());
+        if (student == null) {
+            return Demand.rejected(index, row.getStudentId(), requested, "Student not found: " + row.getStudentId());
+        }
+
+        List<Integer> enrolledSectionIds = snapshot.enrolledByStudent.getOrDefault(student.getId(), List.of());
+        WeekMask enrolledMask = snapshot.catalog.weekMaskOf(enrolledSectionIds);
+        Set<Integer> enrolledCourseIds = enrolledSectionIds.stream()
+                .map(snapshot.catalog::get)
+                .flatMap(Optional::stream)
+                .map(SectionCatalog.Entry::getCourseId)
+                .collect(Collectors.toSet());
+        // Earlier requests weigh more: the first of n courses has priority n
+        Map<Integer, Integer> priorityByCourse = new LinkedHashMap<>();
+        for (int i = 0; i < requested.size(); i++) {
+            priorityByCourse.put(requested.get(i), requested.size() - i);
+        }
+        StudentEligibility eligibility = eligibilityIndex.forStudent(student.getId(), student.getGradeLevel());
+        TimetableBuilder.WishList wishList = timetableBuilder.wishList(student, eligibility, priorityByCourse,
+                snapshot.sectionsByCourse, snapshot.taken, enrolledMask, enrolledCourseIds);
+        int slots = Math.max(0, EnrollmentValidator.MAX_COURSES_PER_SEMESTER - enrolledSectionIds.size());
+        return new Demand(index, student.getId(), requested, enrolledMask, slots, wishList.getCandidates(),
+                new ArrayList<>(wishList.getUnavailable()));
+    }
+
+    /**
+     * Hands out seats, most constrained students first, to the best timetable each can still get.
+     * Decrements {@code remaining} for every seat given.
+     */
+    static void assign(List<Demand> demands, Map<Integer, Integer> remaining) {
+        List<Demand> order = demands.stream()
+                .filter(demand -> !demand.getCandidates().isEmpty() && demand.getSlots() > 0)
+                .sorted(Comparator.comparingInt(Demand::flexibility)
+                        .thenComparing(Demand::getStudentId)
+                        .thenComparingInt(Demand::getIndex))
+                .toList();
+        for (Demand demand : order) {
+            List<TimetableBuilder.Candidate> open = new ArrayList<>();
+            for (TimetableBuilder.Candidate candidate : demand.getCandidates()) {
+                List<SectionCatalog.Entry> sections = candidate.getSections().stream()
+                        .filter(entry -> remaining.getOrDefault(entry.getSectionId(), 0) > 0)
+                        .toList();
+                if (!sections.isEmpty()) {
+                    open.add(new TimetableBuilder.Candidate(candidate.getCourseId(), candidate.getPriority(), sections));
+                }
+            }
+            List<TimetableBuilder.Timetable> best = new TimetableBuilder.Search(open, demand.getSlots(), 1,
+                    TimetableBuilder.MAX_NODES).run(demand.getFixed());
+            if (!best.isEmpty()) {
+                demand.assigned = best.get(0).getSections();
+                demand.assigned.forEach(entry -> remaining.merge(entry.getSectionId(), -1, Integer::sum));
+            }
+        }
+    }
+
+    private void write(List<Demand> demands) {
+        Map<Demand, CompletableFuture<EnrollmentPipeline.WriteResult>> writes = new LinkedHashMap<>();
+        for (Demand demand : demands) {
+            if (demand.getAssigned().isEmpty()) {
+                continue;
+            }
+            Map<Integer, Integer> capacities = new LinkedHashMap<>();
+            demand.getAssigned().forEach(entry -> capacities.put(entry.getSectionId(), entry.getCapacity()));
+            // Seats can still be taken by live enrollments made since the snapshot
+            List<Integer> full = seatReservationService.reserveAll(capacities);
+            if (!full.isEmpty()) {
+                full.forEach(sectionId -> demand.reject(EnrollmentValidator.fullMessage(sectionId)));
+                continue;
+            }
+            try {
+                writes.put(demand, enrollmentPipeline.submitWaiting(demand.getStudentId(),
+                        List.copyOf(capacities.keySet()), EnrollmentValidator.MAX_COURSES_PER_SEMESTER));
+            } catch (RuntimeException e) {
+                demand.reject("Enrollment could not be written: " + e.getMessage());
+            }
+        }
+        writes.forEach((demand, write) -> {
+            try {
+                EnrollmentPipeline.WriteResult written = write.join();
+                if (!written.isCommitted()) {
+                    demand.reject(EnrollmentValidator.refusedMessage(written.getRejectedSectionId()));
+                }
+            } catch (CompletionException e) {
+                demand.reject("Enrollment could not be written: " + e.getCause().getMessage());
+            }
+        });
+    }
+
+    private AutoEnrollAssignmentDto toAssignmentDto(Demand demand) {
+        List<Integer> assignedCourseIds = demand.getAssigned().stream().map(SectionCatalog.Entry::getCourseId).toList();
+        AutoEnrollAssignmentDto dto = new AutoEnrollAssignmentDto();
+        dto.setStudentId(demand.getStudentId());
+        dto.setCourseSectionIds(demand.getAssigned().stream().map(SectionCatalog.Entry::getSectionId).toList());
+        dto.setAssignedCourseIds(assignedCourseIds);
+        dto.setUnassignedCourseIds(demand.getRequestedCourseIds().stream()
+                .filter(courseId -> !assignedCourseIds.contains(courseId))
+                .toList());
+        dto.setErrors(demand.getErrors());
+        return dto;
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while preparing auto-enrollment", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Auto-enrollment preparation failed", e.getCause());
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class Snapshot {
+        private final SectionCatalog catalog;
+        private final Map<Integer, Student> students;
+        private final Map<Integer, List<Integer>> enrolledByStudent;
+        private final Map<Integer, Integer> taken;
+        private final Map<Integer, List<SectionCatalog.Entry>> sectionsByCourse;
+    }
+
+    /**
+     * One student's request and, after {@link #assign}, the sections they were given.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    static final class Demand {
+        private final int index;
+        private final Integer studentId;
+        private final List<Integer> requestedCourseIds;
+        private final WeekMask fixed;
+        private final int slots;
+        private final List<TimetableBuilder.Candidate> candidates;
+        private final List<String> errors;
+        private List<SectionCatalog.Entry> assigned = List.of();
+
+        static Demand rejected(int index, Integer studentId, List<Integer> requestedCourseIds, String error) {
+            return new Demand(index, studentId, requestedCourseIds, WeekMask.EMPTY, 0, List.of(),
+                    new ArrayList<>(List.of(error)));
+        }
+
+        int flexibility() {
+            return candidates.stream().mapToInt(candidate -> candidate.getSections().size()).sum();
+        }
+
+        void reject(String error) {
+            errors.add(error);
+            assigned = List.of();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.maplewood.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bitset model of teacher and room availability for one generation run.
+ * Every resource owns one {@code long} per school day; bit {@code i} marks the i-th period
+ * after the school day starts as occupied, so conflict checks and daily load counts are
+ * single AND / bitCount operations instead of list scans.
+ */
+public class AvailabilityGrid {
+
+    public static final String[] DAYS = {"MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY"};
+
+    private final int slotMinutes;
+    private final int dayStartMinute;
+    private final int slotsPerDay;
+    private final long blockedMask;
+
+    private final Map<Integer, long[]> teacherMasks;
+    private final Map<Integer, long[]> roomMasks;
+
+    /**
+     * Creates an empty grid covering {@code [startHour, endHour)} with the given period length.
+     * Periods overlapping {@code [blockedStartHour, blockedEndHour)} (lunch) can never be occupied.
+     */
+    public AvailabilityGrid(int slotMinutes, int startHour, int endHour, int blockedStartHour, int blockedEndHour) {
+        if (slotMinutes <= 0 || 60 % slotMinutes != 0) {
+            throw new IllegalArgumentException("Slot length must divide an hour evenly: " + slotMinutes);
+        }
+        int slots = (endHour - startHour) * 60 / slotMinutes;
+        if (slots <= 0 || slots > Long.SIZE) {
+            throw new IllegalArgumentException(String.format(
+                    "School day of %d hours does not fit %d-minute slots in a 64-bit day mask",
+                    endHour - startHour, slotMinutes));
+        }
+        this.slotMinutes = slotMinutes;
+        this.dayStartMinute = startHour * 60;
+        this.slotsPerDay = slots;
+        this.blockedMask = blockedStartHour < blockedEndHour
+                ? window(toSlot(blockedStartHour * 60), (blockedEndHour - blockedStartHour) * 60 / slotMinutes)
+                : 0L;
+        this.teacherMasks = new HashMap<>();
+        this.roomMasks = new HashMap<>();
+    }
+
+    private AvailabilityGrid(AvailabilityGrid source) {
+        this.slotMinutes = source.slotMinutes;
+        this.dayStartMinute = source.dayStartMinute;
+        this.slotsPerDay = source.slotsPerDay;
+        this.blockedMask = source.blockedMask;
+        this.teacherMasks = deepCopy(source.teacherMasks);
+        this.roomMasks = deepCopy(source.roomMasks);
+    }
+
+    /**
+     * Returns an independent copy so callers can explore alternatives without touching this grid.
+     */
+    public AvailabilityGrid copy() {
+        return new AvailabilityGrid(this);
+    }
+
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    public int getSlotsPerDay() {
+        return slotsPerDay;
+    }
+
+    public int slotsPerHour() {
+        return 60 / slotMinutes;
+    }
+
+    /**
+     * Mask of {@code length} consecutive periods starting at {@code startSlot}.
+     */
+    public long window(int startSlot, int length) {
+        if (length <= 0) return 0L;
+        long bits = length >= Long.SIZE ? -1L : (1L << length) - 1;
+        return bits << startSlot;
+    }
+
+    /**
+     * True if the window lies inside the school day and does not touch a blocked period.
+     */
+    public boolean isBookable(int startSlot, int length) {
+        return startSlot >= 0 && startSlot + length <= slotsPerDay
+                && (window(startSlot, length) & blockedMask) == 0;
+    }
+
+    public boolean isFree(Integer teacherId, Integer roomId, int day, long mask) {
+        return (teacherMask(teacherId, day) & mask) == 0 && (roomMask(roomId, day) & mask) == 0;
+    }
+
+    public long teacherMask(Integer teacherId, int day) {
+        long[] masks = teacherMasks.get(teacherId);
+        return masks == null ? 0L : masks[day];
+    }
+
+    public long roomMask(Integer roomId, int day) {
+        long[] masks = roomMasks.get(roomId);
+        return masks == null ? 0L : masks[day];
+    }
+
+    /**
+     * Number of occupied periods for a teacher on a day.
+     */
+    public int teacherSlotsOnDay(Integer teacherId, int day) {
+        return Long.bitCount(teacherMask(teacherId, day));
+    }
+
+    public void occupy(Integer teacherId, Integer roomId, int day, long mask) {
+        teacherMasks.computeIfAbsent(teacherId, k -> new long[DAYS.length])[day] |= mask;
+        roomMasks.computeIfAbsent(roomId, k -> new long[DAYS.length])[day] |= mask;
+    }
+
+    public void release(Integer teacherId, Integer roomId, int day, long mask) {
+        long[] teacher = teacherMasks.get(teacherId);
+        if (teacher != null) teacher[day] &= ~mask;
+        long[] room = roomMasks.get(roomId);
+        if (room != null) room[day] &= ~mask;
+    }
+
+    /**
+     * Converts a period index to "HH:mm".
+     */
+    public String formatSlot(int slot) {
+        int minute = dayStartMinute + slot * slotMinutes;
+        return String.format("%02d:%02d", minute / 60, minute % 60);
+    }
+
+    /**
+     * Converts "HH:mm" to a period index (the inverse of formatSlot).
+     */
+    public int parseSlot(String time) {
+        String[] parts = time.split(":");
+        return toSlot(Integer.parseInt(parts[0]) * 60 + Integer.parseInt(parts[1]));
+    }
+
+    private int toSlot(int minuteOfDay) {
+        return (minuteOfDay - dayStartMinute) / slotMinutes;
+    }
+
+    private static Map<Integer, long[]> deepCopy(Map<Integer, long[]> source) {
+        Map<Integer, long[]> copy = new HashMap<>(source.size() * 2);
+        source.forEach((id, masks) -> copy.put(id, masks.clone()));
+        return copy;
+    }
+}
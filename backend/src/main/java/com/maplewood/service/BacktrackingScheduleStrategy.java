@@ -0,0 +1,374 @@
+package com.maplewood.service;
+
+import com.maplewood.config.SchedulingProperties;
+import com.maplewood.entity.Classroom;
+import com.maplewood.entity.Course;
+import com.maplewood.entity.Teacher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Branch-and-bound constraint solver for the master schedule.
+ * Variables are the sections still to place per course; values are (teacher, room, first day)
+ * choices whose slot pattern is found in the availability grid. Uses most-constrained-first
+ * variable ordering, forward checking of the teacher/room/day domains of courses that share
+ * a teacher or room pool, symmetry breaking between identically booked resources, and a
+ * node/time budget after which the best schedule found so far is returned.
+ * <p>
+ * Objective (lexicographic): most courses with at least one section, then most sections placed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BacktrackingScheduleStrategy implements ScheduleStrategy {
+
+    public static final String NAME = "backtracking";
+
+    /** Domain sizes are only needed to rank variables, so counting stops here. */
+    private static final int DOMAIN_COUNT_CAP = 16;
+
+    private final ScheduleGenerator scheduleGenerator;
+    private final SchedulingProperties schedulingProperties;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public ScheduleResult solve(ScheduleProblem problem) {
+        SchedulingProperties.Backtracking budget = schedulingProperties.getBacktracking();
+        Search search = new Search(problem, budget.getMaxNodes(), budget.getTimeLimitMillis());
+        search.run();
+        log.info("Backtracking search expanded {} nodes ({}), placed {} of {} sections",
+                search.nodes, search.exhausted ? "budget exhausted" : "search complete",
+                search.best.size(), problem.totalSectionsNeeded());
+        return search.toResult();
+    }
+
+    private final class Search {
+        private final ScheduleProblem problem;
+        private final List<Course> courses;
+        private final List<List<Teacher>> teachers = new ArrayList<>();
+        private final List<List<Classroom>> rooms = new ArrayList<>();
+        private final int[] remaining;
+        private final int[] placed;
+        private final int[] domainSize;
+        private final int[][] neighbours;
+        private final AvailabilityGrid grid;
+        private final long maxNodes;
+        private final long deadline;
+
+        private final List<PlannedSection> assignment = new ArrayList<>();
+        private List<PlannedSection> best = List.of();
+        private int bestCovered = -1;
+        private int bestPlaced = -1;
+        private int covered;
+        private long nodes;
+        private boolean exhausted;
+
+        Search(ScheduleProblem problem, long maxNodes, long timeLimitMillis) {
+            this.problem = problem;
+            this.courses = problem.getCourses();
+            this.grid = problem.newGrid();
+            this.maxNodes = maxNodes;
+            this.deadline = System.nanoTime() + timeLimitMillis * 1_000_000L;
+
+            int n = courses.size();
+            remaining = new int[n];
+            placed = new int[n];
+            domainSize = new int[n];
+            for (int i = 0; i < n; i++) {
+                Course course = courses.get(i);
+                teachers.add(problem.getContext().teachersFor(course.getSpecializationId()));
+                rooms.add(problem.getContext().roomsFor(course.getSpecializationId()));
+                remaining[i] = problem.sectionsNeeded(course);
+            }
+            neighbours = buildNeighbours();
+            for (int i = 0; i < n; i++) {
+                domainSize[i] = countDomain(i);
+            }
+        }
+
+        /**
+         * Courses compete only through a shared teacher pool (same specialization)
+         * or a shared room pool (same room type).
+         */
+        private int[][] buildNeighbours() {
+            SchedulingContext context = problem.getContext();
+            int n = courses.size();
+            int[][] result = new int[n][];
+            for (int i = 0; i < n; i++) {
+                Integer specialization = courses.get(i).getSpecializationId();
+                Integer roomType = context.roomTypeFor(specialization);
+                List<Integer> related = new ArrayList<>();
+                for (int j = 0; j < n; j++) {
+                    Integer otherSpecialization = courses.get(j).getSpecializationId();
+                    if (otherSpecialization.equals(specialization)
+                            || context.roomTypeFor(otherSpecialization).equals(roomType)) {
+                        related.add(j);
+                    }
+                }
+                result[i] = related.stream().mapToInt(Integer::intValue).toArray();
+            }
+            return result;
+        }
+
+        void run() {
+            search();
+        }
+
+        private void search() {
+            if (exhausted) return;
+            nodes++;
+            if (nodes > maxNodes || ((nodes & 0xFF) == 0 && System.nanoTime() > deadline)) {
+                exhausted = true;
+                return;
+            }
+            if ((nodes & 0xFFF) == 0) {
+                problem.checkCancelled();
+            }
+
+            recordIfBetter();
+            if (bestPlaced == problem.totalSectionsNeeded()) {
+                return; // Everything placed; nothing left to improve
+            }
+
+            int variable = selectVariable();
+            if (variable < 0 || !canImprove()) {
+                return;
+            }
+
+            for (Candidate candidate : candidates(variable)) {
+                place(variable, candidate);
+                int[] saved = forwardCheck(variable);
+                search();
+                restore(variable, saved);
+                unplace(variable, candidate);
+                if (exhausted) return;
+            }
+
+            // Last alternative: leave one section of this course unplaced
+            remaining[variable]--;
+            search();
+            remaining[variable]++;
+        }
+
+        /**
+         * Courses without any section come first (they decide the primary objective), then the
+         * smallest live domain, then course priority.
+         */
+        private int selectVariable() {
+            int selected = -1;
+            for (int i = 0; i < courses.size(); i++) {
+                if (remaining[i] == 0 || domainSize[i] == 0) continue;
+                boolean better;
+                if (selected < 0) {
+                    better = true;
+                } else if ((placed[i] == 0) != (placed[selected] == 0)) {
+                    better = placed[i] == 0;
+                } else {
+                    better = domainSize[i] < domainSize[selected];
+                }
+                if (better) selected = i;
+            }
+            return selected;
+        }
+
+        /**
+         * Optimistic bound: every course with a non-empty domain gets all of its remaining sections.
+         */
+        private boolean canImprove() {
+            int coveredBound = covered;
+            int placedBound = assignment.size();
+            for (int i = 0; i < courses.size(); i++) {
+                if (remaining[i] == 0 || domainSize[i] == 0) continue;
+                if (placed[i] == 0) coveredBound++;
+                placedBound += remaining[i];
+            }
+            return coveredBound > bestCovered || coveredBound == bestCovered && placedBound > bestPlaced;
+        }
+
+        private void recordIfBetter() {
+            if (covered > bestCovered || covered == bestCovered && assignment.size() > bestPlaced) {
+                bestCovered = covered;
+                bestPlaced = assignment.size();
+                best = new ArrayList<>(assignment);
+                problem.report(best);
+            }
+        }
+
+        /**
+         * Feasible (teacher, room, first day) values, least-loaded resources first.
+         * Resources booked identically are interchangeable, so only one of each kind is tried.
+         */
+        private List<Candidate> candidates(int variable) {
+            Course course = courses.get(variable);
+            List<Candidate> result = new ArrayList<>();
+            Set<Signature> seenPairs = new HashSet<>();
+            for (Teacher teacher : teachers.get(variable)) {
+                for (Classroom room : rooms.get(variable)) {
+                    if (!seenPairs.add(new Signature(teacher.getId(), room, grid))) continue;
+                    Set<String> seenPatterns = new HashSet<>();
+                    for (int firstDay = 0; firstDay < AvailabilityGrid.DAYS.length; firstDay++) {
+                        List<ScheduleGenerator.TimeSlot> slots = scheduleGenerator.findAvailableTimeSlots(
+                                course.getHoursPerWeek(), teacher.getId(), room.getId(), firstDay, grid);
+                        if (slots == null) break; // Feasibility does not depend on the starting day
+                        if (seenPatterns.add(patternKey(slots))) {
+                            result.add(new Candidate(teacher.getId(), room, slots,
+                                    teacherLoad(teacher.getId()), roomLoad(room.getId()), firstDay));
+                        }
+                    }
+                }
+            }
+            result.sort(Comparator.comparingInt((Candidate c) -> c.teacherLoad)
+                    .thenComparingInt(c -> c.roomLoad)
+                    .thenComparingInt(c -> c.firstDay));
+            return result;
+        }
+
+        private int countDomain(int variable) {
+            int count = 0;
+            int hours = courses.get(variable).getHoursPerWeek();
+            for (Teacher teacher : teachers.get(variable)) {
+                for (Classroom room : rooms.get(variable)) {
+                    if (scheduleGenerator.findAvailableTimeSlots(hours, teacher.getId(), room.getId(), grid) != null
+                            && ++count >= DOMAIN_COUNT_CAP) {
+                        return count;
+                    }
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Re-evaluates the domains of every course sharing a pool with the one just placed.
+         * Returns the previous sizes so the caller can restore them on backtrack.
+         */
+        private int[] forwardCheck(int variable) {
+            int[] related = neighbours[variable];
+            int[] saved = new int[related.length];
+            for (int k = 0; k < related.length; k++) {
+                int course = related[k];
+                saved[k] = domainSize[course];
+                if (remaining[course] > 0) {
+                    domainSize[course] = countDomain(course);
+                }
+            }
+            return saved;
+        }
+
+        private void restore(int variable, int[] saved) {
+            int[] related = neighbours[variable];
+            for (int k = 0; k < related.length; k++) {
+                domainSize[related[k]] = saved[k];
+            }
+        }
+
+        private void place(int variable, Candidate candidate) {
+            scheduleGenerator.updateAvailability(candidate.teacherId, candidate.room.getId(), candidate.slots, grid);
+            if (placed[variable]++ == 0) covered++;
+            remaining[variable]--;
+            assignment.add(new PlannedSection(courses.get(variable), candidate.teacherId, candidate.room.getId(),
+                    candidate.room.getCapacity(), candidate.slots));
+        }
+
+        private void unplace(int variable, Candidate candidate) {
+            assignment.remove(assignment.size() - 1);
+            remaining[variable]++;
+            if (--placed[variable] == 0) covered--;
+            scheduleGenerator.releaseAvailability(candidate.teacherId, candidate.room.getId(), candidate.slots, grid);
+        }
+
+        private int teacherLoad(Integer teacherId) {
+            int load = 0;
+            for (int day = 0; day < AvailabilityGrid.DAYS.length; day++) {
+                load += grid.teacherSlotsOnDay(teacherId, day);
+            }
+            return load;
+        }
+
+        private int roomLoad(Integer roomId) {
+            int load = 0;
+            for (int day = 0; day < AvailabilityGrid.DAYS.length; day++) {
+                load += Long.bitCount(grid.roomMask(roomId, day));
+            }
+            return load;
+        }
+
+        ScheduleResult toResult() {
+            Map<Integer, Integer> placedByCourse = new HashMap<>();
+            for (PlannedSection section : best) {
+                placedByCourse.merge(section.getCourse().getId(), 1, Integer::sum);
+            }
+            List<Course> unassigned = new ArrayList<>();
+            for (Course course : courses) {
+                if (problem.sectionsNeeded(course) > 0 && !placedByCourse.containsKey(course.getId())) {
+                    unassigned.add(course);
+                }
+            }
+            return new ScheduleResult(NAME, List.copyOf(best), unassigned,
+                    problem.totalSectionsNeeded() - best.size());
+        }
+
+        private String patternKey(List<ScheduleGenerator.TimeSlot> slots) {
+            StringBuilder key = new StringBuilder();
+            for (ScheduleGenerator.TimeSlot slot : slots) {
+                key.append(slot.dayIndex).append(':').append(slot.mask).append(';');
+            }
+            return key.toString();
+        }
+    }
+
+    private static final class Candidate {
+        final Integer teacherId;
+        final Classroom room;
+        final List<ScheduleGenerator.TimeSlot> slots;
+        final int teacherLoad;
+        final int roomLoad;
+        final int firstDay;
+
+        Candidate(Integer teacherId, Classroom room, List<ScheduleGenerator.TimeSlot> slots,
+                  int teacherLoad, int roomLoad, int firstDay) {
+            this.teacherId = teacherId;
+            this.room = room;
+            this.slots = slots;
+            this.teacherLoad = teacherLoad;
+            this.roomLoad = roomLoad;
+            this.firstDay = firstDay;
+        }
+    }
+
+    /**
+     * Identifies a teacher/room pair by its current bookings: two pairs with the same signature
+     * yield the same slot patterns, so exploring both is redundant.
+     */
+    private static final class Signature {
+        private final long[] masks;
+        private final int capacity;
+
+        Signature(Integer teacherId, Classroom room, AvailabilityGrid grid) {
+            int days = AvailabilityGrid.DAYS.length;
+            masks = new long[days * 2];
+            for (int day = 0; day < days; day++) {
+                masks[day] = grid.teacherMask(teacherId, day);
+                masks[days + day] = grid.roomMask(room.getId(), day);
+            }
+            capacity = room.getCapacity();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Signature other)) return false;
+            return capacity == other.capacity && Arrays.equals(masks, other.masks);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(masks) + capacity;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.maplewood.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.maplewood.dto.StudentProgressDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Academic progress for every student at once, for registrar reports.
+ * Students and {@code student_course_history} are each read in one scan ordered by student id
+ * into primitive arrays, so every student's rows are a contiguous range. Partitions of students
+ * are tallied in parallel against {@link ProgressCalculator}'s course table, projected with a
+ * {@link CourseGraph} graduation plan, and written as newline-delimited JSON in student order,
+ * each partition as soon as it is done.
+ */
+@Service
+@Slf4j
+public class BatchProgressService {
+
+    static final int PARTITION_SIZE = 500;
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProgressCalculator progressCalculator;
+    private final CourseGraph courseGraph;
+    private final ObjectWriter writer;
+    private final ForkJoinPool pool;
+
+    public BatchProgressService(JdbcTemplate jdbcTemplate, ProgressCalculator progressCalculator,
+                                CourseGraph courseGraph, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.progressCalculator = progressCalculator;
+        this.courseGraph = courseGraph;
+        this.writer = objectMapper.writerFor(StudentProgressDto.class);
+        this.pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Writes one JSON line per student, ordered by student id.
+     */
+    public void writeAll(OutputStream out) throws IOException {
+        long started = System.currentTimeMillis();
+        ProgressCalculator.CourseTable courses = progressCalculator.courseTable();
+        CourseGraph.Snapshot graph = courseGraph.snapshot();
+        CourseGraph.Term start = courseGraph.currentTerm();
+        Snapshot snapshot = load();
+
+        List<Future<List<StudentProgressDto>>> partitions = new ArrayList<>();
+        for (int from = 0; from < snapshot.students; from += PARTITION_SIZE) {
+            int first = from;
+            int last = Math.min(snapshot.students, from + PARTITION_SIZE);
+            partitions.add(pool.submit(() -> compute(snapshot, courses, graph, start, first, last)));
+        }
+        try {
+            for (Future<List<StudentProgressDto>> partition : partitions) {
+                for (StudentProgressDto progress : await(partition)) {
+                    out.write(writer.writeValueAsBytes(progress));
+                    out.write('\n');
+                }
+                out.flush();
+            }
+        } finally {
+            partitions.forEach(partition -> partition.cancel(true));
+        }
+        log.info("Computed progress of {} students from {} history rows in {} ms", snapshot.students,
+                snapshot.rows, System.currentTimeMillis() - started);
+    }
+
+    private List<StudentProgressDto> compute(Snapshot snapshot, ProgressCalculator.CourseTable courses,
+                                             CourseGraph.Snapshot graph, CourseGraph.Term term, int first, int last) {
+        List<StudentProgressDto> result = new ArrayList<>(last - first);
+        ProgressCalculator.Tally tally = new ProgressCalculator.Tally(courses);
+        for (int student = first; student < last; student++) {
+            tally.clear();
+            for (int row = snapshot.firstRow[student]; row < snapshot.firstRow[student + 1]; row++) {
+                tally.add(snapshot.courseIds[row], snapshot.passed[row]);
+            }
+            StudentProgressDto dto = new StudentProgressDto();
+            dto.setStudentId(snapshot.studentIds[student]);
+            dto.setFirstName(snapshot.firstNames[student]);
+            dto.setLastName(snapshot.lastNames[student]);
+            dto.setGradeLevel(snapshot.gradeLevels[student]);
+            int enrollmentYear = snapshot.enrollmentYears[student];
+            CourseGraph.Plan plan = progressCalculator.planGraduation(graph, tally.passedCourseIds(), enrollmentYear, term);
+            dto.setProgress(progressCalculator.calculateProgress(enrollmentYear, tally, plan));
+            result.add(dto);
+        }
+        return result;
+    }
+
+    private Snapshot load() {
+        Snapshot snapshot = new Snapshot();
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(
+                    "SELECT id, first_name, last_name, grade_level, enrollment_year FROM students ORDER BY id");
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, rs -> {
+            int gradeLevel = rs.getInt(4);
+            snapshot.addStudent(rs.getInt(1), rs.getString(2), rs.getString(3),
+                    rs.wasNull() ? null : gradeLevel, rs.getInt(5));
+        });
+
+        // Walks both id-ordered scans together; rows of students missing from the table are skipped
+        int[] student = {0};
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(
+                    "SELECT student_id, course_id, status FROM student_course_history ORDER BY student_id");
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, rs -> {
+            int studentId = rs.getInt(1);
+            while (student[0] < snapshot.students && snapshot.studentIds[student[0]] < studentId) {
+                snapshot.firstRow[++student[0]] = snapshot.rows;
+            }
+            if (student[0] < snapshot.students && snapshot.studentIds[student[0]] == studentId) {
+                snapshot.addRow(rs.getInt(2), "passed".equals(rs.getString(3)));
+            }
+        });
+        while (student[0] < snapshot.students) {
+            snapshot.firstRow[++student[0]] = snapshot.rows;
+        }
+        return snapshot;
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while computing progress", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Computing progress failed", e.getCause());
+        }
+    }
+
+    /**
+     * Students in id order and their history rows, grouped by student:
+     * the rows of student i are {@code firstRow[i]} until {@code firstRow[i + 1]}.
+     */
+    private static final class Snapshot {
+        private int students;
+        private int[] studentIds = new int[256];
+        private String[] firstNames = new String[256];
+        private String[] lastNames = new String[256];
+        private Integer[] gradeLevels = new Integer[256];
+        private int[] enrollmentYears = new int[256];
+        private int[] firstRow = new int[257];
+
+        private int rows;
+        private int[] courseIds = new int[1024];
+        private boolean[] passed = new boolean[1024];
+
+        private void addStudent(int id, String firstName, String lastName, Integer gradeLevel, int enrollmentYear) {
+            if (students == studentIds.length) {
+                int capacity = students * 2;
+                studentIds = Arrays.copyOf(studentIds, capacity);
+                firstNames = Arrays.copyOf(firstNames, capacity);
+                lastNames = Arrays.copyOf(lastNames, capacity);
+                gradeLevels = Arrays.copyOf(gradeLevels, capacity);
+                enrollmentYears = Arrays.copyOf(enrollmentYears, capacity);
+                firstRow = Arrays.copyOf(firstRow, capacity + 1);
+            }
+            studentIds[students] = id;
+            firstNames[students] = firstName;
+            lastNames[students] = lastName;
+            gradeLevels[students] = gradeLevel;
+            enrollmentYears[students] = enrollmentYear;
+            students++;
+        }
+
+        private void addRow(int courseId, boolean passedAttempt) {
+            if (rows == courseIds.length) {
+                courseIds = Arrays.copyOf(courseIds, rows * 2);
+                passed = Arrays.copyOf(passed, rows * 2);
+            }
+            courseIds[rows] = courseId;
+            passed[rows] = passedAttempt;
+            rows++;
+        }
+    }
+}
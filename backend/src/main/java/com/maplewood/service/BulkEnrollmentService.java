@@ -0,0 +1,140 @@
+package com.maplewood.service;
+
+import com.maplewood.dto.BulkEnrollRequest;
+import com.maplewood.dto.BulkEnrollResponse;
+import com.maplewood.dto.BulkEnrollRow;
+import com.maplewood.dto.BulkEnrollRowResult;
+import com.maplewood.entity.Student;
+import com.maplewood.repository.SemesterRepository;
+import com.maplewood.repository.StudentCourseEnrollmentRepository;
+import com.maplewood.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Enrolls many students in one request, e.g. when importing a semester's registrations.
+ * Students, their current sections and the seat counters are loaded once for the whole request,
+ * rows are validated in order against that snapshot (so later rows see the seats and sections
+ * taken by earlier ones), and accepted rows are written through the {@link EnrollmentPipeline}
+ * in group commits. Every row gets its own result.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkEnrollmentService {
+
+    private final SemesterRepository semesterRepository;
+    private final StudentRepository studentRepository;
+    private final StudentCourseEnrollmentRepository enrollmentRepository;
+    private final SectionCatalogService sectionCatalogService;
+    private final EligibilityIndex eligibilityIndex;
+    private final EnrollmentValidator enrollmentValidator;
+    private final SeatReservationService seatReservationService;
+    private final EnrollmentPipeline enrollmentPipeline;
+
+    public BulkEnrollResponse enroll(BulkEnrollRequest request) {
+        long started = System.currentTimeMillis();
+        Integer semesterId = request.getSemesterId();
+        semesterRepository.findById(semesterId)
+                .orElseThrow(() -> new IllegalArgumentException("Semester not found: " + semesterId));
+
+        SectionCatalog catalog = sectionCatalogService.get(semesterId);
+        Set<Integer> studentIds = request.getRows().stream()
+                .map(BulkEnrollRow::getStudentId)
+                .collect(Collectors.toSet());
+        Map<Integer, Student> students = studentRepository.findAllById(studentIds).stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+        Map<Integer, List<Integer>> enrolledByStudent = new HashMap<>();
+        for (Object[] row : enrollmentRepository.findSectionIdsByStudentIdInAndSemesterId(studentIds, semesterId)) {
+            enrolledByStudent.computeIfAbsent((Integer) row[0], id -> new ArrayList<>()).add((Integer) row[1]);
+        }
+        // Seeds every section's seat counter with one query
+        seatReservationService.taken(catalog.sectionIds());
+
+        List<BulkEnrollRowResult> results = new ArrayList<>();
+        Map<BulkEnrollRowResult, CompletableFuture<EnrollmentPipeline.WriteResult>> writes = new LinkedHashMap<>();
+        for (int index = 0; index < request.getRows().size(); index++) {
+            BulkEnrollRow row = request.getRows().get(index);
+            BulkEnrollRowResult result = new BulkEnrollRowResult();
+            result.setRow(index);
+            result.setStudentId(row.getStudentId());
+            result.setCourseSectionIds(row.getCourseSectionIds());
+            results.add(result);
+
+            List<String> errors = validate(row, students.get(row.getStudentId()), catalog,
+                    enrolledByStudent.computeIfAbsent(row.getStudentId(), id -> new ArrayList<>()));
+            if (!errors.isEmpty()) {
+                reject(result, errors);
+                continue;
+            }
+            try {
+                writes.put(result, enrollmentPipeline.submitWaiting(row.getStudentId(), row.getCourseSectionIds(),
+                        EnrollmentValidator.MAX_COURSES_PER_SEMESTER));
+                enrolledByStudent.get(row.getStudentId()).addAll(row.getCourseSectionIds());
+            } catch (RuntimeException e) {
+                reject(result, List.of("Enrollment could not be written: " + e.getMessage()));
+            }
+        }
+
+        writes.forEach(this::complete);
+
+        BulkEnrollResponse response = new BulkEnrollResponse();
+        response.setSemesterId(semesterId);
+        response.setTotalRows(results.size());
+        response.setEnrolledRows((int) results.stream().filter(BulkEnrollRowResult::getSuccess).count());
+        response.setRejectedRows(response.getTotalRows() - response.getEnrolledRows());
+        response.setElapsedMillis(System.currentTimeMillis() - started);
+        response.setResults(results);
+        log.info("Bulk enrollment for semester {}: {} of {} rows enrolled in {} ms", semesterId,
+                response.getEnrolledRows(), response.getTotalRows(), response.getElapsedMillis());
+        return response;
+    }
+
+    /**
+     * Validates a row and, when valid, reserves its seats.
+     */
+    private List<String> validate(BulkEnrollRow row, Student student, SectionCatalog catalog,
+                                  List<Integer> enrolledSectionIds) {
+        if (student == null) {
+            return List.of("Student not found: " + row.getStudentId());
+        }
+        List<String> errors = enrollmentValidator.validate(student,
+                eligibilityIndex.forStudent(student.getId(), student.getGradeLevel()), catalog,
+                enrolledSectionIds, row.getCourseSectionIds());
+        if (!errors.isEmpty()) {
+            return errors;
+        }
+        Map<Integer, Integer> capacities = new LinkedHashMap<>();
+        row.getCourseSectionIds().forEach(sectionId ->
+                capacities.put(sectionId, catalog.get(sectionId).orElseThrow().getCapacity()));
+        return seatReservationService.reserveAll(capacities).stream()
+                .map(EnrollmentValidator::fullMessage)
+                .toList();
+    }
+
+    private void complete(BulkEnrollRowResult result, CompletableFuture<EnrollmentPipeline.WriteResult> write) {
+        try {
+            EnrollmentPipeline.WriteResult written = write.join();
+            if (written.isCommitted()) {
+                result.setSuccess(true);
+                result.setErrors(List.of());
+            } else {
+                reject(result, List.of(EnrollmentValidator.refusedMessage(written.getRejectedSectionId())));
+            }
+        } catch (CompletionException e) {
+            reject(result, List.of("Enrollment could not be written: " + e.getCause().getMessage()));
+        }
+    }
+
+    private void reject(BulkEnrollRowResult result, List<String> errors) {
+        result.setSuccess(false);
+        result.setErrors(errors);
+    }
+}
@@ -0,0 +1,89 @@
+package com.maplewood.service;
+
+import com.maplewood.config.SchedulingProperties;
+import com.maplewood.entity.Course;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Solves each independent component of a ScheduleProblem (see ScheduleProblem#components)
+ * concurrently with the same strategy and merges the results into one schedule.
+ * Components share no teacher or room, so the merged schedule is conflict-free.
+ */
+@Component
+@Slf4j
+public class ComponentScheduleSolver {
+
+    private final SchedulingProperties schedulingProperties;
+    private final ExecutorService executor;
+
+    public ComponentScheduleSolver(SchedulingProperties schedulingProperties) {
+        this.schedulingProperties = schedulingProperties;
+        int parallelism = schedulingProperties.getDecomposition().getParallelism();
+        this.executor = Executors.newFixedThreadPool(
+                parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public ScheduleResult solve(ScheduleStrategy strategy, ScheduleProblem problem) {
+        List<ScheduleProblem> components = schedulingProperties.getDecomposition().isEnabled()
+                ? problem.components() : List.of(problem);
+        if (components.size() == 1) {
+            return strategy.solve(components.get(0));
+        }
+        log.info("Solving {} independent schedule components with strategy {}", components.size(), strategy.getName());
+
+        List<Callable<ScheduleResult>> tasks = new ArrayList<>();
+        for (ScheduleProblem component : components) {
+            tasks.add(() -> strategy.solve(component));
+        }
+        List<Future<ScheduleResult>> futures;
+        try {
+            futures = executor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Schedule generation was interrupted", e);
+        }
+
+        List<PlannedSection> sections = new ArrayList<>();
+        List<Course> unassignedCourses = new ArrayList<>();
+        int unplacedSections = 0;
+        String strategyName = strategy.getName();
+        for (Future<ScheduleResult> future : futures) {
+            ScheduleResult result = await(future);
+            sections.addAll(result.getSections());
+            unassignedCourses.addAll(result.getUnassignedCourses());
+            unplacedSections += result.getUnplacedSections();
+            strategyName = result.getStrategy();
+        }
+        unassignedCourses.sort(ScheduleProblem.PRIORITY_ORDER);
+        return new ScheduleResult(strategyName, sections, unassignedCourses, unplacedSections);
+    }
+
+    private static ScheduleResult await(Future<ScheduleResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Schedule generation was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Schedule component failed", e.getCause());
+        }
+    }
+}
@@ -1,13 +1,19 @@
 package com.maplewood.service;
 
+import com.maplewood.dto.MeetingDto;
 import com.maplewood.entity.CourseSectionMeeting;
+import com.maplewood.entity.CourseSectionMeeting.DayOfWeek;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Utility class for validating time conflicts.
  * Follows Single Responsibility Principle - only handles conflict detection logic.
+ * Meetings are compared as {@link WeekMask}s, so a set-against-set check is one AND per word;
+ * a mask hit is confirmed against the exact start and end times before it counts as a conflict.
  */
 @Component
 public class ConflictValidator {
@@ -20,10 +26,13 @@ public class ConflictValidator {
         if (newMeetings == null || existingMeetings == null) {
             return false;
         }
-
-        for (CourseSectionMeeting newMeeting : newMeetings) {
-            for (CourseSectionMeeting existingMeeting : existingMeetings) {
-                if (isConflict(newMeeting, existingMeeting)) {
+        if (!WeekMask.of(newMeetings).intersects(WeekMask.of(existingMeetings))) {
+            return false;
+        }
+        for (CourseSectionMeeting meeting : newMeetings) {
+            for (CourseSectionMeeting existing : existingMeetings) {
+                if (meeting.getDayOfWeek() == existing.getDayOfWeek() && overlaps(meeting.getStartTime(),
+                        meeting.getEndTime(), existing.getStartTime(), existing.getEndTime())) {
                     return true;
                 }
             }
@@ -35,24 +44,52 @@ public class ConflictValidator {
      * Checks if two individual meetings conflict.
      */
     public boolean isConflict(CourseSectionMeeting meeting1, CourseSectionMeeting meeting2) {
-        if (meeting1.getDayOfWeek() != meeting2.getDayOfWeek()) {
-            return false;
+        return hasTimeConflict(List.of(meeting1), List.of(meeting2));
+    }
+
+    /**
+     * Finds which of the given sections, and which of its meetings, collides with the candidate.
+     */
+    public Optional<TimeConflict> findConflict(SectionCatalog.Entry candidate, Collection<SectionCatalog.Entry> others) {
+        WeekMask union = WeekMask.EMPTY;
+        for (SectionCatalog.Entry other : others) {
+            union = union.or(other.getWeekMask());
+        }
+        return findConflict(candidate, others, union);
+    }
+
+    /**
+     * As {@link #findConflict(SectionCatalog.Entry, Collection)}, with the others' union mask
+     * precomputed by the caller; sections that fit cost a single mask test.
+     */
+    public Optional<TimeConflict> findConflict(SectionCatalog.Entry candidate, Collection<SectionCatalog.Entry> others,
+                                               WeekMask othersMask) {
+        if (!candidate.getWeekMask().intersects(othersMask)) {
+            return Optional.empty();
         }
-        return timeOverlaps(meeting1.getStartTime(), meeting1.getEndTime(),
-                          meeting2.getStartTime(), meeting2.getEndTime());
+        for (SectionCatalog.Entry other : others) {
+            if (other.getSectionId().equals(candidate.getSectionId())
+                    || !candidate.getWeekMask().intersects(other.getWeekMask())) {
+                continue;
+            }
+            for (MeetingDto meeting : candidate.getMeetings()) {
+                for (MeetingDto otherMeeting : other.getMeetings()) {
+                    if (meeting.getDayOfWeek().equals(otherMeeting.getDayOfWeek()) && overlaps(meeting.getStartTime(),
+                            meeting.getEndTime(), otherMeeting.getStartTime(), otherMeeting.getEndTime())) {
+                        return Optional.of(new TimeConflict(candidate.getSectionId(), meeting, other.getSectionId(),
+                                other.getCourse() != null ? other.getCourse().getCode() : null, otherMeeting));
+                    }
+                }
+            }
+        }
+        return Optional.empty();
     }
 
-    private boolean timeOverlaps(String start1, String end1, String start2, String end2) {
-        int start1Hour = parseHour(start1);
-        int end1Hour = parseHour(end1);
-        int start2Hour = parseHour(start2);
-        int end2Hour = parseHour(end2);
-        
-        return !(end1Hour <= start2Hour || end2Hour <= start1Hour);
+    private static boolean overlaps(String start, String end, String otherStart, String otherEnd) {
+        return WeekMask.minutes(start) < WeekMask.minutes(otherEnd) && WeekMask.minutes(otherStart) < WeekMask.minutes(end);
     }
 
-    private int parseHour(String time) {
-        return Integer.parseInt(time.split(":")[0]);
+    static WeekMask maskOf(MeetingDto meeting) {
+        return WeekMask.of(DayOfWeek.valueOf(meeting.getDayOfWeek()), meeting.getStartTime(), meeting.getEndTime());
     }
 }
-
@@ -0,0 +1,432 @@
+package com.maplewood.service;
+
+import com.maplewood.entity.Course;
+import com.maplewood.entity.Semester;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * The prerequisite DAG over the course catalog, built once per course list with its transitive
+ * closure as bitsets: every course's ancestors (all courses that must come before it) and
+ * descendants (all courses it leads to), plus the length of the longest chain it starts.
+ * Courses whose chain runs into a cycle or a course outside the catalog can never be taken.
+ *
+ * <p>On top of it, {@link Snapshot#nextCourses} answers "what can I take next" with a few
+ * word-wide operations, and {@link Snapshot#plan} lays out a semester-by-semester path to the
+ * graduation requirements, honoring each course's Fall/Spring {@code semesterOrder}, grade range
+ * and the per-semester course limit. Planning is list scheduling by critical path: each semester
+ * takes the available courses that lead to the longest remaining chains first, so prerequisite
+ * chains are started as early as their terms allow.
+ */
+@Component
+@RequiredArgsConstructor
+public class CourseGraph {
+
+    static final int MAX_PLANNED_SEMESTERS = 16;
+    static final int FALL = 1;
+    static final int SPRING = 2;
+
+    private final ReferenceDataCache referenceDataCache;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * The graph for the current course list; rebuilt only when the cache hands out a new list.
+     */
+    public Snapshot snapshot() {
+        List<Course> courses = referenceDataCache.courses().all();
+        Snapshot current = snapshot;
+        if (current == null || current.source != courses) {
+            current = new Snapshot(courses);
+            snapshot = current;
+        }
+        return current;
+    }
+
+    /**
+     * The term plans start from: the active semester, or the latest one when none is active.
+     * Read from the cached semester list, so plan and progress requests do not query for it.
+     */
+    public Term currentTerm() {
+        return referenceDataCache.semesters().all().stream()
+                .max(Comparator.comparing((Semester semester) -> Boolean.TRUE.equals(semester.getIsActive()))
+                        .thenComparing(Semester::getYear)
+                        .thenComparing(Semester::getOrderInYear))
+                .map(Term::of)
+                .orElseThrow(() -> new IllegalStateException("No semesters defined"));
+    }
+
+    /**
+     * A semester position: the school year it starts in and Fall (1) or Spring (2).
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class Term {
+        private final int year;
+        private final int order;
+
+        public static Term of(Semester semester) {
+            return new Term(semester.getYear(), semester.getOrderInYear());
+        }
+
+        Term next() {
+            return order == FALL ? new Term(year, SPRING) : new Term(year + 1, FALL);
+        }
+
+        String name() {
+            return order == FALL ? "Fall" : "Spring";
+        }
+
+        // Spring of a school year ends in the following calendar year
+        int calendarYearEnding() {
+            return order == FALL ? year : year + 1;
+        }
+
+        int gradeLevel(int enrollmentYear) {
+            return Math.max(9, Math.min(12, 9 + year - enrollmentYear));
+        }
+    }
+
+    /**
+     * One planned semester and the courses taken in it.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class PlannedTerm {
+        private final Term term;
+        private final int gradeLevel;
+        private final List<Course> courses;
+    }
+
+    /**
+     * A path to graduation. Not feasible when the requirements cannot be met within
+     * {@link #MAX_PLANNED_SEMESTERS} with the current catalog.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static final class Plan {
+        private final boolean feasible;
+        private final List<PlannedTerm> semesters;
+        private final int earnedTenths;
+        private final int coreCompleted;
+
+        /**
+         * Calendar year the last planned semester ends, or null when nothing is left to take
+         * or the requirements cannot be met.
+         */
+        public Integer completionYear() {
+            return !feasible || semesters.isEmpty() ? null
+                    : semesters.get(semesters.size() - 1).getTerm().calendarYearEnding();
+        }
+    }
+
+    /**
+     * Immutable graph over one course list, numbered by dense ordinals in id order.
+     */
+    public static final class Snapshot {
+        private final List<Course> source;
+        private final Course[] courses;
+        private final Map<Integer, Integer> ordinalById = new HashMap<>();
+        private final int words;
+        private final long[][] ancestors;
+        private final long[][] descendants;
+        // Direct dependents of each course, for one-hop prerequisite checks
+        private final long[][] children;
+        private final long[] withoutPrerequisite;
+        private final long[] blocked;
+        private final long[] core;
+        private final long[][] offered = new long[3][];
+        private final long[][] inGrade = new long[13][];
+        private final int[] chainLength;
+        private final int[] creditTenths;
+
+        Snapshot(List<Course> catalog) {
+            this.source = catalog;
+            this.courses = catalog.stream().sorted(Comparator.comparing(Course::getId)).toArray(Course[]::new);
+            int n = courses.length;
+            this.words = (n + 63) / 64;
+            for (int i = 0; i < n; i++) {
+                ordinalById.put(courses[i].getId(), i);
+            }
+            ancestors = new long[n][words];
+            descendants = new long[n][words];
+            children = new long[n][words];
+            withoutPrerequisite = new long[words];
+            blocked = new long[words];
+            core = new long[words];
+            offered[FALL] = new long[words];
+            offered[SPRING] = new long[words];
+            for (int grade = 9; grade <= 12; grade++) {
+                inGrade[grade] = new long[words];
+            }
+            chainLength = new int[n];
+            creditTenths = new int[n];
+
+            int[] depth = new int[n];
+            for (int i = 0; i < n; i++) {
+                Course course = courses[i];
+                creditTenths[i] = course.getCredits().movePointRight(1).intValue();
+                if ("core".equals(course.getCourseType())) {
+                    set(core, i);
+                }
+                if (course.getSemesterOrder() != null && (course.getSemesterOrder() == FALL || course.getSemesterOrder() == SPRING)) {
+                    set(offered[course.getSemesterOrder()], i);
+                }
+                for (int grade = 9; grade <= 12; grade++) {
+                    if ((course.getGradeLevelMin() == null || course.getGradeLevelMin() <= grade)
+                            && (course.getGradeLevelMax() == null || course.getGradeLevelMax() >= grade)) {
+                        set(inGrade[grade], i);
+                    }
+                }
+                if (course.getPrerequisiteId() == null) {
+                    set(withoutPrerequisite, i);
+                } else {
+                    Integer parent = ordinalById.get(course.getPrerequisiteId());
+                    if (parent != null) {
+                        set(children[parent], i);
+                    }
+                }
+                // Walk up the chain; more steps than courses means it loops
+                Integer ancestor = course.getPrerequisiteId() == null ? null : ordinalById.get(course.getPrerequisiteId());
+                boolean broken = course.getPrerequisiteId() != null && ancestor == null;
+                for (int steps = 0; ancestor != null && !broken; steps++) {
+                    if (steps > n || ancestor == i) {
+                        broken = true;
+                        break;
+                    }
+                    set(ancestors[i], ancestor);
+                    depth[i]++;
+                    Integer next = courses[ancestor].getPrerequisiteId();
+                    ancestor = next == null ? null : ordinalById.get(next);
+                    broken = next != null && ancestor == null;
+                }
+                if (broken) {
+                    set(blocked, i);
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                chainLength[i] = Math.max(chainLength[i], 1);
+                if (test(blocked, i)) {
+                    continue;
+                }
+                for (int a = nextBit(ancestors[i], 0); a >= 0; a = nextBit(ancestors[i], a + 1)) {
+                    set(descendants[a], i);
+                    chainLength[a] = Math.max(chainLength[a], depth[i] - depth[a] + 1);
+                }
+            }
+        }
+
+        public int size() {
+            return courses.length;
+        }
+
+        public Optional<Course> course(Integer courseId) {
+            Integer ordinal = ordinalById.get(courseId);
+            return ordinal == null ? Optional.empty() : Optional.of(courses[ordinal]);
+        }
+
+        /**
+         * Number of courses that require this one, directly or through others.
+         */
+        public int unlocks(Integer courseId) {
+            Integer ordinal = ordinalById.get(courseId);
+            return ordinal == null ? 0 : cardinality(descendants[ordinal]);
+        }
+
+        /**
+         * Semesters in the longest prerequisite chain starting at this course, itself included.
+         */
+        public int chainLength(Integer courseId) {
+            Integer ordinal = ordinalById.get(courseId);
+            return ordinal == null ? 0 : chainLength[ordinal];
+        }
+
+        /**
+         * All courses that must be passed before this one, however indirectly.
+         */
+        public Set<Integer> prerequisitesOf(Integer courseId) {
+            Integer ordinal = ordinalById.get(courseId);
+            return ordinal == null ? Set.of() : new LinkedHashSet<>(ids(ancestors[ordinal]));
+        }
+
+        /**
+         * Courses a student can take in a Fall or Spring term: offered then, within their grade,
+         * prerequisite passed and not passed themselves. Longest chains first, so the courses
+         * that hold up the most later work lead the list.
+         */
+        public List<Integer> nextCourses(Collection<Integer> passedCourseIds, int gradeLevel, int semesterOrder) {
+            return ids(sortedByPriority(available(bits(passedCourseIds), gradeLevel, semesterOrder), null));
+        }
+
+        /**
+         * Lays out semesters from {@code start} until the student has the required credits
+         * (in tenths) and core courses, taking at most {@code maxPerSemester} courses each.
+         */
+        public Plan plan(Collection<Integer> passedCourseIds, int enrollmentYear, Term start,
+                         int requiredTenths, int requiredCore, int maxPerSemester) {
+            long[] done = bits(passedCourseIds);
+            int earned = 0;
+            for (int i = nextBit(done, 0); i >= 0; i = nextBit(done, i + 1)) {
+                earned += creditTenths[i];
+            }
+            int coreDone = cardinality(and(done, core));
+
+            List<PlannedTerm> semesters = new ArrayList<>();
+            int idle = 0;
+            Term term = start;
+            while ((earned < requiredTenths || coreDone < requiredCore) && semesters.size() < MAX_PLANNED_SEMESTERS) {
+                int grade = term.gradeLevel(enrollmentYear);
+                // Non-core courses help the core requirement only on the way to a missing core course
+                long[] coreLeadsTo = coreDone < requiredCore ? andNot(core, or(done, blocked)) : new long[words];
+                long[] candidates = available(done, grade, term.getOrder());
+                if (earned >= requiredTenths) {
+                    candidates = and(candidates, leadingTo(coreLeadsTo));
+                }
+                List<Integer> picked = sortedByPriority(candidates, coreLeadsTo).stream().limit(maxPerSemester).toList();
+                List<Course> taken = new ArrayList<>(picked.size());
+                for (int ordinal : picked) {
+                    set(done, ordinal);
+                    earned += creditTenths[ordinal];
+                    coreDone += test(core, ordinal) ? 1 : 0;
+                    taken.add(courses[ordinal]);
+                }
+                semesters.add(new PlannedTerm(term, grade, taken));
+                // A Fall and a Spring with nothing to take: nothing later will change that
+                idle = taken.isEmpty() ? idle + 1 : 0;
+                if (idle == 2) {
+                    break;
+                }
+                term = term.next();
+            }
+            boolean feasible = earned >= requiredTenths && coreDone >= requiredCore;
+            while (!semesters.isEmpty() && semesters.get(semesters.size() - 1).getCourses().isEmpty()) {
+                semesters.remove(semesters.size() - 1);
+            }
+            return new Plan(feasible, semesters, earned, coreDone);
+        }
+
+        private long[] available(long[] done, int gradeLevel, int semesterOrder) {
+            long[] met = withoutPrerequisite.clone();
+            for (int p = nextBit(done, 0); p >= 0; p = nextBit(done, p + 1)) {
+                orInto(met, children[p]);
+            }
+            long[] termMask = semesterOrder == FALL || semesterOrder == SPRING ? offered[semesterOrder] : new long[words];
+            long[] result = new long[words];
+            long[] grade = inGrade[Math.max(9, Math.min(12, gradeLevel))];
+            for (int w = 0; w < words; w++) {
+                result[w] = met[w] & termMask[w] & grade[w] & ~done[w] & ~blocked[w];
+            }
+            return result;
+        }
+
+        // Courses that are, or lead to, one of the targets
+        private long[] leadingTo(long[] targets) {
+            long[] result = targets.clone();
+            for (int t = nextBit(targets, 0); t >= 0; t = nextBit(targets, t + 1)) {
+                orInto(result, ancestors[t]);
+            }
+            return result;
+        }
+
+        private List<Integer> sortedByPriority(long[] candidates, long[] coreTargets) {
+            List<Integer> ordinals = new ArrayList<>();
+            for (int i = nextBit(candidates, 0); i >= 0; i = nextBit(candidates, i + 1)) {
+                ordinals.add(i);
+            }
+            Comparator<Integer> order = Comparator.comparingInt((Integer i) -> -chainLength[i])
+                    .thenComparingInt(i -> -creditTenths[i])
+                    .thenComparingInt(i -> i);
+            if (coreTargets != null) {
+                long[] towardCore = leadingTo(coreTargets);
+                order = Comparator.comparing((Integer i) -> !test(towardCore, i)).thenComparing(order);
+            }
+            ordinals.sort(order);
+            return ordinals;
+        }
+
+        private List<Integer> ids(Collection<Integer> ordinals) {
+            return ordinals.stream().map(i -> courses[i].getId()).toList();
+        }
+
+        private List<Integer> ids(long[] bits) {
+            List<Integer> result = new ArrayList<>();
+            for (int i = nextBit(bits, 0); i >= 0; i = nextBit(bits, i + 1)) {
+                result.add(courses[i].getId());
+            }
+            return result;
+        }
+
+        private long[] bits(Collection<Integer> courseIds) {
+            long[] bits = new long[words];
+            for (Integer courseId : courseIds) {
+                Integer ordinal = ordinalById.get(courseId);
+                if (ordinal != null) {
+                    set(bits, ordinal);
+                }
+            }
+            return bits;
+        }
+
+        private long[] and(long[] a, long[] b) {
+            long[] result = new long[words];
+            for (int w = 0; w < words; w++) {
+                result[w] = a[w] & b[w];
+            }
+            return result;
+        }
+
+        private long[] andNot(long[] a, long[] b) {
+            long[] result = new long[words];
+            for (int w = 0; w < words; w++) {
+                result[w] = a[w] & ~b[w];
+            }
+            return result;
+        }
+
+        private long[] or(long[] a, long[] b) {
+            long[] result = a.clone();
+            orInto(result, b);
+            return result;
+        }
+
+        private static void orInto(long[] target, long[] bits) {
+            for (int w = 0; w < target.length; w++) {
+                target[w] |= bits[w];
+            }
+        }
+
+        private static int nextBit(long[] bits, int from) {
+            int w = from >>> 6;
+            if (w >= bits.length) {
+                return -1;
+            }
+            long word = bits[w] & (-1L << (from & 63));
+            while (word == 0) {
+                if (++w == bits.length) {
+                    return -1;
+                }
+                word = bits[w];
+            }
+            return (w << 6) + Long.numberOfTrailingZeros(word);
+        }
+
+        private static int cardinality(long[] bits) {
+            int count = 0;
+            for (long word : bits) {
+                count += Long.bitCount(word);
+            }
+            return count;
+        }
+
+        private static void set(long[] bits, int ordinal) {
+            bits[ordinal >>> 6] |= 1L << (ordinal & 63);
+        }
+
+        private static boolean test(long[] bits, int ordinal) {
+            return (bits[ordinal >>> 6] & (1L << (ordinal & 63))) != 0;
+        }
+    }
+}
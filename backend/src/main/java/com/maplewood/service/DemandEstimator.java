@@ -0,0 +1,118 @@
+package com.maplewood.service;
+
+import com.maplewood.config.SchedulingProperties;
+import com.maplewood.entity.Course;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Estimates how many sections each course needs from actual student demand.
+ * Two set-based reads (active students, passed history) feed one in-memory pass: a student
+ * is eligible for a course when their grade is in the course's range, they have not passed
+ * it, and they have passed its prerequisite. Students fill their course limit with eligible
+ * core courses first, then spread what is left over eligible electives; the expected seats
+ * per course are divided by the section capacity.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DemandEstimator {
+
+    private static final String ACTIVE_STUDENTS =
+            "SELECT id, grade_level FROM students WHERE status = 'active' ORDER BY id";
+    private static final String PASSED_COURSES =
+            "SELECT student_id, course_id FROM student_course_history WHERE status = 'passed'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SchedulingProperties schedulingProperties;
+
+    /**
+     * Sections needed per course id, for the given courses.
+     */
+    public Map<Integer, Integer> estimateSections(List<Course> courses) {
+        List<int[]> students = jdbcTemplate.query(ACTIVE_STUDENTS,
+                (rs, rowNum) -> new int[]{rs.getInt("id"), rs.getInt("grade_level")});
+        List<int[]> passed = jdbcTemplate.query(PASSED_COURSES,
+                (rs, rowNum) -> new int[]{rs.getInt("student_id"), rs.getInt("course_id")});
+        Map<Integer, Integer> sections = estimateSections(courses, students, passed);
+        log.info("Demand estimate for {} courses from {} active students: {} sections",
+                courses.size(), students.size(), sections.values().stream().mapToInt(Integer::intValue).sum());
+        return sections;
+    }
+
+    /**
+     * Pure estimate over {@code students} as (id, grade level) and {@code passed} as (student id, course id).
+     */
+    Map<Integer, Integer> estimateSections(List<Course> courses, List<int[]> students, List<int[]> passed) {
+        SchedulingProperties.Demand settings = schedulingProperties.getDemand();
+        Map<Integer, Integer> studentIndex = new HashMap<>();
+        for (int i = 0; i < students.size(); i++) {
+            studentIndex.put(students.get(i)[0], i);
+        }
+        Map<Integer, BitSet> passedBy = new HashMap<>();
+        for (int[] row : passed) {
+            Integer index = studentIndex.get(row[0]);
+            if (index != null) {
+                passedBy.computeIfAbsent(row[1], k -> new BitSet(students.size())).set(index);
+            }
+        }
+        Map<Integer, BitSet> byGrade = new HashMap<>();
+        for (int i = 0; i < students.size(); i++) {
+            byGrade.computeIfAbsent(students.get(i)[1], k -> new BitSet(students.size())).set(i);
+        }
+
+        // Eligible students per course
+        List<BitSet> eligible = new ArrayList<>(courses.size());
+        for (Course course : courses) {
+            BitSet set = new BitSet(students.size());
+            byGrade.forEach((grade, members) -> {
+                if ((course.getGradeLevelMin() == null || grade >= course.getGradeLevelMin())
+                        && (course.getGradeLevelMax() == null || grade <= course.getGradeLevelMax())) {
+                    set.or(members);
+                }
+            });
+            BitSet alreadyPassed = passedBy.get(course.getId());
+            if (alreadyPassed != null) {
+                set.andNot(alreadyPassed);
+            }
+            if (course.getPrerequisiteId() != null) {
+                set.and(passedBy.getOrDefault(course.getPrerequisiteId(), new BitSet()));
+            }
+            eligible.add(set);
+        }
+
+        // Per student: how many core and elective courses they could take
+        int[] coreOptions = new int[students.size()];
+        int[] electiveOptions = new int[students.size()];
+        for (int c = 0; c < courses.size(); c++) {
+            int[] options = isCore(courses.get(c)) ? coreOptions : electiveOptions;
+            BitSet set = eligible.get(c);
+            for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i + 1)) {
+                options[i]++;
+            }
+        }
+
+        int limit = settings.getMaxCoursesPerStudent();
+        Map<Integer, Integer> sections = new HashMap<>();
+        for (int c = 0; c < courses.size(); c++) {
+            boolean core = isCore(courses.get(c));
+            double seats = 0;
+            BitSet set = eligible.get(c);
+            for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i + 1)) {
+                seats += core
+                        ? Math.min(1.0, (double) limit / coreOptions[i])
+                        : Math.min(1.0, (double) Math.max(0, limit - coreOptions[i]) / electiveOptions[i]);
+            }
+            sections.put(courses.get(c).getId(), (int) Math.ceil(seats / settings.getSeatsPerSection() - 1e-9));
+        }
+        return sections;
+    }
+
+    private static boolean isCore(Course course) {
+        return "core".equals(course.getCourseType());
+    }
+}
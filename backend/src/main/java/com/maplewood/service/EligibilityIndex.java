@@ -0,0 +1,311 @@
+package com.maplewood.service;
+
+import com.maplewood.config.CacheProperties;
+import com.maplewood.entity.Course;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory course eligibility: courses are numbered with dense ordinals and each student's
+ * passed courses are a bitset over them, so "which courses may this student take" is a handful
+ * of word-wide operations instead of a history query per request.
+ * The index is built on first use and kept current from {@code student_history_changes}, which
+ * the V7 triggers fill on every history write; it is rebuilt when the courses table changes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EligibilityIndex {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReferenceDataCache referenceDataCache;
+    private final CacheProperties cacheProperties;
+
+    private final Object refreshLock = new Object();
+    private volatile State state;
+    private long lastChangeId;
+    private volatile long nextRefresh;
+    private boolean changeLogUnavailable;
+
+    /**
+     * Eligibility of one student, computed once for the caller's request.
+     */
+    public StudentEligibility forStudent(Integer studentId, Integer gradeLevel) {
+        State current;
+        do {
+            refresh();
+            current = state;
+        } while (current == null);
+        long[] passed = current.passedByStudent.getOrDefault(studentId, new long[current.ordinals.words()]);
+        return new StudentEligibility(current.ordinals, passed.clone(), gradeLevel);
+    }
+
+    /**
+     * Drops the index; the next read rebuilds it from the database.
+     */
+    public void invalidate() {
+        synchronized (refreshLock) {
+            state = null;
+        }
+    }
+
+    /**
+     * Applies pending history changes now instead of waiting for the check interval.
+     */
+    void refreshNow() {
+        nextRefresh = 0;
+        refresh();
+    }
+
+    void refresh() {
+        long now = System.currentTimeMillis();
+        if (state != null && now < nextRefresh) {
+            return;
+        }
+        synchronized (refreshLock) {
+            if (state != null && now < nextRefresh) {
+                return;
+            }
+            nextRefresh = now + cacheProperties.getVersionCheckIntervalMillis();
+            Long coursesVersion = coursesVersion();
+            if (state == null || !Objects.equals(coursesVersion, state.ordinals.version)) {
+                rebuild(coursesVersion);
+            } else {
+                applyChanges();
+            }
+        }
+    }
+
+    private void rebuild(Long coursesVersion) {
+        // Read the log position first: changes committed while loading are applied again next time
+        lastChangeId = maxChangeId();
+        CourseOrdinals rebuilt = new CourseOrdinals(referenceDataCache.courses().all(), coursesVersion);
+        Map<Integer, long[]> passed = new ConcurrentHashMap<>();
+        jdbcTemplate.query("SELECT student_id, course_id FROM student_course_history WHERE status = 'passed'",
+                rs -> { rebuilt.set(passed.computeIfAbsent(rs.getInt(1), id -> new long[rebuilt.words()]), rs.getInt(2)); });
+        state = new State(rebuilt, passed);
+        log.debug("Built eligibility index: {} courses, {} students with passed courses", rebuilt.courseIds.length, passed.size());
+    }
+
+    private void applyChanges() {
+        if (changeLogUnavailable) {
+            return;
+        }
+        Set<Integer> students = new HashSet<>();
+        long[] maxId = {lastChangeId};
+        jdbcTemplate.query("SELECT id, student_id FROM student_history_changes WHERE id > ?", rs -> {
+            maxId[0] = Math.max(maxId[0], rs.getLong(1));
+            students.add(rs.getInt(2));
+        }, lastChangeId);
+        if (students.isEmpty()) {
+            return;
+        }
+        CourseOrdinals current = state.ordinals;
+        Map<Integer, long[]> reloaded = new HashMap<>();
+        String placeholders = students.stream().map(id -> "?").collect(Collectors.joining(","));
+        jdbcTemplate.query("SELECT student_id, course_id FROM student_course_history WHERE status = 'passed' "
+                        + "AND student_id IN (" + placeholders + ")",
+                rs -> { current.set(reloaded.computeIfAbsent(rs.getInt(1), id -> new long[current.words()]), rs.getInt(2)); },
+                students.toArray());
+        for (Integer studentId : students) {
+            long[] passed = reloaded.get(studentId);
+            if (passed != null) {
+                state.passedByStudent.put(studentId, passed);
+            } else {
+                state.passedByStudent.remove(studentId);
+            }
+        }
+        lastChangeId = maxId[0];
+        log.debug("Eligibility index reloaded history of {} students", students.size());
+    }
+
+    private Long coursesVersion() {
+        try {
+            List<Long> versions = jdbcTemplate.queryForList(
+                    "SELECT version FROM data_versions WHERE table_name = 'courses'", Long.class);
+            return versions.isEmpty() ? null : versions.get(0);
+        } catch (DataAccessException e) {
+            return null;
+        }
+    }
+
+    private long maxChangeId() {
+        try {
+            Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM student_history_changes", Long.class);
+            changeLogUnavailable = false;
+            return max != null ? max : 0L;
+        } catch (DataAccessException e) {
+            if (!changeLogUnavailable) {
+                log.warn("Cannot read student_history_changes, history edits need an index rebuild: {}", e.getMessage());
+            }
+            changeLogUnavailable = true;
+            return 0L;
+        }
+    }
+
+    /**
+     * Course numbering with the passed bitsets sized for it, swapped together on rebuild.
+     */
+    private static final class State {
+        private final CourseOrdinals ordinals;
+        private final Map<Integer, long[]> passedByStudent;
+
+        private State(CourseOrdinals ordinals, Map<Integer, long[]> passedByStudent) {
+            this.ordinals = ordinals;
+            this.passedByStudent = passedByStudent;
+        }
+    }
+
+    /**
+     * Immutable course numbering with the masks that eligibility is computed from.
+     */
+    static final class CourseOrdinals {
+        private final Long version;
+        private final int[] courseIds;
+        private final Map<Integer, Integer> ordinalById = new HashMap<>();
+        private final long[] withoutPrerequisite;
+        // Courses requiring the course at each ordinal as their prerequisite
+        private final long[][] requiredBy;
+        private final Integer[] gradeMin;
+        private final Integer[] gradeMax;
+        private final Map<Integer, long[]> gradeMasks = new ConcurrentHashMap<>();
+
+        CourseOrdinals(List<Course> courses, Long version) {
+            this.version = version;
+            List<Course> sorted = courses.stream().sorted(Comparator.comparing(Course::getId)).toList();
+            courseIds = new int[sorted.size()];
+            gradeMin = new Integer[sorted.size()];
+            gradeMax = new Integer[sorted.size()];
+            for (int i = 0; i < sorted.size(); i++) {
+                courseIds[i] = sorted.get(i).getId();
+                ordinalById.put(courseIds[i], i);
+                gradeMin[i] = sorted.get(i).getGradeLevelMin();
+                gradeMax[i] = sorted.get(i).getGradeLevelMax();
+            }
+            withoutPrerequisite = new long[words()];
+            requiredBy = new long[sorted.size()][];
+            for (int i = 0; i < sorted.size(); i++) {
+                Integer prerequisiteId = sorted.get(i).getPrerequisiteId();
+                if (prerequisiteId == null) {
+                    setBit(withoutPrerequisite, i);
+                } else {
+                    // A prerequisite outside the catalog can never be met
+                    Integer prerequisite = ordinalById.get(prerequisiteId);
+                    if (prerequisite != null) {
+                        if (requiredBy[prerequisite] == null) {
+                            requiredBy[prerequisite] = new long[words()];
+                        }
+                        setBit(requiredBy[prerequisite], i);
+                    }
+                }
+            }
+        }
+
+        int words() {
+            return (courseIds.length + 63) / 64;
+        }
+
+        Integer ordinal(Integer courseId) {
+            return ordinalById.get(courseId);
+        }
+
+        void set(long[] bits, int courseId) {
+            Integer ordinal = ordinalById.get(courseId);
+            if (ordinal != null) {
+                setBit(bits, ordinal);
+            }
+        }
+
+        long[] prerequisitesMet(long[] passed) {
+            long[] met = withoutPrerequisite.clone();
+            for (int w = 0; w < passed.length; w++) {
+                for (long word = passed[w]; word != 0; word &= word - 1) {
+                    long[] unlocked = requiredBy[(w << 6) + Long.numberOfTrailingZeros(word)];
+                    if (unlocked != null) {
+                        for (int i = 0; i < met.length; i++) {
+                            met[i] |= unlocked[i];
+                        }
+                    }
+                }
+            }
+            return met;
+        }
+
+        long[] gradeMask(Integer gradeLevel) {
+            return gradeMasks.computeIfAbsent(gradeLevel == null ? -1 : gradeLevel, grade -> {
+                long[] mask = new long[words()];
+                for (int i = 0; i < courseIds.length; i++) {
+                    if ((gradeMin[i] == null || gradeMin[i] <= grade) && (gradeMax[i] == null || gradeMax[i] >= grade)) {
+                        setBit(mask, i);
+                    }
+                }
+                return mask;
+            });
+        }
+
+        private static void setBit(long[] bits, int ordinal) {
+            bits[ordinal >>> 6] |= 1L << (ordinal & 63);
+        }
+    }
+
+    /**
+     * One student's passed courses and the courses open to them: prerequisite met, within
+     * their grade range, and not already passed.
+     */
+    public static final class StudentEligibility {
+        private final CourseOrdinals ordinals;
+        private final long[] passed;
+        private final long[] prerequisitesMet;
+        private final long[] inGradeRange;
+        private final long[] eligible;
+
+        private StudentEligibility(CourseOrdinals ordinals, long[] passed, Integer gradeLevel) {
+            this.ordinals = ordinals;
+            this.passed = passed;
+            this.prerequisitesMet = ordinals.prerequisitesMet(passed);
+            this.inGradeRange = ordinals.gradeMask(gradeLevel);
+            this.eligible = new long[passed.length];
+            for (int i = 0; i < eligible.length; i++) {
+                eligible[i] = prerequisitesMet[i] & inGradeRange[i] & ~passed[i];
+            }
+        }
+
+        public boolean hasPassed(Integer courseId) {
+            return test(passed, courseId);
+        }
+
+        public boolean prerequisiteMet(Integer courseId) {
+            return test(prerequisitesMet, courseId);
+        }
+
+        public boolean inGradeRange(Integer courseId) {
+            return test(inGradeRange, courseId);
+        }
+
+        public boolean isEligible(Integer courseId) {
+            return test(eligible, courseId);
+        }
+
+        public List<Integer> passedCourseIds() {
+            List<Integer> ids = new ArrayList<>();
+            for (int w = 0; w < passed.length; w++) {
+                for (long word = passed[w]; word != 0; word &= word - 1) {
+                    ids.add(ordinals.courseIds[(w << 6) + Long.numberOfTrailingZeros(word)]);
+                }
+            }
+            return ids;
+        }
+
+        private boolean test(long[] bits, Integer courseId) {
+            Integer ordinal = ordinals.ordinal(courseId);
+            return ordinal != null && (bits[ordinal >>> 6] & (1L << (ordinal & 63))) != 0;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.maplewood.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * What publishing a new schedule version did with the enrollments of the semester's older versions.
+ */
+@Getter
+@RequiredArgsConstructor
+public class EnrollmentCarryOver {
+    public static final EnrollmentCarryOver NONE = new EnrollmentCarryOver(0, 0, 0);
+
+    /** Moved to a section of the same course in the new version. */
+    private final int carriedOver;
+    /** Dropped because the student already holds the course in the new version. */
+    private final int superseded;
+    /** Left on their retired section; the student has to enroll again. */
+    private final int needingReenrollment;
+}
@@ -0,0 +1,240 @@
+package com.maplewood.service;
+
+import com.maplewood.config.EnrollmentProperties;
+import com.maplewood.exception.ConflictException;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Group-commit writer for validated enrollments.
+ * SQLite has a single writer and every commit pays for a sync, so instead of one transaction per
+ * student, enrollments are queued and a dedicated writer thread commits them in batches of up to
+ * {@code max-batch-size}, waiting at most {@code max-wait-millis} for a batch to fill. Each
+ * enrollment is written under its own savepoint, so a refused row only undoes that student's
+ * enrollment and every caller still gets its own result.
+ *
+ * <p>Seats must already be reserved with {@link SeatReservationService}; the pipeline gives them
+ * back when a write is refused or fails. Callers already inside a transaction are written through
+ * it instead of the queue, since the writer could not see their uncommitted rows.
+ * Savepoints are issued as SQL because the JPA dialect does not expose them.
+ */
+@Service
+@Slf4j
+public class EnrollmentPipeline {
+
+    private static final String SAVEPOINT = "enrollment_write";
+
+    private final SeatReservationService seatReservationService;
+    private final JdbcTemplate jdbcTemplate;
+    private final EnrollmentProperties.Pipeline settings;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Pending> queue;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public EnrollmentPipeline(SeatReservationService seatReservationService, JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              EnrollmentProperties enrollmentProperties) {
+        this.seatReservationService = seatReservationService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.settings = enrollmentProperties.getPipeline();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new LinkedBlockingQueue<>(settings.getQueueCapacity());
+        this.writer = new Thread(this::runWriter, "enrollment-writer");
+        this.writer.setDaemon(true);
+        if (settings.isEnabled()) {
+            writer.start();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        writer.interrupt();
+    }
+
+    /**
+     * Writes one student's enrollment in the given sections, all or nothing, and waits for the result.
+     */
+    public WriteResult write(Integer studentId, List<Integer> sectionIds, int maxCoursesPerSemester) {
+        try {
+            return submit(studentId, sectionIds, maxCoursesPerSemester).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Queues one student's enrollment for the next group commit.
+     * Throws {@link ConflictException} when the queue is full.
+     */
+    public CompletableFuture<WriteResult> submit(Integer studentId, List<Integer> sectionIds,
+                                                 int maxCoursesPerSemester) {
+        return submit(new Pending(studentId, List.copyOf(sectionIds), maxCoursesPerSemester), false);
+    }
+
+    /**
+     * Like {@link #submit}, but waits for room in the queue instead of turning the enrollment away;
+     * for bulk callers that would otherwise overrun it.
+     */
+    public CompletableFuture<WriteResult> submitWaiting(Integer studentId, List<Integer> sectionIds,
+                                                        int maxCoursesPerSemester) {
+        return submit(new Pending(studentId, List.copyOf(sectionIds), maxCoursesPerSemester), true);
+    }
+
+    private CompletableFuture<WriteResult> submit(Pending pending, boolean waitForRoom) {
+        if (!settings.isEnabled() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            writeInline(pending);
+            return pending.future;
+        }
+        boolean queued = running && (waitForRoom ? offerWaiting(pending) : queue.offer(pending));
+        if (!queued) {
+            pending.sectionIds.forEach(seatReservationService::release);
+            throw new ConflictException("Too many enrollments are waiting to be written; try again later");
+        }
+        return pending.future;
+    }
+
+    private boolean offerWaiting(Pending pending) {
+        try {
+            queue.put(pending);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void writeInline(Pending pending) {
+        WriteResult result;
+        try {
+            result = transactionTemplate.execute(status -> writeOne(pending));
+        } catch (RuntimeException e) {
+            seatReservationService.reconcileAfterCompletion(pending.sectionIds);
+            throw e;
+        }
+        if (!result.isCommitted()) {
+            // The caller's transaction decides whether the reserved seats are kept
+            seatReservationService.reconcileAfterCompletion(pending.sectionIds);
+        }
+        pending.future.complete(result);
+    }
+
+    private void runWriter() {
+        List<Pending> batch = new ArrayList<>();
+        long maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(settings.getMaxWaitMillis());
+        while (running) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < settings.getMaxBatchSize()) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+        List<Pending> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(pending -> fail(pending, new IllegalStateException("Enrollment pipeline is shutting down")));
+    }
+
+    /**
+     * Commits a batch in one transaction. A refused enrollment is rolled back to its savepoint
+     * without affecting the others; a failed commit fails the whole batch.
+     */
+    void commit(List<Pending> batch) {
+        Map<Pending, WriteResult> results = new LinkedHashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Pending pending : batch) {
+                    results.put(pending, writeOne(pending));
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Enrollment batch of {} failed to commit", batch.size(), e);
+            batch.forEach(pending -> fail(pending, e));
+            return;
+        }
+        log.debug("Committed enrollment batch of {}", batch.size());
+        results.forEach((pending, result) -> {
+            if (!result.isCommitted()) {
+                pending.sectionIds.forEach(seatReservationService::release);
+                // A refusal the counters did not predict means they drifted from the database
+                seatReservationService.reconcile(List.of(result.getRejectedSectionId()));
+            }
+            pending.future.complete(result);
+        });
+    }
+
+    private WriteResult writeOne(Pending pending) {
+        jdbcTemplate.execute("SAVEPOINT " + SAVEPOINT);
+        for (Integer sectionId : pending.sectionIds) {
+            if (!seatReservationService.insertEnrollment(pending.studentId, sectionId, pending.maxCoursesPerSemester)) {
+                jdbcTemplate.execute("ROLLBACK TO " + SAVEPOINT);
+                jdbcTemplate.execute("RELEASE " + SAVEPOINT);
+                return WriteResult.rejected(sectionId);
+            }
+        }
+        jdbcTemplate.execute("RELEASE " + SAVEPOINT);
+        return WriteResult.committed();
+    }
+
+    private void fail(Pending pending, RuntimeException cause) {
+        pending.sectionIds.forEach(seatReservationService::release);
+        pending.future.completeExceptionally(cause);
+    }
+
+    @RequiredArgsConstructor
+    static class Pending {
+        private final Integer studentId;
+        private final List<Integer> sectionIds;
+        private final int maxCoursesPerSemester;
+        private final CompletableFuture<WriteResult> future = new CompletableFuture<>();
+    }
+
+    /**
+     * Outcome of one student's enrollment write.
+     */
+    @Getter
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class WriteResult {
+        private final boolean committed;
+        /** The section the database refused (full, already taken or over the course limit). */
+        private final Integer rejectedSectionId;
+
+        static WriteResult committed() {
+            return new WriteResult(true, null);
+        }
+
+        static WriteResult rejected(Integer sectionId) {
+            return new WriteResult(false, sectionId);
+        }
+    }
+}
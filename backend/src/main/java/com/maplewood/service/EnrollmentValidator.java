@@ -0,0 +1,90 @@
+package com.maplewood.service;
+
+import com.maplewood.entity.Course;
+import com.maplewood.entity.Student;
+import com.maplewood.service.EligibilityIndex.StudentEligibility;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Enrollment rules shared by single and bulk enrollment.
+ * Works only from in-memory snapshots (section catalog, eligibility index, reference cache), so
+ * validating a request costs no queries.
+ */
+@Component
+@RequiredArgsConstructor
+public class EnrollmentValidator {
+
+    public static final int MAX_COURSES_PER_SEMESTER = 5;
+
+    private final ReferenceDataCache referenceDataCache;
+    private final ConflictValidator conflictValidator;
+
+    /**
+     * Checks enrolling the student in the requested sections on top of the sections they already hold.
+     * Returns the error messages; empty when the request is valid. Seat availability is not checked here.
+     */
+    public List<String> validate(Student student, StudentEligibility eligibility, SectionCatalog catalog,
+                                 Collection<Integer> enrolledSectionIds, Collection<Integer> requestedSectionIds) {
+        List<String> errors = new ArrayList<>();
+        if (enrolledSectionIds.size() + requestedSectionIds.size() > MAX_COURSES_PER_SEMESTER) {
+            errors.add(String.format("Cannot enroll in more than %d courses per semester", MAX_COURSES_PER_SEMESTER));
+        }
+
+        List<SectionCatalog.Entry> existingSections = enrolledSectionIds.stream()
+                .map(catalog::get)
+                .flatMap(Optional::stream)
+                .toList();
+        WeekMask existingMask = catalog.weekMaskOf(enrolledSectionIds);
+        List<SectionCatalog.Entry> newSections = new ArrayList<>();
+
+        for (Integer sectionId : requestedSectionIds) {
+            Optional<SectionCatalog.Entry> entry = catalog.get(sectionId);
+            if (entry.isEmpty()) {
+                errors.add(String.format("Course section %d is not in the published schedule for this semester", sectionId));
+                continue;
+            }
+            if (enrolledSectionIds.contains(sectionId)) {
+                errors.add(String.format("Already enrolled in course section %d", sectionId));
+                continue;
+            }
+
+            Course course = referenceDataCache.courses().get(entry.get().getCourseId()).orElse(null);
+            if (course != null) {
+                if (!eligibility.prerequisiteMet(course.getId())) {
+                    errors.add(String.format("Missing prerequisite for course %s", course.getCode()));
+                }
+                if (!eligibility.inGradeRange(course.getId())) {
+                    errors.add(String.format("Course %s is not offered to grade %d", course.getCode(), student.getGradeLevel()));
+                }
+                if (eligibility.hasPassed(course.getId())) {
+                    errors.add(String.format("Course %s has already been passed", course.getCode()));
+                }
+            }
+
+            conflictValidator.findConflict(entry.get(), existingSections, existingMask)
+                    .ifPresent(conflict -> errors.add(String.format("Time conflict with course section %d: %s",
+                            sectionId, conflict.describe())));
+            conflictValidator.findConflict(entry.get(), newSections)
+                    .ifPresent(conflict -> errors.add(String.format(
+                            "Time conflict between selected course sections %d and %d: %s",
+                            conflict.getConflictingSectionId(), sectionId, conflict.describe())));
+            newSections.add(entry.get());
+        }
+        return errors;
+    }
+
+    public static String fullMessage(Integer sectionId) {
+        return String.format("Course section %d is full", sectionId);
+    }
+
+    public static String refusedMessage(Integer sectionId) {
+        return String.format("Course section %d could not be reserved: it is full, already taken "
+                + "or the course limit was reached", sectionId);
+    }
+}
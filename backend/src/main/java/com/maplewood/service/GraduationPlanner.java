@@ -0,0 +1,108 @@
+package com.maplewood.service;
+
+import com.maplewood.dto.GraduationPlanDto;
+import com.maplewood.dto.NextCourseDto;
+import com.maplewood.dto.PlannedSemesterDto;
+import com.maplewood.entity.Course;
+import com.maplewood.entity.Semester;
+import com.maplewood.entity.Student;
+import com.maplewood.repository.SemesterRepository;
+import com.maplewood.repository.StudentRepository;
+import com.maplewood.util.DtoMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Per-student queries over the {@link CourseGraph}: the courses open next term and the
+ * semester-by-semester path to graduation. Passed courses come from the {@link EligibilityIndex},
+ * so neither query touches history.
+ */
+@Service
+@RequiredArgsConstructor
+public class GraduationPlanner {
+
+    private final StudentRepository studentRepository;
+    private final SemesterRepository semesterRepository;
+    private final EligibilityIndex eligibilityIndex;
+    private final CourseGraph courseGraph;
+    private final ProgressCalculator progressCalculator;
+    private final DtoMapper dtoMapper;
+
+    /**
+     * Plan from the given semester, or from the current one when it is null.
+     */
+    public CourseGraph.Plan plan(Student student, Integer semesterId) {
+        CourseGraph.Term start = term(semesterId);
+        return progressCalculator.planGraduation(courseGraph.snapshot(), passedCourseIds(student),
+                student.getEnrollmentYear(), start);
+    }
+
+    public GraduationPlanDto graduationPlan(Integer studentId, Integer semesterId) {
+        Student student = student(studentId);
+        CourseGraph.Plan plan = plan(student, semesterId);
+
+        GraduationPlanDto dto = new GraduationPlanDto();
+        dto.setStudentId(studentId);
+        dto.setFeasible(plan.isFeasible());
+        dto.setPlannedCredits(plan.getEarnedTenths() / 10);
+        dto.setCreditsRequired(ProgressCalculator.REQUIRED_CREDITS);
+        dto.setPlannedCoreCourses(plan.getCoreCompleted());
+        dto.setCoreCoursesRequired(ProgressCalculator.REQUIRED_CORE_COURSES);
+        if (plan.isFeasible()) {
+            dto.setProjectedGraduationYear(ProgressCalculator.projectedYear(student.getEnrollmentYear(), plan));
+        }
+        dto.setSemesters(plan.getSemesters().stream().map(this::toSemesterDto).toList());
+        return dto;
+    }
+
+    /**
+     * Courses the student can take in the given semester (default: the current one), the ones
+     * holding up the longest prerequisite chains first.
+     */
+    public List<NextCourseDto> nextCourses(Integer studentId, Integer semesterId) {
+        Student student = student(studentId);
+        CourseGraph.Term term = term(semesterId);
+        CourseGraph.Snapshot graph = courseGraph.snapshot();
+        return graph.nextCourses(passedCourseIds(student), term.gradeLevel(student.getEnrollmentYear()), term.getOrder())
+                .stream()
+                .map(courseId -> {
+                    NextCourseDto dto = new NextCourseDto();
+                    dto.setCourse(graph.course(courseId).map(dtoMapper::toCourseDto).orElse(null));
+                    dto.setUnlocks(graph.unlocks(courseId));
+                    dto.setChainLength(graph.chainLength(courseId));
+                    return dto;
+                })
+                .toList();
+    }
+
+    private Student student(Integer studentId) {
+        return studentRepository.findById(studentId)
+                .orElseThrow(() -> new IllegalArgumentException("Student not found: " + studentId));
+    }
+
+    private CourseGraph.Term term(Integer semesterId) {
+        if (semesterId == null) {
+            return courseGraph.currentTerm();
+        }
+        Semester semester = semesterRepository.findById(semesterId)
+                .orElseThrow(() -> new IllegalArgumentException("Semester not found: " + semesterId));
+        return CourseGraph.Term.of(semester);
+    }
+
+    private List<Integer> passedCourseIds(Student student) {
+        return eligibilityIndex.forStudent(student.getId(), student.getGradeLevel()).passedCourseIds();
+    }
+
+    private PlannedSemesterDto toSemesterDto(CourseGraph.PlannedTerm planned) {
+        PlannedSemesterDto dto = new PlannedSemesterDto();
+        dto.setName(planned.getTerm().name());
+        dto.setYear(planned.getTerm().getYear());
+        dto.setGradeLevel(planned.getGradeLevel());
+        dto.setCredits(planned.getCourses().stream().map(Course::getCredits).reduce(BigDecimal.ZERO, BigDecimal::add));
+        dto.setCourses(planned.getCourses().stream().map(dtoMapper::toCourseDto).toList());
+        return dto;
+    }
+}
@@ -0,0 +1,71 @@
+package com.maplewood.service;
+
+import com.maplewood.entity.Course;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Default strategy: a single first-fit pass over courses in priority order,
+ * trying teachers and rooms in id order for each section.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GreedyScheduleStrategy implements ScheduleStrategy {
+
+    public static final String NAME = "greedy";
+
+    private final ScheduleGenerator scheduleGenerator;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public ScheduleResult solve(ScheduleProblem problem) {
+        AvailabilityGrid grid = problem.newGrid();
+        List<PlannedSection> plannedSections = new ArrayList<>();
+        List<Course> unassignedCourses = new ArrayList<>();
+        int unplacedSections = 0;
+
+        for (Course course : problem.getCourses()) {
+            problem.checkCancelled();
+            log.info("Processing course: {} ({} hours/week, type: {})", 
+                    course.getCode(), course.getHoursPerWeek(), course.getCourseType());
+
+            int sectionsNeeded = problem.sectionsNeeded(course);
+            if (sectionsNeeded == 0) {
+                continue; // No demand this semester
+            }
+            int sectionsCreated = 0;
+
+            for (int i = 0; i < sectionsNeeded; i++) {
+                PlannedSection section = scheduleGenerator.planSection(course, problem.getContext(), grid);
+                if (section != null) {
+                    plannedSections.add(section);
+                    sectionsCreated++;
+                    log.debug("Created section {} for course {}", i + 1, course.getCode());
+                } else {
+                    unplacedSections++;
+                    log.warn("Could not create section {} for course {} - no available time slots", 
+                            i + 1, course.getCode());
+                }
+            }
+
+            if (sectionsCreated == 0) {
+                log.warn("Course {} could not be assigned - added to unassigned list", course.getCode());
+                unassignedCourses.add(course);
+            } else {
+                log.info("Successfully created {} sections for course {}", sectionsCreated, course.getCode());
+            }
+            problem.report(plannedSections);
+        }
+
+        return new ScheduleResult(NAME, plannedSections, unassignedCourses, unplacedSections);
+    }
+}
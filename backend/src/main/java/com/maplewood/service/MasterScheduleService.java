@@ -1,5 +1,6 @@
 package com.maplewood.service;
 
+import com.maplewood.config.SchedulingProperties;
 import com.maplewood.dto.*;
 import com.maplewood.entity.*;
 import com.maplewood.repository.*;
@@ -7,10 +8,8 @@ import com.maplewood.util.DtoMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Service for master schedule generation.
@@ -26,81 +25,124 @@ public class MasterScheduleService {
     private final CourseSectionMeetingRepository meetingRepository;
     private final CourseRepository courseRepository;
     private final SemesterRepository semesterRepository;
-    private final StudentCourseEnrollmentRepository enrollmentRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final SectionCatalogService sectionCatalogService;
     private final ScheduleGenerator scheduleGenerator;
+    private final DemandEstimator demandEstimator;
+    private final ComponentScheduleSolver componentScheduleSolver;
+    private final ScheduleImprover scheduleImprover;
+    private final ScheduleWriter scheduleWriter;
+    private final List<ScheduleStrategy> strategies;
+    private final SchedulingProperties schedulingProperties;
     private final DtoMapper dtoMapper;
 
-    @Transactional
     public ScheduleResponse generateSchedule(Integer semesterId) {
+        return generateSchedule(semesterId, null);
+    }
+
+    public ScheduleResponse generateSchedule(Integer semesterId, String strategyName) {
+        return generateSchedule(semesterId, strategyName, 0);
+    }
+
+    public ScheduleResponse generateSchedule(Integer semesterId, String strategyName, long improveTimeMillis) {
+        return generateSchedule(semesterId, strategyName, improveTimeMillis, ScheduleProgress.NONE);
+    }
+
+    /**
+     * Generates and stores the semester's master schedule with the named strategy
+     * (the configured default when null), then spends up to {@code improveTimeMillis}
+     * improving it with local search. Only the final write and publish run in a transaction,
+     * so a long solve holds no database connection; a cancelled solve writes nothing.
+     */
+    public ScheduleResponse generateSchedule(Integer semesterId, String strategyName, long improveTimeMillis,
+                                             ScheduleProgress progress) {
         log.info("Generating master schedule for semester ID: {}", semesterId);
         
         Semester semester = semesterRepository.findById(semesterId)
                 .orElseThrow(() -> new IllegalArgumentException("Semester not found: " + semesterId));
-
-        // Delete existing schedule for this semester
-        List<CourseSection> existingSections = courseSectionRepository.findBySemesterId(semesterId);
-        if (!existingSections.isEmpty()) {
-            log.info("Deleting {} existing sections for semester {}", existingSections.size(), semesterId);
-            courseSectionRepository.deleteAll(existingSections);
-        }
+        ScheduleStrategy strategy = resolveStrategy(strategyName);
 
         // Get all courses for this semester (based on semester order)
         List<Course> courses = courseRepository.findBySemesterOrder(semester.getOrderInYear());
         log.info("Found {} courses for semester order {}", courses.size(), semester.getOrderInYear());
 
-        List<CourseSection> createdSections = new ArrayList<>();
-        List<Course> unassignedCourses = new ArrayList<>();
-
-        // Track teacher and room availability
-        Map<Integer, Map<String, List<ScheduleGenerator.TimeSlot>>> teacherSchedule = new HashMap<>();
-        Map<Integer, Map<String, List<ScheduleGenerator.TimeSlot>>> roomSchedule = new HashMap<>();
-
-        // Sort courses by priority: core courses first, then by hours (more hours = more priority)
-        // This helps allocate resources to important courses first
-        courses.sort((c1, c2) -> {
-            if ("core".equals(c1.getCourseType()) && !"core".equals(c2.getCourseType())) return -1;
-            if (!"core".equals(c1.getCourseType()) && "core".equals(c2.getCourseType())) return 1;
-            return Integer.compare(c2.getHoursPerWeek(), c1.getHoursPerWeek()); // More hours first
-        });
-
-        for (Course course : courses) {
-            log.info("Processing course: {} ({} hours/week, type: {})", 
-                    course.getCode(), course.getHoursPerWeek(), course.getCourseType());
-            
-            int sectionsNeeded = scheduleGenerator.calculateSectionsNeeded(course);
-            int sectionsCreated = 0;
-            
-            for (int i = 0; i < sectionsNeeded; i++) {
-                CourseSection section = scheduleGenerator.createSection(
-                        course, semester, teacherSchedule, roomSchedule);
-                if (section != null) {
-                    createdSections.add(section);
-                    sectionsCreated++;
-                    log.debug("Created section {} for course {}", i + 1, course.getCode());
-                } else {
-                    log.warn("Could not create section {} for course {} - no available time slots", 
-                            i + 1, course.getCode());
-                }
-            }
-            
-            if (sectionsCreated == 0) {
-                log.warn("Course {} could not be assigned - added to unassigned list", course.getCode());
-                unassignedCourses.add(course);
-            } else {
-                log.info("Successfully created {} sections for course {}", sectionsCreated, course.getCode());
+        // Load all reference data once; the generator does no repository lookups while searching
+        SchedulingContext context = SchedulingContext.of(
+                referenceDataCache.teachers().all(), referenceDataCache.classrooms().all(),
+                referenceDataCache.specializations().all());
+
+        Map<Integer, Integer> sectionsNeeded;
+        if (schedulingProperties.getDemand().isEnabled()) {
+            sectionsNeeded = demandEstimator.estimateSections(courses);
+        } else {
+            sectionsNeeded = new HashMap<>();
+            for (Course course : courses) {
+                sectionsNeeded.put(course.getId(), scheduleGenerator.calculateSectionsNeeded(course));
             }
         }
+        ScheduleProblem problem = new ScheduleProblem(courses, sectionsNeeded, context,
+                scheduleGenerator.createAvailabilityGrid(), progress);
+
+        progress.phase("solving");
+        // Solve phase: pure in-memory placement, nothing is written until the whole schedule is known.
+        // Room-type components share no teachers or rooms and are solved concurrently.
+        ScheduleResult result = componentScheduleSolver.solve(strategy, problem);
+        log.info("Strategy {} planned {} sections, {} courses unassigned", strategy.getName(),
+                result.getSections().size(), result.getUnassignedCourses().size());
+
+        if (improveTimeMillis > 0) {
+            problem.checkCancelled();
+            progress.phase("improving");
+            problem.report(result.getSections());
+            result = scheduleImprover.improve(problem, result, improveTimeMillis,
+                    schedulingProperties.getImprover().getSeed());
+            log.info("Local search left {} sections unplaced, {} courses unassigned",
+                    result.getUnplacedSections(), result.getUnassignedCourses().size());
+        }
 
-        log.info("Created {} sections, {} courses unassigned", createdSections.size(), unassignedCourses.size());
-        return buildScheduleResponse(semester, createdSections, unassignedCourses);
+        // Write phase: a draft version with batched inserts and its publish in one transaction;
+        // readers keep seeing the previous version until the pointer swap
+        problem.checkCancelled();
+        progress.phase("writing");
+        problem.report(result.getSections());
+        PublishedSchedule published = scheduleWriter.writeAndPublish(semesterId, result.getStrategy(), result.getSections());
+        ScheduleDraft draft = published.getDraft();
+        EnrollmentCarryOver carryOver = published.getCarryOver();
+        sectionCatalogService.refresh(semesterId);
+        ScheduleResponse response = buildScheduleResponse(semester, draft.getSections(), result.getUnassignedCourses());
+        response.getSummary().setStrategy(result.getStrategy());
+        response.getSummary().setScheduleVersionId(draft.getVersionId());
+        response.getSummary().setEnrollmentsCarriedOver(carryOver.getCarriedOver());
+        setNeedingReenrollment(response.getSummary(), carryOver.getNeedingReenrollment());
+        return response;
+    }
+
+    private ScheduleStrategy resolveStrategy(String strategyName) {
+        String name = strategyName != null && !strategyName.isBlank()
+                ? strategyName : schedulingProperties.getDefaultStrategy();
+        return strategies.stream()
+                .filter(strategy -> strategy.getName().equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown scheduling strategy: " + name));
     }
 
     public ScheduleResponse getSchedule(Integer semesterId) {
         Semester semester = semesterRepository.findById(semesterId)
                 .orElseThrow(() -> new IllegalArgumentException("Semester not found: " + semesterId));
 
-        List<CourseSection> sections = courseSectionRepository.findBySemesterId(semesterId);
-        return buildScheduleResponse(semester, sections, Collections.emptyList());
+        List<CourseSection> sections = courseSectionRepository.findPublishedBySemesterId(semesterId);
+        ScheduleResponse response = buildScheduleResponse(semester, sections, Collections.emptyList());
+        response.getSummary().setScheduleVersionId(semesterRepository.findPublishedScheduleVersionId(semesterId));
+        setNeedingReenrollment(response.getSummary(), scheduleWriter.countNeedingReenrollment(semesterId));
+        return response;
+    }
+
+    private void setNeedingReenrollment(ScheduleSummary summary, int count) {
+        summary.setEnrollmentsNeedingReenrollment(count);
+        if (count > 0) {
+            summary.setMessage(summary.getMessage() + String.format(
+                    " %d enrollment(s) from a replaced schedule need re-enrollment.", count));
+        }
     }
 
     private ScheduleResponse buildScheduleResponse(Semester semester, List<CourseSection> sections,
@@ -109,10 +151,7 @@ public class MasterScheduleService {
         response.setSemesterId(semester.getId());
         response.setSemesterName(semester.getName() + " " + semester.getYear());
 
-        List<CourseSectionDto> sectionDtos = sections.stream()
-                .map(this::toSectionDto)
-                .collect(Collectors.toList());
-        response.setSections(sectionDtos);
+        response.setSections(dtoMapper.toSectionDtos(sections));
 
         ScheduleSummary summary = new ScheduleSummary();
         summary.setTotalSections(sections.size());
@@ -124,21 +163,4 @@ public class MasterScheduleService {
 
         return response;
     }
-
-    private CourseSectionDto toSectionDto(CourseSection section) {
-        CourseSectionDto dto = new CourseSectionDto();
-        dto.setId(section.getId());
-        dto.setCourse(dtoMapper.toCourseDto(section.getCourseId()));
-        dto.setTeacher(dtoMapper.toTeacherDto(section.getTeacherId()));
-        dto.setClassroom(dtoMapper.toClassroomDto(section.getClassroomId()));
-        dto.setCapacity(section.getCapacity());
-        dto.setMeetings(dtoMapper.toMeetingDtos(section.getId()));
-
-        // Get enrollment count
-        Long enrolledCount = enrollmentRepository.countByCourseSectionId(section.getId());
-        dto.setEnrolledCount(enrolledCount);
-        dto.setRemainingCapacity(section.getCapacity() - enrolledCount.intValue());
-
-        return dto;
-    }
 }
@@ -0,0 +1,21 @@
+package com.maplewood.service;
+
+import com.maplewood.entity.Course;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A section placed by the scheduling algorithm but not yet persisted.
+ * The solve phase produces these; ScheduleWriter turns them into rows.
+ */
+@Getter
+@RequiredArgsConstructor
+public class PlannedSection {
+    private final Course course;
+    private final Integer teacherId;
+    private final Integer classroomId;
+    private final Integer capacity;
+    private final List<ScheduleGenerator.TimeSlot> timeSlots;
+}
@@ -0,0 +1,149 @@
+package com.maplewood.service;
+
+import com.maplewood.config.SchedulingProperties;
+import com.maplewood.entity.Classroom;
+import com.maplewood.entity.Course;
+import com.maplewood.entity.Teacher;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Runs several seeded first-fit variants in parallel and keeps the best.
+ * Variant 0 is the plain greedy pass; the others shuffle course ties, teacher and room order
+ * and the starting weekday. Each variant works on its own grid copy, and the winner is picked
+ * by ScheduleObjective score then variant index, so the result depends only on the seed.
+ */
+@Component
+@Slf4j
+public class PortfolioScheduleStrategy implements ScheduleStrategy {
+
+    public static final String NAME = "portfolio";
+
+    /** Priority order without the id tie-break, so shuffled ties stay shuffled. */
+    private static final Comparator<Course> TIE_ORDER = Comparator
+            .comparing((Course c) -> !"core".equals(c.getCourseType()))
+            .thenComparing(Course::getHoursPerWeek, Comparator.reverseOrder());
+
+    private final ScheduleGenerator scheduleGenerator;
+    private final SchedulingProperties schedulingProperties;
+    private final ForkJoinPool pool;
+
+    public PortfolioScheduleStrategy(ScheduleGenerator scheduleGenerator, SchedulingProperties schedulingProperties) {
+        this.scheduleGenerator = scheduleGenerator;
+        this.schedulingProperties = schedulingProperties;
+        int parallelism = schedulingProperties.getPortfolio().getParallelism();
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public ScheduleResult solve(ScheduleProblem problem) {
+        SchedulingProperties.Portfolio settings = schedulingProperties.getPortfolio();
+        int variants = Math.max(1, settings.getVariants());
+
+        List<Callable<ScheduleResult>> tasks = new ArrayList<>(variants);
+        for (int i = 0; i < variants; i++) {
+            long variantSeed = settings.getSeed() + i;
+            boolean randomized = i > 0;
+            tasks.add(() -> solveVariant(problem, randomized ? new Random(variantSeed) : null));
+        }
+
+        ScheduleResult best = null;
+        long bestScore = Long.MAX_VALUE;
+        int bestVariant = -1;
+        List<Future<ScheduleResult>> futures = pool.invokeAll(tasks);
+        for (int i = 0; i < futures.size(); i++) {
+            ScheduleResult result = await(futures.get(i));
+            long score = ScheduleObjective.score(problem, result.getSections());
+            if (score < bestScore) {
+                best = result;
+                bestScore = score;
+                bestVariant = i;
+                problem.report(best.getSections());
+            }
+        }
+        log.info("Portfolio of {} variants: variant {} won with score {}", variants, bestVariant, bestScore);
+        return new ScheduleResult(NAME, best.getSections(), best.getUnassignedCourses(), best.getUnplacedSections());
+    }
+
+    /**
+     * One first-fit pass. With a null random this is exactly the greedy strategy.
+     */
+    ScheduleResult solveVariant(ScheduleProblem problem, Random random) {
+        SchedulingContext context = problem.getContext();
+        AvailabilityGrid grid = problem.newGrid();
+        List<PlannedSection> plannedSections = new ArrayList<>();
+        List<Course> unassignedCourses = new ArrayList<>();
+        int unplacedSections = 0;
+
+        for (Course course : courseOrder(problem, random)) {
+            problem.checkCancelled();
+            List<Teacher> teachers = shuffled(context.teachersFor(course.getSpecializationId()), random);
+            List<Classroom> rooms = shuffled(context.roomsFor(course.getSpecializationId()), random);
+            int sectionsCreated = 0;
+            for (int i = 0; i < problem.sectionsNeeded(course); i++) {
+                int firstDay = random == null ? 0 : random.nextInt(AvailabilityGrid.DAYS.length);
+                PlannedSection section = scheduleGenerator.firstFit(course, teachers, rooms, firstDay, grid);
+                if (section != null) {
+                    plannedSections.add(section);
+                    sectionsCreated++;
+                } else {
+                    unplacedSections++;
+                }
+            }
+            if (sectionsCreated == 0 && problem.sectionsNeeded(course) > 0) {
+                unassignedCourses.add(course);
+            }
+        }
+        return new ScheduleResult(NAME, plannedSections, unassignedCourses, unplacedSections);
+    }
+
+    private List<Course> courseOrder(ScheduleProblem problem, Random random) {
+        if (random == null) {
+            return problem.getCourses();
+        }
+        List<Course> order = new ArrayList<>(problem.getCourses());
+        Collections.shuffle(order, random);
+        order.sort(TIE_ORDER);
+        return order;
+    }
+
+    private static <T> List<T> shuffled(List<T> items, Random random) {
+        if (random == null) {
+            return items;
+        }
+        List<T> copy = new ArrayList<>(items);
+        Collections.shuffle(copy, random);
+        return copy;
+    }
+
+    private static ScheduleResult await(Future<ScheduleResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Portfolio scheduling was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Portfolio variant failed", e.getCause());
+        }
+    }
+}
@@ -4,71 +4,203 @@ import com.maplewood.dto.AcademicProgressDto;
 import com.maplewood.entity.Course;
 import com.maplewood.entity.Student;
 import com.maplewood.entity.StudentCourseHistory;
-import com.maplewood.repository.CourseRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * Extracted academic progress calculation logic.
  * Follows Single Responsibility Principle - only calculates student progress.
+ * Course credits and core flags are read from a dense table indexed by course id, rebuilt
+ * whenever the cached course list changes, so tallying a history row is two array reads.
  */
 @Component
 @RequiredArgsConstructor
 public class ProgressCalculator {
 
-    private final CourseRepository courseRepository;
-    private static final int REQUIRED_CREDITS = 30;
-    private static final int REQUIRED_CORE_COURSES = 20;
+    private final ReferenceDataCache referenceDataCache;
+    static final int REQUIRED_CREDITS = 30;
+    static final int REQUIRED_CORE_COURSES = 20;
 
-    public AcademicProgressDto calculateProgress(Student student, List<StudentCourseHistory> passedCourses) {
-        AcademicProgressDto progress = new AcademicProgressDto();
-        
-        int creditsEarned = 0;
-        int coreCoursesCompleted = 0;
-        
-        for (StudentCourseHistory history : passedCourses) {
-            Course course = courseRepository.findById(history.getCourseId()).orElse(null);
-            if (course != null) {
-                creditsEarned += course.getCredits().intValue();
-                if ("core".equals(course.getCourseType())) {
-                    coreCoursesCompleted++;
-                }
-            }
+    private volatile CourseTable courseTable;
+
+    /**
+     * Progress from the student's full history: credits and core courses count each passed
+     * course once, GPA counts every attempt.
+     */
+    public AcademicProgressDto calculateProgress(Student student, List<StudentCourseHistory> history) {
+        Tally tally = new Tally(courseTable());
+        for (StudentCourseHistory row : history) {
+            tally.add(row.getCourseId(), "passed".equals(row.getStatus()));
         }
-        
+        return calculateProgress(student.getEnrollmentYear(), tally, null);
+    }
+
+    AcademicProgressDto calculateProgress(int enrollmentYear, Tally tally, CourseGraph.Plan plan) {
+        return calculateProgress(enrollmentYear, tally.earnedTenths, tally.coreCompleted, tally.attemptedTenths,
+                tally.passedAttemptTenths, plan);
+    }
+
+    /**
+     * Progress from stored totals, credits in tenths, as kept in {@code student_progress}.
+     * With a graduation plan the projection comes from it instead of the per-semester estimate.
+     */
+    AcademicProgressDto calculateProgress(int enrollmentYear, int earnedTenths, int coreCoursesCompleted,
+                                          long attemptedTenths, long passedAttemptTenths, CourseGraph.Plan plan) {
+        AcademicProgressDto progress = new AcademicProgressDto();
+
+        int creditsEarned = earnedTenths / 10;
+
         progress.setCreditsEarned(creditsEarned);
         progress.setCreditsRequired(REQUIRED_CREDITS);
         progress.setCoreCoursesCompleted(coreCoursesCompleted);
         progress.setCoreCoursesRequired(REQUIRED_CORE_COURSES);
-        
-        // Calculate GPA (simplified: assume all passed courses = 4.0, failed = 0.0)
-        List<StudentCourseHistory> allHistory = passedCourses; // In real app, get all history
-        if (!allHistory.isEmpty()) {
-            BigDecimal gpa = BigDecimal.valueOf(4.0 * passedCourses.size() / (double) allHistory.size())
-                    .setScale(2, RoundingMode.HALF_UP);
+
+        // Credit-weighted GPA: a passed attempt counts as 4.0, a failed one as 0.0
+        if (attemptedTenths > 0) {
+            BigDecimal gpa = BigDecimal.valueOf(4L * passedAttemptTenths)
+                    .divide(BigDecimal.valueOf(attemptedTenths), 2, RoundingMode.HALF_UP);
             progress.setGpa(gpa);
         } else {
             progress.setGpa(BigDecimal.ZERO);
         }
-        
+
         // Project graduation
         int creditsRemaining = REQUIRED_CREDITS - creditsEarned;
         int semestersRemaining = (int) Math.ceil(creditsRemaining / 15.0); // Assume 15 credits per semester
-        int projectedYear = student.getEnrollmentYear() + 4 + semestersRemaining / 2;
-        
+        int projectedYear = enrollmentYear + 4 + semestersRemaining / 2;
+        boolean eligible = creditsEarned >= REQUIRED_CREDITS && coreCoursesCompleted >= REQUIRED_CORE_COURSES;
+
+        if (plan != null && !eligible) {
+            if (!plan.isFeasible()) {
+                progress.setGraduationStatus("Graduation requirements cannot be met with the current course catalog");
+                return progress;
+            }
+            projectedYear = projectedYear(enrollmentYear, plan);
+        }
+
         progress.setProjectedGraduationYear(projectedYear);
-        
-        if (creditsEarned >= REQUIRED_CREDITS && coreCoursesCompleted >= REQUIRED_CORE_COURSES) {
+
+        if (eligible) {
             progress.setGraduationStatus("Eligible for graduation");
         } else {
             progress.setGraduationStatus(String.format("On track to graduate in %d", projectedYear));
         }
-        
+
         return progress;
     }
-}
 
+    /**
+     * Graduation year of a feasible plan. Requirements met early still graduate with their class,
+     * and so does a plan with nothing left to take, which happens when the stored totals are newer
+     * than the passed courses the plan was made from.
+     */
+    static int projectedYear(int enrollmentYear, CourseGraph.Plan plan) {
+        Integer completionYear = plan.completionYear();
+        int classYear = enrollmentYear + 4;
+        return completionYear == null ? classYear : Math.max(classYear, completionYear);
+    }
+
+    /**
+     * A semester-by-semester plan from {@code start} to this calculator's graduation requirements.
+     */
+    CourseGraph.Plan planGraduation(CourseGraph.Snapshot graph, Collection<Integer> passedCourseIds,
+                                    int enrollmentYear, CourseGraph.Term start) {
+        return graph.plan(passedCourseIds, enrollmentYear, start, REQUIRED_CREDITS * 10, REQUIRED_CORE_COURSES,
+                EnrollmentValidator.MAX_COURSES_PER_SEMESTER);
+    }
+
+    /**
+     * The table for the current course list; rebuilt only when the cache hands out a new list.
+     */
+    CourseTable courseTable() {
+        List<Course> courses = referenceDataCache.courses().all();
+        CourseTable table = courseTable;
+        if (table == null || table.source != courses) {
+            table = new CourseTable(courses);
+            courseTable = table;
+        }
+        return table;
+    }
+
+    /**
+     * Credits in tenths (the column is DECIMAL(3,1)) and core flags, indexed by course id.
+     */
+    static final class CourseTable {
+        private final List<Course> source;
+        private final int[] creditTenths;
+        private final boolean[] core;
+
+        CourseTable(List<Course> courses) {
+            this.source = courses;
+            int maxId = courses.stream().mapToInt(Course::getId).max().orElse(-1);
+            creditTenths = new int[maxId + 1];
+            core = new boolean[maxId + 1];
+            for (Course course : courses) {
+                creditTenths[course.getId()] = course.getCredits().movePointRight(1).intValue();
+                core[course.getId()] = "core".equals(course.getCourseType());
+            }
+        }
+
+        int size() {
+            return creditTenths.length;
+        }
+    }
+
+    /**
+     * One student's history rows folded into the totals progress is computed from.
+     * Rows for courses outside the table are ignored.
+     */
+    static final class Tally {
+        private final CourseTable courses;
+        private final BitSet passed;
+        private int earnedTenths;
+        private int coreCompleted;
+        private long attemptedTenths;
+        private long passedAttemptTenths;
+
+        Tally(CourseTable courses) {
+            this.courses = courses;
+            this.passed = new BitSet(courses.size());
+        }
+
+        void add(int courseId, boolean passedAttempt) {
+            if (courseId < 0 || courseId >= courses.size()) {
+                return;
+            }
+            int credits = courses.creditTenths[courseId];
+            attemptedTenths += credits;
+            if (!passedAttempt) {
+                return;
+            }
+            passedAttemptTenths += credits;
+            if (!passed.get(courseId)) {
+                passed.set(courseId);
+                earnedTenths += credits;
+                if (courses.core[courseId]) {
+                    coreCompleted++;
+                }
+            }
+        }
+
+        List<Integer> passedCourseIds() {
+            List<Integer> ids = new ArrayList<>(passed.cardinality());
+            passed.stream().forEach(ids::add);
+            return ids;
+        }
+
+        void clear() {
+            passed.clear();
+            earnedTenths = 0;
+            coreCompleted = 0;
+            attemptedTenths = 0;
+            passedAttemptTenths = 0;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.maplewood.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A schedule version written and published by ScheduleWriter in one transaction.
+ */
+@Getter
+@RequiredArgsConstructor
+public class PublishedSchedule {
+    private final ScheduleDraft draft;
+    private final EnrollmentCarryOver carryOver;
+}
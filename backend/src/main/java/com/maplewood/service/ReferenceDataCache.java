@@ -0,0 +1,295 @@
+package com.maplewood.service;
+
+import com.maplewood.config.CacheProperties;
+import com.maplewood.dto.CacheStatsDto;
+import com.maplewood.entity.*;
+import com.maplewood.repository.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Read-through cache for the small, rarely written reference tables: courses, teachers,
+ * classrooms, room types, specializations and semesters.
+ * Each table is a bounded LRU region. Regions are invalidated explicitly or when the table's
+ * counter in {@code data_versions} moves, which the V6 and V10 triggers bump on every write, including
+ * writes made by other tools against the same SQLite file.
+ * Cached entities are shared between requests and must be treated as read-only; their lazy
+ * associations are not initialized, so callers use the id columns.
+ */
+@Component
+@Slf4j
+public class ReferenceDataCache {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheProperties properties;
+    private final Region<Course> courses;
+    private final Region<Teacher> teachers;
+    private final Region<Classroom> classrooms;
+    private final Region<RoomType> roomTypes;
+    private final Region<Specialization> specializations;
+    private final Region<Semester> semesters;
+    private final Map<String, Region<?>> regions = new LinkedHashMap<>();
+
+    private final Object versionLock = new Object();
+    private volatile long nextVersionCheck;
+    private volatile boolean versionCheckFailed;
+
+    public ReferenceDataCache(CourseRepository courseRepository, TeacherRepository teacherRepository,
+                              ClassroomRepository classroomRepository, RoomTypeRepository roomTypeRepository,
+                              SpecializationRepository specializationRepository,
+                              SemesterRepository semesterRepository, JdbcTemplate jdbcTemplate,
+                              CacheProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.courses = register("courses", courseRepository, Course::getId);
+        this.teachers = register("teachers", teacherRepository, Teacher::getId);
+        this.classrooms = register("classrooms", classroomRepository, Classroom::getId);
+        this.roomTypes = register("room_types", roomTypeRepository, RoomType::getId);
+        this.specializations = register("specializations", specializationRepository, Specialization::getId);
+        this.semesters = register("semesters", semesterRepository, Semester::getId);
+    }
+
+    public Region<Course> courses() {
+        return courses;
+    }
+
+    public Region<Teacher> teachers() {
+        return teachers;
+    }
+
+    public Region<Classroom> classrooms() {
+        return classrooms;
+    }
+
+    public Region<RoomType> roomTypes() {
+        return roomTypes;
+    }
+
+    public Region<Specialization> specializations() {
+        return specializations;
+    }
+
+    public Region<Semester> semesters() {
+        return semesters;
+    }
+
+    /**
+     * Drops a table's cached rows; for code that writes reference data outside JPA repositories.
+     */
+    public void invalidate(String table) {
+        Region<?> region = regions.get(table);
+        if (region == null) {
+            throw new IllegalArgumentException("Unknown cache region: " + table);
+        }
+        region.invalidate();
+    }
+
+    public void invalidateAll() {
+        regions.values().forEach(Region::invalidate);
+    }
+
+    public List<CacheStatsDto> stats() {
+        return regions.values().stream().map(Region::stats).toList();
+    }
+
+    /**
+     * Compares the {@code data_versions} counters with the ones the regions were loaded under,
+     * at most once per configured interval.
+     */
+    void checkVersions() {
+        long now = System.currentTimeMillis();
+        if (now < nextVersionCheck) {
+            return;
+        }
+        synchronized (versionLock) {
+            if (now < nextVersionCheck) {
+                return;
+            }
+            nextVersionCheck = now + properties.getVersionCheckIntervalMillis();
+            refreshVersions();
+        }
+    }
+
+    /**
+     * Unthrottled version check.
+     */
+    void refreshVersions() {
+        Map<String, Long> versions = new HashMap<>();
+        try {
+            jdbcTemplate.query("SELECT table_name, version FROM data_versions",
+                    rs -> { versions.put(rs.getString(1), rs.getLong(2)); });
+        } catch (DataAccessException e) {
+            if (!versionCheckFailed) {
+                versionCheckFailed = true;
+                log.warn("Cannot read data_versions, external reference-data edits will not be detected: {}",
+                        e.getMessage());
+            }
+            return;
+        }
+        regions.forEach((table, region) -> region.onVersion(versions.get(table)));
+    }
+
+    private <T> Region<T> register(String table, JpaRepository<T, Integer> repository, Function<T, Integer> id) {
+        Region<T> region = new Region<>(table, repository, id);
+        regions.put(table, region);
+        return region;
+    }
+
+    /**
+     * One table's LRU map, plus the full-table list when it has been loaded and fits.
+     */
+    public final class Region<T> {
+
+        private final String table;
+        private final JpaRepository<T, Integer> repository;
+        private final Function<T, Integer> id;
+        private final LinkedHashMap<Integer, T> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private List<T> all;
+        private Long dataVersion;
+        private long hits;
+        private long misses;
+        private long evictions;
+        private long invalidations;
+        // Bumped on invalidation so that loads racing with it are not cached
+        private long generation;
+
+        private Region(String table, JpaRepository<T, Integer> repository, Function<T, Integer> id) {
+            this.table = table;
+            this.repository = repository;
+            this.id = id;
+        }
+
+        public Optional<T> get(Integer key) {
+            if (key == null) {
+                return Optional.empty();
+            }
+            checkVersions();
+            long loadGeneration;
+            synchronized (this) {
+                T cached = entries.get(key);
+                if (cached != null) {
+                    hits++;
+                    return Optional.of(cached);
+                }
+                misses++;
+                loadGeneration = generation;
+            }
+            Optional<T> loaded = repository.findById(key);
+            loaded.ifPresent(row -> put(row, loadGeneration));
+            return loaded;
+        }
+
+        /**
+         * Rows for the given ids keyed by id, loading the missing ones with a single query.
+         */
+        public Map<Integer, T> getAll(Collection<Integer> keys) {
+            checkVersions();
+            Map<Integer, T> result = new HashMap<>();
+            List<Integer> missing = new ArrayList<>();
+            long loadGeneration;
+            synchronized (this) {
+                loadGeneration = generation;
+                for (Integer key : new LinkedHashSet<>(keys)) {
+                    if (key == null) {
+                        continue;
+                    }
+                    T cached = entries.get(key);
+                    if (cached != null) {
+                        hits++;
+                        result.put(key, cached);
+                    } else {
+                        misses++;
+                        missing.add(key);
+                    }
+                }
+            }
+            if (!missing.isEmpty()) {
+                for (T loaded : repository.findAllById(missing)) {
+                    put(loaded, loadGeneration);
+                    result.put(id.apply(loaded), loaded);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * The whole table. Kept as a list only while it fits in the region, so that scans
+         * never hold more than the configured bound.
+         */
+        public List<T> all() {
+            checkVersions();
+            long loadGeneration;
+            synchronized (this) {
+                if (all != null) {
+                    hits++;
+                    return all;
+                }
+                misses++;
+                loadGeneration = generation;
+            }
+            List<T> loaded = List.copyOf(repository.findAll());
+            synchronized (this) {
+                if (loadGeneration == generation && loaded.size() <= properties.getMaxEntries()) {
+                    all = loaded;
+                    loaded.forEach(row -> entries.put(id.apply(row), row));
+                }
+            }
+            return loaded;
+        }
+
+        public synchronized void invalidate() {
+            clear();
+            invalidations++;
+        }
+
+        private void clear() {
+            entries.clear();
+            all = null;
+            generation++;
+        }
+
+        private synchronized void put(T row, long loadGeneration) {
+            if (loadGeneration != generation) {
+                return;
+            }
+            entries.put(id.apply(row), row);
+            if (entries.size() > properties.getMaxEntries()) {
+                Iterator<Integer> eldest = entries.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+                evictions++;
+                all = null;
+            }
+        }
+
+        private synchronized void onVersion(Long version) {
+            if (!Objects.equals(version, dataVersion)) {
+                if (dataVersion != null) {
+                    log.debug("Reference table {} changed (version {} -> {}), invalidating", table, dataVersion, version);
+                    invalidations++;
+                }
+                dataVersion = version;
+                clear();
+            }
+        }
+
+        private synchronized CacheStatsDto stats() {
+            CacheStatsDto dto = new CacheStatsDto();
+            dto.setRegion(table);
+            dto.setSize(entries.size());
+            dto.setMaxEntries(properties.getMaxEntries());
+            dto.setHits(hits);
+            dto.setMisses(misses);
+            dto.setEvictions(evictions);
+            dto.setInvalidations(invalidations);
+            dto.setDataVersion(dataVersion);
+            return dto;
+        }
+    }
+}
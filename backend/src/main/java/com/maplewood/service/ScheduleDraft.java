@@ -0,0 +1,18 @@
+package com.maplewood.service;
+
+import com.maplewood.entity.CourseSection;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A schedule version written by ScheduleWriter but not yet published.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ScheduleDraft {
+    private final Integer semesterId;
+    private final Integer versionId;
+    private final List<CourseSection> sections;
+}
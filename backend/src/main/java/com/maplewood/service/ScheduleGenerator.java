@@ -1,30 +1,24 @@
 package com.maplewood.service;
 
+import com.maplewood.config.SchedulingProperties;
 import com.maplewood.entity.*;
-import com.maplewood.repository.*;
-import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 
 /**
  * Extracted scheduling algorithm logic following Single Responsibility Principle.
- * Responsible only for the constraint satisfaction algorithm.
+ * Responsible only for the constraint satisfaction algorithm; it works purely in memory
+ * against a SchedulingContext and AvailabilityGrid and never touches the database.
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class ScheduleGenerator {
 
-    private final TeacherRepository teacherRepository;
-    private final ClassroomRepository classroomRepository;
-    private final SpecializationRepository specializationRepository;
-    private final CourseSectionRepository courseSectionRepository;
-    private final CourseSectionMeetingRepository meetingRepository;
-    private final EntityManager entityManager;
+    private final SchedulingProperties schedulingProperties;
 
     private static final int SCHOOL_START_HOUR = 9;
     private static final int SCHOOL_END_HOUR = 17;
@@ -35,94 +29,63 @@ public class ScheduleGenerator {
     private static final int MIN_SESSION_HOURS = 1;
 
     /**
-     * Attempts to create a course section with teacher, room, and time slot assignments.
+     * Attempts to plan a course section with teacher, room, and time slot assignments,
+     * booking them in the grid. Nothing is persisted; see ScheduleWriter.
      * Returns null if no valid assignment can be found.
      */
-    public CourseSection createSection(Course course, Semester semester,
-                                      Map<Integer, Map<String, List<TimeSlot>>> teacherSchedule,
-                                      Map<Integer, Map<String, List<TimeSlot>>> roomSchedule) {
-        List<Teacher> teachers = teacherRepository.findBySpecializationId(course.getSpecializationId());
+    public PlannedSection planSection(Course course, SchedulingContext context, AvailabilityGrid grid) {
+        List<Teacher> teachers = context.teachersFor(course.getSpecializationId());
         if (teachers.isEmpty()) {
             log.warn("No teachers found for specialization {} (course: {})", course.getSpecializationId(), course.getCode());
             return null;
         }
 
-        Specialization specialization = specializationRepository.findById(course.getSpecializationId())
-                .orElseThrow(() -> new IllegalArgumentException("Specialization not found: " + course.getSpecializationId()));
-        Integer requiredRoomTypeId = specialization.getRoomTypeId();
+        // Already resolved to the default classroom type when the specialization has none assigned
+        Integer requiredRoomTypeId = context.roomTypeFor(course.getSpecializationId());
 
-        // If specialization doesn't have a room type assigned, use default classroom (room_type_id = 1)
-        // This handles cases where the database has NULL room_type_id for specializations
-        if (requiredRoomTypeId == null) {
-            log.debug("Specialization {} has no room type assigned, using default classroom (room_type_id=1)", 
-                    specialization.getName());
-            requiredRoomTypeId = 1; // Default to general classroom
-        }
-
-        List<Classroom> availableRooms = classroomRepository.findByRoomTypeId(requiredRoomTypeId);
+        List<Classroom> availableRooms = context.roomsOfType(requiredRoomTypeId);
         if (availableRooms.isEmpty()) {
             log.warn("No rooms found for room type {} (course: {}, specialization: {})", 
-                    requiredRoomTypeId, course.getCode(), specialization.getName());
+                    requiredRoomTypeId, course.getCode(), context.specializationName(course.getSpecializationId()));
             return null;
         }
 
         log.debug("Trying to create section for course {} ({} hours/week). {} teachers, {} rooms available", 
                 course.getCode(), course.getHoursPerWeek(), teachers.size(), availableRooms.size());
 
+        PlannedSection section = firstFit(course, teachers, availableRooms, 0, grid);
+        if (section != null) {
+            log.debug("Successfully allocated {} time slots for course {} with teacher {} and room {}",
+                    section.getTimeSlots().size(), course.getCode(), section.getTeacherId(), section.getClassroomId());
+            return section;
+        }
+        
+        log.warn("Could not create section for course {} ({} hours/week) - no available time slots found", 
+                course.getCode(), course.getHoursPerWeek());
+        return null;
+    }
+
+    /**
+     * Books the first teacher/room pair, in the given orders, that fits all the course's hours
+     * when the week is walked from {@code firstDay}. Returns null if none fits. Does not log.
+     */
+    PlannedSection firstFit(Course course, List<Teacher> teachers, List<Classroom> rooms, int firstDay,
+                            AvailabilityGrid grid) {
         for (Teacher teacher : teachers) {
-            for (Classroom room : availableRooms) {
+            for (Classroom room : rooms) {
                 List<TimeSlot> timeSlots = findAvailableTimeSlots(
-                        course.getHoursPerWeek(),
-                        teacher.getId(),
-                        room.getId(),
-                        teacherSchedule,
-                        roomSchedule
-                );
-
+                        course.getHoursPerWeek(), teacher.getId(), room.getId(), firstDay, grid);
                 if (timeSlots != null && !timeSlots.isEmpty()) {
-                    log.debug("Successfully allocated {} time slots for course {} with teacher {} and room {}", 
-                            timeSlots.size(), course.getCode(), teacher.getId(), room.getId());
-                    
-                    CourseSection section = new CourseSection();
-                    section.setCourseId(course.getId());
-                    section.setTeacherId(teacher.getId());
-                    section.setClassroomId(room.getId());
-                    section.setSemesterId(semester.getId());
-                    section.setCapacity(room.getCapacity());
-                    section.setCreatedAt(java.time.LocalDateTime.now());
-                    
-                    // Save section first to get the ID
-                    section = courseSectionRepository.save(section);
-                    entityManager.flush(); // Ensure ID is generated for SQLite
-                    
-                    // Save meetings directly - don't use bidirectional relationship to avoid collection issues
-                    Integer sectionId = section.getId();
-                    for (TimeSlot slot : timeSlots) {
-                        CourseSectionMeeting meeting = new CourseSectionMeeting();
-                        meeting.setCourseSectionId(sectionId);
-                        meeting.setDayOfWeek(CourseSectionMeeting.DayOfWeek.valueOf(slot.day));
-                        meeting.setStartTime(slot.startTime);
-                        meeting.setEndTime(slot.endTime);
-                        meetingRepository.save(meeting);
-                    }
-                    entityManager.flush();
-                    
-                    // Don't reload - just return the section as-is
-                    // The meetings will be loaded lazily when needed via the repository
-
-                    updateAvailability(teacher.getId(), room.getId(), timeSlots, teacherSchedule, roomSchedule);
-                    return section;
+                    updateAvailability(teacher.getId(), room.getId(), timeSlots, grid);
+                    return new PlannedSection(course, teacher.getId(), room.getId(), room.getCapacity(), timeSlots);
                 }
             }
         }
-        
-        log.warn("Could not create section for course {} ({} hours/week) - no available time slots found", 
-                course.getCode(), course.getHoursPerWeek());
         return null;
     }
 
     /**
-     * Calculates how many sections are needed for a course based on demand.
+     * Hours-based section count, used when demand estimation is disabled (see DemandEstimator).
      */
     public int calculateSectionsNeeded(Course course) {
         if ("core".equals(course.getCourseType())) {
@@ -132,115 +95,127 @@ public class ScheduleGenerator {
         }
     }
 
-    private List<TimeSlot> findAvailableTimeSlots(int hoursPerWeek, Integer teacherId, Integer roomId,
-                                                   Map<Integer, Map<String, List<TimeSlot>>> teacherSchedule,
-                                                   Map<Integer, Map<String, List<TimeSlot>>> roomSchedule) {
+    /**
+     * Creates an empty availability grid for one generation run, using the configured period length.
+     */
+    public AvailabilityGrid createAvailabilityGrid() {
+        return new AvailabilityGrid(schedulingProperties.getSlotMinutes(),
+                SCHOOL_START_HOUR, SCHOOL_END_HOUR, LUNCH_START_HOUR, LUNCH_END_HOUR);
+    }
+
+    List<TimeSlot> findAvailableTimeSlots(int hoursPerWeek, Integer teacherId, Integer roomId,
+                                          AvailabilityGrid grid) {
+        return findAvailableTimeSlots(hoursPerWeek, teacherId, roomId, 0, grid);
+    }
+
+    /**
+     * First-fit weekly slot pattern for one teacher/room pair, walking the week from {@code firstDay}
+     * (wrapping around), or null if the hours cannot all be placed. Does not book anything and
+     * does not log, so search strategies can call it in their inner loops.
+     */
+    List<TimeSlot> findAvailableTimeSlots(int hoursPerWeek, Integer teacherId, Integer roomId,
+                                          int firstDay, AvailabilityGrid grid) {
         List<TimeSlot> result = new ArrayList<>();
         int remainingHours = hoursPerWeek;
-        String[] days = {"MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY"};
+        int slotsPerHour = grid.slotsPerHour();
+        int maxDailySlots = MAX_DAILY_TEACHER_HOURS * slotsPerHour;
 
         // Try to allocate hours across multiple days
         // For courses with many hours, we need to distribute them across the week
-        for (String day : days) {
+        for (int offset = 0; offset < AvailabilityGrid.DAYS.length; offset++) {
             if (remainingHours <= 0) break;
+            int day = (firstDay + offset) % AvailabilityGrid.DAYS.length;
 
-            List<TimeSlot> teacherSlots = teacherSchedule
-                    .getOrDefault(teacherId, new HashMap<>())
-                    .getOrDefault(day, new ArrayList<>());
-            List<TimeSlot> roomSlots = roomSchedule
-                    .getOrDefault(roomId, new HashMap<>())
-                    .getOrDefault(day, new ArrayList<>());
-
-            int teacherDayHours = calculateDayHours(teacherSlots);
-            if (teacherDayHours >= MAX_DAILY_TEACHER_HOURS) {
+            int teacherDaySlots = grid.teacherSlotsOnDay(teacherId, day);
+            if (teacherDaySlots >= maxDailySlots) {
                 continue; // Teacher already at max hours for this day
             }
 
-            // Calculate how many hours we can still allocate on this day
-            int availableDayHours = MAX_DAILY_TEACHER_HOURS - teacherDayHours;
+            // Calculate how many whole hours we can still allocate on this day
+            int availableDayHours = (maxDailySlots - teacherDaySlots) / slotsPerHour;
             int hoursToAllocate = Math.min(remainingHours, availableDayHours);
-            
-            // Try to find a slot for the remaining hours (or what we can fit)
-            TimeSlot slot = findAvailableSlot(day, teacherSlots, roomSlots, Math.min(hoursToAllocate, MAX_SESSION_HOURS));
+            if (hoursToAllocate < MIN_SESSION_HOURS) {
+                continue;
+            }
+
+            // Longest session first; findAvailableSlot falls back to shorter ones on partial conflicts
+            TimeSlot slot = findAvailableSlot(day, teacherId, roomId, Math.min(hoursToAllocate, MAX_SESSION_HOURS), grid);
             if (slot != null) {
                 result.add(slot);
                 remainingHours -= slot.hours;
-            } else {
-                // If we can't find a slot on this day, try a smaller duration
-                // This helps when there are partial conflicts
-                for (int tryHours = Math.min(hoursToAllocate, MAX_SESSION_HOURS); tryHours >= MIN_SESSION_HOURS; tryHours--) {
-                    slot = findAvailableSlot(day, teacherSlots, roomSlots, tryHours);
-                    if (slot != null) {
-                        result.add(slot);
-                        remainingHours -= slot.hours;
-                        break;
-                    }
-                }
             }
         }
 
         // If we couldn't allocate all hours, return null (strict requirement)
-        // But log why it failed for debugging
         if (remainingHours > 0) {
-            log.debug("Could not allocate all {} hours for teacher {} room {}. Remaining: {}", 
-                    hoursPerWeek, teacherId, roomId, remainingHours);
             return null;
         }
 
         return result.isEmpty() ? null : result;
     }
 
-    private TimeSlot findAvailableSlot(String day, List<TimeSlot> teacherSlots, List<TimeSlot> roomSlots,
-                                      int maxHours) {
-        for (int startHour = SCHOOL_START_HOUR; startHour < SCHOOL_END_HOUR; startHour++) {
-            if (startHour >= LUNCH_START_HOUR && startHour < LUNCH_END_HOUR) {
-                continue;
-            }
-
+    private TimeSlot findAvailableSlot(int day, Integer teacherId, Integer roomId, int maxHours,
+                                       AvailabilityGrid grid) {
+        int slotsPerHour = grid.slotsPerHour();
+        for (int startSlot = 0; startSlot < grid.getSlotsPerDay(); startSlot++) {
             for (int duration = Math.min(maxHours, MAX_SESSION_HOURS); duration >= MIN_SESSION_HOURS; duration--) {
-                int endHour = startHour + duration;
-                
-                if (startHour < LUNCH_END_HOUR && endHour > LUNCH_START_HOUR) {
-                    continue;
-                }
-                if (endHour > SCHOOL_END_HOUR) {
-                    continue;
+                int length = duration * slotsPerHour;
+                if (!grid.isBookable(startSlot, length)) {
+                    continue; // Runs past the end of the day or into lunch
                 }
 
-                TimeSlot candidate = new TimeSlot(day, formatTime(startHour), formatTime(endHour), duration);
-                if (!hasConflict(candidate, teacherSlots) && !hasConflict(candidate, roomSlots)) {
-                    return candidate;
+                long mask = grid.window(startSlot, length);
+                if (grid.isFree(teacherId, roomId, day, mask)) {
+                    return new TimeSlot(AvailabilityGrid.DAYS[day], grid.formatSlot(startSlot),
+                            grid.formatSlot(startSlot + length), duration, day, mask);
                 }
             }
         }
         return null;
     }
 
-    private boolean hasConflict(TimeSlot candidate, List<TimeSlot> existing) {
-        return existing.stream().anyMatch(candidate::overlaps);
+    /**
+     * True if an existing slot pattern can be booked as-is for the given teacher and room:
+     * every period is free and the teacher stays within the daily hour limit.
+     */
+    boolean canBook(Integer teacherId, Integer roomId, List<TimeSlot> timeSlots, AvailabilityGrid grid) {
+        int maxDailySlots = MAX_DAILY_TEACHER_HOURS * grid.slotsPerHour();
+        for (TimeSlot slot : timeSlots) {
+            if (!grid.isFree(teacherId, roomId, slot.dayIndex, slot.mask)
+                    || grid.teacherSlotsOnDay(teacherId, slot.dayIndex) + Long.bitCount(slot.mask) > maxDailySlots) {
+                return false;
+            }
+        }
+        return true;
     }
 
-    private int calculateDayHours(List<TimeSlot> slots) {
-        return slots.stream().mapToInt(s -> s.hours).sum();
+    /**
+     * Time slots of stored meetings, so an existing section can be pinned in a grid.
+     */
+    List<TimeSlot> toTimeSlots(List<CourseSectionMeeting> meetings, AvailabilityGrid grid) {
+        List<TimeSlot> slots = new ArrayList<>(meetings.size());
+        for (CourseSectionMeeting meeting : meetings) {
+            int day = meeting.getDayOfWeek().ordinal();
+            int start = grid.parseSlot(meeting.getStartTime());
+            int length = grid.parseSlot(meeting.getEndTime()) - start;
+            slots.add(new TimeSlot(AvailabilityGrid.DAYS[day], meeting.getStartTime(), meeting.getEndTime(),
+                    length / grid.slotsPerHour(), day, grid.window(start, length)));
+        }
+        return slots;
     }
 
-    private void updateAvailability(Integer teacherId, Integer roomId, List<TimeSlot> timeSlots,
-                                   Map<Integer, Map<String, List<TimeSlot>>> teacherSchedule,
-                                   Map<Integer, Map<String, List<TimeSlot>>> roomSchedule) {
-        // Update availability for each day that has a time slot
+    void updateAvailability(Integer teacherId, Integer roomId, List<TimeSlot> timeSlots,
+                            AvailabilityGrid grid) {
         for (TimeSlot slot : timeSlots) {
-            teacherSchedule.computeIfAbsent(teacherId, k -> new HashMap<>())
-                    .computeIfAbsent(slot.day, k -> new ArrayList<>())
-                    .add(slot);
-            
-            roomSchedule.computeIfAbsent(roomId, k -> new HashMap<>())
-                    .computeIfAbsent(slot.day, k -> new ArrayList<>())
-                    .add(slot);
+            grid.occupy(teacherId, roomId, slot.dayIndex, slot.mask);
         }
     }
 
-    private String formatTime(int hour) {
-        return String.format("%02d:00", hour);
+    void releaseAvailability(Integer teacherId, Integer roomId, List<TimeSlot> timeSlots,
+                             AvailabilityGrid grid) {
+        for (TimeSlot slot : timeSlots) {
+            grid.release(teacherId, roomId, slot.dayIndex, slot.mask);
+        }
     }
 
     // Helper class for time slot management
@@ -249,26 +224,16 @@ public class ScheduleGenerator {
         String startTime;
         String endTime;
         int hours;
+        int dayIndex;
+        long mask; // Occupied periods on dayIndex in the availability grid
 
-        TimeSlot(String day, String startTime, String endTime, int hours) {
+        TimeSlot(String day, String startTime, String endTime, int hours, int dayIndex, long mask) {
             this.day = day;
             this.startTime = startTime;
             this.endTime = endTime;
             this.hours = hours;
-        }
-
-        boolean overlaps(TimeSlot other) {
-            if (!day.equals(other.day)) return false;
-            int start1 = parseHour(startTime);
-            int end1 = parseHour(endTime);
-            int start2 = parseHour(other.startTime);
-            int end2 = parseHour(other.endTime);
-            return !(end1 <= start2 || end2 <= start1);
-        }
-
-        private int parseHour(String time) {
-            return Integer.parseInt(time.split(":")[0]);
+            this.dayIndex = dayIndex;
+            this.mask = mask;
         }
     }
 }
-
@@ -0,0 +1,438 @@
+package com.maplewood.service;
+
+import com.maplewood.config.SchedulingProperties;
+import com.maplewood.entity.Classroom;
+import com.maplewood.entity.Course;
+import com.maplewood.entity.Teacher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Anytime improvement phase run after a ScheduleStrategy.
+ * Simulated annealing over section insert, relocate, eject-and-insert and teacher-swap moves,
+ * scored by ScheduleObjective. Every move is delta-evaluated from the teacher-days it touches
+ * only, so a few seconds of budget cover millions of moves. The best schedule seen is kept and
+ * returned when the wall-clock budget runs out; it is never worse than the starting one.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ScheduleImprover {
+
+    private static final double START_TEMPERATURE = 200.0;
+    private static final double END_TEMPERATURE = 0.5;
+    private static final int PLACEMENT_ATTEMPTS = 4;
+
+    private final ScheduleGenerator scheduleGenerator;
+    private final SchedulingProperties schedulingProperties;
+
+    /**
+     * Improves {@code initial} for at most {@code budgetMillis}. The same seed and move count
+     * give the same walk; the wall-clock budget decides how far it gets.
+     */
+    public ScheduleResult improve(ScheduleProblem problem, ScheduleResult initial, long budgetMillis, long seed) {
+        if (budgetMillis <= 0 || problem.totalSectionsNeeded() == 0) {
+            return initial;
+        }
+        Annealing annealing = new Annealing(problem, initial, seed);
+        long startScore = annealing.bestScore;
+        annealing.run(budgetMillis);
+        log.info("Local search tried {} moves in {} ms, score {} -> {}",
+                annealing.moves, budgetMillis, startScore, annealing.bestScore);
+        ScheduleResult result = annealing.toResult(initial.getStrategy() + "+local-search");
+        problem.report(result.getSections());
+        return result;
+    }
+
+    private final class Annealing {
+        private final ScheduleProblem problem;
+        private final SchedulingContext context;
+        private final AvailabilityGrid grid;
+        private final Random random;
+
+        // One variable per section the problem asks for
+        private final int[] courseOf;
+        private final List<Course> courses;
+        private final int[][] competitors;
+        private final List<List<Teacher>> teacherPools = new ArrayList<>();
+        private final List<List<Classroom>> roomPools = new ArrayList<>();
+
+        private final Placement[] current;
+        private Placement[] best;
+        private final int[] placedPerCourse;
+        private final IndexSet unplaced;
+        private final IndexSet placed;
+
+        private long score;
+        private long bestScore;
+        private long moves;
+
+        Annealing(ScheduleProblem problem, ScheduleResult initial, long seed) {
+            this.problem = problem;
+            this.context = problem.getContext();
+            this.grid = problem.newGrid();
+            this.random = new Random(seed);
+            this.courses = problem.getCourses();
+
+            boolean allowFallback = schedulingProperties.getImprover().isAllowRoomFallback();
+            Map<Integer, Integer> courseIndex = new HashMap<>();
+            List<Integer> variables = new ArrayList<>();
+            for (int c = 0; c < courses.size(); c++) {
+                Course course = courses.get(c);
+                courseIndex.put(course.getId(), c);
+                teacherPools.add(context.teachersFor(course.getSpecializationId()));
+                List<Classroom> rooms = new ArrayList<>(context.roomsFor(course.getSpecializationId()));
+                if (allowFallback) {
+                    rooms.addAll(context.fallbackRoomsFor(course.getSpecializationId()));
+                }
+                roomPools.add(rooms);
+                for (int k = 0; k < problem.sectionsNeeded(course); k++) {
+                    variables.add(c);
+                }
+            }
+            courseOf = variables.stream().mapToInt(Integer::intValue).toArray();
+            competitors = buildCompetitors();
+
+            current = new Placement[courseOf.length];
+            placedPerCourse = new int[courses.size()];
+            unplaced = new IndexSet(courseOf.length);
+            placed = new IndexSet(courseOf.length);
+            for (int v = 0; v < courseOf.length; v++) {
+                unplaced.add(v);
+            }
+
+            // Seed the state with the starting schedule, one free variable of its course per section
+            Map<Integer, Integer> nextVariable = new HashMap<>();
+            for (PlannedSection section : initial.getSections()) {
+                Integer c = courseIndex.get(section.getCourse().getId());
+                if (c == null) continue;
+                int v = nextFreeVariable(c, nextVariable);
+                if (v < 0) continue;
+                Classroom room = findRoom(c, section.getClassroomId());
+                if (room == null) continue;
+                book(v, new Placement(section.getTeacherId(), room, section.getTimeSlots(), !isOwnRoom(c, room)));
+            }
+            score = ScheduleObjective.score(problem, toSections(current));
+            best = current.clone();
+            bestScore = score;
+        }
+
+        void run(long budgetMillis) {
+            long start = System.nanoTime();
+            long budgetNanos = budgetMillis * 1_000_000L;
+            double temperature = START_TEMPERATURE;
+            boolean bestChanged = false;
+            while (true) {
+                if ((moves & 0x3FF) == 0) {
+                    long elapsed = System.nanoTime() - start;
+                    if (elapsed >= budgetNanos) break;
+                    problem.checkCancelled();
+                    double progress = (double) elapsed / budgetNanos;
+                    temperature = START_TEMPERATURE * Math.pow(END_TEMPERATURE / START_TEMPERATURE, progress);
+                }
+                moves++;
+
+                int pick = random.nextInt(10);
+                if (!unplaced.isEmpty() && pick < 5) {
+                    if (pick < 3) tryInsert(temperature);
+                    else tryEjectAndInsert(temperature);
+                } else if (!placed.isEmpty()) {
+                    if (pick < 8) tryRelocate(temperature);
+                    else trySwapTeachers(temperature);
+                }
+
+                if (score < bestScore) {
+                    bestScore = score;
+                    best = current.clone();
+                    bestChanged = true;
+                }
+                if (bestChanged && (moves & 0xFFFF) == 0) {
+                    problem.report(toSections(best));
+                    bestChanged = false;
+                }
+            }
+        }
+
+        private void tryInsert(double temperature) {
+            int v = unplaced.random(random);
+            long delta = placeRandomly(v);
+            if (delta == Long.MAX_VALUE) return;
+            if (!accept(delta, temperature)) {
+                unbook(v);
+            }
+        }
+
+        private void tryRelocate(double temperature) {
+            int v = placed.random(random);
+            Placement previous = current[v];
+            long delta = unbook(v);
+            long placedDelta = placeRandomly(v);
+            if (placedDelta != Long.MAX_VALUE && accept(delta + placedDelta, temperature)) {
+                return;
+            }
+            if (placedDelta != Long.MAX_VALUE) unbook(v);
+            book(v, previous);
+        }
+
+        /**
+         * Frees a competing section to make room for an unplaced one, then tries to put the
+         * competitor back somewhere else.
+         */
+        private void tryEjectAndInsert(double temperature) {
+            int u = unplaced.random(random);
+            int[] rivals = competitors[courseOf[u]];
+            if (rivals.length == 0) return;
+            int a = randomPlacedVariableOf(rivals);
+            if (a < 0) return;
+
+            Placement previous = current[a];
+            long delta = unbook(a);
+            long insertDelta = placeRandomly(u);
+            if (insertDelta == Long.MAX_VALUE) {
+                book(a, previous);
+                return;
+            }
+            delta += insertDelta;
+            long reinsertDelta = placeRandomly(a);
+            if (reinsertDelta != Long.MAX_VALUE) delta += reinsertDelta;
+
+            if (!accept(delta, temperature)) {
+                if (current[a] != null) unbook(a);
+                unbook(u);
+                book(a, previous);
+            }
+        }
+
+        /**
+         * Exchanges the teachers of two sections of the same specialization, keeping rooms and times.
+         */
+        private void trySwapTeachers(double temperature) {
+            int a = placed.random(random);
+            int b = placed.random(random);
+            Placement pa = current[a];
+            Placement pb = current[b];
+            if (a == b || pa.teacherId.equals(pb.teacherId)
+                    || !courses.get(courseOf[a]).getSpecializationId().equals(courses.get(courseOf[b]).getSpecializationId())) {
+                return;
+            }
+
+            long delta = unbook(a) + unbook(b);
+            Placement na = new Placement(pb.teacherId, pa.room, pa.slots, pa.misfit);
+            Placement nb = new Placement(pa.teacherId, pb.room, pb.slots, pb.misfit);
+            if (scheduleGenerator.canBook(na.teacherId, na.room.getId(), na.slots, grid)) {
+                delta += book(a, na);
+                if (scheduleGenerator.canBook(nb.teacherId, nb.room.getId(), nb.slots, grid)) {
+                    delta += book(b, nb);
+                    if (accept(delta, temperature)) return;
+                    unbook(b);
+                }
+                unbook(a);
+            }
+            book(a, pa);
+            book(b, pb);
+        }
+
+        /**
+         * Books variable {@code v} with a random teacher, room and starting day.
+         * Returns the score delta, or Long.MAX_VALUE if no attempt found a slot pattern.
+         */
+        private long placeRandomly(int v) {
+            int c = courseOf[v];
+            List<Teacher> teachers = teacherPools.get(c);
+            List<Classroom> rooms = roomPools.get(c);
+            if (teachers.isEmpty() || rooms.isEmpty()) return Long.MAX_VALUE;
+            int hours = courses.get(c).getHoursPerWeek();
+            for (int attempt = 0; attempt < PLACEMENT_ATTEMPTS; attempt++) {
+                Teacher teacher = teachers.get(random.nextInt(teachers.size()));
+                Classroom room = rooms.get(random.nextInt(rooms.size()));
+                int firstDay = random.nextInt(AvailabilityGrid.DAYS.length);
+                List<ScheduleGenerator.TimeSlot> slots = scheduleGenerator.findAvailableTimeSlots(
+                        hours, teacher.getId(), room.getId(), firstDay, grid);
+                if (slots != null) {
+                    return book(v, new Placement(teacher.getId(), room, slots, !isOwnRoom(c, room)));
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+
+        private boolean accept(long delta, double temperature) {
+            return delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature);
+        }
+
+        /**
+         * Books a placement and returns the score delta, computed from the touched teacher-days only.
+         */
+        private long book(int v, Placement placement) {
+            long delta = loadDelta(placement, true);
+            scheduleGenerator.updateAvailability(placement.teacherId, placement.room.getId(), placement.slots, grid);
+            current[v] = placement;
+            unplaced.remove(v);
+            placed.add(v);
+            delta -= ScheduleObjective.UNPLACED_SECTION_WEIGHT;
+            if (placedPerCourse[courseOf[v]]++ == 0) delta -= ScheduleObjective.UNCOVERED_COURSE_WEIGHT;
+            if (placement.misfit) delta += ScheduleObjective.ROOM_MISFIT_WEIGHT;
+            score += delta;
+            return delta;
+        }
+
+        private long unbook(int v) {
+            Placement placement = current[v];
+            long delta = loadDelta(placement, false);
+            scheduleGenerator.releaseAvailability(placement.teacherId, placement.room.getId(), placement.slots, grid);
+            current[v] = null;
+            placed.remove(v);
+            unplaced.add(v);
+            delta += ScheduleObjective.UNPLACED_SECTION_WEIGHT;
+            if (--placedPerCourse[courseOf[v]] == 0) delta += ScheduleObjective.UNCOVERED_COURSE_WEIGHT;
+            if (placement.misfit) delta -= ScheduleObjective.ROOM_MISFIT_WEIGHT;
+            score += delta;
+            return delta;
+        }
+
+        private long loadDelta(Placement placement, boolean adding) {
+            long delta = 0;
+            for (ScheduleGenerator.TimeSlot slot : placement.slots) {
+                int before = grid.teacherSlotsOnDay(placement.teacherId, slot.dayIndex);
+                int change = Long.bitCount(slot.mask);
+                int after = adding ? before + change : before - change;
+                delta += ScheduleObjective.teacherDayCost(after) - ScheduleObjective.teacherDayCost(before);
+            }
+            return delta;
+        }
+
+        private int randomPlacedVariableOf(int[] rivalCourses) {
+            for (int attempt = 0; attempt < PLACEMENT_ATTEMPTS; attempt++) {
+                int c = rivalCourses[random.nextInt(rivalCourses.length)];
+                if (placedPerCourse[c] == 0) continue;
+                int v = placed.random(random);
+                if (courseOf[v] == c) return v;
+                for (int candidate = 0; candidate < courseOf.length; candidate++) {
+                    if (courseOf[candidate] == c && current[candidate] != null) return candidate;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Courses sharing a teacher pool or a room pool with each course.
+         */
+        private int[][] buildCompetitors() {
+            int n = courses.size();
+            int[][] result = new int[n][];
+            for (int i = 0; i < n; i++) {
+                Set<Integer> roomIds = new HashSet<>();
+                roomPools.get(i).forEach(room -> roomIds.add(room.getId()));
+                List<Integer> related = new ArrayList<>();
+                for (int j = 0; j < n; j++) {
+                    boolean sharesTeachers = courses.get(j).getSpecializationId().equals(courses.get(i).getSpecializationId());
+                    boolean sharesRooms = roomPools.get(j).stream().anyMatch(room -> roomIds.contains(room.getId()));
+                    if (sharesTeachers || sharesRooms) related.add(j);
+                }
+                result[i] = related.stream().mapToInt(Integer::intValue).toArray();
+            }
+            return result;
+        }
+
+        private int nextFreeVariable(int c, Map<Integer, Integer> nextVariable) {
+            int from = nextVariable.getOrDefault(c, 0);
+            for (int v = from; v < courseOf.length; v++) {
+                if (courseOf[v] == c && current[v] == null) {
+                    nextVariable.put(c, v + 1);
+                    return v;
+                }
+            }
+            return -1;
+        }
+
+        private Classroom findRoom(int c, Integer roomId) {
+            for (Classroom room : roomPools.get(c)) {
+                if (room.getId().equals(roomId)) return room;
+            }
+            return null;
+        }
+
+        private boolean isOwnRoom(int c, Classroom room) {
+            return room.getRoomTypeId().equals(context.roomTypeFor(courses.get(c).getSpecializationId()));
+        }
+
+        private List<PlannedSection> toSections(Placement[] placements) {
+            List<PlannedSection> sections = new ArrayList<>();
+            for (int v = 0; v < placements.length; v++) {
+                Placement p = placements[v];
+                if (p != null) {
+                    sections.add(new PlannedSection(courses.get(courseOf[v]), p.teacherId, p.room.getId(),
+                            p.room.getCapacity(), p.slots));
+                }
+            }
+            return sections;
+        }
+
+        ScheduleResult toResult(String strategyName) {
+            List<PlannedSection> sections = toSections(best);
+            Set<Integer> covered = new HashSet<>();
+            sections.forEach(section -> covered.add(section.getCourse().getId()));
+            List<Course> unassigned = new ArrayList<>();
+            for (Course course : courses) {
+                if (problem.sectionsNeeded(course) > 0 && !covered.contains(course.getId())) {
+                    unassigned.add(course);
+                }
+            }
+            return new ScheduleResult(strategyName, sections, unassigned, courseOf.length - sections.size());
+        }
+    }
+
+    private static final class Placement {
+        final Integer teacherId;
+        final Classroom room;
+        final List<ScheduleGenerator.TimeSlot> slots;
+        final boolean misfit;
+
+        Placement(Integer teacherId, Classroom room, List<ScheduleGenerator.TimeSlot> slots, boolean misfit) {
+            this.teacherId = teacherId;
+            this.room = room;
+            this.slots = slots;
+            this.misfit = misfit;
+        }
+    }
+
+    /**
+     * Set of small non-negative ints with O(1) add, remove and uniform random pick.
+     */
+    private static final class IndexSet {
+        private final int[] items;
+        private final int[] positions;
+        private int size;
+
+        IndexSet(int capacity) {
+            items = new int[capacity];
+            positions = new int[capacity];
+            Arrays.fill(positions, -1);
+        }
+
+        void add(int value) {
+            if (positions[value] >= 0) return;
+            positions[value] = size;
+            items[size++] = value;
+        }
+
+        void remove(int value) {
+            int position = positions[value];
+            if (position < 0) return;
+            int last = items[--size];
+            items[position] = last;
+            positions[last] = position;
+            positions[value] = -1;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int random(Random random) {
+            return items[random.nextInt(size)];
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.maplewood.service;
+
+import com.maplewood.dto.ScheduleResponse;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+
+/**
+ * One asynchronous schedule generation run and its live progress.
+ * The job is the ScheduleProgress of its solve: strategies report their best schedule per
+ * (sub-)problem, and the job sums those reports, since component schedules are merged by
+ * concatenation and ScheduleObjective is additive across them.
+ */
+@Getter
+public class ScheduleJob implements ScheduleProgress {
+
+    public enum Status { QUEUED, RUNNING, SUCCEEDED, FAILED, CANCELLED }
+
+    private final String id = UUID.randomUUID().toString();
+    private final Integer semesterId;
+    private final String strategy;
+    private final long improveTimeMillis;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile String phase;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+    private volatile ScheduleResponse result;
+    private volatile boolean cancelRequested;
+    private volatile Future<?> future;
+
+    // Best (sections placed, score) per problem currently being solved; keyed by identity
+    private final Map<ScheduleProblem, long[]> reports = new ConcurrentHashMap<>();
+
+    ScheduleJob(Integer semesterId, String strategy, long improveTimeMillis) {
+        this.semesterId = semesterId;
+        this.strategy = strategy;
+        this.improveTimeMillis = improveTimeMillis;
+    }
+
+    @Override
+    public void report(ScheduleProblem problem, int sectionsPlaced, long score) {
+        reports.put(problem, new long[]{sectionsPlaced, score});
+    }
+
+    @Override
+    public void phase(String phase) {
+        this.phase = phase;
+        reports.clear();
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelRequested;
+    }
+
+    public int getSectionsPlaced() {
+        return (int) reports.values().stream().mapToLong(report -> report[0]).sum();
+    }
+
+    public int getSectionsNeeded() {
+        return reports.keySet().stream().mapToInt(ScheduleProblem::totalSectionsNeeded).sum();
+    }
+
+    /**
+     * Sum of the best ScheduleObjective scores reported so far, or null before the first report.
+     */
+    public Long getBestScore() {
+        return reports.isEmpty() ? null : reports.values().stream().mapToLong(report -> report[1]).sum();
+    }
+
+    public boolean isFinished() {
+        return status == Status.SUCCEEDED || status == Status.FAILED || status == Status.CANCELLED;
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    void requestCancel() {
+        cancelRequested = true;
+    }
+
+    void markRunning() {
+        status = Status.RUNNING;
+        startedAt = LocalDateTime.now();
+    }
+
+    void markSucceeded(ScheduleResponse response) {
+        result = response;
+        finish(Status.SUCCEEDED);
+    }
+
+    void markFailed(String message) {
+        error = message;
+        finish(Status.FAILED);
+    }
+
+    void markCancelled() {
+        finish(Status.CANCELLED);
+    }
+
+    private void finish(Status finalStatus) {
+        finishedAt = LocalDateTime.now();
+        status = finalStatus;
+    }
+}
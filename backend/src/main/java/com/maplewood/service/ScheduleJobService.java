@@ -0,0 +1,176 @@
+package com.maplewood.service;
+
+import com.maplewood.config.SchedulingProperties;
+import com.maplewood.dto.ScheduleJobDto;
+import com.maplewood.dto.ScheduleResponse;
+import com.maplewood.exception.ConflictException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs schedule generation as background jobs on a bounded executor so HTTP requests return
+ * immediately. At most one generation (job or synchronous) runs per semester at a time.
+ * Cancellation is honoured until the write phase starts; after that the job completes.
+ */
+@Service
+@Slf4j
+public class ScheduleJobService {
+
+    private final MasterScheduleService scheduleService;
+    private final SchedulingProperties schedulingProperties;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ScheduleJob> jobs = new ConcurrentHashMap<>();
+    private final Map<Integer, ScheduleJob> activeBySemester = new ConcurrentHashMap<>();
+
+    public ScheduleJobService(MasterScheduleService scheduleService, SchedulingProperties schedulingProperties) {
+        this.scheduleService = scheduleService;
+        this.schedulingProperties = schedulingProperties;
+        SchedulingProperties.Jobs settings = schedulingProperties.getJobs();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(settings.getWorkers(), settings.getWorkers(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(settings.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "schedule-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues a generation job and returns it immediately.
+     */
+    public ScheduleJob submit(Integer semesterId, String strategy, long improveTimeMillis) {
+        ScheduleJob job = reserve(semesterId, strategy, improveTimeMillis);
+        try {
+            job.setFuture(executor.submit(() -> run(job)));
+        } catch (RejectedExecutionException e) {
+            activeBySemester.remove(semesterId, job);
+            throw new ConflictException("Too many schedule generation jobs are queued; try again later");
+        }
+        jobs.put(job.getId(), job);
+        evictFinishedJobs();
+        log.info("Queued schedule job {} for semester {}", job.getId(), semesterId);
+        return job;
+    }
+
+    /**
+     * Generates in the caller's thread, still holding the semester's generation slot.
+     */
+    public ScheduleResponse runNow(Integer semesterId, String strategy, long improveTimeMillis) {
+        return runExclusive(semesterId, strategy,
+                () -> scheduleService.generateSchedule(semesterId, strategy, improveTimeMillis));
+    }
+
+    /**
+     * Runs other work that rewrites the semester's schedule (such as a re-plan) in the caller's
+     * thread, holding the same per-semester slot as generation.
+     */
+    public <T> T runExclusive(Integer semesterId, String label, Supplier<T> work) {
+        ScheduleJob job = reserve(semesterId, label, 0L);
+        try {
+            return work.get();
+        } finally {
+            activeBySemester.remove(semesterId, job);
+        }
+    }
+
+    public ScheduleJob getJob(String jobId) {
+        ScheduleJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new IllegalArgumentException("Schedule job not found: " + jobId);
+        }
+        return job;
+    }
+
+    /**
+     * Asks a job to stop. A queued job is dropped at once; a running one stops at its next
+     * cancellation check and writes nothing. Finished jobs are returned unchanged.
+     */
+    public ScheduleJob cancel(String jobId) {
+        ScheduleJob job = getJob(jobId);
+        if (job.isFinished()) {
+            return job;
+        }
+        job.requestCancel();
+        if (job.getStatus() == ScheduleJob.Status.QUEUED && job.getFuture() != null && job.getFuture().cancel(false)) {
+            job.markCancelled();
+            activeBySemester.remove(job.getSemesterId(), job);
+        }
+        return job;
+    }
+
+    public ScheduleJobDto toDto(ScheduleJob job) {
+        ScheduleJobDto dto = new ScheduleJobDto();
+        dto.setJobId(job.getId());
+        dto.setSemesterId(job.getSemesterId());
+        dto.setStrategy(job.getStrategy());
+        dto.setStatus(job.getStatus().name());
+        dto.setPhase(job.getPhase());
+        dto.setSectionsPlaced(job.getSectionsPlaced());
+        dto.setSectionsNeeded(job.getSectionsNeeded());
+        dto.setBestScore(job.getBestScore());
+        dto.setSubmittedAt(job.getSubmittedAt());
+        dto.setStartedAt(job.getStartedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+        dto.setError(job.getError());
+        dto.setResult(job.getResult());
+        return dto;
+    }
+
+    private ScheduleJob reserve(Integer semesterId, String strategy, long improveTimeMillis) {
+        ScheduleJob job = new ScheduleJob(semesterId, strategy, improveTimeMillis);
+        ScheduleJob running = activeBySemester.putIfAbsent(semesterId, job);
+        if (running != null) {
+            throw new ConflictException(String.format(
+                    "Schedule generation for semester %d is already in progress (job %s)", semesterId, running.getId()));
+        }
+        return job;
+    }
+
+    private void run(ScheduleJob job) {
+        try {
+            if (job.isCancelled()) {
+                job.markCancelled();
+                return;
+            }
+            job.markRunning();
+            ScheduleResponse response = scheduleService.generateSchedule(
+                    job.getSemesterId(), job.getStrategy(), job.getImproveTimeMillis(), job);
+            job.markSucceeded(response);
+            log.info("Schedule job {} finished: {}", job.getId(), response.getSummary().getMessage());
+        } catch (CancellationException e) {
+            job.markCancelled();
+            log.info("Schedule job {} cancelled", job.getId());
+        } catch (RuntimeException e) {
+            job.markFailed(e.getMessage());
+            log.error("Schedule job {} failed", job.getId(), e);
+        } finally {
+            activeBySemester.remove(job.getSemesterId(), job);
+        }
+    }
+
+    private void evictFinishedJobs() {
+        int excess = jobs.size() - schedulingProperties.getJobs().getRetainedJobs();
+        if (excess <= 0) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(ScheduleJob::isFinished)
+                .sorted(Comparator.comparing(ScheduleJob::getSubmittedAt))
+                .limit(excess)
+                .toList()
+                .forEach(job -> jobs.remove(job.getId()));
+    }
+}
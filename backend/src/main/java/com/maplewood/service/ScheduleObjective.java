@@ -0,0 +1,70 @@
+package com.maplewood.service;
+
+import com.maplewood.entity.Course;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Penalty score of a schedule; lower is better.
+ * Terms, from most to least important: courses without any section, sections not placed,
+ * sections in a borrowed room of the wrong type, and teacher daily-load imbalance measured
+ * as the sum of squared booked periods per teacher and day (so spreading load lowers it).
+ */
+final class ScheduleObjective {
+
+    static final long UNCOVERED_COURSE_WEIGHT = 1_000_000L;
+    static final long UNPLACED_SECTION_WEIGHT = 10_000L;
+    static final long ROOM_MISFIT_WEIGHT = 1_000L;
+
+    private ScheduleObjective() {
+    }
+
+    static long teacherDayCost(int bookedPeriods) {
+        return (long) bookedPeriods * bookedPeriods;
+    }
+
+    /**
+     * Full evaluation, used for the starting point of a search and to compare finished results.
+     */
+    static long score(ScheduleProblem problem, List<PlannedSection> sections) {
+        Map<Integer, int[]> teacherDays = new HashMap<>();
+        Set<Integer> coveredCourses = new HashSet<>();
+        long misfits = 0;
+        for (PlannedSection section : sections) {
+            coveredCourses.add(section.getCourse().getId());
+            int[] days = teacherDays.computeIfAbsent(section.getTeacherId(), k -> new int[AvailabilityGrid.DAYS.length]);
+            for (ScheduleGenerator.TimeSlot slot : section.getTimeSlots()) {
+                days[slot.dayIndex] += Long.bitCount(slot.mask);
+            }
+            if (isMisfit(problem.getContext(), section)) {
+                misfits++;
+            }
+        }
+
+        long uncovered = 0;
+        for (Course course : problem.getCourses()) {
+            if (problem.sectionsNeeded(course) > 0 && !coveredCourses.contains(course.getId())) {
+                uncovered++;
+            }
+        }
+        long unplaced = problem.totalSectionsNeeded() - sections.size();
+
+        long load = 0;
+        for (int[] days : teacherDays.values()) {
+            for (int periods : days) {
+                load += teacherDayCost(periods);
+            }
+        }
+        return uncovered * UNCOVERED_COURSE_WEIGHT + unplaced * UNPLACED_SECTION_WEIGHT
+                + misfits * ROOM_MISFIT_WEIGHT + load;
+    }
+
+    static boolean isMisfit(SchedulingContext context, PlannedSection section) {
+        return context.roomsFor(section.getCourse().getSpecializationId()).stream()
+                .noneMatch(room -> room.getId().equals(section.getClassroomId()));
+    }
+}
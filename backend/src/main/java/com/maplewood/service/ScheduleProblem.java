@@ -0,0 +1,105 @@
+package com.maplewood.service;
+
+import com.maplewood.entity.Course;
+import lombok.Getter;
+
+import java.util.*;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Input of one schedule generation run: the courses to place, how many sections each needs,
+ * the preloaded reference data and the starting availability.
+ * Strategies never mutate the problem; each solve works on its own copy of the grid.
+ */
+@Getter
+public class ScheduleProblem {
+
+    /**
+     * Core courses first, then by hours (more hours = more priority), then by id for stable ties.
+     * Allocating resources to important courses first keeps them from being crowded out.
+     */
+    public static final Comparator<Course> PRIORITY_ORDER = Comparator
+            .comparing((Course c) -> !"core".equals(c.getCourseType()))
+            .thenComparing(Course::getHoursPerWeek, Comparator.reverseOrder())
+            .thenComparing(Course::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final List<Course> courses;
+    private final Map<Integer, Integer> sectionsNeeded;
+    private final SchedulingContext context;
+    private final AvailabilityGrid baseGrid;
+    private final ScheduleProgress progress;
+
+    public ScheduleProblem(List<Course> courses, Map<Integer, Integer> sectionsNeeded,
+                           SchedulingContext context, AvailabilityGrid baseGrid) {
+        this(courses, sectionsNeeded, context, baseGrid, ScheduleProgress.NONE);
+    }
+
+    public ScheduleProblem(List<Course> courses, Map<Integer, Integer> sectionsNeeded,
+                           SchedulingContext context, AvailabilityGrid baseGrid, ScheduleProgress progress) {
+        List<Course> ordered = new ArrayList<>(courses);
+        ordered.sort(PRIORITY_ORDER);
+        this.courses = List.copyOf(ordered);
+        this.sectionsNeeded = Map.copyOf(sectionsNeeded);
+        this.context = context;
+        this.baseGrid = baseGrid;
+        this.progress = progress;
+    }
+
+    public int sectionsNeeded(Course course) {
+        return sectionsNeeded.getOrDefault(course.getId(), 0);
+    }
+
+    public int totalSectionsNeeded() {
+        return sectionsNeeded.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /**
+     * Splits the problem into independent sub-problems, one per required room type.
+     * A course competes only for teachers of its specialization and rooms of that specialization's
+     * room type, and each specialization has exactly one room type, so courses in different
+     * groups never share a resource and their sub-problems can be solved separately and merged.
+     * Ordered by room type id.
+     */
+    public List<ScheduleProblem> components() {
+        Map<Integer, List<Course>> byRoomType = new TreeMap<>();
+        for (Course course : courses) {
+            byRoomType.computeIfAbsent(context.roomTypeFor(course.getSpecializationId()), k -> new ArrayList<>())
+                    .add(course);
+        }
+        if (byRoomType.size() <= 1) {
+            return List.of(this);
+        }
+        List<ScheduleProblem> components = new ArrayList<>();
+        for (List<Course> group : byRoomType.values()) {
+            Map<Integer, Integer> groupSections = new HashMap<>();
+            group.forEach(course -> groupSections.put(course.getId(), sectionsNeeded(course)));
+            components.add(new ScheduleProblem(group, groupSections, context, baseGrid, progress));
+        }
+        return components;
+    }
+
+    /**
+     * Publishes the best schedule found so far for this problem.
+     */
+    public void report(List<PlannedSection> bestSections) {
+        if (progress != ScheduleProgress.NONE) {
+            progress.report(this, bestSections.size(), ScheduleObjective.score(this, bestSections));
+        }
+    }
+
+    /**
+     * Throws CancellationException once the caller has asked the solve to stop.
+     */
+    public void checkCancelled() {
+        if (progress.isCancelled()) {
+            throw new CancellationException("Schedule generation was cancelled");
+        }
+    }
+
+    /**
+     * Fresh, private copy of the starting availability for one solve.
+     */
+    public AvailabilityGrid newGrid() {
+        return baseGrid.copy();
+    }
+}
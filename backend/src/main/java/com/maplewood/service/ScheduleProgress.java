@@ -0,0 +1,33 @@
+package com.maplewood.service;
+
+/**
+ * Receives progress from a running schedule solve and lets the caller stop it.
+ * Strategies report through ScheduleProblem#report and poll ScheduleProblem#checkCancelled;
+ * reports may come from several threads when components are solved concurrently.
+ */
+public interface ScheduleProgress {
+
+    ScheduleProgress NONE = new ScheduleProgress() {
+        @Override
+        public void report(ScheduleProblem problem, int sectionsPlaced, long score) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    };
+
+    /**
+     * Best schedule found so far for {@code problem}: sections placed and ScheduleObjective score.
+     */
+    void report(ScheduleProblem problem, int sectionsPlaced, long score);
+
+    /**
+     * Generation moved to a new phase ("solving", "improving", "writing"); earlier reports are superseded.
+     */
+    default void phase(String phase) {
+    }
+
+    boolean isCancelled();
+}
@@ -0,0 +1,243 @@
+package com.maplewood.service;
+
+import com.maplewood.config.SchedulingProperties;
+import com.maplewood.dto.EnrollmentMoveDto;
+import com.maplewood.dto.ReplanRequest;
+import com.maplewood.dto.ReplanResponse;
+import com.maplewood.entity.*;
+import com.maplewood.repository.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Incremental re-planning of a published schedule after a localized change
+ * (teachers or classrooms removed, courses added).
+ * Unaffected sections stay pinned in the availability grid. Each affected section first tries to
+ * keep its times with another teacher or room, so its students are not disturbed, and is only
+ * moved to new times when that fails. Changes are applied in place to the published version.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ScheduleReplanner {
+
+    static final String REASSIGNED = "REASSIGNED";
+    static final String RESCHEDULED = "RESCHEDULED";
+    static final String DROPPED = "DROPPED";
+
+    private final SemesterRepository semesterRepository;
+    private final CourseSectionRepository courseSectionRepository;
+    private final CourseSectionMeetingRepository meetingRepository;
+    private final StudentCourseEnrollmentRepository enrollmentRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final ScheduleGenerator scheduleGenerator;
+    private final DemandEstimator demandEstimator;
+    private final ScheduleWriter scheduleWriter;
+    private final SectionCatalogService sectionCatalogService;
+    private final SchedulingProperties schedulingProperties;
+
+    public ReplanResponse replan(ReplanRequest request) {
+        Integer semesterId = request.getSemesterId();
+        semesterRepository.findById(semesterId)
+                .orElseThrow(() -> new IllegalArgumentException("Semester not found: " + semesterId));
+        Integer versionId = semesterRepository.findPublishedScheduleVersionId(semesterId);
+        List<CourseSection> sections = courseSectionRepository.findPublishedBySemesterId(semesterId);
+        if (versionId == null || sections.isEmpty()) {
+            throw new IllegalArgumentException("Semester " + semesterId + " has no published schedule to re-plan");
+        }
+
+        Set<Integer> removedTeachers = new HashSet<>(request.getRemovedTeacherIds());
+        Set<Integer> removedRooms = new HashSet<>(request.getRemovedClassroomIds());
+        SchedulingContext context = SchedulingContext.of(
+                referenceDataCache.teachers().all().stream().filter(t -> !removedTeachers.contains(t.getId())).toList(),
+                referenceDataCache.classrooms().all().stream().filter(r -> !removedRooms.contains(r.getId())).toList(),
+                referenceDataCache.specializations().all());
+
+        List<Integer> sectionIds = sections.stream().map(CourseSection::getId).toList();
+        Map<Integer, List<CourseSectionMeeting>> meetingsBySection = meetingRepository.findByCourseSectionIdIn(sectionIds)
+                .stream().collect(Collectors.groupingBy(CourseSectionMeeting::getCourseSectionId));
+        Map<Integer, List<StudentCourseEnrollment>> enrollmentsBySection = enrollmentRepository
+                .findByCourseSectionIdIn(sectionIds).stream()
+                .collect(Collectors.groupingBy(StudentCourseEnrollment::getCourseSectionId));
+        Set<Integer> courseIds = new HashSet<>(request.getAddedCourseIds());
+        sections.forEach(section -> courseIds.add(section.getCourseId()));
+        Map<Integer, Course> courses = referenceDataCache.courses().getAll(courseIds);
+
+        // Pin every unaffected section; collect the affected ones
+        AvailabilityGrid grid = scheduleGenerator.createAvailabilityGrid();
+        List<CourseSection> affected = new ArrayList<>();
+        Map<Integer, List<ScheduleGenerator.TimeSlot>> slotsBySection = new HashMap<>();
+        for (CourseSection section : sections) {
+            List<ScheduleGenerator.TimeSlot> slots = scheduleGenerator.toTimeSlots(
+                    meetingsBySection.getOrDefault(section.getId(), List.of()), grid);
+            slotsBySection.put(section.getId(), slots);
+            if (removedTeachers.contains(section.getTeacherId()) || removedRooms.contains(section.getClassroomId())) {
+                affected.add(section);
+            } else {
+                scheduleGenerator.updateAvailability(section.getTeacherId(), section.getClassroomId(), slots, grid);
+            }
+        }
+
+        // Most important courses first, then the sections with the most students
+        affected.sort(Comparator.comparing((CourseSection section) -> courses.get(section.getCourseId()),
+                        ScheduleProblem.PRIORITY_ORDER)
+                .thenComparing(section -> -enrollmentsBySection.getOrDefault(section.getId(), List.of()).size()));
+
+        Map<Integer, PlannedSection> updates = new LinkedHashMap<>();
+        Map<Integer, String> changes = new HashMap<>();
+        for (CourseSection section : affected) {
+            Course course = courses.get(section.getCourseId());
+            List<ScheduleGenerator.TimeSlot> slots = slotsBySection.get(section.getId());
+            int enrolled = enrollmentsBySection.getOrDefault(section.getId(), List.of()).size();
+            PlannedSection plan = keepTimes(section, course, slots, enrolled, context, removedTeachers, removedRooms, grid);
+            String change = REASSIGNED;
+            if (plan == null) {
+                plan = scheduleGenerator.firstFit(course, context.teachersFor(course.getSpecializationId()),
+                        context.roomsFor(course.getSpecializationId()), 0, grid);
+                change = plan == null ? DROPPED : RESCHEDULED;
+            }
+            updates.put(section.getId(), plan);
+            changes.put(section.getId(), change);
+        }
+
+        List<PlannedSection> additions = new ArrayList<>();
+        int unplaced = planAdditions(request.getAddedCourseIds(), sections, courses, context, grid, additions);
+
+        scheduleWriter.applyChanges(semesterId, versionId, updates, additions);
+        sectionCatalogService.refresh(semesterId);
+        return buildResponse(semesterId, versionId, sections.size(), changes, updates, additions.size(), unplaced,
+                enrollmentsBySection, courses, sections);
+    }
+
+    /**
+     * Same meetings with a replacement for whichever of teacher and room was removed; null if none fits.
+     * Replacement rooms that seat the section's current students are tried first, and the section takes
+     * the capacity of its room, as generated sections do.
+     */
+    private PlannedSection keepTimes(CourseSection section, Course course, List<ScheduleGenerator.TimeSlot> slots,
+                                     int enrolled, SchedulingContext context, Set<Integer> removedTeachers,
+                                     Set<Integer> removedRooms, AvailabilityGrid grid) {
+        if (slots.isEmpty()) {
+            return null;
+        }
+        List<Integer> teacherIds = removedTeachers.contains(section.getTeacherId())
+                ? context.teachersFor(course.getSpecializationId()).stream().map(Teacher::getId).toList()
+                : List.of(section.getTeacherId());
+        List<Classroom> rooms = removedRooms.contains(section.getClassroomId())
+                ? context.roomsFor(course.getSpecializationId()).stream()
+                        .sorted(Comparator.comparing((Classroom room) -> room.getCapacity() < enrolled))
+                        .toList()
+                : context.roomsFor(course.getSpecializationId()).stream()
+                        .filter(room -> room.getId().equals(section.getClassroomId())).toList();
+        for (Integer teacherId : teacherIds) {
+            for (Classroom room : rooms) {
+                if (scheduleGenerator.canBook(teacherId, room.getId(), slots, grid)) {
+                    scheduleGenerator.updateAvailability(teacherId, room.getId(), slots, grid);
+                    return new PlannedSection(course, teacherId, room.getId(), room.getCapacity(), slots);
+                }
+            }
+        }
+        return null;
+    }
+
+    private int planAdditions(List<Integer> addedCourseIds, List<CourseSection> sections, Map<Integer, Course> courses,
+                              SchedulingContext context, AvailabilityGrid grid, List<PlannedSection> additions) {
+        if (addedCourseIds.isEmpty()) {
+            return 0;
+        }
+        Set<Integer> scheduledCourses = sections.stream().map(CourseSection::getCourseId).collect(Collectors.toSet());
+        List<Course> added = new ArrayList<>();
+        for (Integer courseId : new LinkedHashSet<>(addedCourseIds)) {
+            Course course = courses.get(courseId);
+            if (course == null) {
+                throw new IllegalArgumentException("Course not found: " + courseId);
+            }
+            if (scheduledCourses.contains(courseId)) {
+                throw new IllegalArgumentException("Course " + course.getCode() + " is already in the published schedule");
+            }
+            added.add(course);
+        }
+        added.sort(ScheduleProblem.PRIORITY_ORDER);
+
+        Map<Integer, Integer> sectionsNeeded = schedulingProperties.getDemand().isEnabled()
+                ? demandEstimator.estimateSections(added) : Map.of();
+        int unplaced = 0;
+        for (Course course : added) {
+            // An explicitly added course gets at least one section
+            int needed = Math.max(1, sectionsNeeded.getOrDefault(course.getId(),
+                    scheduleGenerator.calculateSectionsNeeded(course)));
+            for (int i = 0; i < needed; i++) {
+                PlannedSection plan = scheduleGenerator.firstFit(course, context.teachersFor(course.getSpecializationId()),
+                        context.roomsFor(course.getSpecializationId()), 0, grid);
+                if (plan != null) {
+                    additions.add(plan);
+                } else {
+                    unplaced++;
+                }
+            }
+        }
+        return unplaced;
+    }
+
+    /**
+     * Lists the enrollments of every changed section. Where a section's new room seats fewer students
+     * than it has, the latest enrollments beyond the new capacity are flagged as over capacity.
+     */
+    private ReplanResponse buildResponse(Integer semesterId, Integer versionId, int totalSections,
+                                         Map<Integer, String> changes, Map<Integer, PlannedSection> updates,
+                                         int added, int unplaced,
+                                         Map<Integer, List<StudentCourseEnrollment>> enrollmentsBySection,
+                                         Map<Integer, Course> courses, List<CourseSection> sections) {
+        Map<Integer, Integer> courseBySection = sections.stream()
+                .collect(Collectors.toMap(CourseSection::getId, CourseSection::getCourseId));
+        List<EnrollmentMoveDto> moves = new ArrayList<>();
+        changes.forEach((sectionId, change) -> {
+            PlannedSection plan = updates.get(sectionId);
+            List<StudentCourseEnrollment> enrollments = enrollmentsBySection.getOrDefault(sectionId, List.of()).stream()
+                    .sorted(Comparator.comparing(StudentCourseEnrollment::getEnrolledAt,
+                                    Comparator.nullsLast(Comparator.naturalOrder()))
+                            .thenComparing(StudentCourseEnrollment::getId))
+                    .toList();
+            for (int i = 0; i < enrollments.size(); i++) {
+                StudentCourseEnrollment enrollment = enrollments.get(i);
+                EnrollmentMoveDto move = new EnrollmentMoveDto();
+                move.setEnrollmentId(enrollment.getId());
+                move.setStudentId(enrollment.getStudentId());
+                move.setCourseSectionId(sectionId);
+                move.setCourseCode(courses.get(courseBySection.get(sectionId)).getCode());
+                move.setChange(change);
+                move.setOverCapacity(plan != null && i >= plan.getCapacity());
+                moves.add(move);
+            }
+        });
+        moves.sort(Comparator.comparing(EnrollmentMoveDto::getCourseSectionId)
+                .thenComparing(EnrollmentMoveDto::getStudentId));
+
+        ReplanResponse response = new ReplanResponse();
+        response.setSemesterId(semesterId);
+        response.setScheduleVersionId(versionId);
+        response.setKeptSections(totalSections - changes.size());
+        response.setReassignedSections(count(changes, REASSIGNED));
+        response.setRescheduledSections(count(changes, RESCHEDULED));
+        response.setDroppedSections(count(changes, DROPPED));
+        response.setAddedSections(added);
+        response.setUnplacedSections(unplaced);
+        response.setMovedEnrollments(moves);
+        response.setOverCapacityEnrollments((int) moves.stream().filter(EnrollmentMoveDto::isOverCapacity).count());
+        response.setMessage(String.format(
+                "Re-placed %d affected sections (%d kept their times, %d dropped), added %d sections; %d enrollments affected, "
+                        + "%d over their section's new capacity.",
+                changes.size(), response.getReassignedSections(), response.getDroppedSections(), added, moves.size(),
+                response.getOverCapacityEnrollments()));
+        log.info("Re-plan of semester {}: {}", semesterId, response.getMessage());
+        return response;
+    }
+
+    private static int count(Map<Integer, String> changes, String change) {
+        return (int) changes.values().stream().filter(change::equals).count();
+    }
+}
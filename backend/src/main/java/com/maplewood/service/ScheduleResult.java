@@ -0,0 +1,19 @@
+package com.maplewood.service;
+
+import com.maplewood.entity.Course;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Output of a ScheduleStrategy: the placed sections and the courses that got none.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ScheduleResult {
+    private final String strategy;
+    private final List<PlannedSection> sections;
+    private final List<Course> unassignedCourses;
+    private final int unplacedSections;
+}
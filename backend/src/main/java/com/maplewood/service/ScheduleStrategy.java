@@ -0,0 +1,16 @@
+package com.maplewood.service;
+
+/**
+ * Extension point for master schedule algorithms.
+ * Implementations are Spring components selected by name; they must be pure in-memory
+ * solvers (no repository access) and must not mutate the problem they are given.
+ */
+public interface ScheduleStrategy {
+
+    /**
+     * Name used to select the strategy, e.g. in GenerateScheduleRequest.strategy.
+     */
+    String getName();
+
+    ScheduleResult solve(ScheduleProblem problem);
+}
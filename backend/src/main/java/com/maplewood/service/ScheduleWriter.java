@@ -0,0 +1,378 @@
+package com.maplewood.service;
+
+import com.maplewood.config.SqliteDateConverters;
+import com.maplewood.entity.CourseSection;
+import com.maplewood.entity.CourseSectionMeeting.DayOfWeek;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Write phase of schedule generation.
+ * A solved schedule is written as a new draft version with JDBC batch inserts, then published by
+ * swapping the semester's published-version pointer in a short transaction. Readers only follow
+ * the pointer, so they never see a half-written schedule. Publishing moves each enrollment of an
+ * older version to a section of the same course in the new one when a seat is free and the times
+ * fit the student's other moved sections; the rest stay on their retired section and are listed
+ * as needing re-enrollment. Waitlist entries follow their course into the new version the same
+ * way, keeping their priority and sequence. A replaced version is deleted once no enrollment
+ * references it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ScheduleWriter {
+
+    private static final String INSERT_VERSION =
+            "INSERT INTO schedule_versions (semester_id, status, strategy, created_at) VALUES (?, 'draft', ?, ?)";
+    private static final String INSERT_SECTION =
+            "INSERT INTO course_sections (id, course_id, teacher_id, classroom_id, semester_id, capacity, created_at, "
+                    + "schedule_version_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_MEETING =
+            "INSERT INTO course_section_meetings (id, course_section_id, day_of_week, start_time, end_time) "
+                    + "VALUES (?, ?, ?, ?, ?)";
+
+    /** Versions of a semester that are not published and have no enrollments. */
+    private static final String UNREFERENCED_VERSIONS =
+            "SELECT v.id FROM schedule_versions v WHERE v.semester_id = ? AND v.status <> 'published' "
+                    + "AND NOT EXISTS (SELECT 1 FROM student_course_enrollments e "
+                    + "JOIN course_sections cs ON cs.id = e.course_section_id WHERE cs.schedule_version_id = v.id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final WaitlistService waitlistService;
+
+    /**
+     * Writes the planned sections as a new draft version of the semester's schedule.
+     * The version row is inserted first, before anything is read, and takes its id from SQLite, so
+     * the transaction holds the write lock from that insert on. Section and meeting ids are
+     * pre-assigned only after it, so no other writer can claim them in between. Returns the draft
+     * with section ids.
+     */
+    @Transactional
+    public ScheduleDraft writeDraft(Integer semesterId, String strategy, List<PlannedSection> plans) {
+        String createdAt = now();
+        jdbcTemplate.update(INSERT_VERSION, semesterId, strategy, createdAt);
+        Integer versionId = jdbcTemplate.queryForObject("SELECT last_insert_rowid()", Integer.class);
+
+        List<CourseSection> sections = insertSections(semesterId, versionId, plans, createdAt);
+        log.info("Wrote draft schedule version {} for semester {}: {} sections", versionId, semesterId, sections.size());
+        return new ScheduleDraft(semesterId, versionId, sections);
+    }
+
+    /**
+     * Writes the planned sections as a new version and publishes it in the same transaction, so a
+     * failed publish (e.g. the database is busy) leaves no orphaned draft behind.
+     */
+    @Transactional
+    public PublishedSchedule writeAndPublish(Integer semesterId, String strategy, List<PlannedSection> plans) {
+        ScheduleDraft draft = writeDraft(semesterId, strategy, plans);
+        return new PublishedSchedule(draft, publish(draft));
+    }
+
+    /**
+     * Makes a draft the semester's published schedule with a single pointer swap, retires the
+     * previous version, carries its enrollments and waitlist entries over and deletes versions no
+     * enrollment references any more.
+     */
+    @Transactional
+    public EnrollmentCarryOver publish(ScheduleDraft draft) {
+        Integer semesterId = draft.getSemesterId();
+        waitlistService.beforeScheduleWrite();
+        jdbcTemplate.update("UPDATE schedule_versions SET status = 'retired' WHERE semester_id = ? AND status = 'published'",
+                semesterId);
+        int published = jdbcTemplate.update(
+                "UPDATE schedule_versions SET status = 'published', published_at = ? "
+                        + "WHERE id = ? AND semester_id = ? AND status = 'draft'",
+                now(), draft.getVersionId(), semesterId);
+        if (published == 0) {
+            throw new IllegalArgumentException(String.format(
+                    "Schedule version %d is not a draft of semester %d", draft.getVersionId(), semesterId));
+        }
+        jdbcTemplate.update("UPDATE semesters SET published_schedule_version_id = ? WHERE id = ?",
+                draft.getVersionId(), semesterId);
+
+        Map<Integer, List<Target>> targetsByCourse = targetsByCourse(draft.getVersionId());
+        Map<Integer, WeekMask> studentMasks = new HashMap<>();
+        Map<Integer, Set<Integer>> studentCourses = new HashMap<>();
+        EnrollmentCarryOver carryOver = carryOverEnrollments(semesterId, draft.getVersionId(), targetsByCourse,
+                studentMasks, studentCourses);
+        moveWaitlistEntries(semesterId, draft.getVersionId(), targetsByCourse, studentMasks, studentCourses);
+        int removed = deleteUnreferencedVersions(semesterId);
+        log.info("Published schedule version {} for semester {}; carried over {} enrollments, {} need re-enrollment; "
+                        + "removed {} unreferenced versions", draft.getVersionId(), semesterId,
+                carryOver.getCarriedOver(), carryOver.getNeedingReenrollment(), removed);
+        return carryOver;
+    }
+
+    /**
+     * Moves enrollments of the semester's other versions into the given one, earliest enrollment
+     * first, so the students who enrolled first keep their seats when sections shrink. Each goes to
+     * the section of its course with the most free seats that does not overlap the student's
+     * sections already moved; rows for a course the student already holds there are deleted.
+     * The moved sections and courses are recorded per student.
+     */
+    private EnrollmentCarryOver carryOverEnrollments(Integer semesterId, Integer versionId,
+                                                     Map<Integer, List<Target>> targetsByCourse,
+                                                     Map<Integer, WeekMask> studentMasks,
+                                                     Map<Integer, Set<Integer>> studentCourses) {
+        List<int[]> enrollments = jdbcTemplate.query(
+                "SELECT e.id, e.student_id, cs.course_id FROM student_course_enrollments e "
+                        + "JOIN course_sections cs ON cs.id = e.course_section_id "
+                        + "WHERE cs.semester_id = ? AND cs.schedule_version_id <> ? ORDER BY e.enrolled_at, e.id",
+                (rs, rowNum) -> new int[]{rs.getInt(1), rs.getInt(2), rs.getInt(3)}, semesterId, versionId);
+        if (enrollments.isEmpty()) {
+            return EnrollmentCarryOver.NONE;
+        }
+
+        List<Object[]> moves = new ArrayList<>();
+        List<Object[]> superseded = new ArrayList<>();
+        int stranded = 0;
+        for (int[] enrollment : enrollments) {
+            int studentId = enrollment[1];
+            Set<Integer> courses = studentCourses.computeIfAbsent(studentId, id -> new HashSet<>());
+            if (courses.contains(enrollment[2])) {
+                superseded.add(new Object[]{enrollment[0]});
+                continue;
+            }
+            WeekMask mask = studentMasks.getOrDefault(studentId, WeekMask.EMPTY);
+            Target target = courses.size() >= EnrollmentValidator.MAX_COURSES_PER_SEMESTER ? null
+                    : roomiest(targetsByCourse.getOrDefault(enrollment[2], List.of()), mask, true);
+            if (target == null) {
+                stranded++;
+                continue;
+            }
+            target.freeSeats--;
+            courses.add(enrollment[2]);
+            studentMasks.put(studentId, mask.or(target.mask));
+            moves.add(new Object[]{target.sectionId, enrollment[0]});
+        }
+
+        jdbcTemplate.batchUpdate("UPDATE student_course_enrollments SET course_section_id = ? WHERE id = ?", moves);
+        jdbcTemplate.batchUpdate("DELETE FROM student_course_enrollments WHERE id = ?", superseded);
+        return new EnrollmentCarryOver(moves.size(), superseded.size(), stranded);
+    }
+
+    /**
+     * Moves waitlist entries of the semester's other versions to the section of the same course in
+     * the given one with the most free seats that fits the student's moved sections, highest
+     * priority first; priority and sequence are kept. An entry is deleted when the student now
+     * holds the course, already waits for it there, or no section fits.
+     */
+    private void moveWaitlistEntries(Integer semesterId, Integer versionId, Map<Integer, List<Target>> targetsByCourse,
+                                     Map<Integer, WeekMask> studentMasks, Map<Integer, Set<Integer>> studentCourses) {
+        List<int[]> entries = jdbcTemplate.query(
+                "SELECT w.course_section_id, w.student_id, cs.course_id FROM section_waitlist_entries w "
+                        + "JOIN course_sections cs ON cs.id = w.course_section_id "
+                        + "WHERE cs.semester_id = ? AND cs.schedule_version_id <> ? ORDER BY w.priority DESC, w.sequence",
+                (rs, rowNum) -> new int[]{rs.getInt(1), rs.getInt(2), rs.getInt(3)}, semesterId, versionId);
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        Set<List<Integer>> waiting = new HashSet<>();
+        List<Object[]> moves = new ArrayList<>();
+        List<Object[]> removals = new ArrayList<>();
+        for (int[] entry : entries) {
+            int studentId = entry[1];
+            Target target = studentCourses.getOrDefault(studentId, Set.of()).contains(entry[2])
+                    || !waiting.add(List.of(studentId, entry[2])) ? null
+                    : roomiest(targetsByCourse.getOrDefault(entry[2], List.of()),
+                    studentMasks.getOrDefault(studentId, WeekMask.EMPTY), false);
+            if (target == null) {
+                removals.add(new Object[]{entry[0], studentId});
+            } else {
+                moves.add(new Object[]{target.sectionId, entry[0], studentId});
+            }
+        }
+
+        jdbcTemplate.batchUpdate("UPDATE section_waitlist_entries SET course_section_id = ? "
+                + "WHERE course_section_id = ? AND student_id = ?", moves);
+        jdbcTemplate.batchUpdate("DELETE FROM section_waitlist_entries WHERE course_section_id = ? AND student_id = ?",
+                removals);
+        log.info("Moved {} waitlist entries of semester {} to schedule version {}, removed {}", moves.size(),
+                semesterId, versionId, removals.size());
+    }
+
+    /**
+     * Sections of the version keyed by course, with their capacity as free seats and their meetings.
+     */
+    private Map<Integer, List<Target>> targetsByCourse(Integer versionId) {
+        Map<Integer, List<Target>> targetsByCourse = new HashMap<>();
+        Map<Integer, Target> targets = new HashMap<>();
+        jdbcTemplate.query("SELECT id, course_id, capacity FROM course_sections WHERE schedule_version_id = ?", rs -> {
+            Target target = new Target(rs.getInt(1), rs.getInt(3));
+            targets.put(target.sectionId, target);
+            targetsByCourse.computeIfAbsent(rs.getInt(2), id -> new ArrayList<>()).add(target);
+        }, versionId);
+        jdbcTemplate.query("SELECT m.course_section_id, m.day_of_week, m.start_time, m.end_time "
+                + "FROM course_section_meetings m JOIN course_sections cs ON cs.id = m.course_section_id "
+                + "WHERE cs.schedule_version_id = ?", rs -> {
+            Target target = targets.get(rs.getInt(1));
+            target.mask = target.mask.or(WeekMask.of(DayOfWeek.valueOf(rs.getString(2)), rs.getString(3), rs.getString(4)));
+        }, versionId);
+        return targetsByCourse;
+    }
+
+    /**
+     * The candidate with the most free seats (lowest id on ties) clear of the student's sections.
+     */
+    private static Target roomiest(List<Target> candidates, WeekMask studentMask, boolean needsSeat) {
+        return candidates.stream()
+                .filter(candidate -> (!needsSeat || candidate.freeSeats > 0) && !candidate.mask.intersects(studentMask))
+                .max(Comparator.comparingInt((Target candidate) -> candidate.freeSeats)
+                        .thenComparing(candidate -> -candidate.sectionId))
+                .orElse(null);
+    }
+
+    /**
+     * Enrollments of the semester left on sections outside its published version.
+     */
+    public int countNeedingReenrollment(Integer semesterId) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM student_course_enrollments e "
+                + "JOIN course_sections cs ON cs.id = e.course_section_id JOIN semesters s ON s.id = cs.semester_id "
+                + "WHERE cs.semester_id = ? AND cs.schedule_version_id <> s.published_schedule_version_id",
+                Integer.class, semesterId);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Applies an incremental re-plan to a published version in one transaction: updated sections
+     * get their new teacher, room, capacity and meetings in place (ids and enrollments are kept),
+     * sections mapped to null are deleted with their enrollments and waitlist entries, and additions
+     * are inserted. Returns the inserted sections with their ids.
+     */
+    @Transactional
+    public List<CourseSection> applyChanges(Integer semesterId, Integer versionId,
+                                            Map<Integer, PlannedSection> updates, List<PlannedSection> additions) {
+        // A no-op write takes SQLite's write lock before any id is read below
+        jdbcTemplate.update("UPDATE schedule_versions SET status = status WHERE id = ?", versionId);
+        waitlistService.beforeScheduleWrite();
+        List<Object[]> sectionRows = new ArrayList<>();
+        List<Object[]> dropped = new ArrayList<>();
+        updates.forEach((sectionId, plan) -> {
+            if (plan == null) {
+                dropped.add(new Object[]{sectionId});
+            } else {
+                sectionRows.add(new Object[]{plan.getTeacherId(), plan.getClassroomId(), plan.getCapacity(), sectionId});
+            }
+        });
+
+        if (!updates.isEmpty()) {
+            List<Object[]> sectionIds = updates.keySet().stream().map(id -> new Object[]{id}).toList();
+            jdbcTemplate.batchUpdate("DELETE FROM course_section_meetings WHERE course_section_id = ?", sectionIds);
+        }
+        jdbcTemplate.batchUpdate("UPDATE course_sections SET teacher_id = ?, classroom_id = ?, capacity = ? WHERE id = ?",
+                sectionRows);
+        jdbcTemplate.batchUpdate("DELETE FROM student_course_enrollments WHERE course_section_id = ?", dropped);
+        jdbcTemplate.batchUpdate("DELETE FROM section_waitlist_entries WHERE course_section_id = ?", dropped);
+        jdbcTemplate.batchUpdate("DELETE FROM course_sections WHERE id = ?", dropped);
+
+        int nextMeetingId = nextId("course_section_meetings");
+        List<Object[]> meetingRows = new ArrayList<>();
+        for (Map.Entry<Integer, PlannedSection> update : updates.entrySet()) {
+            if (update.getValue() == null) continue;
+            for (ScheduleGenerator.TimeSlot slot : update.getValue().getTimeSlots()) {
+                meetingRows.add(new Object[]{nextMeetingId++, update.getKey(), slot.day, slot.startTime, slot.endTime});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_MEETING, meetingRows);
+
+        List<CourseSection> inserted = insertSections(semesterId, versionId, additions, now());
+        log.info("Re-planned schedule version {} of semester {}: {} sections updated, {} removed, {} added",
+                versionId, semesterId, sectionRows.size(), dropped.size(), inserted.size());
+        return inserted;
+    }
+
+    private List<CourseSection> insertSections(Integer semesterId, Integer versionId, List<PlannedSection> plans,
+                                               String createdAt) {
+        int nextSectionId = nextId("course_sections");
+        int nextMeetingId = nextId("course_section_meetings");
+
+        List<CourseSection> sections = new ArrayList<>(plans.size());
+        List<Object[]> sectionRows = new ArrayList<>(plans.size());
+        List<Object[]> meetingRows = new ArrayList<>();
+        for (PlannedSection plan : plans) {
+            int sectionId = nextSectionId++;
+            sectionRows.add(new Object[]{sectionId, plan.getCourse().getId(), plan.getTeacherId(),
+                    plan.getClassroomId(), semesterId, plan.getCapacity(), createdAt, versionId});
+            for (ScheduleGenerator.TimeSlot slot : plan.getTimeSlots()) {
+                meetingRows.add(new Object[]{nextMeetingId++, sectionId, slot.day, slot.startTime, slot.endTime});
+            }
+            sections.add(toSection(sectionId, semesterId, versionId, plan));
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SECTION, sectionRows);
+        jdbcTemplate.batchUpdate(INSERT_MEETING, meetingRows);
+        return sections;
+    }
+
+    /**
+     * Deletes waitlist entries, meetings, sections and version rows of unreferenced versions, one
+     * statement per table.
+     * Foreign keys are not enforced on the SQLite connection, so the cascade is explicit.
+     */
+    private int deleteUnreferencedVersions(Integer semesterId) {
+        String versionSections = "SELECT id FROM course_sections WHERE schedule_version_id IN (" + UNREFERENCED_VERSIONS + ")";
+        jdbcTemplate.update("DELETE FROM section_waitlist_entries WHERE course_section_id IN (" + versionSections + ")",
+                semesterId);
+        jdbcTemplate.update("DELETE FROM course_section_meetings WHERE course_section_id IN (" + versionSections + ")",
+                semesterId);
+        jdbcTemplate.update("DELETE FROM course_sections WHERE schedule_version_id IN (" + UNREFERENCED_VERSIONS + ")",
+                semesterId);
+        return jdbcTemplate.update("DELETE FROM schedule_versions WHERE id IN (" + UNREFERENCED_VERSIONS + ")",
+                semesterId);
+    }
+
+    private static String now() {
+        return new SqliteDateConverters.LocalDateTimeConverter().convertToDatabaseColumn(LocalDateTime.now());
+    }
+
+    /**
+     * First id above both the current maximum and the AUTOINCREMENT high-water mark,
+     * so pre-assigned ids never reuse ones handed out before.
+     */
+    private int nextId(String table) {
+        Integer maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Integer.class);
+        List<Integer> sequence = jdbcTemplate.queryForList(
+                "SELECT seq FROM sqlite_sequence WHERE name = ?", Integer.class, table);
+        int highWater = sequence.isEmpty() || sequence.get(0) == null ? 0 : sequence.get(0);
+        return Math.max(maxId == null ? 0 : maxId, highWater) + 1;
+    }
+
+    private CourseSection toSection(Integer id, Integer semesterId, Integer versionId, PlannedSection plan) {
+        CourseSection section = new CourseSection();
+        section.setId(id);
+        section.setCourseId(plan.getCourse().getId());
+        section.setTeacherId(plan.getTeacherId());
+        section.setClassroomId(plan.getClassroomId());
+        section.setSemesterId(semesterId);
+        section.setScheduleVersionId(versionId);
+        section.setCapacity(plan.getCapacity());
+        return section;
+    }
+
+    /**
+     * A section of the newly published version that enrollments can be moved into.
+     */
+    private static final class Target {
+        private final int sectionId;
+        private int freeSeats;
+        private WeekMask mask = WeekMask.EMPTY;
+
+        private Target(int sectionId, int freeSeats) {
+            this.sectionId = sectionId;
+            this.freeSeats = freeSeats;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.maplewood.service;
+
+import com.maplewood.entity.Classroom;
+import com.maplewood.entity.Specialization;
+import com.maplewood.entity.Teacher;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable reference data for one schedule generation run.
+ * Loaded once up front so the scheduling algorithm runs without repository calls.
+ */
+public final class SchedulingContext {
+
+    /** Room type used when a specialization has no room type assigned (general classroom). */
+    public static final int DEFAULT_ROOM_TYPE_ID = 1;
+
+    private final Map<Integer, List<Teacher>> teachersBySpecialization;
+    private final Map<Integer, List<Classroom>> roomsByRoomType;
+    private final Map<Integer, Integer> roomTypeBySpecialization;
+    private final Map<Integer, String> specializationNames;
+
+    private SchedulingContext(Map<Integer, List<Teacher>> teachersBySpecialization,
+                              Map<Integer, List<Classroom>> roomsByRoomType,
+                              Map<Integer, Integer> roomTypeBySpecialization,
+                              Map<Integer, String> specializationNames) {
+        this.teachersBySpecialization = teachersBySpecialization;
+        this.roomsByRoomType = roomsByRoomType;
+        this.roomTypeBySpecialization = roomTypeBySpecialization;
+        this.specializationNames = specializationNames;
+    }
+
+    /**
+     * Groups teachers by specialization and rooms by room type (both in id order) and resolves
+     * each specialization's room type, falling back to the default classroom type when unset.
+     */
+    public static SchedulingContext of(List<Teacher> teachers, List<Classroom> classrooms,
+                                       List<Specialization> specializations) {
+        Map<Integer, List<Teacher>> teachersBySpecialization = teachers.stream()
+                .sorted(Comparator.comparing(Teacher::getId))
+                .collect(Collectors.groupingBy(Teacher::getSpecializationId, Collectors.toUnmodifiableList()));
+
+        Map<Integer, List<Classroom>> roomsByRoomType = classrooms.stream()
+                .sorted(Comparator.comparing(Classroom::getId))
+                .collect(Collectors.groupingBy(Classroom::getRoomTypeId, Collectors.toUnmodifiableList()));
+
+        Map<Integer, Integer> roomTypeBySpecialization = new HashMap<>();
+        Map<Integer, String> specializationNames = new HashMap<>();
+        for (Specialization specialization : specializations) {
+            roomTypeBySpecialization.put(specialization.getId(), specialization.getRoomTypeId() != null
+                    ? specialization.getRoomTypeId() : DEFAULT_ROOM_TYPE_ID);
+            specializationNames.put(specialization.getId(), specialization.getName());
+        }
+
+        return new SchedulingContext(Map.copyOf(teachersBySpecialization), Map.copyOf(roomsByRoomType),
+                Map.copyOf(roomTypeBySpecialization), Map.copyOf(specializationNames));
+    }
+
+    public List<Teacher> teachersFor(Integer specializationId) {
+        return teachersBySpecialization.getOrDefault(specializationId, List.of());
+    }
+
+    public List<Classroom> roomsOfType(Integer roomTypeId) {
+        return roomsByRoomType.getOrDefault(roomTypeId, List.of());
+    }
+
+    /**
+     * Room type required by a specialization, already resolved to the default when unset.
+     */
+    public Integer roomTypeFor(Integer specializationId) {
+        Integer roomTypeId = roomTypeBySpecialization.get(specializationId);
+        if (roomTypeId == null) {
+            throw new IllegalArgumentException("Specialization not found: " + specializationId);
+        }
+        return roomTypeId;
+    }
+
+    public List<Classroom> roomsFor(Integer specializationId) {
+        return roomsOfType(roomTypeFor(specializationId));
+    }
+
+    /**
+     * General classrooms a specialization may borrow when its own room type is exhausted.
+     * Empty when the specialization already uses the default type.
+     */
+    public List<Classroom> fallbackRoomsFor(Integer specializationId) {
+        return roomTypeFor(specializationId) == DEFAULT_ROOM_TYPE_ID ? List.of() : roomsOfType(DEFAULT_ROOM_TYPE_ID);
+    }
+
+    public String specializationName(Integer specializationId) {
+        return specializationNames.get(specializationId);
+    }
+
+    public Set<Integer> specializationIds() {
+        return roomTypeBySpecialization.keySet();
+    }
+}
@@ -0,0 +1,192 @@
+package com.maplewood.service;
+
+import com.maplewood.config.SqliteDateConverters;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Seat accounting for enrollment.
+ * Each section has its own atomic counter of taken seats, seeded from the database on first use,
+ * so concurrent enrollments only contend when they target the same section and never wait on a
+ * shared lock. The counters give fast, race-free admission; the database stays authoritative
+ * through {@link #insertEnrollment}, which only inserts when the section still has room, so a
+ * drifted counter can cause a retry but never an oversold section.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SeatReservationService {
+
+    private static final String COUNT_TAKEN =
+            "SELECT course_section_id, COUNT(*) FROM student_course_enrollments WHERE course_section_id IN (%s) "
+                    + "GROUP BY course_section_id";
+
+    // Inserts only if the section has a free seat, the student is not already in it, and the student
+    // is below the course limit within the section's schedule version
+    private static final String INSERT_IF_AVAILABLE =
+            "INSERT INTO student_course_enrollments (student_id, course_section_id, enrolled_at) "
+                    + "SELECT ?, cs.id, ? FROM course_sections cs WHERE cs.id = ? "
+                    + "AND (SELECT COUNT(*) FROM student_course_enrollments e WHERE e.course_section_id = cs.id) < cs.capacity "
+                    + "AND NOT EXISTS (SELECT 1 FROM student_course_enrollments e "
+                    + "WHERE e.course_section_id = cs.id AND e.student_id = ?) "
+                    + "AND (SELECT COUNT(*) FROM student_course_enrollments e JOIN course_sections s ON s.id = e.course_section_id "
+                    + "WHERE e.student_id = ? AND s.schedule_version_id = cs.schedule_version_id) < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Integer, AtomicInteger> taken = new ConcurrentHashMap<>();
+
+    /**
+     * Seats taken in each of the sections, seeding unknown sections with one query.
+     */
+    public Map<Integer, Integer> taken(Collection<Integer> sectionIds) {
+        seed(sectionIds.stream().filter(id -> !taken.containsKey(id)).toList(), false);
+        Map<Integer, Integer> result = new HashMap<>();
+        for (Integer sectionId : sectionIds) {
+            result.put(sectionId, counter(sectionId).get());
+        }
+        return result;
+    }
+
+    /**
+     * Takes one seat in every section or in none. Returns the sections that are full; when a
+     * counter says full it is re-read from the database once before giving up.
+     * Inside a transaction the seats are given back automatically unless it commits.
+     */
+    public List<Integer> reserveAll(Map<Integer, Integer> capacityBySection) {
+        List<Integer> reserved = new ArrayList<>();
+        List<Integer> full = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> section : capacityBySection.entrySet()) {
+            if (tryReserve(section.getKey(), section.getValue())
+                    || (reconcile(List.of(section.getKey())) && tryReserve(section.getKey(), section.getValue()))) {
+                reserved.add(section.getKey());
+            } else {
+                full.add(section.getKey());
+            }
+        }
+        if (!full.isEmpty()) {
+            reserved.forEach(this::release);
+        } else if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        reserved.forEach(SeatReservationService.this::release);
+                    }
+                }
+            });
+        }
+        return full;
+    }
+
+    public boolean tryReserve(Integer sectionId, int capacity) {
+        AtomicInteger counter = counter(sectionId);
+        int current;
+        do {
+            current = counter.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!counter.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    public void release(Integer sectionId) {
+        counter(sectionId).updateAndGet(current -> Math.max(0, current - 1));
+    }
+
+    /**
+     * Re-reads the given sections' counters from the database.
+     * Returns true so it can guard a retry.
+     */
+    public boolean reconcile(Collection<Integer> sectionIds) {
+        seed(List.copyOf(sectionIds), true);
+        return true;
+    }
+
+    /**
+     * Reconciles once the surrounding transaction has finished, after its seats were given back;
+     * used when the database rejected an insert the counters had admitted.
+     */
+    public void reconcileAfterCompletion(Collection<Integer> sectionIds) {
+        List<Integer> ids = List.copyOf(sectionIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reconcile(ids);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                reconcile(ids);
+            }
+        });
+    }
+
+    /**
+     * Inserts the enrollment only if the database agrees there is room; see {@link #INSERT_IF_AVAILABLE}.
+     */
+    public boolean insertEnrollment(Integer studentId, Integer sectionId, int maxCoursesPerSemester) {
+        String enrolledAt = new SqliteDateConverters.LocalDateTimeConverter().convertToDatabaseColumn(LocalDateTime.now());
+        return jdbcTemplate.update(INSERT_IF_AVAILABLE, studentId, enrolledAt, sectionId, studentId, studentId,
+                maxCoursesPerSemester) == 1;
+    }
+
+    /**
+     * Deletes the enrollment and gives its seat back. Inside a transaction the counter is re-read
+     * once it finishes instead, since a rollback would restore the row.
+     */
+    public boolean deleteEnrollment(Integer studentId, Integer sectionId) {
+        int deleted = jdbcTemplate.update(
+                "DELETE FROM student_course_enrollments WHERE student_id = ? AND course_section_id = ?",
+                studentId, sectionId);
+        if (deleted == 0) {
+            return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            reconcileAfterCompletion(List.of(sectionId));
+        } else {
+            release(sectionId);
+        }
+        return true;
+    }
+
+    private AtomicInteger counter(Integer sectionId) {
+        AtomicInteger counter = taken.get(sectionId);
+        if (counter == null) {
+            seed(List.of(sectionId), false);
+            counter = taken.get(sectionId);
+        }
+        return counter;
+    }
+
+    private void seed(List<Integer> sectionIds, boolean overwrite) {
+        if (sectionIds.isEmpty()) {
+            return;
+        }
+        Map<Integer, Integer> counts = new HashMap<>();
+        String placeholders = sectionIds.stream().map(id -> "?").collect(Collectors.joining(","));
+        jdbcTemplate.query(String.format(COUNT_TAKEN, placeholders),
+                rs -> { counts.put(rs.getInt(1), rs.getInt(2)); }, sectionIds.toArray());
+        for (Integer sectionId : sectionIds) {
+            int count = counts.getOrDefault(sectionId, 0);
+            if (overwrite) {
+                int previous = taken.computeIfAbsent(sectionId, id -> new AtomicInteger()).getAndSet(count);
+                if (previous != count) {
+                    log.debug("Seat counter of section {} reconciled from {} to {}", sectionId, previous, count);
+                }
+            } else {
+                taken.putIfAbsent(sectionId, new AtomicInteger(count));
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.maplewood.service;
+
+import com.maplewood.dto.ClassroomDto;
+import com.maplewood.dto.CourseDto;
+import com.maplewood.dto.MeetingDto;
+import com.maplewood.dto.TeacherDto;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of one published schedule version, rendered for student planning.
+ * Built once per publish and shared by all requests; the DTOs it holds must not be modified.
+ */
+@Getter
+public final class SectionCatalog {
+
+    private final Integer semesterId;
+    private final Integer scheduleVersionId;
+    private final List<Entry> sections;
+    private final Map<Integer, Entry> sectionsById;
+
+    SectionCatalog(Integer semesterId, Integer scheduleVersionId, List<Entry> sections) {
+        this.semesterId = semesterId;
+        this.scheduleVersionId = scheduleVersionId;
+        this.sections = List.copyOf(sections);
+        this.sectionsById = sections.stream().collect(Collectors.toUnmodifiableMap(Entry::getSectionId, Function.identity()));
+    }
+
+    public Optional<Entry> get(Integer sectionId) {
+        return Optional.ofNullable(sectionsById.get(sectionId));
+    }
+
+    public List<Integer> sectionIds() {
+        return sections.stream().map(Entry::getSectionId).toList();
+    }
+
+    /**
+     * Union of the given sections' week masks; ids outside the catalog are ignored.
+     */
+    public WeekMask weekMaskOf(Collection<Integer> sectionIds) {
+        WeekMask mask = WeekMask.EMPTY;
+        for (Integer sectionId : sectionIds) {
+            Entry entry = sectionsById.get(sectionId);
+            if (entry != null) {
+                mask = mask.or(entry.getWeekMask());
+            }
+        }
+        return mask;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static final class Entry {
+        private final Integer sectionId;
+        private final Integer courseId;
+        private final Integer prerequisiteId;
+        private final Integer capacity;
+        private final CourseDto course;
+        private final TeacherDto teacher;
+        private final ClassroomDto classroom;
+        private final List<MeetingDto> meetings;
+        private final WeekMask weekMask;
+    }
+}
@@ -0,0 +1,80 @@
+package com.maplewood.service;
+
+import com.maplewood.dto.CourseSectionDto;
+import com.maplewood.dto.MeetingDto;
+import com.maplewood.entity.Course;
+import com.maplewood.entity.CourseSection;
+import com.maplewood.repository.CourseSectionRepository;
+import com.maplewood.repository.SemesterRepository;
+import com.maplewood.util.DtoMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the current {@link SectionCatalog} of each semester. Publishing code calls
+ * {@link #refresh} to swap in a new snapshot; {@link #get} also rebuilds when the semester's
+ * published version no longer matches, which covers publishes made by other processes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SectionCatalogService {
+
+    private final CourseSectionRepository courseSectionRepository;
+    private final SemesterRepository semesterRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final DtoMapper dtoMapper;
+
+    private final Map<Integer, SectionCatalog> catalogs = new ConcurrentHashMap<>();
+
+    public SectionCatalog get(Integer semesterId) {
+        Integer versionId = semesterRepository.findPublishedScheduleVersionId(semesterId);
+        SectionCatalog current = catalogs.get(semesterId);
+        if (current != null && Objects.equals(current.getScheduleVersionId(), versionId)) {
+            return current;
+        }
+        // One build per semester at a time; concurrent readers wait for it instead of repeating it
+        return catalogs.compute(semesterId, (id, existing) ->
+                existing != null && Objects.equals(existing.getScheduleVersionId(), versionId)
+                        ? existing : build(id, versionId));
+    }
+
+    /**
+     * Rebuilds the semester's snapshot after its published schedule changed.
+     */
+    public SectionCatalog refresh(Integer semesterId) {
+        Integer versionId = semesterRepository.findPublishedScheduleVersionId(semesterId);
+        return catalogs.compute(semesterId, (id, existing) -> build(id, versionId));
+    }
+
+    private SectionCatalog build(Integer semesterId, Integer versionId) {
+        List<CourseSection> sections = courseSectionRepository.findPublishedBySemesterId(semesterId);
+        List<CourseSectionDto> dtos = dtoMapper.toSectionDtos(sections);
+        Map<Integer, Course> courses = referenceDataCache.courses().getAll(
+                sections.stream().map(CourseSection::getCourseId).toList());
+
+        List<SectionCatalog.Entry> entries = new ArrayList<>(sections.size());
+        for (int i = 0; i < sections.size(); i++) {
+            CourseSection section = sections.get(i);
+            CourseSectionDto dto = dtos.get(i);
+            Course course = courses.get(section.getCourseId());
+            List<MeetingDto> meetings = List.copyOf(dto.getMeetings());
+            WeekMask mask = WeekMask.EMPTY;
+            for (MeetingDto meeting : meetings) {
+                mask = mask.or(ConflictValidator.maskOf(meeting));
+            }
+            entries.add(new SectionCatalog.Entry(section.getId(), section.getCourseId(),
+                    course != null ? course.getPrerequisiteId() : null, section.getCapacity(),
+                    dto.getCourse(), dto.getTeacher(), dto.getClassroom(), meetings, mask));
+        }
+        log.debug("Built section catalog for semester {} (version {}): {} sections", semesterId, versionId, entries.size());
+        return new SectionCatalog(semesterId, versionId, entries);
+    }
+}
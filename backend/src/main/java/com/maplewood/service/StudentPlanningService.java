@@ -3,19 +3,18 @@ package com.maplewood.service;
 import com.maplewood.dto.*;
 import com.maplewood.entity.*;
 import com.maplewood.repository.*;
+import com.maplewood.service.EligibilityIndex.StudentEligibility;
 import com.maplewood.util.DtoMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
 /**
  * Service for student course planning and enrollment.
- * Uses extracted components (DtoMapper, ConflictValidator, ProgressCalculator) to follow SOLID principles.
+ * Uses extracted components (DtoMapper, ConflictValidator, EnrollmentValidator, ProgressCalculator) to follow SOLID principles.
  */
 @Service
 @RequiredArgsConstructor
@@ -25,47 +24,63 @@ public class StudentPlanningService {
     private final StudentRepository studentRepository;
     private final CourseSectionRepository courseSectionRepository;
     private final StudentCourseEnrollmentRepository enrollmentRepository;
-    private final StudentCourseHistoryRepository historyRepository;
-    private final CourseRepository courseRepository;
+    private final EligibilityIndex eligibilityIndex;
     private final SemesterRepository semesterRepository;
-    private final CourseSectionMeetingRepository meetingRepository;
     private final DtoMapper dtoMapper;
+    private final SectionCatalogService sectionCatalogService;
+    private final SeatReservationService seatReservationService;
+    private final EnrollmentPipeline enrollmentPipeline;
     private final ConflictValidator conflictValidator;
-    private final ProgressCalculator progressCalculator;
-
-    private static final int MAX_COURSES_PER_SEMESTER = 5;
+    private final EnrollmentValidator enrollmentValidator;
+    private final StudentProgressStore progressStore;
+    private final GraduationPlanner graduationPlanner;
+    private final WaitlistService waitlistService;
 
     public StudentPlanResponse getStudentPlan(Integer studentId, Integer semesterId) {
+        return getStudentPlan(studentId, semesterId, false);
+    }
+
+    /**
+     * @param eligibleOnly list only sections of courses the student may take: prerequisite met,
+     *                     within the course's grade range and not already passed
+     */
+    public StudentPlanResponse getStudentPlan(Integer studentId, Integer semesterId, boolean eligibleOnly) {
         Student student = studentRepository.findById(studentId)
                 .orElseThrow(() -> new IllegalArgumentException("Student not found: " + studentId));
         
         Semester semester = semesterRepository.findById(semesterId)
                 .orElseThrow(() -> new IllegalArgumentException("Semester not found: " + semesterId));
 
-        List<CourseSection> allSections = courseSectionRepository.findBySemesterId(semesterId);
+        // Shared snapshot of the published sections; only the student's own data is loaded per request
+        SectionCatalog catalog = sectionCatalogService.get(semesterId);
         List<StudentCourseEnrollment> currentEnrollments = enrollmentRepository
                 .findByStudentIdAndSemesterId(studentId, semesterId);
         Set<Integer> enrolledSectionIds = currentEnrollments.stream()
                 .map(StudentCourseEnrollment::getCourseSectionId)
                 .collect(Collectors.toSet());
 
-        List<StudentCourseHistory> passedCourses = historyRepository.findPassedCoursesByStudentId(studentId);
-        Set<Integer> passedCourseIds = passedCourses.stream()
-                .map(StudentCourseHistory::getCourseId)
-                .collect(Collectors.toSet());
+        StudentEligibility eligibility = eligibilityIndex.forStudent(studentId, student.getGradeLevel());
 
-        List<CourseSectionMeeting> enrolledMeetings = getEnrolledMeetings(currentEnrollments);
+        List<SectionCatalog.Entry> enrolledEntries = enrolledEntries(catalog, currentEnrollments);
+        WeekMask enrolledMask = catalog.weekMaskOf(enrolledSectionIds);
+        Map<Integer, Integer> enrolledCounts = seatReservationService.taken(catalog.sectionIds());
 
-        List<AvailableSectionDto> availableSections = allSections.stream()
-                .filter(section -> !enrolledSectionIds.contains(section.getId()))
-                .map(section -> buildAvailableSectionDto(section, passedCourseIds, enrolledMeetings))
+        List<AvailableSectionDto> availableSections = catalog.getSections().stream()
+                .filter(entry -> !enrolledSectionIds.contains(entry.getSectionId()))
+                .filter(entry -> !eligibleOnly || eligibility.isEligible(entry.getCourseId()))
+                .map(entry -> buildAvailableSectionDto(entry, eligibility, enrolledEntries, enrolledMask,
+                        enrolledCounts.getOrDefault(entry.getSectionId(), 0)))
                 .collect(Collectors.toList());
 
         List<EnrolledSectionDto> enrolledSections = currentEnrollments.stream()
-                .map(this::buildEnrolledSectionDto)
+                .map(enrollment -> buildEnrolledSectionDto(catalog, enrollment))
+                .collect(Collectors.toList());
+        List<EnrolledSectionDto> needsReenrollment = enrollmentRepository
+                .findRetiredByStudentIdAndSemesterId(studentId, semesterId).stream()
+                .map(this::buildRetiredSectionDto)
                 .collect(Collectors.toList());
 
-        AcademicProgressDto progress = progressCalculator.calculateProgress(student, passedCourses);
+        AcademicProgressDto progress = progressStore.get(student, graduationPlanner.plan(student, null));
 
         StudentPlanResponse response = new StudentPlanResponse();
         response.setStudent(dtoMapper.toStudentDto(student));
@@ -73,66 +88,81 @@ public class StudentPlanningService {
         response.setSemesterName(semester.getName() + " " + semester.getYear());
         response.setAvailableSections(availableSections);
         response.setEnrolledSections(enrolledSections);
+        response.setNeedsReenrollment(needsReenrollment);
         response.setProgress(progress);
 
         return response;
     }
 
-    private List<CourseSectionMeeting> getEnrolledMeetings(List<StudentCourseEnrollment> enrollments) {
-        List<CourseSectionMeeting> meetings = new ArrayList<>();
-        for (StudentCourseEnrollment enrollment : enrollments) {
-            meetings.addAll(meetingRepository.findByCourseSectionId(enrollment.getCourseSectionId()));
-        }
-        return meetings;
+    private List<SectionCatalog.Entry> enrolledEntries(SectionCatalog catalog,
+                                                       List<StudentCourseEnrollment> enrollments) {
+        return enrollments.stream()
+                .map(enrollment -> catalog.get(enrollment.getCourseSectionId()))
+                .flatMap(Optional::stream)
+                .toList();
     }
 
-    private AvailableSectionDto buildAvailableSectionDto(CourseSection section, 
-                                                         Set<Integer> passedCourseIds,
-                                                         List<CourseSectionMeeting> enrolledMeetings) {
+    private AvailableSectionDto buildAvailableSectionDto(SectionCatalog.Entry entry,
+                                                         StudentEligibility eligibility,
+                                                         List<SectionCatalog.Entry> enrolledEntries,
+                                                         WeekMask enrolledMask,
+                                                         long enrolledCount) {
         AvailableSectionDto dto = new AvailableSectionDto();
-        dto.setId(section.getId());
-        
-        Course course = courseRepository.findById(section.getCourseId()).orElse(null);
-        if (course != null) {
-            dto.setCourse(dtoMapper.toCourseDto(course));
-            dto.setPrerequisitesMet(course.getPrerequisiteId() == null || 
-                                   passedCourseIds.contains(course.getPrerequisiteId()));
-        }
-        
-        dto.setTeacher(dtoMapper.toTeacherDto(section.getTeacherId()));
-        dto.setClassroom(dtoMapper.toClassroomDto(section.getClassroomId()));
-        dto.setMeetings(dtoMapper.toMeetingDtos(section.getId()));
-
-        List<CourseSectionMeeting> sectionMeetings = section.getMeetings();
-        boolean hasConflict = conflictValidator.hasTimeConflict(sectionMeetings, enrolledMeetings);
-        dto.setHasTimeConflict(hasConflict);
-        if (hasConflict) {
-            dto.setConflictReason("Time conflict with enrolled courses");
-        }
-
-        Long enrolledCount = enrollmentRepository.countByCourseSectionId(section.getId());
+        dto.setId(entry.getSectionId());
+        dto.setCourse(entry.getCourse());
+        dto.setPrerequisitesMet(eligibility.prerequisiteMet(entry.getCourseId()));
+        dto.setEligible(eligibility.isEligible(entry.getCourseId()));
+        dto.setTeacher(entry.getTeacher());
+        dto.setClassroom(entry.getClassroom());
+        dto.setMeetings(entry.getMeetings());
+
+        Optional<TimeConflict> conflict = conflictValidator.findConflict(entry, enrolledEntries, enrolledMask);
+        dto.setHasTimeConflict(conflict.isPresent());
+        conflict.ifPresent(found -> {
+            dto.setConflictReason(found.describe());
+            dto.setConflictingSectionId(found.getConflictingSectionId());
+        });
+
+        dto.setCapacity(entry.getCapacity());
         dto.setEnrolledCount(enrolledCount);
-        dto.setRemainingCapacity(section.getCapacity() - enrolledCount.intValue());
+        dto.setRemainingCapacity(entry.getCapacity() - (int) enrolledCount);
 
         return dto;
     }
 
-    private EnrolledSectionDto buildEnrolledSectionDto(StudentCourseEnrollment enrollment) {
+    private EnrolledSectionDto buildEnrolledSectionDto(SectionCatalog catalog, StudentCourseEnrollment enrollment) {
         EnrolledSectionDto dto = new EnrolledSectionDto();
         dto.setId(enrollment.getCourseSectionId());
         
-        CourseSection section = courseSectionRepository.findById(enrollment.getCourseSectionId()).orElse(null);
-        if (section != null) {
-            dto.setCourse(dtoMapper.toCourseDto(section.getCourseId()));
-            dto.setTeacher(dtoMapper.toTeacherDto(section.getTeacherId()));
-            dto.setClassroom(dtoMapper.toClassroomDto(section.getClassroomId()));
-            dto.setMeetings(dtoMapper.toMeetingDtos(section.getId()));
-        }
+        catalog.get(enrollment.getCourseSectionId()).ifPresent(entry -> {
+            dto.setCourse(entry.getCourse());
+            dto.setTeacher(entry.getTeacher());
+            dto.setClassroom(entry.getClassroom());
+            dto.setMeetings(entry.getMeetings());
+        });
         
         return dto;
     }
 
-    @Transactional
+    /**
+     * A section of a replaced schedule version; it is not in the catalog, so it is mapped directly.
+     */
+    private EnrolledSectionDto buildRetiredSectionDto(StudentCourseEnrollment enrollment) {
+        CourseSection section = enrollment.getCourseSection();
+        EnrolledSectionDto dto = new EnrolledSectionDto();
+        dto.setId(section.getId());
+        dto.setCourse(dtoMapper.toCourseDto(section.getCourseId()));
+        dto.setTeacher(dtoMapper.toTeacherDto(section.getTeacherId()));
+        dto.setClassroom(dtoMapper.toClassroomDto(section.getClassroomId()));
+        dto.setMeetings(dtoMapper.toMeetingDtos(section.getId()));
+        return dto;
+    }
+
+    /**
+     * Validates against the shared catalog and eligibility index, then hands the write to the
+     * {@link EnrollmentPipeline}. Not transactional itself so no connection is held while the
+     * enrollment waits for its group commit.
+     */
     public EnrollResponse enrollStudent(Integer studentId, EnrollRequest request) {
         Student student = studentRepository.findById(studentId)
                 .orElseThrow(() -> new IllegalArgumentException("Student not found: " + studentId));
@@ -140,84 +170,79 @@ public class StudentPlanningService {
         Semester semester = semesterRepository.findById(request.getSemesterId())
                 .orElseThrow(() -> new IllegalArgumentException("Semester not found"));
 
-        List<String> errors = new ArrayList<>();
-        
         List<StudentCourseEnrollment> currentEnrollments = enrollmentRepository
                 .findByStudentIdAndSemesterId(studentId, request.getSemesterId());
-        if (currentEnrollments.size() + request.getCourseSectionIds().size() > MAX_COURSES_PER_SEMESTER) {
-            errors.add(String.format("Cannot enroll in more than %d courses per semester", MAX_COURSES_PER_SEMESTER));
-        }
+        List<Integer> enrolledSectionIds = currentEnrollments.stream()
+                .map(StudentCourseEnrollment::getCourseSectionId)
+                .toList();
 
         List<CourseSection> sectionsToEnroll = courseSectionRepository.findAllById(request.getCourseSectionIds());
+        StudentEligibility eligibility = eligibilityIndex.forStudent(studentId, student.getGradeLevel());
+        SectionCatalog catalog = sectionCatalogService.get(semester.getId());
+
+        List<String> errors = new ArrayList<>(enrollmentValidator.validate(student, eligibility, catalog,
+                enrolledSectionIds, sectionsToEnroll.stream().map(CourseSection::getId).toList()));
         if (sectionsToEnroll.size() != request.getCourseSectionIds().size()) {
             errors.add("One or more course sections not found");
         }
 
-        List<StudentCourseHistory> passedCourses = historyRepository.findPassedCoursesByStudentId(studentId);
-        Set<Integer> passedCourseIds = passedCourses.stream()
-                .map(StudentCourseHistory::getCourseId)
-                .collect(Collectors.toSet());
-
-        List<CourseSectionMeeting> existingMeetings = getEnrolledMeetings(currentEnrollments);
-        List<CourseSectionMeeting> newMeetings = new ArrayList<>();
-
-        for (CourseSection section : sectionsToEnroll) {
-            Course course = courseRepository.findById(section.getCourseId()).orElse(null);
-            
-            if (course != null && course.getPrerequisiteId() != null) {
-                if (!passedCourseIds.contains(course.getPrerequisiteId())) {
-                    errors.add(String.format("Missing prerequisite for course %s", course.getCode()));
-                }
-            }
-
-            Long enrolledCount = enrollmentRepository.countByCourseSectionId(section.getId());
-            if (enrolledCount >= section.getCapacity()) {
-                errors.add(String.format("Course section %d is full", section.getId()));
-            }
-
-            List<CourseSectionMeeting> sectionMeetings = section.getMeetings();
-            if (conflictValidator.hasTimeConflict(sectionMeetings, existingMeetings)) {
-                errors.add(String.format("Time conflict with course section %d", section.getId()));
-            }
-
-            if (conflictValidator.hasTimeConflict(sectionMeetings, newMeetings)) {
-                errors.add("Time conflict between selected course sections");
-            }
-
-            newMeetings.addAll(sectionMeetings);
-        }
-
         if (!errors.isEmpty()) {
-            EnrollResponse response = new EnrollResponse();
-            response.setSuccess(false);
-            response.setMessage("Enrollment validation failed");
-            response.setErrors(errors);
-            return response;
+            return failed(errors);
         }
 
-        List<StudentCourseEnrollment> enrollments = new ArrayList<>();
-        for (CourseSection section : sectionsToEnroll) {
-            StudentCourseEnrollment enrollment = new StudentCourseEnrollment();
-            enrollment.setStudentId(studentId);
-            enrollment.setCourseSectionId(section.getId());
-            enrollment.setEnrolledAt(LocalDateTime.now());
-            enrollments.add(enrollment);
+        // Seats are taken atomically in memory first; the pipeline then writes the rows in a group
+        // commit, inserting each only if the database agrees, and gives the seats back if it refuses
+        Map<Integer, Integer> capacities = new LinkedHashMap<>();
+        sectionsToEnroll.forEach(section -> capacities.put(section.getId(), section.getCapacity()));
+        List<Integer> fullSections = seatReservationService.reserveAll(capacities);
+        if (!fullSections.isEmpty()) {
+            fullSections.forEach(sectionId -> errors.add(EnrollmentValidator.fullMessage(sectionId)));
+            return failed(errors);
+        }
+        EnrollmentPipeline.WriteResult written = enrollmentPipeline.write(studentId,
+                List.copyOf(capacities.keySet()), EnrollmentValidator.MAX_COURSES_PER_SEMESTER);
+        if (!written.isCommitted()) {
+            errors.add(EnrollmentValidator.refusedMessage(written.getRejectedSectionId()));
+            return failed(errors);
         }
-
-        enrollmentRepository.saveAll(enrollments);
 
         EnrollResponse response = new EnrollResponse();
         response.setSuccess(true);
-        response.setMessage("Successfully enrolled in " + enrollments.size() + " course(s)");
+        response.setMessage("Successfully enrolled in " + sectionsToEnroll.size() + " course(s)");
         response.setEnrolledSectionIds(request.getCourseSectionIds());
         return response;
     }
 
+    /**
+     * Removes the enrollment and offers the freed seat to the section's waitlist.
+     */
+    public DropResponse dropEnrollment(Integer studentId, Integer sectionId) {
+        if (!seatReservationService.deleteEnrollment(studentId, sectionId)) {
+            throw new IllegalArgumentException(String.format(
+                    "Student %d is not enrolled in course section %d", studentId, sectionId));
+        }
+        List<Integer> promoted = waitlistService.promote(sectionId);
+
+        DropResponse response = new DropResponse();
+        response.setSuccess(true);
+        response.setMessage("Dropped course section " + sectionId);
+        response.setCourseSectionId(sectionId);
+        response.setPromotedStudentIds(promoted);
+        return response;
+    }
+
+    private EnrollResponse failed(List<String> errors) {
+        EnrollResponse response = new EnrollResponse();
+        response.setSuccess(false);
+        response.setMessage("Enrollment validation failed");
+        response.setErrors(errors);
+        return response;
+    }
+
     public AcademicProgressDto getStudentProgress(Integer studentId) {
         Student student = studentRepository.findById(studentId)
                 .orElseThrow(() -> new IllegalArgumentException("Student not found: " + studentId));
         
-        List<StudentCourseHistory> passedCourses = historyRepository.findPassedCoursesByStudentId(studentId);
-        return progressCalculator.calculateProgress(student, passedCourses);
+        return progressStore.get(student, graduationPlanner.plan(student, null));
     }
 }
@@ -0,0 +1,82 @@
+package com.maplewood.service;
+
+import com.maplewood.dto.AcademicProgressDto;
+import com.maplewood.entity.Student;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Reads academic progress from {@code student_progress}, which the V9 triggers keep current on
+ * every history write, so a progress read is one primary-key lookup instead of a history scan.
+ * A scheduled check compares the table with a full recomputation from history and repairs the
+ * rows that drifted, e.g. after edits made while the triggers were missing.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StudentProgressStore {
+
+    private static final String COLUMNS = "student_id, earned_tenths, core_completed, attempted_tenths, passed_attempt_tenths";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProgressCalculator progressCalculator;
+
+    /**
+     * The student's stored progress, projected with the given graduation plan when there is one.
+     */
+    public AcademicProgressDto get(Student student, CourseGraph.Plan plan) {
+        List<AcademicProgressDto> stored = read(student, plan);
+        if (stored.isEmpty()) {
+            // Students inserted before the table existed, or while its triggers were missing
+            refresh(student.getId());
+            stored = read(student, plan);
+        }
+        return stored.isEmpty()
+                ? progressCalculator.calculateProgress(student.getEnrollmentYear(), 0, 0, 0, 0, plan)
+                : stored.get(0);
+    }
+
+    /**
+     * Recomputes one student's row from history.
+     */
+    public void refresh(Integer studentId) {
+        jdbcTemplate.update("INSERT OR REPLACE INTO student_progress (" + COLUMNS + ") SELECT " + COLUMNS
+                + " FROM student_progress_source WHERE student_id = ?", studentId);
+    }
+
+    /**
+     * Recomputes every student from history and rewrites the rows that differ.
+     * Returns the number of rows repaired.
+     */
+    @Scheduled(cron = "${maplewood.progress.drift-check-cron:0 30 2 * * *}")
+    public int checkForDrift() {
+        List<Integer> drifted = jdbcTemplate.queryForList(
+                "SELECT s.student_id FROM student_progress_source s "
+                        + "LEFT JOIN student_progress p ON p.student_id = s.student_id "
+                        + "WHERE p.student_id IS NULL OR p.earned_tenths != s.earned_tenths "
+                        + "OR p.core_completed != s.core_completed OR p.attempted_tenths != s.attempted_tenths "
+                        + "OR p.passed_attempt_tenths != s.passed_attempt_tenths", Integer.class);
+        drifted.forEach(this::refresh);
+        int orphaned = jdbcTemplate.update(
+                "DELETE FROM student_progress WHERE student_id NOT IN (SELECT id FROM students)");
+        if (drifted.isEmpty() && orphaned == 0) {
+            log.debug("Student progress matches history");
+        } else {
+            log.warn("Student progress had drifted: repaired {} row(s), removed {} orphaned row(s)",
+                    drifted.size(), orphaned);
+        }
+        return drifted.size() + orphaned;
+    }
+
+    private List<AcademicProgressDto> read(Student student, CourseGraph.Plan plan) {
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM student_progress WHERE student_id = ?",
+                (rs, rowNum) -> progressCalculator.calculateProgress(student.getEnrollmentYear(), rs.getInt(2),
+                        rs.getInt(3), rs.getLong(4), rs.getLong(5), plan),
+                student.getId());
+    }
+}
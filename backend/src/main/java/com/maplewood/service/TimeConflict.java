@@ -0,0 +1,26 @@
+package com.maplewood.service;
+
+import com.maplewood.dto.MeetingDto;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The first colliding meeting pair between a candidate section and a section it was checked against.
+ */
+@Getter
+@RequiredArgsConstructor
+public final class TimeConflict {
+    private final Integer sectionId;
+    private final MeetingDto meeting;
+    private final Integer conflictingSectionId;
+    private final String conflictingCourseCode;
+    private final MeetingDto conflictingMeeting;
+
+    /**
+     * Human-readable reason, e.g. "Overlaps ENG101 (section 12) on MONDAY 09:00-10:00".
+     */
+    public String describe() {
+        return String.format("Overlaps %s (section %d) on %s %s-%s", conflictingCourseCode, conflictingSectionId,
+                conflictingMeeting.getDayOfWeek(), conflictingMeeting.getStartTime(), conflictingMeeting.getEndTime());
+    }
+}
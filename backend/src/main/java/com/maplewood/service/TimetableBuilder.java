@@ -0,0 +1,279 @@
+package com.maplewood.service;
+
+import com.maplewood.dto.*;
+import com.maplewood.entity.Course;
+import com.maplewood.entity.Student;
+import com.maplewood.entity.StudentCourseEnrollment;
+import com.maplewood.repository.SemesterRepository;
+import com.maplewood.repository.StudentCourseEnrollmentRepository;
+import com.maplewood.repository.StudentRepository;
+import com.maplewood.service.EligibilityIndex.StudentEligibility;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Finds the best conflict-free combinations of sections for a student's wish list.
+ * Courses the student cannot take (eligibility, no open section that fits around their current
+ * sections) are reported up front; the rest are searched depth-first, one section or none per
+ * course, with week masks for conflict checks and a branch-and-bound cut: a branch is dropped
+ * when even the highest remaining priorities cannot beat the k-th best timetable found so far.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TimetableBuilder {
+
+    static final long MAX_NODES = 200_000;
+
+    private final StudentRepository studentRepository;
+    private final SemesterRepository semesterRepository;
+    private final StudentCourseEnrollmentRepository enrollmentRepository;
+    private final SectionCatalogService sectionCatalogService;
+    private final EligibilityIndex eligibilityIndex;
+    private final SeatReservationService seatReservationService;
+    private final ReferenceDataCache referenceDataCache;
+
+    public TimetableResponse build(Integer studentId, TimetableRequest request) {
+        Student student = studentRepository.findById(studentId)
+                .orElseThrow(() -> new IllegalArgumentException("Student not found: " + studentId));
+        semesterRepository.findById(request.getSemesterId())
+                .orElseThrow(() -> new IllegalArgumentException("Semester not found: " + request.getSemesterId()));
+
+        SectionCatalog catalog = sectionCatalogService.get(request.getSemesterId());
+        StudentEligibility eligibility = eligibilityIndex.forStudent(studentId, student.getGradeLevel());
+        List<Integer> enrolledSectionIds = enrollmentRepository
+                .findByStudentIdAndSemesterId(studentId, request.getSemesterId()).stream()
+                .map(StudentCourseEnrollment::getCourseSectionId)
+                .toList();
+        WeekMask enrolledMask = catalog.weekMaskOf(enrolledSectionIds);
+        Set<Integer> enrolledCourseIds = enrolledSectionIds.stream()
+                .map(catalog::get)
+                .flatMap(Optional::stream)
+                .map(SectionCatalog.Entry::getCourseId)
+                .collect(Collectors.toSet());
+        Map<Integer, Integer> taken = seatReservationService.taken(catalog.sectionIds());
+        Map<Integer, List<SectionCatalog.Entry>> sectionsByCourse = catalog.getSections().stream()
+                .collect(Collectors.groupingBy(SectionCatalog.Entry::getCourseId));
+
+        // Duplicate wishes keep their highest priority
+        Map<Integer, Integer> priorityByCourse = new LinkedHashMap<>();
+        request.getCourses().forEach(wish -> priorityByCourse.merge(wish.getCourseId(), wish.getPriority(), Math::max));
+
+        WishList wishList = wishList(student, eligibility, priorityByCourse, sectionsByCourse, taken,
+                enrolledMask, enrolledCourseIds);
+        List<Candidate> candidates = wishList.getCandidates();
+
+        int slots = Math.max(0, EnrollmentValidator.MAX_COURSES_PER_SEMESTER - enrolledSectionIds.size());
+        Search search = new Search(candidates, slots, request.getAlternatives(), MAX_NODES);
+        List<Timetable> timetables = search.run(enrolledMask);
+        log.debug("Timetable search for student {} visited {} nodes for {} courses", studentId,
+                search.getNodes(), candidates.size());
+
+        TimetableResponse response = new TimetableResponse();
+        response.setStudentId(studentId);
+        response.setSemesterId(request.getSemesterId());
+        response.setUnavailableCourses(wishList.getUnavailable());
+        response.setSearchedNodes(search.getNodes());
+        response.setComplete(!search.isTruncated());
+        List<TimetableOptionDto> options = new ArrayList<>();
+        for (Timetable timetable : timetables) {
+            options.add(toOptionDto(options.size() + 1, timetable, candidates));
+        }
+        response.setOptions(options);
+        return response;
+    }
+
+    /**
+     * Splits a wish list into searchable candidates, each with its open sections that fit around
+     * the enrolled mask (most seats first), and the reasons the other courses cannot be taken.
+     */
+    WishList wishList(Student student, StudentEligibility eligibility, Map<Integer, Integer> priorityByCourse,
+                      Map<Integer, List<SectionCatalog.Entry>> sectionsByCourse, Map<Integer, Integer> taken,
+                      WeekMask enrolledMask, Set<Integer> enrolledCourseIds) {
+        List<String> unavailable = new ArrayList<>();
+        List<Candidate> candidates = new ArrayList<>();
+        priorityByCourse.forEach((courseId, priority) -> {
+            Course course = referenceDataCache.courses().get(courseId).orElse(null);
+            String reason = course == null ? String.format("Course %d not found", courseId)
+                    : unavailableReason(course, student, eligibility, enrolledCourseIds);
+            if (reason != null) {
+                unavailable.add(reason);
+                return;
+            }
+            List<SectionCatalog.Entry> open = sectionsByCourse.getOrDefault(courseId, List.of()).stream()
+                    .filter(entry -> remaining(entry, taken) > 0)
+                    .filter(entry -> !entry.getWeekMask().intersects(enrolledMask))
+                    .sorted(Comparator.comparingInt((SectionCatalog.Entry entry) -> remaining(entry, taken)).reversed())
+                    .toList();
+            if (open.isEmpty()) {
+                unavailable.add(String.format("No open section of %s fits the current schedule", course.getCode()));
+            } else {
+                candidates.add(new Candidate(courseId, priority, open));
+            }
+        });
+        return new WishList(candidates, unavailable);
+    }
+
+    private String unavailableReason(Course course, Student student, StudentEligibility eligibility,
+                                     Set<Integer> enrolledCourseIds) {
+        if (enrolledCourseIds.contains(course.getId())) {
+            return String.format("Already enrolled in %s", course.getCode());
+        }
+        if (eligibility.hasPassed(course.getId())) {
+            return String.format("Course %s has already been passed", course.getCode());
+        }
+        if (!eligibility.prerequisiteMet(course.getId())) {
+            return String.format("Missing prerequisite for course %s", course.getCode());
+        }
+        if (!eligibility.inGradeRange(course.getId())) {
+            return String.format("Course %s is not offered to grade %d", course.getCode(), student.getGradeLevel());
+        }
+        return null;
+    }
+
+    private int remaining(SectionCatalog.Entry entry, Map<Integer, Integer> taken) {
+        return entry.getCapacity() - taken.getOrDefault(entry.getSectionId(), 0);
+    }
+
+    private TimetableOptionDto toOptionDto(int rank, Timetable timetable, List<Candidate> candidates) {
+        Set<Integer> placed = timetable.getSections().stream()
+                .map(SectionCatalog.Entry::getCourseId)
+                .collect(Collectors.toSet());
+        TimetableOptionDto dto = new TimetableOptionDto();
+        dto.setRank(rank);
+        dto.setScore(timetable.getScore());
+        dto.setSections(timetable.getSections().stream().map(this::toSectionDto).toList());
+        dto.setOmittedCourseIds(candidates.stream()
+                .map(Candidate::getCourseId)
+                .filter(courseId -> !placed.contains(courseId))
+                .toList());
+        return dto;
+    }
+
+    private EnrolledSectionDto toSectionDto(SectionCatalog.Entry entry) {
+        EnrolledSectionDto dto = new EnrolledSectionDto();
+        dto.setId(entry.getSectionId());
+        dto.setCourse(entry.getCourse());
+        dto.setTeacher(entry.getTeacher());
+        dto.setClassroom(entry.getClassroom());
+        dto.setMeetings(entry.getMeetings());
+        return dto;
+    }
+
+    /**
+     * A wished course with the open sections that fit around the student's current schedule,
+     * most seats first.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    static final class Candidate {
+        private final Integer courseId;
+        private final int priority;
+        private final List<SectionCatalog.Entry> sections;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    static final class WishList {
+        private final List<Candidate> candidates;
+        private final List<String> unavailable;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    static final class Timetable {
+        private final int score;
+        private final List<SectionCatalog.Entry> sections;
+        // Discovery order; earlier finds follow the seat heuristic and win ties
+        private final long sequence;
+    }
+
+    /**
+     * Branch-and-bound over the candidates for the top-k timetables by score.
+     */
+    static final class Search {
+
+        private static final Comparator<Timetable> WORST_FIRST = Comparator.comparingInt(Timetable::getScore)
+                .thenComparing(Comparator.comparingLong(Timetable::getSequence).reversed());
+
+        private final List<Candidate> candidates;
+        private final int slots;
+        private final int k;
+        private final long maxNodes;
+        // prioritySums[i] = total priority of the i highest-priority candidates
+        private final int[] prioritySums;
+        private final PriorityQueue<Timetable> best = new PriorityQueue<>(WORST_FIRST);
+        private final Deque<SectionCatalog.Entry> chosen = new ArrayDeque<>();
+        @Getter
+        private long nodes;
+        @Getter
+        private boolean truncated;
+
+        Search(List<Candidate> candidates, int slots, int k, long maxNodes) {
+            // Highest priority first so the bound is a prefix sum; fewest sections first among equals
+            this.candidates = candidates.stream()
+                    .sorted(Comparator.comparingInt(Candidate::getPriority).reversed()
+                            .thenComparingInt(candidate -> candidate.getSections().size()))
+                    .toList();
+            this.slots = slots;
+            this.k = k;
+            this.maxNodes = maxNodes;
+            this.prioritySums = new int[this.candidates.size() + 1];
+            for (int i = 0; i < this.candidates.size(); i++) {
+                prioritySums[i + 1] = prioritySums[i] + this.candidates.get(i).getPriority();
+            }
+        }
+
+        /**
+         * Returns up to k timetables, best first, none of which overlaps the fixed mask.
+         */
+        List<Timetable> run(WeekMask fixed) {
+            visit(0, fixed, slots, 0);
+            List<Timetable> result = new ArrayList<>(best);
+            result.sort(WORST_FIRST.reversed());
+            return result;
+        }
+
+        private void visit(int index, WeekMask mask, int slotsLeft, int score) {
+            if (nodes++ >= maxNodes) {
+                truncated = true;
+                return;
+            }
+            if (best.size() == k && score + bound(index, slotsLeft) <= best.peek().getScore()) {
+                return;
+            }
+            if (index == candidates.size() || slotsLeft == 0) {
+                if (score > 0) {
+                    offer(score);
+                }
+                return;
+            }
+            Candidate candidate = candidates.get(index);
+            for (SectionCatalog.Entry section : candidate.getSections()) {
+                if (!section.getWeekMask().intersects(mask)) {
+                    chosen.addLast(section);
+                    visit(index + 1, mask.or(section.getWeekMask()), slotsLeft - 1, score + candidate.getPriority());
+                    chosen.removeLast();
+                }
+            }
+            visit(index + 1, mask, slotsLeft, score);
+        }
+
+        // Most the remaining candidates can add: the next slotsLeft priorities, as they are sorted
+        private int bound(int index, int slotsLeft) {
+            return prioritySums[Math.min(candidates.size(), index + slotsLeft)] - prioritySums[index];
+        }
+
+        private void offer(int score) {
+            if (best.size() == k) {
+                best.poll();
+            }
+            best.add(new Timetable(score, List.copyOf(chosen), nodes));
+        }
+    }
+}
@@ -0,0 +1,603 @@
+package com.maplewood.service;
+
+import com.maplewood.config.EnrollmentProperties;
+import com.maplewood.config.SqliteDateConverters;
+import com.maplewood.dto.WaitlistEntryDto;
+import com.maplewood.dto.WaitlistPlacementRequest;
+import com.maplewood.dto.WaitlistRequest;
+import com.maplewood.entity.CourseSection;
+import com.maplewood.entity.Student;
+import com.maplewood.entity.StudentCourseEnrollment;
+import com.maplewood.repository.CourseSectionRepository;
+import com.maplewood.repository.StudentCourseEnrollmentRepository;
+import com.maplewood.repository.StudentRepository;
+import com.maplewood.service.EligibilityIndex.StudentEligibility;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Per-section waitlists for full sections, held in memory.
+ * Each list is ordered by priority, then by join order; the next student is found without
+ * scanning. Students join at the default priority; only registrars place them higher. When a
+ * seat frees up, {@link #promote} re-validates waiting students against their current sections
+ * (conflicts, course limit, eligibility) and enrolls the first who still fits.
+ *
+ * <p>Changes are queued and written to {@code section_waitlist_entries} in one batch per flush
+ * interval; callers inside a transaction are written through it instead. The lists are reloaded
+ * from the table on startup, dropping entries whose student already holds the section.
+ */
+@Service
+@Slf4j
+public class WaitlistService {
+
+    public static final int DEFAULT_PRIORITY = 0;
+
+    /** Waiting students validated per query during a promotion. */
+    private static final int PROMOTION_SLICE = 16;
+
+    private static final SqliteDateConverters.LocalDateTimeConverter DATE_CONVERTER =
+            new SqliteDateConverters.LocalDateTimeConverter();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CourseSectionRepository courseSectionRepository;
+    private final StudentRepository studentRepository;
+    private final StudentCourseEnrollmentRepository enrollmentRepository;
+    private final SectionCatalogService sectionCatalogService;
+    private final EligibilityIndex eligibilityIndex;
+    private final EnrollmentValidator enrollmentValidator;
+    private final SeatReservationService seatReservationService;
+    private final EnrollmentPipeline enrollmentPipeline;
+    private final ScheduledExecutorService flusher;
+
+    private final Map<Integer, SectionWaitlist> bySection = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<Integer>> sectionsByStudent = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Queue<Change> pending = new ConcurrentLinkedQueue<>();
+    private final List<Change> retry = new ArrayList<>();
+    private volatile boolean loaded;
+
+    public WaitlistService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           CourseSectionRepository courseSectionRepository, StudentRepository studentRepository,
+                           StudentCourseEnrollmentRepository enrollmentRepository,
+                           SectionCatalogService sectionCatalogService, EligibilityIndex eligibilityIndex,
+                           EnrollmentValidator enrollmentValidator, SeatReservationService seatReservationService,
+                           EnrollmentPipeline enrollmentPipeline, EnrollmentProperties enrollmentProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.courseSectionRepository = courseSectionRepository;
+        this.studentRepository = studentRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.sectionCatalogService = sectionCatalogService;
+        this.eligibilityIndex = eligibilityIndex;
+        this.enrollmentValidator = enrollmentValidator;
+        this.seatReservationService = seatReservationService;
+        this.enrollmentPipeline = enrollmentPipeline;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "waitlist-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = enrollmentProperties.getWaitlist().getFlushIntervalMillis();
+        flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flusher.shutdownNow();
+        flush();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        ensureLoaded();
+    }
+
+    /**
+     * Puts the student on a full section's waitlist at the default priority. The student must be
+     * able to take the section apart from the missing seat.
+     */
+    public WaitlistEntryDto join(Integer studentId, WaitlistRequest request) {
+        return join(studentId, request.getCourseSectionId(), DEFAULT_PRIORITY);
+    }
+
+    /**
+     * Registrar placement: puts the student on the waitlist at the given priority, or moves a
+     * waiting student to it while keeping their place among equal priorities.
+     */
+    public WaitlistEntryDto place(WaitlistPlacementRequest request) {
+        ensureLoaded();
+        Integer sectionId = request.getCourseSectionId();
+        Integer studentId = request.getStudentId();
+        SectionWaitlist waitlist = bySection.get(sectionId);
+        if (waitlist == null) {
+            return join(studentId, sectionId, request.getPriority());
+        }
+        WaitlistEntry placed;
+        synchronized (waitlist) {
+            WaitlistEntry waiting = waitlist.get(studentId);
+            if (waiting == null) {
+                return join(studentId, sectionId, request.getPriority());
+            }
+            placed = new WaitlistEntry(sectionId, studentId, request.getPriority(), waiting.getSequence(),
+                    waiting.getJoinedAt());
+            waitlist.remove(studentId);
+            waitlist.add(placed);
+        }
+        record(new Change(sectionId, studentId, placed));
+        return toDto(placed, publishedEntry(sectionId).orElse(null));
+    }
+
+    private WaitlistEntryDto join(Integer studentId, Integer sectionId, int priority) {
+        ensureLoaded();
+        Student student = studentRepository.findById(studentId)
+                .orElseThrow(() -> new IllegalArgumentException("Student not found: " + studentId));
+        SectionCatalog.Entry entry = publishedEntry(sectionId)
+                .orElseThrow(() -> new IllegalArgumentException(String.format(
+                        "Course section %d is not in a published schedule", sectionId)));
+
+        List<String> errors = validate(student, sectionId);
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException(String.join("; ", errors));
+        }
+        if (seatReservationService.taken(List.of(sectionId)).getOrDefault(sectionId, 0) < entry.getCapacity()) {
+            throw new IllegalArgumentException(String.format("Course section %d has open seats; enroll instead", sectionId));
+        }
+
+        WaitlistEntry waiting = new WaitlistEntry(sectionId, studentId, priority,
+                sequence.incrementAndGet(), LocalDateTime.now().withNano(0));
+        if (!add(waiting)) {
+            throw new IllegalArgumentException(String.format("Already on the waitlist for course section %d", sectionId));
+        }
+        record(new Change(sectionId, studentId, waiting));
+        return toDto(waiting, entry);
+    }
+
+    public void leave(Integer studentId, Integer sectionId) {
+        ensureLoaded();
+        if (remove(sectionId, studentId) == null) {
+            throw new IllegalArgumentException(String.format("Not on the waitlist for course section %d", sectionId));
+        }
+        record(new Change(sectionId, studentId, null));
+    }
+
+    public List<WaitlistEntryDto> forStudent(Integer studentId) {
+        ensureLoaded();
+        List<WaitlistEntryDto> entries = new ArrayList<>();
+        for (Integer sectionId : sectionsByStudent.getOrDefault(studentId, Set.of())) {
+            SectionWaitlist waitlist = bySection.get(sectionId);
+            WaitlistEntry waiting = waitlist == null ? null : waitlist.get(studentId);
+            if (waiting != null) {
+                entries.add(toDto(waiting, publishedEntry(sectionId).orElse(null)));
+            }
+        }
+        entries.sort(Comparator.comparing(WaitlistEntryDto::getCourseSectionId));
+        return entries;
+    }
+
+    /**
+     * Fills the section's free seats from its waitlist, walking it from the head without copying it.
+     * The line is read a slice at a time under the list's own short lock, and each slice's students
+     * and their sections are loaded with one query; validation and the enrollment write run outside
+     * it, so joining, leaving and position lookups never wait for a promotion. Concurrent promotions
+     * of the same section take turns. Students who cannot take the section for a lasting reason
+     * (gone, already passed the course, outside its grade range, already enrolled) are removed;
+     * those who only conflict right now keep their place. Returns the students who were enrolled.
+     */
+    public List<Integer> promote(Integer sectionId) {
+        ensureLoaded();
+        SectionWaitlist waitlist = bySection.get(sectionId);
+        if (waitlist == null || waitlist.size() == 0) {
+            return List.of();
+        }
+        CourseSection section = courseSectionRepository.findById(sectionId).orElse(null);
+        SectionCatalog catalog = section == null ? null : sectionCatalogService.get(section.getSemesterId());
+        SectionCatalog.Entry entry = catalog == null ? null : catalog.get(sectionId).orElse(null);
+        if (entry == null) {
+            return List.of();
+        }
+        List<Integer> promoted = new ArrayList<>();
+        synchronized (waitlist.promotion) {
+            List<WaitlistEntry> slice = waitlist.slice(null, PROMOTION_SLICE);
+            promotion:
+            while (!slice.isEmpty()) {
+                Map<Integer, WaitingStudent> students = waitingStudents(slice, section.getSemesterId());
+                for (WaitlistEntry candidate : slice) {
+                    Integer studentId = candidate.getStudentId();
+                    if (waitlist.get(studentId) != candidate) {
+                        continue; // left or re-placed since the slice was read
+                    }
+                    WaitingStudent waiting = students.get(studentId);
+                    StudentEligibility eligibility = waiting == null ? null
+                            : eligibilityIndex.forStudent(studentId, waiting.student.getGradeLevel());
+                    String lasting = lastingReason(waiting, eligibility, entry);
+                    if (lasting != null) {
+                        log.debug("Removing student {} from the waitlist of section {}: {}", studentId, sectionId, lasting);
+                        remove(sectionId, studentId);
+                        record(new Change(sectionId, studentId, null));
+                        continue;
+                    }
+                    List<String> errors = enrollmentValidator.validate(waiting.student, eligibility, catalog,
+                            waiting.enrolledSectionIds, List.of(sectionId));
+                    if (!errors.isEmpty()) {
+                        log.debug("Skipping student {} on the waitlist of section {}: {}", studentId, sectionId, errors);
+                        continue;
+                    }
+                    if (!seatReservationService.reserveAll(Map.of(sectionId, entry.getCapacity())).isEmpty()) {
+                        break promotion;
+                    }
+                    EnrollmentPipeline.WriteResult written = enrollmentPipeline.write(studentId, List.of(sectionId),
+                            EnrollmentValidator.MAX_COURSES_PER_SEMESTER);
+                    if (written.isCommitted()) {
+                        remove(sectionId, studentId);
+                        record(new Change(sectionId, studentId, null));
+                        promoted.add(studentId);
+                    }
+                }
+                slice = waitlist.slice(slice.get(slice.size() - 1), PROMOTION_SLICE);
+            }
+        }
+        if (!promoted.isEmpty()) {
+            log.info("Promoted {} student(s) from the waitlist of section {}", promoted.size(), sectionId);
+        }
+        return promoted;
+    }
+
+    /**
+     * Grade level and the semester's enrolled sections of the slice's students, in one query.
+     * Students who no longer exist are left out.
+     */
+    private Map<Integer, WaitingStudent> waitingStudents(List<WaitlistEntry> slice, Integer semesterId) {
+        List<Object> args = new ArrayList<>();
+        args.add(semesterId);
+        slice.forEach(waiting -> args.add(waiting.getStudentId()));
+        String placeholders = slice.stream().map(waiting -> "?").collect(Collectors.joining(","));
+        Map<Integer, WaitingStudent> students = new HashMap<>();
+        jdbcTemplate.query("SELECT s.id, s.grade_level, e.course_section_id FROM students s "
+                + "LEFT JOIN student_course_enrollments e ON e.student_id = s.id "
+                + "AND e.course_section_id IN (SELECT id FROM course_sections WHERE semester_id = ?) "
+                + "WHERE s.id IN (" + placeholders + ")", rs -> {
+            WaitingStudent waiting = students.computeIfAbsent(rs.getInt(1), id -> new WaitingStudent(id));
+            waiting.student.setGradeLevel(rs.getInt(2));
+            int enrolledSectionId = rs.getInt(3);
+            if (!rs.wasNull()) {
+                waiting.enrolledSectionIds.add(enrolledSectionId);
+            }
+        }, args.toArray());
+        return students;
+    }
+
+    /**
+     * Why the student can never take the section this semester, or null if they still might.
+     */
+    private static String lastingReason(WaitingStudent waiting, StudentEligibility eligibility,
+                                        SectionCatalog.Entry entry) {
+        if (waiting == null) {
+            return "student not found";
+        }
+        if (eligibility.hasPassed(entry.getCourseId())) {
+            return "course already passed";
+        }
+        if (!eligibility.inGradeRange(entry.getCourseId())) {
+            return "grade out of range";
+        }
+        if (waiting.enrolledSectionIds.contains(entry.getSectionId())) {
+            return "already enrolled";
+        }
+        return null;
+    }
+
+    /**
+     * Writes queued changes in one transaction; a failed batch is retried on the next flush.
+     */
+    synchronized void flush() {
+        List<Change> batch = new ArrayList<>(retry);
+        Change change;
+        while ((change = pending.poll()) != null) {
+            batch.add(change);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+            retry.clear();
+            log.debug("Wrote {} waitlist change(s)", batch.size());
+        } catch (RuntimeException e) {
+            log.error("Writing {} waitlist change(s) failed; retrying on the next flush", batch.size(), e);
+            retry.clear();
+            retry.addAll(batch);
+        }
+    }
+
+    /**
+     * For schedule writes that move or delete waitlist rows: writes queued changes through the
+     * caller's transaction first, so none lands on a section after it is gone, and rebuilds the
+     * lists from the table once that transaction commits. On rollback the changes are queued again.
+     */
+    synchronized void beforeScheduleWrite() {
+        List<Change> batch = new ArrayList<>(retry);
+        retry.clear();
+        Change change;
+        while ((change = pending.poll()) != null) {
+            batch.add(change);
+        }
+        write(batch);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    requeue(batch);
+                } else if (loaded) {
+                    reload();
+                }
+            }
+        });
+    }
+
+    private synchronized void requeue(List<Change> batch) {
+        retry.addAll(0, batch);
+    }
+
+    /**
+     * Rebuilds the in-memory lists from the database.
+     */
+    void reload() {
+        synchronized (bySection) {
+            bySection.clear();
+            sectionsByStudent.clear();
+            load(null);
+            loaded = true;
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (bySection) {
+            if (!loaded) {
+                // Entries for sections the student got into while the application was down
+                int stale = jdbcTemplate.update("DELETE FROM section_waitlist_entries WHERE EXISTS ("
+                        + "SELECT 1 FROM student_course_enrollments e WHERE e.student_id = section_waitlist_entries.student_id "
+                        + "AND e.course_section_id = section_waitlist_entries.course_section_id)");
+                load(null);
+                loaded = true;
+                log.info("Loaded waitlists for {} section(s), dropped {} stale entr{}", bySection.size(), stale,
+                        stale == 1 ? "y" : "ies");
+            }
+        }
+    }
+
+    private void load(Integer sectionId) {
+        String sql = "SELECT course_section_id, student_id, priority, sequence, joined_at FROM section_waitlist_entries"
+                + (sectionId == null ? "" : " WHERE course_section_id = ?");
+        Object[] args = sectionId == null ? new Object[0] : new Object[]{sectionId};
+        jdbcTemplate.query(sql, rs -> {
+            WaitlistEntry waiting = new WaitlistEntry(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getLong(4),
+                    DATE_CONVERTER.convertToEntityAttribute(rs.getString(5)));
+            add(waiting);
+            sequence.accumulateAndGet(waiting.getSequence(), Math::max);
+        }, args);
+    }
+
+    private boolean add(WaitlistEntry waiting) {
+        boolean added = bySection.computeIfAbsent(waiting.getSectionId(), id -> new SectionWaitlist()).add(waiting);
+        if (added) {
+            sectionsByStudent.computeIfAbsent(waiting.getStudentId(), id -> ConcurrentHashMap.newKeySet())
+                    .add(waiting.getSectionId());
+        }
+        return added;
+    }
+
+    private WaitlistEntry remove(Integer sectionId, Integer studentId) {
+        SectionWaitlist waitlist = bySection.get(sectionId);
+        WaitlistEntry removed = waitlist == null ? null : waitlist.remove(studentId);
+        if (removed != null) {
+            sectionsByStudent.getOrDefault(studentId, Set.of()).remove(sectionId);
+        }
+        return removed;
+    }
+
+    private void record(Change change) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            pending.add(change);
+            return;
+        }
+        write(List.of(change));
+        // A rollback restores the table; the section's list follows it
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    reloadSection(change.getSectionId());
+                }
+            }
+        });
+    }
+
+    private void reloadSection(Integer sectionId) {
+        synchronized (bySection) {
+            SectionWaitlist waitlist = bySection.remove(sectionId);
+            if (waitlist != null) {
+                waitlist.inOrder().forEach(waiting ->
+                        sectionsByStudent.getOrDefault(waiting.getStudentId(), Set.of()).remove(sectionId));
+            }
+            load(sectionId);
+        }
+    }
+
+    /**
+     * Applies the last change per (section, student): inserts first, then deletes, each as one batch.
+     */
+    private void write(List<Change> changes) {
+        Map<List<Integer>, Change> latest = new LinkedHashMap<>();
+        changes.forEach(change -> latest.put(List.of(change.getSectionId(), change.getStudentId()), change));
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        for (Change change : latest.values()) {
+            WaitlistEntry waiting = change.getEntry();
+            if (waiting != null) {
+                inserts.add(new Object[]{waiting.getSectionId(), waiting.getStudentId(), waiting.getPriority(),
+                        waiting.getSequence(), DATE_CONVERTER.convertToDatabaseColumn(waiting.getJoinedAt())});
+            } else {
+                deletes.add(new Object[]{change.getSectionId(), change.getStudentId()});
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT OR REPLACE INTO section_waitlist_entries "
+                    + "(course_section_id, student_id, priority, sequence, joined_at) VALUES (?, ?, ?, ?, ?)", inserts);
+        }
+        if (!deletes.isEmpty()) {
+            jdbcTemplate.batchUpdate("DELETE FROM section_waitlist_entries WHERE course_section_id = ? AND student_id = ?",
+                    deletes);
+        }
+    }
+
+    private List<String> validate(Student student, Integer sectionId) {
+        CourseSection section = courseSectionRepository.findById(sectionId).orElseThrow();
+        SectionCatalog catalog = sectionCatalogService.get(section.getSemesterId());
+        return enrollmentValidator.validate(student, eligibilityIndex.forStudent(student.getId(), student.getGradeLevel()),
+                catalog, enrolledSectionIds(student.getId(), section.getSemesterId()), List.of(sectionId));
+    }
+
+    private List<Integer> enrolledSectionIds(Integer studentId, Integer semesterId) {
+        return enrollmentRepository.findByStudentIdAndSemesterId(studentId, semesterId).stream()
+                .map(StudentCourseEnrollment::getCourseSectionId)
+                .toList();
+    }
+
+    private Optional<SectionCatalog.Entry> publishedEntry(Integer sectionId) {
+        return courseSectionRepository.findById(sectionId)
+                .flatMap(section -> sectionCatalogService.get(section.getSemesterId()).get(sectionId));
+    }
+
+    private WaitlistEntryDto toDto(WaitlistEntry waiting, SectionCatalog.Entry entry) {
+        SectionWaitlist waitlist = bySection.get(waiting.getSectionId());
+        WaitlistEntryDto dto = new WaitlistEntryDto();
+        dto.setCourseSectionId(waiting.getSectionId());
+        dto.setCourse(entry != null ? entry.getCourse() : null);
+        dto.setPriority(waiting.getPriority());
+        dto.setPosition(waitlist.positionOf(waiting.getStudentId()));
+        dto.setWaiting(waitlist.size());
+        dto.setJoinedAt(waiting.getJoinedAt());
+        return dto;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    static final class WaitlistEntry {
+        private final Integer sectionId;
+        private final Integer studentId;
+        private final int priority;
+        private final long sequence;
+        private final LocalDateTime joinedAt;
+    }
+
+    /**
+     * One section's line, highest priority first and in join order within a priority.
+     * The head and the entries after any given one are found in O(log n).
+     */
+    static final class SectionWaitlist {
+        private static final Comparator<WaitlistEntry> ORDER =
+                Comparator.comparingInt((WaitlistEntry waiting) -> -waiting.getPriority())
+                        .thenComparingLong(WaitlistEntry::getSequence)
+                        .thenComparing(WaitlistEntry::getStudentId);
+
+        private final NavigableSet<WaitlistEntry> ordered = new TreeSet<>(ORDER);
+        private final Map<Integer, WaitlistEntry> byStudent = new HashMap<>();
+        // Held by a promotion for its whole walk; the list itself is only locked per call
+        private final Object promotion = new Object();
+
+        synchronized boolean add(WaitlistEntry waiting) {
+            if (byStudent.putIfAbsent(waiting.getStudentId(), waiting) != null) {
+                return false;
+            }
+            ordered.add(waiting);
+            return true;
+        }
+
+        synchronized WaitlistEntry remove(Integer studentId) {
+            WaitlistEntry waiting = byStudent.remove(studentId);
+            if (waiting != null) {
+                ordered.remove(waiting);
+            }
+            return waiting;
+        }
+
+        synchronized WaitlistEntry get(Integer studentId) {
+            return byStudent.get(studentId);
+        }
+
+        synchronized WaitlistEntry next() {
+            return ordered.isEmpty() ? null : ordered.first();
+        }
+
+        /**
+         * Up to {@code limit} entries behind the given one, or from the head when it is null. The given
+         * entry need not still be on the list.
+         */
+        synchronized List<WaitlistEntry> slice(WaitlistEntry after, int limit) {
+            List<WaitlistEntry> slice = new ArrayList<>(Math.min(limit, ordered.size()));
+            for (WaitlistEntry waiting : after == null ? ordered : ordered.tailSet(after, false)) {
+                if (slice.size() == limit) {
+                    break;
+                }
+                slice.add(waiting);
+            }
+            return slice;
+        }
+
+        synchronized List<WaitlistEntry> inOrder() {
+            return new ArrayList<>(ordered);
+        }
+
+        synchronized int positionOf(Integer studentId) {
+            WaitlistEntry waiting = byStudent.get(studentId);
+            return waiting == null ? 0 : ordered.headSet(waiting).size() + 1;
+        }
+
+        synchronized int size() {
+            return byStudent.size();
+        }
+    }
+
+    /**
+     * A waiting student as promotion sees them: the grade level and the semester's enrolled sections.
+     */
+    private static final class WaitingStudent {
+        private final Student student = new Student();
+        private final List<Integer> enrolledSectionIds = new ArrayList<>();
+
+        private WaitingStudent(Integer studentId) {
+            student.setId(studentId);
+        }
+    }
+
+    /**
+     * A join (with its entry) or a removal (entry is null) waiting to be written.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    static final class Change {
+        private final Integer sectionId;
+        private final Integer studentId;
+        private final WaitlistEntry entry;
+    }
+}
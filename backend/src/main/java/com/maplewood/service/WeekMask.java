@@ -0,0 +1,106 @@
+package com.maplewood.service;
+
+import com.maplewood.entity.CourseSectionMeeting;
+import com.maplewood.entity.CourseSectionMeeting.DayOfWeek;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Immutable occupancy of a school week in 5-minute slots: 5 days x 288 slots, packed into
+ * 23 longs. Five minutes divides every supported grid period (10, 15, 20, 30 or 60 minutes),
+ * so generated meetings map onto whole slots and back-to-back meetings never share one.
+ * Meetings that start or end off the five-minute grid occupy every slot they touch, so two
+ * masks intersect whenever the meetings overlap; {@link ConflictValidator} confirms such hits
+ * against the exact times.
+ */
+public final class WeekMask {
+
+    public static final int MINUTES_PER_SLOT = 5;
+    static final int SLOTS_PER_DAY = 24 * 60 / MINUTES_PER_SLOT;
+    private static final int WORDS = (DayOfWeek.values().length * SLOTS_PER_DAY + 63) / 64;
+
+    public static final WeekMask EMPTY = new WeekMask(new long[WORDS]);
+
+    private final long[] words;
+
+    private WeekMask(long[] words) {
+        this.words = words;
+    }
+
+    public static WeekMask of(Collection<CourseSectionMeeting> meetings) {
+        long[] words = new long[WORDS];
+        for (CourseSectionMeeting meeting : meetings) {
+            set(words, meeting.getDayOfWeek(), meeting.getStartTime(), meeting.getEndTime());
+        }
+        return new WeekMask(words);
+    }
+
+    public static WeekMask of(DayOfWeek day, String startTime, String endTime) {
+        long[] words = new long[WORDS];
+        set(words, day, startTime, endTime);
+        return new WeekMask(words);
+    }
+
+    public WeekMask or(WeekMask other) {
+        long[] result = words.clone();
+        for (int i = 0; i < WORDS; i++) {
+            result[i] |= other.words[i];
+        }
+        return new WeekMask(result);
+    }
+
+    public boolean intersects(WeekMask other) {
+        for (int i = 0; i < WORDS; i++) {
+            if ((words[i] & other.words[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Occupied slots, i.e. scheduled time in units of {@link #MINUTES_PER_SLOT}. */
+    public int slotCount() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private static void set(long[] words, DayOfWeek day, String startTime, String endTime) {
+        int from = day.ordinal() * SLOTS_PER_DAY + minutes(startTime) / MINUTES_PER_SLOT;
+        int to = day.ordinal() * SLOTS_PER_DAY + (minutes(endTime) + MINUTES_PER_SLOT - 1) / MINUTES_PER_SLOT;
+        for (int slot = from; slot < to; slot++) {
+            words[slot >>> 6] |= 1L << (slot & 63);
+        }
+    }
+
+    /** Minutes since midnight of an {@code HH:mm} time. */
+    static int minutes(String time) {
+        int colon = time.indexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Invalid time, expected HH:mm: " + time);
+        }
+        return Integer.parseInt(time.substring(0, colon)) * 60 + Integer.parseInt(time.substring(colon + 1));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof WeekMask other && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+}
@@ -3,10 +3,12 @@ package com.maplewood.util;
 import com.maplewood.dto.*;
 import com.maplewood.entity.*;
 import com.maplewood.repository.*;
+import com.maplewood.service.ReferenceDataCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -17,11 +19,9 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class DtoMapper {
 
-    private final CourseRepository courseRepository;
-    private final TeacherRepository teacherRepository;
-    private final ClassroomRepository classroomRepository;
-    private final RoomTypeRepository roomTypeRepository;
+    private final ReferenceDataCache referenceDataCache;
     private final CourseSectionMeetingRepository meetingRepository;
+    private final StudentCourseEnrollmentRepository enrollmentRepository;
 
     public CourseDto toCourseDto(Course course) {
         if (course == null) return null;
@@ -38,7 +38,7 @@ public class DtoMapper {
 
     public CourseDto toCourseDto(Integer courseId) {
         if (courseId == null) return null;
-        return courseRepository.findById(courseId)
+        return referenceDataCache.courses().get(courseId)
                 .map(this::toCourseDto)
                 .orElse(null);
     }
@@ -55,7 +55,7 @@ public class DtoMapper {
 
     public TeacherDto toTeacherDto(Integer teacherId) {
         if (teacherId == null) return null;
-        return teacherRepository.findById(teacherId)
+        return referenceDataCache.teachers().get(teacherId)
                 .map(this::toTeacherDto)
                 .orElse(null);
     }
@@ -67,15 +67,27 @@ public class DtoMapper {
         dto.setName(classroom.getName());
         dto.setCapacity(classroom.getCapacity());
         if (classroom.getRoomTypeId() != null) {
-            roomTypeRepository.findById(classroom.getRoomTypeId())
+            referenceDataCache.roomTypes().get(classroom.getRoomTypeId())
                     .ifPresent(roomType -> dto.setRoomType(roomType.getName()));
         }
         return dto;
     }
 
+    private ClassroomDto toClassroomDto(Classroom classroom, Map<Integer, RoomType> roomTypes) {
+        ClassroomDto dto = new ClassroomDto();
+        dto.setId(classroom.getId());
+        dto.setName(classroom.getName());
+        dto.setCapacity(classroom.getCapacity());
+        RoomType roomType = roomTypes.get(classroom.getRoomTypeId());
+        if (roomType != null) {
+            dto.setRoomType(roomType.getName());
+        }
+        return dto;
+    }
+
     public ClassroomDto toClassroomDto(Integer classroomId) {
         if (classroomId == null) return null;
-        return classroomRepository.findById(classroomId)
+        return referenceDataCache.classrooms().get(classroomId)
                 .map(this::toClassroomDto)
                 .orElse(null);
     }
@@ -104,6 +116,43 @@ public class DtoMapper {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Maps a list of sections with a fixed number of set-based queries (meetings, enrollment
+     * counts, then reference rows through the cache), independent of the number of sections.
+     */
+    public List<CourseSectionDto> toSectionDtos(List<CourseSection> sections) {
+        if (sections.isEmpty()) return List.of();
+        List<Integer> sectionIds = sections.stream().map(CourseSection::getId).toList();
+
+        Map<Integer, List<CourseSectionMeeting>> meetings = meetingRepository.findByCourseSectionIdIn(sectionIds).stream()
+                .collect(Collectors.groupingBy(CourseSectionMeeting::getCourseSectionId));
+        Map<Integer, Long> enrolledCounts = enrollmentRepository.countByCourseSectionIdIn(sectionIds).stream()
+                .collect(Collectors.toMap(row -> (Integer) row[0], row -> (Long) row[1]));
+        Map<Integer, Course> courses = referenceDataCache.courses().getAll(
+                sections.stream().map(CourseSection::getCourseId).toList());
+        Map<Integer, Teacher> teachers = referenceDataCache.teachers().getAll(
+                sections.stream().map(CourseSection::getTeacherId).toList());
+        Map<Integer, Classroom> classrooms = referenceDataCache.classrooms().getAll(
+                sections.stream().map(CourseSection::getClassroomId).toList());
+        Map<Integer, RoomType> roomTypes = referenceDataCache.roomTypes().getAll(
+                classrooms.values().stream().map(Classroom::getRoomTypeId).toList());
+
+        return sections.stream().map(section -> {
+            CourseSectionDto dto = new CourseSectionDto();
+            dto.setId(section.getId());
+            dto.setCourse(toCourseDto(courses.get(section.getCourseId())));
+            dto.setTeacher(toTeacherDto(teachers.get(section.getTeacherId())));
+            Classroom classroom = classrooms.get(section.getClassroomId());
+            dto.setClassroom(classroom == null ? null : toClassroomDto(classroom, roomTypes));
+            dto.setCapacity(section.getCapacity());
+            dto.setMeetings(toMeetingDtos(meetings.getOrDefault(section.getId(), List.of())));
+            long enrolledCount = enrolledCounts.getOrDefault(section.getId(), 0L);
+            dto.setEnrolledCount(enrolledCount);
+            dto.setRemainingCapacity(section.getCapacity() - (int) enrolledCount);
+            return dto;
+        }).collect(Collectors.toList());
+    }
+
     public StudentDto toStudentDto(Student student) {
         if (student == null) return null;
         StudentDto dto = new StudentDto();
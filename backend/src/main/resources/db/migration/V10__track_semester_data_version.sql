@@ -0,0 +1,16 @@
+-- Semesters join the cached reference tables: plans start from the current term on every request.
+-- Publishing a schedule updates its semester row, so every write bumps the counter.
+INSERT OR IGNORE INTO data_versions (table_name) VALUES ('semesters');
+
+CREATE TRIGGER IF NOT EXISTS semesters_ai_data_version AFTER INSERT ON semesters
+BEGIN
+    UPDATE data_versions SET version = version + 1 WHERE table_name = 'semesters';
+END;
+CREATE TRIGGER IF NOT EXISTS semesters_au_data_version AFTER UPDATE ON semesters
+BEGIN
+    UPDATE data_versions SET version = version + 1 WHERE table_name = 'semesters';
+END;
+CREATE TRIGGER IF NOT EXISTS semesters_ad_data_version AFTER DELETE ON semesters
+BEGIN
+    UPDATE data_versions SET version = version + 1 WHERE table_name = 'semesters';
+END;
@@ -0,0 +1,28 @@
+-- Schedule versions: generation writes a draft version, publishing swaps the semester's pointer
+CREATE TABLE IF NOT EXISTS schedule_versions (
+    id INTEGER PRIMARY KEY AUTOINCREMENT,
+    semester_id INTEGER NOT NULL,
+    status TEXT NOT NULL DEFAULT 'draft',
+    strategy TEXT,
+    created_at TEXT NOT NULL DEFAULT (datetime('now')),
+    published_at TEXT,
+    FOREIGN KEY (semester_id) REFERENCES semesters(id),
+    CHECK (status IN ('draft', 'published', 'retired'))
+);
+
+CREATE INDEX IF NOT EXISTS idx_schedule_versions_semester_id ON schedule_versions(semester_id);
+
+ALTER TABLE course_sections ADD COLUMN schedule_version_id INTEGER REFERENCES schedule_versions(id);
+CREATE INDEX IF NOT EXISTS idx_course_sections_schedule_version_id ON course_sections(schedule_version_id);
+
+ALTER TABLE semesters ADD COLUMN published_schedule_version_id INTEGER REFERENCES schedule_versions(id);
+
+-- Existing sections become the published version of their semester
+INSERT INTO schedule_versions (semester_id, status, strategy, published_at)
+SELECT DISTINCT semester_id, 'published', 'legacy', datetime('now') FROM course_sections;
+
+UPDATE course_sections
+SET schedule_version_id = (SELECT v.id FROM schedule_versions v WHERE v.semester_id = course_sections.semester_id);
+
+UPDATE semesters
+SET published_schedule_version_id = (SELECT v.id FROM schedule_versions v WHERE v.semester_id = semesters.id);
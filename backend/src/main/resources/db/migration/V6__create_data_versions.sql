@@ -0,0 +1,70 @@
+-- Change counters for reference tables. Triggers bump a table's version on every write, including
+-- edits made by other tools against the same file, so cached reference data can detect staleness.
+CREATE TABLE IF NOT EXISTS data_versions (
+    table_name TEXT PRIMARY KEY,
+    version INTEGER NOT NULL DEFAULT 0
+);
+
+INSERT OR IGNORE INTO data_versions (table_name) VALUES
+    ('courses'), ('teachers'), ('classrooms'), ('room_types'), ('specializations');
+
+CREATE TRIGGER IF NOT EXISTS courses_ai_data_version AFTER INSERT ON courses
+BEGIN
+    UPDATE data_versions SET version = version + 1 WHERE table_name = 'courses';
+END;
+CREATE TRIGGER IF NOT EXISTS courses_au_data_version AFTER UPDATE ON courses
+BEGIN
+    UPDATE data_versions SET version = version + 1 WHERE table_name = 'courses';
+END;
+CREATE TRIGGER IF NOT EXISTS courses_ad_data_version AFTER DELETE ON courses
+BEGIN
+    UPDATE data_versions SET version = version + 1 WHERE table_name = 'courses';
+END;
+CREATE TRIGGER IF NOT EXISTS teachers_ai_data_version AFTER INSERT ON teachers
+BEGIN
+    UPDATE data_versions SET version = version + 1 WHERE table_name = 'teachers';
+END;
+CREATE TRIGGER IF NOT EXISTS teachers_au_data_version AFTER UPDATE ON teachers
+BEGIN
+    UPDATE data_versions SET version = version + 1 WHERE table_name = 'teachers';
+END;
+CREATE TRIGGER IF NOT EXISTS teachers_ad_data_version AFTER DELETE ON teachers
+BEGIN
+    UPDATE data_versions SET version = version + 1 WHERE table_name = 'teachers';
+END;
+CREATE TRIGGER IF NOT EXISTS classrooms_ai_data_version AFTER INSERT ON classrooms
+BEGIN
+    UPDATE data_versions SET version = version + 1 WHERE table_name = 'classrooms';
+END;
+CREATE TRIGGER IF NOT EXISTS classrooms_au_data_version AFTER UPDATE ON classrooms
+BEGIN
+    UPDATE data_versions SET version = version + 1 WHERE table_name = 'classrooms';
+END;
+CREATE TRIGGER IF NOT EXISTS classrooms_ad_data_version AFTER DELETE ON classrooms
+BEGIN
+    UPDATE data_versions SET version = version + 1 WHERE table_name = 'classrooms';
+END;
+CREATE TRIGGER IF NOT EXISTS room_types_ai_data_version AFTER INSERT ON room_types
+BEGIN
+    UPDATE data_versions SET version = version + 1 WHERE table_name = 'room_types';
+END;
+CREATE TRIGGER IF NOT EXISTS room_types_au_data_version AFTER UPDATE ON room_types
+BEGIN
+    UPDATE data_versions SET version = version + 1 WHERE table_name = 'room_types';
+END;
+CREATE TRIGGER IF NOT EXISTS room_types_ad_data_version AFTER DELETE ON room_types
+BEGIN
+    UPDATE data_versions SET version = version + 1 WHERE table_name = 'room_types';
+END;
+CREATE TRIGGER IF NOT EXISTS specializations_ai_data_version AFTER INSERT ON specializations
+BEGIN
+    UPDATE data_versions SET version = version + 1 WHERE table_name = 'specializations';
+END;
+CREATE TRIGGER IF NOT EXISTS specializations_au_data_version AFTER UPDATE ON specializations
+BEGIN
+    UPDATE data_versions SET version = version + 1 WHERE table_name = 'specializations';
+END;
+CREATE TRIGGER IF NOT EXISTS specializations_ad_data_version AFTER DELETE ON specializations
+BEGIN
+    UPDATE data_versions SET version = version + 1 WHERE table_name = 'specializations';
+END;
@@ -0,0 +1,22 @@
+-- Change log of students whose course history was written, read incrementally by the eligibility index.
+-- Triggers record writes from any client of the file, not only this application.
+CREATE TABLE IF NOT EXISTS student_history_changes (
+    id INTEGER PRIMARY KEY AUTOINCREMENT,
+    student_id INTEGER NOT NULL,
+    changed_at TEXT NOT NULL DEFAULT (datetime('now'))
+);
+
+CREATE TRIGGER IF NOT EXISTS student_course_history_ai_change AFTER INSERT ON student_course_history
+BEGIN
+    INSERT INTO student_history_changes (student_id) VALUES (NEW.student_id);
+END;
+
+CREATE TRIGGER IF NOT EXISTS student_course_history_au_change AFTER UPDATE ON student_course_history
+BEGIN
+    INSERT INTO student_history_changes (student_id) SELECT OLD.student_id UNION SELECT NEW.student_id;
+END;
+
+CREATE TRIGGER IF NOT EXISTS student_course_history_ad_change AFTER DELETE ON student_course_history
+BEGIN
+    INSERT INTO student_history_changes (student_id) VALUES (OLD.student_id);
+END;
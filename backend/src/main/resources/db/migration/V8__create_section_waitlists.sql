@@ -0,0 +1,13 @@
+-- Students waiting for a seat in a full section. Higher priority goes first; equal priorities are
+-- served in sequence (join) order. The application keeps the lists in memory and writes changes
+-- here in batches; rows are reloaded on startup.
+CREATE TABLE IF NOT EXISTS section_waitlist_entries (
+    course_section_id INTEGER NOT NULL REFERENCES course_sections(id),
+    student_id INTEGER NOT NULL REFERENCES students(id),
+    priority INTEGER NOT NULL DEFAULT 0,
+    sequence INTEGER NOT NULL,
+    joined_at TEXT NOT NULL,
+    PRIMARY KEY (course_section_id, student_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_section_waitlist_entries_student ON section_waitlist_entries(student_id);
@@ -0,0 +1,80 @@
+-- Materialized academic progress, one row per student, so progress reads are a primary-key lookup.
+-- Credits are stored in tenths (courses.credits is DECIMAL(3,1)). Earned credits and core courses
+-- count each passed course once; attempted and passed-attempt credits count every history row and
+-- give the credit-weighted GPA.
+CREATE TABLE IF NOT EXISTS student_progress (
+    student_id INTEGER PRIMARY KEY,
+    earned_tenths INTEGER NOT NULL DEFAULT 0,
+    core_completed INTEGER NOT NULL DEFAULT 0,
+    attempted_tenths INTEGER NOT NULL DEFAULT 0,
+    passed_attempt_tenths INTEGER NOT NULL DEFAULT 0,
+    updated_at TEXT NOT NULL DEFAULT (datetime('now'))
+);
+
+-- The same figures computed from raw history; filtered by student it uses the history index.
+CREATE VIEW IF NOT EXISTS student_progress_source AS
+SELECT s.id AS student_id,
+       (SELECT COALESCE(SUM(CAST(ROUND(c.credits * 10) AS INTEGER)), 0) FROM courses c
+        WHERE c.id IN (SELECT h.course_id FROM student_course_history h
+                       WHERE h.student_id = s.id AND h.status = 'passed')) AS earned_tenths,
+       (SELECT COUNT(*) FROM courses c
+        WHERE c.course_type = 'core'
+          AND c.id IN (SELECT h.course_id FROM student_course_history h
+                       WHERE h.student_id = s.id AND h.status = 'passed')) AS core_completed,
+       (SELECT COALESCE(SUM(CAST(ROUND(c.credits * 10) AS INTEGER)), 0)
+        FROM student_course_history h JOIN courses c ON c.id = h.course_id
+        WHERE h.student_id = s.id) AS attempted_tenths,
+       (SELECT COALESCE(SUM(CAST(ROUND(c.credits * 10) AS INTEGER)), 0)
+        FROM student_course_history h JOIN courses c ON c.id = h.course_id
+        WHERE h.student_id = s.id AND h.status = 'passed') AS passed_attempt_tenths
+FROM students s;
+
+INSERT OR REPLACE INTO student_progress
+    (student_id, earned_tenths, core_completed, attempted_tenths, passed_attempt_tenths)
+SELECT student_id, earned_tenths, core_completed, attempted_tenths, passed_attempt_tenths
+FROM student_progress_source;
+
+-- History writes from any client recompute the affected student's row
+CREATE TRIGGER IF NOT EXISTS student_course_history_ai_progress AFTER INSERT ON student_course_history
+BEGIN
+    INSERT OR REPLACE INTO student_progress
+        (student_id, earned_tenths, core_completed, attempted_tenths, passed_attempt_tenths)
+    SELECT student_id, earned_tenths, core_completed, attempted_tenths, passed_attempt_tenths
+    FROM student_progress_source WHERE student_id = NEW.student_id;
+END;
+
+CREATE TRIGGER IF NOT EXISTS student_course_history_au_progress AFTER UPDATE ON student_course_history
+BEGIN
+    INSERT OR REPLACE INTO student_progress
+        (student_id, earned_tenths, core_completed, attempted_tenths, passed_attempt_tenths)
+    SELECT student_id, earned_tenths, core_completed, attempted_tenths, passed_attempt_tenths
+    FROM student_progress_source WHERE student_id IN (OLD.student_id, NEW.student_id);
+END;
+
+CREATE TRIGGER IF NOT EXISTS student_course_history_ad_progress AFTER DELETE ON student_course_history
+BEGIN
+    INSERT OR REPLACE INTO student_progress
+        (student_id, earned_tenths, core_completed, attempted_tenths, passed_attempt_tenths)
+    SELECT student_id, earned_tenths, core_completed, attempted_tenths, passed_attempt_tenths
+    FROM student_progress_source WHERE student_id = OLD.student_id;
+END;
+
+-- A course's credits or type feed the rows of everyone with history in it
+CREATE TRIGGER IF NOT EXISTS courses_au_progress AFTER UPDATE OF credits, course_type ON courses
+BEGIN
+    INSERT OR REPLACE INTO student_progress
+        (student_id, earned_tenths, core_completed, attempted_tenths, passed_attempt_tenths)
+    SELECT student_id, earned_tenths, core_completed, attempted_tenths, passed_attempt_tenths
+    FROM student_progress_source
+    WHERE student_id IN (SELECT student_id FROM student_course_history WHERE course_id = NEW.id);
+END;
+
+CREATE TRIGGER IF NOT EXISTS students_ai_progress AFTER INSERT ON students
+BEGIN
+    INSERT OR IGNORE INTO student_progress (student_id) VALUES (NEW.id);
+END;
+
+CREATE TRIGGER IF NOT EXISTS students_ad_progress AFTER DELETE ON students
+BEGIN
+    DELETE FROM student_progress WHERE student_id = OLD.id;
+END;
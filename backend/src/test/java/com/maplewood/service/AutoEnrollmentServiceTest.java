@@ -0,0 +1,133 @@
+package com.maplewood.service;
+
+import com.maplewood.dto.AutoEnrollRequest;
+import com.maplewood.dto.AutoEnrollResponse;
+import com.maplewood.dto.AutoEnrollStudentRequest;
+import com.maplewood.entity.Semester;
+import com.maplewood.entity.Student;
+import com.maplewood.repository.SemesterRepository;
+import com.maplewood.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.maplewood.service.ScheduleFixtures.createEntry;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class AutoEnrollmentServiceTest {
+
+    @Autowired
+    private AutoEnrollmentService autoEnrollmentService;
+
+    @Autowired
+    private MasterScheduleService scheduleService;
+
+    @Autowired
+    private EligibilityIndex eligibilityIndex;
+
+    @Autowired
+    private SemesterRepository semesterRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testMostConstrainedStudentChoosesFirst() {
+        SectionCatalog.Entry early = createEntry(1, 10, "MONDAY", "09:00", "10:00");
+        SectionCatalog.Entry late = createEntry(2, 10, "MONDAY", "14:00", "15:00");
+        // Student 1 could take either section; student 2 only fits the early one
+        AutoEnrollmentService.Demand flexible = demand(0, 1,
+                new TimetableBuilder.Candidate(10, 1, List.of(early, late)));
+        AutoEnrollmentService.Demand constrained = demand(1, 2,
+                new TimetableBuilder.Candidate(10, 1, List.of(early)));
+        Map<Integer, Integer> remaining = new HashMap<>(Map.of(1, 1, 2, 1));
+
+        AutoEnrollmentService.assign(List.of(flexible, constrained), remaining);
+
+        assertEquals(List.of(late), flexible.getAssigned());
+        assertEquals(List.of(early), constrained.getAssigned());
+        assertEquals(Map.of(1, 0, 2, 0), remaining);
+    }
+
+    @Test
+    public void testNeverAssignsMoreSeatsThanRemain() {
+        SectionCatalog.Entry first = createEntry(1, 10, "MONDAY", "09:00", "10:00");
+        SectionCatalog.Entry second = createEntry(2, 10, "TUESDAY", "09:00", "10:00");
+        List<AutoEnrollmentService.Demand> demands = new ArrayList<>();
+        for (int studentId = 1; studentId <= 30; studentId++) {
+            demands.add(demand(studentId - 1, studentId,
+                    new TimetableBuilder.Candidate(10, 1, List.of(first, second))));
+        }
+        Map<Integer, Integer> remaining = new HashMap<>(Map.of(1, 10, 2, 10));
+
+        AutoEnrollmentService.assign(demands, remaining);
+
+        assertEquals(20, demands.stream().filter(demand -> !demand.getAssigned().isEmpty()).count());
+        assertEquals(Map.of(1, 0, 2, 0), remaining);
+        assertTrue(demands.subList(0, 20).stream().allMatch(demand -> !demand.getAssigned().isEmpty()),
+                "Equally constrained students are served in id order");
+    }
+
+    @Test
+    public void testAutoEnrollIsDeterministicAndRespectsCapacity() {
+        Semester semester = semesterRepository.findAll().get(0);
+        var generated = scheduleService.generateSchedule(semester.getId());
+        var sections = generated.getSections();
+        Integer courseId = sections.get(0).getCourse().getId();
+        int seats = sections.stream().filter(section -> section.getCourse().getId().equals(courseId))
+                .mapToInt(section -> section.getCapacity()).sum();
+        List<AutoEnrollStudentRequest> rows = new ArrayList<>();
+        for (Student student : studentRepository.findAll()) {
+            if (eligibilityIndex.forStudent(student.getId(), student.getGradeLevel()).isEligible(courseId)) {
+                AutoEnrollStudentRequest row = new AutoEnrollStudentRequest();
+                row.setStudentId(student.getId());
+                row.setCourseIds(List.of(courseId));
+                rows.add(row);
+            }
+        }
+        assertFalse(rows.isEmpty(), "Test data should have eligible students");
+        AutoEnrollRequest request = new AutoEnrollRequest();
+        request.setSemesterId(semester.getId());
+        request.setStudents(rows);
+
+        request.setDryRun(true);
+        AutoEnrollResponse first = autoEnrollmentService.autoEnroll(request);
+        AutoEnrollResponse second = autoEnrollmentService.autoEnroll(request);
+        request.setDryRun(false);
+        AutoEnrollResponse written = autoEnrollmentService.autoEnroll(request);
+
+        assertEquals(Math.min(rows.size(), seats), first.getAssignedCourses());
+        for (int i = 0; i < rows.size(); i++) {
+            assertEquals(first.getAssignments().get(i).getCourseSectionIds(),
+                    second.getAssignments().get(i).getCourseSectionIds());
+            assertEquals(first.getAssignments().get(i).getCourseSectionIds(),
+                    written.getAssignments().get(i).getCourseSectionIds());
+        }
+        assertEquals(written.getAssignedCourses(), jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM student_course_enrollments e JOIN course_sections cs ON cs.id = e.course_section_id "
+                        + "WHERE cs.course_id = ? AND cs.schedule_version_id = ?", Integer.class,
+                courseId, generated.getSummary().getScheduleVersionId()));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT cs.id FROM course_sections cs JOIN student_course_enrollments e "
+                        + "ON e.course_section_id = cs.id GROUP BY cs.id HAVING COUNT(*) > cs.capacity)", Integer.class));
+    }
+
+    private AutoEnrollmentService.Demand demand(int index, int studentId, TimetableBuilder.Candidate candidate) {
+        return new AutoEnrollmentService.Demand(index, studentId, List.of(candidate.getCourseId()), WeekMask.EMPTY,
+                5, List.of(candidate), new ArrayList<>());
+    }
+}
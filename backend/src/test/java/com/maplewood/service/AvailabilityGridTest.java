@@ -0,0 +1,67 @@
+package com.maplewood.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilityGridTest {
+
+    @Test
+    void testOccupiedWindowConflictsForTeacherAndRoom() {
+        AvailabilityGrid grid = new AvailabilityGrid(60, 9, 17, 12, 13);
+        long nineToEleven = grid.window(0, 2);
+        grid.occupy(1, 10, 0, nineToEleven);
+
+        assertFalse(grid.isFree(1, 99, 0, grid.window(1, 1))); // same teacher
+        assertFalse(grid.isFree(99, 10, 0, grid.window(1, 1))); // same room
+        assertTrue(grid.isFree(1, 10, 1, nineToEleven)); // different day
+        assertTrue(grid.isFree(1, 10, 0, grid.window(2, 1))); // back-to-back
+    }
+
+    @Test
+    void testReleaseFreesPeriods() {
+        AvailabilityGrid grid = new AvailabilityGrid(60, 9, 17, 12, 13);
+        long mask = grid.window(4, 2);
+        grid.occupy(1, 10, 2, mask);
+        grid.release(1, 10, 2, mask);
+
+        assertTrue(grid.isFree(1, 10, 2, mask));
+        assertEquals(0, grid.teacherSlotsOnDay(1, 2));
+    }
+
+    @Test
+    void testLunchIsNotBookable() {
+        AvailabilityGrid grid = new AvailabilityGrid(60, 9, 17, 12, 13);
+
+        assertTrue(grid.isBookable(1, 2)); // 10:00-12:00
+        assertFalse(grid.isBookable(2, 2)); // 11:00-13:00
+        assertFalse(grid.isBookable(7, 2)); // past 17:00
+    }
+
+    @Test
+    void testQuarterHourGranularity() {
+        AvailabilityGrid grid = new AvailabilityGrid(15, 9, 17, 12, 13);
+
+        assertEquals(32, grid.getSlotsPerDay());
+        assertEquals("09:15", grid.formatSlot(1));
+        assertEquals("13:00", grid.formatSlot(16));
+        grid.occupy(1, 10, 0, grid.window(1, 4)); // 09:15-10:15
+        assertEquals(4, grid.teacherSlotsOnDay(1, 0));
+        assertFalse(grid.isFree(1, 99, 0, grid.window(4, 4))); // 10:00-11:00
+    }
+
+    @Test
+    void testCopyIsIndependent() {
+        AvailabilityGrid grid = new AvailabilityGrid(30, 9, 17, 12, 13);
+        AvailabilityGrid copy = grid.copy();
+        copy.occupy(1, 10, 0, copy.window(0, 2));
+
+        assertTrue(grid.isFree(1, 10, 0, grid.window(0, 2)));
+    }
+
+    @Test
+    void testRejectsUnevenSlotLength() {
+        assertThrows(IllegalArgumentException.class, () -> new AvailabilityGrid(25, 9, 17, 12, 13));
+        assertThrows(IllegalArgumentException.class, () -> new AvailabilityGrid(5, 9, 17, 12, 13));
+    }
+}
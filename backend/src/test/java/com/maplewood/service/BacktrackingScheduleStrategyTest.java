@@ -0,0 +1,66 @@
+package com.maplewood.service;
+
+import com.maplewood.config.SchedulingProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.maplewood.service.ScheduleFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BacktrackingScheduleStrategyTest {
+
+    private ScheduleGenerator scheduleGenerator;
+    private GreedyScheduleStrategy greedy;
+    private BacktrackingScheduleStrategy backtracking;
+
+    @BeforeEach
+    void setUp() {
+        SchedulingProperties properties = new SchedulingProperties();
+        scheduleGenerator = new ScheduleGenerator(properties);
+        greedy = new GreedyScheduleStrategy(scheduleGenerator);
+        backtracking = new BacktrackingScheduleStrategy(scheduleGenerator, properties);
+    }
+
+    @Test
+    void testFindsPackingThatGreedyMisses() {
+        // One teacher (4h/day, 2h sessions, no lunch-spanning sessions) teaches 18 of 20 weekly hours.
+        // First-fit packs every course from Monday and strands the last elective.
+        ScheduleProblem problem = singleTeacherProblem(scheduleGenerator, 
+                createCourse(1, "SCI101", "core", 3), createCourse(2, "SCI102", "core", 3),
+                createCourse(3, "SCI201", "elective", 6), createCourse(4, "SCI202", "elective", 6));
+
+        ScheduleResult greedyResult = greedy.solve(problem);
+        ScheduleResult result = backtracking.solve(problem);
+
+        assertEquals(1, greedyResult.getUnassignedCourses().size());
+        assertTrue(result.getUnassignedCourses().isEmpty());
+        assertEquals(4, result.getSections().size());
+        assertEquals(0, result.getUnplacedSections());
+        assertNoTeacherDayOverMaxHours(result.getSections());
+    }
+
+    @Test
+    void testReturnsBestPartialScheduleWhenOverSubscribed() {
+        // 4 x 6h = 24h exceeds the teacher's 20h week: one course must stay unassigned
+        ScheduleProblem problem = singleTeacherProblem(scheduleGenerator, 
+                createCourse(1, "SCI101", "core", 6), createCourse(2, "SCI102", "core", 6),
+                createCourse(3, "SCI103", "core", 6), createCourse(4, "SCI104", "core", 6));
+
+        ScheduleResult result = backtracking.solve(problem);
+
+        assertEquals(3, result.getSections().size());
+        assertEquals(1, result.getUnassignedCourses().size());
+        assertEquals(1, result.getUnplacedSections());
+    }
+
+    @Test
+    void testDoesNotMutateProblemGrid() {
+        ScheduleProblem problem = singleTeacherProblem(scheduleGenerator, createCourse(1, "SCI101", "core", 6));
+
+        backtracking.solve(problem);
+
+        assertEquals(0, problem.newGrid().teacherSlotsOnDay(1, 0));
+    }
+}
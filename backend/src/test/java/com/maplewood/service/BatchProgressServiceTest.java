@@ -0,0 +1,86 @@
+package com.maplewood.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.maplewood.dto.AcademicProgressDto;
+import com.maplewood.dto.StudentProgressDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class BatchProgressServiceTest {
+
+    @Autowired
+    private BatchProgressService batchProgressService;
+
+    @Autowired
+    private StudentPlanningService planningService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void testStreamsEveryStudentMatchingSingleStudentProgress() throws Exception {
+        List<StudentProgressDto> lines = writeAll();
+
+        List<Integer> studentIds = jdbcTemplate.queryForList("SELECT id FROM students ORDER BY id", Integer.class);
+        assertEquals(studentIds, lines.stream().map(StudentProgressDto::getStudentId).toList());
+        for (StudentProgressDto line : lines) {
+            AcademicProgressDto expected = planningService.getStudentProgress(line.getStudentId());
+            AcademicProgressDto actual = line.getProgress();
+            assertEquals(expected.getCreditsEarned(), actual.getCreditsEarned());
+            assertEquals(expected.getCoreCoursesCompleted(), actual.getCoreCoursesCompleted());
+            assertEquals(0, expected.getGpa().compareTo(actual.getGpa()), "GPA of student " + line.getStudentId());
+            assertEquals(expected.getGraduationStatus(), actual.getGraduationStatus());
+        }
+    }
+
+    @Test
+    public void testGpaCountsFailedAttempts() throws Exception {
+        Integer studentId = jdbcTemplate.queryForObject(
+                "SELECT student_id FROM student_course_history WHERE status = 'failed' ORDER BY student_id LIMIT 1",
+                Integer.class);
+        Map<String, Object> totals = jdbcTemplate.queryForMap(
+                "SELECT SUM(c.credits * 10) AS attempted, "
+                        + "SUM(CASE WHEN h.status = 'passed' THEN c.credits * 10 ELSE 0 END) AS passed "
+                        + "FROM student_course_history h JOIN courses c ON c.id = h.course_id WHERE h.student_id = ?",
+                studentId);
+        BigDecimal expected = BigDecimal.valueOf(4L * ((Number) totals.get("passed")).longValue())
+                .divide(BigDecimal.valueOf(((Number) totals.get("attempted")).longValue()), 2, RoundingMode.HALF_UP);
+
+        StudentProgressDto line = writeAll().stream()
+                .filter(progress -> progress.getStudentId().equals(studentId))
+                .findFirst().orElseThrow();
+
+        assertEquals(0, expected.compareTo(line.getProgress().getGpa()));
+        assertTrue(line.getProgress().getGpa().compareTo(BigDecimal.valueOf(4)) < 0);
+    }
+
+    private List<StudentProgressDto> writeAll() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        batchProgressService.writeAll(out);
+        List<StudentProgressDto> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(objectMapper.readValue(line, StudentProgressDto.class));
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,94 @@
+package com.maplewood.service;
+
+import com.maplewood.dto.BulkEnrollRequest;
+import com.maplewood.dto.BulkEnrollResponse;
+import com.maplewood.dto.BulkEnrollRow;
+import com.maplewood.entity.Semester;
+import com.maplewood.entity.Student;
+import com.maplewood.repository.SemesterRepository;
+import com.maplewood.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class BulkEnrollmentServiceTest {
+
+    @Autowired
+    private BulkEnrollmentService bulkEnrollmentService;
+
+    @Autowired
+    private MasterScheduleService scheduleService;
+
+    @Autowired
+    private SectionCatalogService sectionCatalogService;
+
+    @Autowired
+    private EligibilityIndex eligibilityIndex;
+
+    @Autowired
+    private SemesterRepository semesterRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    public void testReportsEachRowAgainstSharedSnapshot() {
+        Semester semester = semesterRepository.findAll().get(0);
+        var section = scheduleService.generateSchedule(semester.getId()).getSections().get(0);
+        jdbcTemplate.update("UPDATE course_sections SET capacity = 1 WHERE id = ?", section.getId());
+        entityManager.clear();
+        sectionCatalogService.refresh(semester.getId());
+        List<Student> eligible = studentRepository.findAll().stream()
+                .filter(student -> eligibilityIndex.forStudent(student.getId(), student.getGradeLevel())
+                        .isEligible(section.getCourse().getId()))
+                .toList();
+        assertTrue(eligible.size() >= 2, "Test data should have two eligible students");
+
+        BulkEnrollRequest request = new BulkEnrollRequest();
+        request.setSemesterId(semester.getId());
+        request.setRows(List.of(
+                row(eligible.get(0).getId(), section.getId()),
+                row(eligible.get(1).getId(), section.getId()),
+                row(-1, section.getId()),
+                row(eligible.get(0).getId(), section.getId())));
+
+        BulkEnrollResponse response = bulkEnrollmentService.enroll(request);
+
+        assertEquals(4, response.getTotalRows());
+        assertEquals(1, response.getEnrolledRows());
+        assertEquals(3, response.getRejectedRows());
+        var results = response.getResults();
+        assertTrue(results.get(0).getSuccess(), () -> String.valueOf(results.get(0).getErrors()));
+        assertEquals(List.of("Course section " + section.getId() + " is full"), results.get(1).getErrors());
+        assertEquals(List.of("Student not found: -1"), results.get(2).getErrors());
+        assertEquals(List.of("Already enrolled in course section " + section.getId()), results.get(3).getErrors(),
+                "A later row sees the sections taken by an earlier one");
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM student_course_enrollments WHERE course_section_id = ?", Integer.class,
+                section.getId()));
+    }
+
+    private BulkEnrollRow row(Integer studentId, Integer sectionId) {
+        BulkEnrollRow row = new BulkEnrollRow();
+        row.setStudentId(studentId);
+        row.setCourseSectionIds(List.of(sectionId));
+        return row;
+    }
+}
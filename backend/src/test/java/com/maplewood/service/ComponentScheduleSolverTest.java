@@ -0,0 +1,120 @@
+package com.maplewood.service;
+
+import com.maplewood.config.SchedulingProperties;
+import com.maplewood.entity.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComponentScheduleSolverTest {
+
+    private SchedulingProperties properties;
+    private ScheduleGenerator scheduleGenerator;
+    private GreedyScheduleStrategy greedy;
+    private ComponentScheduleSolver solver;
+
+    @BeforeEach
+    void setUp() {
+        properties = new SchedulingProperties();
+        properties.getDecomposition().setParallelism(2);
+        scheduleGenerator = new ScheduleGenerator(properties);
+        greedy = new GreedyScheduleStrategy(scheduleGenerator);
+        solver = new ComponentScheduleSolver(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        solver.shutdown();
+    }
+
+    @Test
+    void testComponentsGroupCoursesByRoomType() {
+        // Math and English share general classrooms; Science uses labs
+        ScheduleProblem problem = threeDepartmentProblem();
+
+        List<ScheduleProblem> components = problem.components();
+
+        assertEquals(2, components.size());
+        assertEquals(List.of(1, 2), components.get(0).getCourses().stream().map(Course::getId).sorted().toList());
+        assertEquals(List.of(3), components.get(1).getCourses().stream().map(Course::getId).toList());
+        assertEquals(problem.totalSectionsNeeded(),
+                components.get(0).totalSectionsNeeded() + components.get(1).totalSectionsNeeded());
+    }
+
+    @Test
+    void testMergedResultMatchesSingleSolve() {
+        ScheduleProblem problem = threeDepartmentProblem();
+
+        ScheduleResult single = greedy.solve(problem);
+        ScheduleResult merged = solver.solve(greedy, problem);
+
+        assertEquals(single.getSections().size(), merged.getSections().size());
+        assertEquals(single.getUnplacedSections(), merged.getUnplacedSections());
+        assertEquals(single.getUnassignedCourses(), merged.getUnassignedCourses());
+    }
+
+    @Test
+    void testDisabledDecompositionSolvesWholeProblem() {
+        properties.getDecomposition().setEnabled(false);
+        ScheduleProblem problem = threeDepartmentProblem();
+
+        ScheduleResult result = solver.solve(greedy, problem);
+
+        assertEquals(3, result.getSections().size());
+    }
+
+    private ScheduleProblem threeDepartmentProblem() {
+        List<Specialization> specializations = List.of(
+                createSpecialization(1, "Mathematics", 1),
+                createSpecialization(2, "English", null),
+                createSpecialization(3, "Science", 2));
+        List<Teacher> teachers = List.of(createTeacher(1, 1), createTeacher(2, 2), createTeacher(3, 3));
+        List<Classroom> rooms = List.of(createRoom(10, 1), createRoom(11, 2));
+        List<Course> courses = List.of(
+                createCourse(1, "MAT101", 1), createCourse(2, "ENG101", 2), createCourse(3, "SCI101", 3));
+
+        Map<Integer, Integer> sectionsNeeded = new HashMap<>();
+        courses.forEach(course -> sectionsNeeded.put(course.getId(), 1));
+        return new ScheduleProblem(courses, sectionsNeeded,
+                SchedulingContext.of(teachers, rooms, specializations), scheduleGenerator.createAvailabilityGrid());
+    }
+
+    private Specialization createSpecialization(int id, String name, Integer roomTypeId) {
+        Specialization specialization = new Specialization();
+        specialization.setId(id);
+        specialization.setName(name);
+        specialization.setRoomTypeId(roomTypeId);
+        return specialization;
+    }
+
+    private Teacher createTeacher(int id, int specializationId) {
+        Teacher teacher = new Teacher();
+        teacher.setId(id);
+        teacher.setSpecializationId(specializationId);
+        return teacher;
+    }
+
+    private Classroom createRoom(int id, int roomTypeId) {
+        Classroom room = new Classroom();
+        room.setId(id);
+        room.setRoomTypeId(roomTypeId);
+        room.setCapacity(10);
+        return room;
+    }
+
+    private Course createCourse(int id, String code, int specializationId) {
+        Course course = new Course();
+        course.setId(id);
+        course.setCode(code);
+        course.setCourseType("core");
+        course.setHoursPerWeek(4);
+        course.setSpecializationId(specializationId);
+        return course;
+    }
+}
@@ -1,5 +1,7 @@
 package com.maplewood.service;
 
+import com.maplewood.dto.CourseDto;
+import com.maplewood.dto.MeetingDto;
 import com.maplewood.entity.CourseSectionMeeting;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -72,6 +74,75 @@ class ConflictValidatorTest {
         assertFalse(conflictValidator.hasTimeConflict(null, null));
     }
 
+    @Test
+    void testConflict_HalfHourOffsets() {
+        List<CourseSectionMeeting> newMeetings = List.of(
+                createMeeting(CourseSectionMeeting.DayOfWeek.MONDAY, "10:00", "11:00")
+        );
+        List<CourseSectionMeeting> existingMeetings = List.of(
+                createMeeting(CourseSectionMeeting.DayOfWeek.MONDAY, "09:30", "10:30")
+        );
+
+        assertTrue(conflictValidator.hasTimeConflict(newMeetings, existingMeetings));
+    }
+
+    @Test
+    void testNoConflict_BackToBackOnTenAndTwentyMinuteGrids() {
+        assertFalse(conflictValidator.isConflict(
+                createMeeting(CourseSectionMeeting.DayOfWeek.MONDAY, "09:10", "10:10"),
+                createMeeting(CourseSectionMeeting.DayOfWeek.MONDAY, "10:10", "11:10")));
+        assertFalse(conflictValidator.isConflict(
+                createMeeting(CourseSectionMeeting.DayOfWeek.MONDAY, "09:20", "10:40"),
+                createMeeting(CourseSectionMeeting.DayOfWeek.MONDAY, "10:40", "11:20")));
+
+        SectionCatalog.Entry candidate = createEntry(1, "MAT101", createMeetingDto("MONDAY", "10:10", "11:10"));
+        SectionCatalog.Entry before = createEntry(2, "ENG101", createMeetingDto("MONDAY", "09:10", "10:10"));
+        assertTrue(conflictValidator.findConflict(candidate, List.of(before)).isEmpty());
+    }
+
+    @Test
+    void testNoConflict_OffGridTimesSharingASlot() {
+        // Both meetings touch the 10:05 slot but do not overlap
+        assertFalse(conflictValidator.isConflict(
+                createMeeting(CourseSectionMeeting.DayOfWeek.MONDAY, "09:00", "10:07"),
+                createMeeting(CourseSectionMeeting.DayOfWeek.MONDAY, "10:07", "11:00")));
+    }
+
+    @Test
+    void testFindConflict_ReportsCollidingSectionAndMeeting() {
+        SectionCatalog.Entry candidate = createEntry(1, "MAT101",
+                createMeetingDto("TUESDAY", "13:00", "15:00"), createMeetingDto("THURSDAY", "09:00", "11:00"));
+        SectionCatalog.Entry fits = createEntry(2, "ENG101", createMeetingDto("TUESDAY", "09:00", "11:00"));
+        SectionCatalog.Entry collides = createEntry(3, "SCI101",
+                createMeetingDto("MONDAY", "09:00", "11:00"), createMeetingDto("THURSDAY", "10:00", "12:00"));
+
+        TimeConflict conflict = conflictValidator.findConflict(candidate, List.of(fits, collides)).orElseThrow();
+
+        assertEquals(3, conflict.getConflictingSectionId());
+        assertEquals("THURSDAY", conflict.getMeeting().getDayOfWeek());
+        assertEquals("10:00", conflict.getConflictingMeeting().getStartTime());
+        assertEquals("Overlaps SCI101 (section 3) on THURSDAY 10:00-12:00", conflict.describe());
+        assertTrue(conflictValidator.findConflict(candidate, List.of(fits)).isEmpty());
+    }
+
+    private SectionCatalog.Entry createEntry(int sectionId, String courseCode, MeetingDto... meetings) {
+        CourseDto course = new CourseDto();
+        course.setCode(courseCode);
+        WeekMask mask = WeekMask.EMPTY;
+        for (MeetingDto meeting : meetings) {
+            mask = mask.or(ConflictValidator.maskOf(meeting));
+        }
+        return new SectionCatalog.Entry(sectionId, sectionId, null, 10, course, null, null, List.of(meetings), mask);
+    }
+
+    private MeetingDto createMeetingDto(String day, String start, String end) {
+        MeetingDto meeting = new MeetingDto();
+        meeting.setDayOfWeek(day);
+        meeting.setStartTime(start);
+        meeting.setEndTime(end);
+        return meeting;
+    }
+
     private CourseSectionMeeting createMeeting(CourseSectionMeeting.DayOfWeek day, String start, String end) {
         CourseSectionMeeting meeting = new CourseSectionMeeting();
         meeting.setDayOfWeek(day);
@@ -0,0 +1,100 @@
+package com.maplewood.service;
+
+import com.maplewood.dto.AcademicProgressDto;
+import com.maplewood.entity.Course;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseGraphTest {
+
+    private static final CourseGraph.Term FALL_2024 = new CourseGraph.Term(2024, CourseGraph.FALL);
+
+    // 1 -> 2 -> 3 is a core chain alternating Fall/Spring; 5 and 6 require each other; 7 requires a missing course
+    private final CourseGraph.Snapshot graph = new CourseGraph.Snapshot(List.of(
+            createCourse(1, "core", CourseGraph.FALL, null),
+            createCourse(2, "core", CourseGraph.SPRING, 1),
+            createCourse(3, "core", CourseGraph.FALL, 2),
+            createCourse(4, "elective", CourseGraph.FALL, null),
+            createCourse(5, "elective", CourseGraph.SPRING, 6),
+            createCourse(6, "elective", CourseGraph.FALL, 5),
+            createCourse(7, "elective", CourseGraph.FALL, 99)));
+
+    @Test
+    void testClosureAndChains() {
+        assertEquals(Set.of(1, 2), graph.prerequisitesOf(3));
+        assertEquals(2, graph.unlocks(1));
+        assertEquals(3, graph.chainLength(1));
+        assertEquals(1, graph.chainLength(3));
+        assertEquals(0, graph.unlocks(5), "Courses in a cycle lead nowhere");
+    }
+
+    @Test
+    void testNextCoursesHonorTermPrerequisitesAndBlockedChains() {
+        assertEquals(List.of(1, 4), graph.nextCourses(List.of(), 9, CourseGraph.FALL));
+        assertEquals(List.of(), graph.nextCourses(List.of(), 9, CourseGraph.SPRING));
+        assertEquals(List.of(2), graph.nextCourses(List.of(1), 9, CourseGraph.SPRING));
+        assertEquals(List.of(4), graph.nextCourses(List.of(1, 2, 3), 10, CourseGraph.FALL));
+    }
+
+    @Test
+    void testPlanFollowsChainThroughAlternatingTerms() {
+        CourseGraph.Plan plan = graph.plan(List.of(), 2024, FALL_2024, 30, 3, 1);
+
+        assertTrue(plan.isFeasible());
+        assertEquals(List.of(List.of(1), List.of(2), List.of(3)), courseIds(plan));
+        assertEquals(2025, plan.completionYear());
+        assertEquals(10, plan.getSemesters().get(2).getGradeLevel());
+    }
+
+    @Test
+    void testPlanWaitsForTheTermACourseIsOffered() {
+        CourseGraph.Plan plan = graph.plan(List.of(), 2024, new CourseGraph.Term(2024, CourseGraph.SPRING), 40, 3, 5);
+
+        assertTrue(plan.isFeasible());
+        assertEquals(List.of(List.of(), List.of(1, 4), List.of(2), List.of(3)), courseIds(plan));
+        assertEquals(40, plan.getEarnedTenths());
+    }
+
+    @Test
+    void testPlanReportsUnreachableRequirements() {
+        CourseGraph.Plan plan = graph.plan(List.of(), 2024, FALL_2024, 30, 4, 5);
+
+        assertFalse(plan.isFeasible());
+        assertNull(plan.completionYear());
+        assertEquals(3, plan.getCoreCompleted());
+    }
+
+    @Test
+    void testProgressWithNothingLeftToPlanFallsBackToClassYear() {
+        CourseGraph.Plan plan = graph.plan(List.of(1, 2, 3, 4), 2024, FALL_2024, 30, 3, 5);
+        assertTrue(plan.isFeasible());
+        assertTrue(plan.getSemesters().isEmpty());
+
+        // Stored totals that lag behind the passed courses the plan was made from
+        AcademicProgressDto progress = new ProgressCalculator(null).calculateProgress(2024, 0, 0, 0, 0, plan);
+
+        assertEquals(2028, progress.getProjectedGraduationYear());
+    }
+
+    private List<List<Integer>> courseIds(CourseGraph.Plan plan) {
+        return plan.getSemesters().stream()
+                .map(semester -> semester.getCourses().stream().map(Course::getId).toList())
+                .toList();
+    }
+
+    private Course createCourse(int id, String courseType, int semesterOrder, Integer prerequisiteId) {
+        Course course = new Course();
+        course.setId(id);
+        course.setCode("C" + id);
+        course.setCourseType(courseType);
+        course.setCredits(BigDecimal.ONE);
+        course.setSemesterOrder(semesterOrder);
+        course.setPrerequisiteId(prerequisiteId);
+        return course;
+    }
+}
@@ -0,0 +1,90 @@
+package com.maplewood.service;
+
+import com.maplewood.config.SchedulingProperties;
+import com.maplewood.entity.Course;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DemandEstimatorTest {
+
+    private DemandEstimator estimator;
+
+    @BeforeEach
+    void setUp() {
+        estimator = new DemandEstimator(null, new SchedulingProperties());
+    }
+
+    @Test
+    void testCountsOnlyEligibleStudents() {
+        Course algebra = createCourse(1, "core", 9, 10, null);
+        Course calculus = createCourse(2, "core", 11, 12, 1);
+        List<int[]> students = students(30, 9); // ids 1..30 in grade 9
+        students.addAll(students(25, 11, 100)); // ids 100..124 in grade 11
+        List<int[]> passed = new ArrayList<>();
+        for (int id = 100; id < 115; id++) {
+            passed.add(new int[]{id, 1}); // 15 eleventh-graders passed the prerequisite
+        }
+
+        Map<Integer, Integer> sections = estimator.estimateSections(List.of(algebra, calculus), students, passed);
+
+        assertEquals(3, sections.get(1)); // 30 ninth-graders
+        assertEquals(2, sections.get(2)); // 15 eligible -> ceil(15 / 10)
+    }
+
+    @Test
+    void testElectivesShareWhatIsLeftOfTheCourseLimit() {
+        // 4 core courses leave one slot, split across 2 electives: 20 students -> 10 seats each
+        List<Course> courses = new ArrayList<>();
+        for (int id = 1; id <= 4; id++) {
+            courses.add(createCourse(id, "core", 9, 12, null));
+        }
+        courses.add(createCourse(5, "elective", 9, 12, null));
+        courses.add(createCourse(6, "elective", 9, 12, null));
+
+        Map<Integer, Integer> sections = estimator.estimateSections(courses, students(20, 10), List.of());
+
+        assertEquals(2, sections.get(1));
+        assertEquals(1, sections.get(5));
+        assertEquals(1, sections.get(6));
+    }
+
+    @Test
+    void testPassedCourseHasNoDemand() {
+        Course course = createCourse(1, "elective", 9, 12, null);
+        List<int[]> passed = List.of(new int[]{1, 1}, new int[]{2, 1});
+
+        Map<Integer, Integer> sections = estimator.estimateSections(List.of(course), students(2, 12), passed);
+
+        assertEquals(0, sections.get(1));
+    }
+
+    private List<int[]> students(int count, int grade) {
+        return students(count, grade, 1);
+    }
+
+    private List<int[]> students(int count, int grade, int firstId) {
+        List<int[]> students = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            students.add(new int[]{firstId + i, grade});
+        }
+        return students;
+    }
+
+    private Course createCourse(int id, String courseType, Integer gradeMin, Integer gradeMax, Integer prerequisiteId) {
+        Course course = new Course();
+        course.setId(id);
+        course.setCode("C" + id);
+        course.setCourseType(courseType);
+        course.setHoursPerWeek(3);
+        course.setGradeLevelMin(gradeMin);
+        course.setGradeLevelMax(gradeMax);
+        course.setPrerequisiteId(prerequisiteId);
+        return course;
+    }
+}
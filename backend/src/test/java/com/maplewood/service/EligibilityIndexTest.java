@@ -0,0 +1,82 @@
+package com.maplewood.service;
+
+import com.maplewood.entity.Course;
+import com.maplewood.entity.Student;
+import com.maplewood.entity.StudentCourseHistory;
+import com.maplewood.repository.CourseRepository;
+import com.maplewood.repository.StudentCourseHistoryRepository;
+import com.maplewood.repository.StudentRepository;
+import com.maplewood.service.EligibilityIndex.StudentEligibility;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class EligibilityIndexTest {
+
+    @Autowired
+    private EligibilityIndex eligibilityIndex;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private StudentCourseHistoryRepository historyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterTransaction
+    void dropRolledBackState() {
+        eligibilityIndex.invalidate();
+    }
+
+    @Test
+    public void testEligibilityMatchesHistoryAndCourseRules() {
+        for (Student student : studentRepository.findAll().subList(0, 40)) {
+            Set<Integer> passed = historyRepository.findPassedCoursesByStudentId(student.getId()).stream()
+                    .map(StudentCourseHistory::getCourseId).collect(Collectors.toSet());
+            StudentEligibility eligibility = eligibilityIndex.forStudent(student.getId(), student.getGradeLevel());
+
+            assertEquals(passed, new HashSet<>(eligibility.passedCourseIds()));
+            for (Course course : courseRepository.findAll()) {
+                boolean prerequisiteMet = course.getPrerequisiteId() == null || passed.contains(course.getPrerequisiteId());
+                boolean inGrade = course.getGradeLevelMin() <= student.getGradeLevel()
+                        && course.getGradeLevelMax() >= student.getGradeLevel();
+                assertEquals(prerequisiteMet, eligibility.prerequisiteMet(course.getId()), course.getCode());
+                assertEquals(prerequisiteMet && inGrade && !passed.contains(course.getId()),
+                        eligibility.isEligible(course.getId()), course.getCode());
+            }
+        }
+    }
+
+    @Test
+    public void testHistoryChangesAreAppliedIncrementally() {
+        StudentCourseHistory passedRow = historyRepository.findAll().stream()
+                .filter(history -> "passed".equals(history.getStatus())).findFirst().orElseThrow();
+        Student student = studentRepository.findById(passedRow.getStudentId()).orElseThrow();
+        assertTrue(eligibilityIndex.forStudent(student.getId(), student.getGradeLevel())
+                .hasPassed(passedRow.getCourseId()));
+
+        jdbcTemplate.update("DELETE FROM student_course_history WHERE id = ?", passedRow.getId());
+        eligibilityIndex.refreshNow();
+
+        StudentEligibility eligibility = eligibilityIndex.forStudent(student.getId(), student.getGradeLevel());
+        assertFalse(eligibility.hasPassed(passedRow.getCourseId()));
+    }
+}
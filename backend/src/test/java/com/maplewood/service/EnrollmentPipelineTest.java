@@ -0,0 +1,102 @@
+package com.maplewood.service;
+
+import com.maplewood.config.EnrollmentProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EnrollmentPipelineTest {
+
+    @Mock
+    private SeatReservationService seatReservationService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TransactionStatus transactionStatus;
+
+    private EnrollmentPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        EnrollmentProperties properties = new EnrollmentProperties();
+        properties.getPipeline().setMaxBatchSize(64);
+        properties.getPipeline().setMaxWaitMillis(200);
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        pipeline = new EnrollmentPipeline(seatReservationService, jdbcTemplate, transactionManager, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void testEnrollmentsShareGroupCommits() throws Exception {
+        when(seatReservationService.insertEnrollment(anyInt(), anyInt(), anyInt())).thenReturn(true);
+
+        List<CompletableFuture<EnrollmentPipeline.WriteResult>> results = new ArrayList<>();
+        for (int studentId = 1; studentId <= 20; studentId++) {
+            results.add(pipeline.submit(studentId, List.of(100, 200), 5));
+        }
+
+        for (CompletableFuture<EnrollmentPipeline.WriteResult> result : results) {
+            assertTrue(result.get(5, TimeUnit.SECONDS).isCommitted());
+        }
+        verify(seatReservationService, times(40)).insertEnrollment(anyInt(), anyInt(), eq(5));
+        verify(transactionManager, atMost(2)).commit(transactionStatus);
+    }
+
+    @Test
+    void testRefusedEnrollmentOnlyUndoesItsOwnRows() throws Exception {
+        when(seatReservationService.insertEnrollment(anyInt(), anyInt(), anyInt())).thenReturn(true);
+        when(seatReservationService.insertEnrollment(2, 200, 5)).thenReturn(false);
+
+        CompletableFuture<EnrollmentPipeline.WriteResult> first = pipeline.submit(1, List.of(100, 200), 5);
+        CompletableFuture<EnrollmentPipeline.WriteResult> refused = pipeline.submit(2, List.of(100, 200), 5);
+        CompletableFuture<EnrollmentPipeline.WriteResult> third = pipeline.submit(3, List.of(100), 5);
+
+        assertTrue(first.get(5, TimeUnit.SECONDS).isCommitted());
+        assertFalse(refused.get(5, TimeUnit.SECONDS).isCommitted());
+        assertEquals(200, refused.get().getRejectedSectionId());
+        assertTrue(third.get(5, TimeUnit.SECONDS).isCommitted());
+        verify(jdbcTemplate, times(1)).execute("ROLLBACK TO enrollment_write");
+        verify(seatReservationService).release(100);
+        verify(seatReservationService).release(200);
+        verify(seatReservationService).reconcile(List.of(200));
+    }
+
+    @Test
+    void testFailedCommitFailsEveryCallerAndReturnsSeats() {
+        when(seatReservationService.insertEnrollment(anyInt(), anyInt(), anyInt())).thenReturn(true);
+        doThrow(new IllegalStateException("disk I/O error")).when(transactionManager).commit(transactionStatus);
+
+        CompletableFuture<EnrollmentPipeline.WriteResult> result = pipeline.submit(1, List.of(100), 5);
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> pipeline.write(2, List.of(100), 5));
+        assertEquals("disk I/O error", error.getMessage());
+        assertTrue(result.isCompletedExceptionally());
+        verify(seatReservationService, times(2)).release(100);
+    }
+}
@@ -2,12 +2,18 @@ package com.maplewood.service;
 
 import com.maplewood.entity.*;
 import com.maplewood.repository.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -24,6 +30,27 @@ public class MasterScheduleServiceTest {
     @Autowired
     private CourseSectionRepository courseSectionRepository;
 
+    @Autowired
+    private CourseSectionMeetingRepository meetingRepository;
+
+    @Autowired
+    private StudentCourseEnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ScheduleWriter scheduleWriter;
+
+    @Autowired
+    private StudentPlanningService studentPlanningService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
     public void testGenerateSchedule() {
         // Find an active semester
@@ -45,5 +72,127 @@ public class MasterScheduleServiceTest {
         var sections = courseSectionRepository.findBySemesterId(semester.getId());
         assertFalse(sections.isEmpty(), "Should create at least some sections");
     }
-}
 
+    @Test
+    public void testRegenerateScheduleReplacesSections() {
+        Semester semester = semesterRepository.findAll().get(0);
+
+        var first = scheduleService.generateSchedule(semester.getId());
+        var second = scheduleService.generateSchedule(semester.getId());
+
+        var sections = courseSectionRepository.findBySemesterId(semester.getId());
+        assertEquals(second.getSections().size(), sections.size(), "Regeneration should replace, not append");
+        assertEquals(first.getSections().size(), second.getSections().size());
+        sections.forEach(section -> assertFalse(
+                meetingRepository.findByCourseSectionId(section.getId()).isEmpty(),
+                "Every written section should have its meetings"));
+    }
+
+    @Test
+    public void testGenerateScheduleWithBacktrackingStrategy() {
+        Semester semester = semesterRepository.findAll().get(0);
+
+        var greedy = scheduleService.generateSchedule(semester.getId(), "greedy");
+        var response = scheduleService.generateSchedule(semester.getId(), "backtracking");
+
+        assertEquals("backtracking", response.getSummary().getStrategy());
+        assertTrue(response.getSummary().getUnassignedCourses() <= greedy.getSummary().getUnassignedCourses());
+    }
+
+    @Test
+    public void testUnknownStrategyIsRejected() {
+        Semester semester = semesterRepository.findAll().get(0);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> scheduleService.generateSchedule(semester.getId(), "simulated-annealing"));
+    }
+
+    @Test
+    public void testRegenerationCarriesEnrollmentsOverToTheNewVersion() {
+        Semester semester = semesterRepository.findAll().get(0);
+
+        var first = scheduleService.generateSchedule(semester.getId());
+        var enrolledSection = first.getSections().get(0);
+        StudentCourseEnrollment enrollment = enroll(1, enrolledSection.getId());
+
+        var second = scheduleService.generateSchedule(semester.getId());
+        var published = scheduleService.getSchedule(semester.getId());
+        entityManager.clear();
+
+        assertNotEquals(first.getSummary().getScheduleVersionId(), second.getSummary().getScheduleVersionId());
+        assertEquals(second.getSummary().getScheduleVersionId(), published.getSummary().getScheduleVersionId());
+        assertEquals(second.getSections().size(), published.getSections().size());
+        assertEquals(1, second.getSummary().getEnrollmentsCarriedOver());
+        assertEquals(0, second.getSummary().getEnrollmentsNeedingReenrollment());
+
+        CourseSection moved = enrollmentRepository.findById(enrollment.getId()).orElseThrow().getCourseSection();
+        assertEquals(second.getSummary().getScheduleVersionId(), moved.getScheduleVersionId());
+        assertEquals(enrolledSection.getCourse().getId(), moved.getCourseId());
+        assertEquals(1, enrollmentRepository.findByStudentIdAndSemesterId(1, semester.getId()).size());
+        assertTrue(courseSectionRepository.findById(enrolledSection.getId()).isEmpty(),
+                "The replaced version has no enrollments left and is deleted");
+    }
+
+    @Test
+    public void testEnrollmentsThatCannotMoveAreListedForReenrollment() {
+        Semester semester = semesterRepository.findAll().get(0);
+        var first = scheduleService.generateSchedule(semester.getId());
+        var enrolledSection = first.getSections().get(0);
+        StudentCourseEnrollment enrollment = enroll(1, enrolledSection.getId());
+
+        // The new version has no section of the enrolled course
+        Course otherCourse = courseRepository.findAll().stream()
+                .filter(course -> !course.getId().equals(enrolledSection.getCourse().getId()))
+                .findFirst().orElseThrow();
+        PlannedSection plan = new PlannedSection(otherCourse, enrolledSection.getTeacher().getId(),
+                enrolledSection.getClassroom().getId(), 10,
+                List.of(new ScheduleGenerator.TimeSlot("MONDAY", "09:00", "10:00", 1, 0, 0)));
+        ScheduleDraft draft = scheduleWriter.writeDraft(semester.getId(), "greedy", List.of(plan));
+        EnrollmentCarryOver carryOver = scheduleWriter.publish(draft);
+        entityManager.clear();
+
+        assertEquals(0, carryOver.getCarriedOver());
+        assertEquals(1, carryOver.getNeedingReenrollment());
+        assertTrue(enrollmentRepository.findById(enrollment.getId()).isPresent());
+        assertEquals(1, scheduleService.getSchedule(semester.getId()).getSummary().getEnrollmentsNeedingReenrollment());
+
+        var studentPlan = studentPlanningService.getStudentPlan(1, semester.getId());
+        assertTrue(studentPlan.getEnrolledSections().isEmpty());
+        assertEquals(List.of(enrolledSection.getId()),
+                studentPlan.getNeedsReenrollment().stream().map(section -> section.getId()).toList());
+        assertEquals(enrolledSection.getCourse().getCode(), studentPlan.getNeedsReenrollment().get(0).getCourse().getCode());
+    }
+
+    private StudentCourseEnrollment enroll(Integer studentId, Integer sectionId) {
+        StudentCourseEnrollment enrollment = new StudentCourseEnrollment();
+        enrollment.setStudentId(studentId);
+        enrollment.setCourseSectionId(sectionId);
+        enrollment.setEnrolledAt(java.time.LocalDateTime.now());
+        return enrollmentRepository.saveAndFlush(enrollment);
+    }
+
+    @Test
+    public void testGetScheduleUsesConstantNumberOfQueries() {
+        Semester semester = semesterRepository.findAll().get(0);
+        var generated = scheduleService.generateSchedule(semester.getId());
+        Integer enrolledSectionId = generated.getSections().get(0).getId();
+        StudentCourseEnrollment enrollment = new StudentCourseEnrollment();
+        enrollment.setStudentId(1);
+        enrollment.setCourseSectionId(enrolledSectionId);
+        enrollment.setEnrolledAt(java.time.LocalDateTime.now());
+        enrollmentRepository.saveAndFlush(enrollment);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        var schedule = scheduleService.getSchedule(semester.getId());
+
+        assertTrue(schedule.getSections().size() > 10);
+        assertTrue(statistics.getPrepareStatementCount() <= 10,
+                "Schedule read should not issue queries per section, issued " + statistics.getPrepareStatementCount());
+        var enrolled = schedule.getSections().stream()
+                .filter(section -> section.getId().equals(enrolledSectionId)).findFirst().orElseThrow();
+        assertEquals(1L, enrolled.getEnrolledCount());
+        assertNotNull(enrolled.getClassroom().getRoomType());
+        assertFalse(enrolled.getMeetings().isEmpty());
+    }
+}
@@ -0,0 +1,85 @@
+package com.maplewood.service;
+
+import com.maplewood.config.SchedulingProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.maplewood.service.ScheduleFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortfolioScheduleStrategyTest {
+
+    private ScheduleGenerator scheduleGenerator;
+    private GreedyScheduleStrategy greedy;
+    private PortfolioScheduleStrategy portfolio;
+
+    @BeforeEach
+    void setUp() {
+        SchedulingProperties properties = new SchedulingProperties();
+        properties.getPortfolio().setVariants(16);
+        properties.getPortfolio().setParallelism(4);
+        scheduleGenerator = new ScheduleGenerator(properties);
+        greedy = new GreedyScheduleStrategy(scheduleGenerator);
+        portfolio = new PortfolioScheduleStrategy(scheduleGenerator, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        portfolio.shutdown();
+    }
+
+    @Test
+    void testUnrandomizedVariantMatchesGreedy() {
+        ScheduleProblem problem = singleTeacherProblem(scheduleGenerator, 
+                createCourse(1, "SCI101", "core", 3), createCourse(2, "SCI102", "core", 3),
+                createCourse(3, "SCI201", "elective", 6), createCourse(4, "SCI202", "elective", 6));
+
+        ScheduleResult greedyResult = greedy.solve(problem);
+        ScheduleResult variant = portfolio.solveVariant(problem, null);
+
+        assertEquals(greedyResult.getSections().size(), variant.getSections().size());
+        assertEquals(greedyResult.getUnassignedCourses(), variant.getUnassignedCourses());
+    }
+
+    @Test
+    void testBeatsGreedyWhenAShuffledOrderFits() {
+        // Greedy strands an elective; starting some courses later in the week fits all four
+        ScheduleProblem problem = singleTeacherProblem(scheduleGenerator, 
+                createCourse(1, "SCI101", "core", 3), createCourse(2, "SCI102", "core", 3),
+                createCourse(3, "SCI201", "elective", 6), createCourse(4, "SCI202", "elective", 6));
+
+        ScheduleResult result = portfolio.solve(problem);
+
+        assertEquals("portfolio", result.getStrategy());
+        assertTrue(result.getUnassignedCourses().isEmpty());
+        assertEquals(4, result.getSections().size());
+    }
+
+    @Test
+    void testResultIsDeterministicPerSeed() {
+        ScheduleProblem problem = singleTeacherProblem(scheduleGenerator, 
+                createCourse(1, "SCI101", "core", 6), createCourse(2, "SCI102", "core", 4),
+                createCourse(3, "SCI201", "elective", 6), createCourse(4, "SCI202", "elective", 3));
+
+        ScheduleResult first = portfolio.solve(problem);
+        ScheduleResult second = portfolio.solve(problem);
+
+        assertEquals(describe(first), describe(second));
+    }
+
+    private String describe(ScheduleResult result) {
+        StringBuilder sb = new StringBuilder();
+        for (PlannedSection section : result.getSections()) {
+            sb.append(section.getCourse().getId()).append(':').append(section.getTeacherId()).append('/')
+                    .append(section.getClassroomId());
+            for (ScheduleGenerator.TimeSlot slot : section.getTimeSlots()) {
+                sb.append(' ').append(slot.dayIndex).append('@').append(slot.mask);
+            }
+            sb.append(';');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,116 @@
+package com.maplewood.service;
+
+import com.maplewood.dto.CacheStatsDto;
+import com.maplewood.entity.Course;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class ReferenceDataCacheTest {
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private CourseGraph courseGraph;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        referenceDataCache.refreshVersions();
+        referenceDataCache.invalidateAll();
+    }
+
+    @AfterTransaction
+    void dropRolledBackState() {
+        referenceDataCache.invalidateAll();
+    }
+
+    @Test
+    public void testRepeatedReadsHitTheCache() {
+        Integer courseId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM courses", Integer.class);
+        long hitsBefore = courseStats().getHits();
+
+        Course first = referenceDataCache.courses().get(courseId).orElseThrow();
+        Course second = referenceDataCache.courses().get(courseId).orElseThrow();
+
+        assertSame(first, second);
+        assertEquals(hitsBefore + 1, courseStats().getHits());
+    }
+
+    @Test
+    public void testExternalWriteInvalidatesRegion() {
+        Integer courseId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM courses", Integer.class);
+        referenceDataCache.courses().get(courseId).orElseThrow();
+        long invalidationsBefore = courseStats().getInvalidations();
+        long missesBefore = courseStats().getMisses();
+
+        // A write the application does not know about, as another tool editing the file would make
+        jdbcTemplate.update("UPDATE courses SET name = ? WHERE id = ?", "Renamed Course", courseId);
+        referenceDataCache.refreshVersions();
+
+        assertEquals(invalidationsBefore + 1, courseStats().getInvalidations());
+        assertEquals(0, courseStats().getSize());
+        referenceDataCache.courses().get(courseId).orElseThrow();
+        assertEquals(missesBefore + 1, courseStats().getMisses(), "The row is reloaded after invalidation");
+        assertFalse(referenceDataCache.teachers().all().isEmpty(), "Other regions keep working");
+    }
+
+    @Test
+    public void testGetAllLoadsMissingRowsTogether() {
+        List<Integer> ids = jdbcTemplate.queryForList("SELECT id FROM classrooms ORDER BY id LIMIT 5", Integer.class);
+        referenceDataCache.classrooms().get(ids.get(0));
+
+        var classrooms = referenceDataCache.classrooms().getAll(ids);
+
+        assertEquals(ids.size(), classrooms.size());
+        assertEquals(ids.size(), referenceDataCache.stats().stream()
+                .filter(stats -> stats.getRegion().equals("classrooms")).findFirst().orElseThrow().getSize());
+    }
+
+    @Test
+    public void testCurrentTermIsCachedUntilSemestersChange() {
+        CourseGraph.Term term = courseGraph.currentTerm();
+        long missesBefore = stats("semesters").getMisses();
+
+        assertEquals(2024, term.getYear());
+        assertEquals(CourseGraph.FALL, term.getOrder());
+        courseGraph.currentTerm();
+        assertEquals(missesBefore, stats("semesters").getMisses(), "Repeated requests read the cached semesters");
+
+        jdbcTemplate.update("UPDATE semesters SET is_active = (year = 2024 AND order_in_year = 2)");
+        entityManager.clear();
+        referenceDataCache.refreshVersions();
+
+        CourseGraph.Term next = courseGraph.currentTerm();
+        assertEquals(2024, next.getYear());
+        assertEquals(CourseGraph.SPRING, next.getOrder());
+    }
+
+    private CacheStatsDto courseStats() {
+        return stats("courses");
+    }
+
+    private CacheStatsDto stats(String region) {
+        return referenceDataCache.stats().stream()
+                .filter(stats -> stats.getRegion().equals(region)).findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,81 @@
+package com.maplewood.service;
+
+import com.maplewood.dto.CourseDto;
+import com.maplewood.dto.MeetingDto;
+import com.maplewood.entity.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Small in-memory scheduling problems and catalog entries shared by the service unit tests.
+ */
+final class ScheduleFixtures {
+
+    private ScheduleFixtures() {
+    }
+
+    /**
+     * One science teacher and one lab, one section needed per course.
+     */
+    static ScheduleProblem singleTeacherProblem(ScheduleGenerator scheduleGenerator, Course... courses) {
+        Teacher teacher = new Teacher();
+        teacher.setId(1);
+        teacher.setSpecializationId(3);
+        Classroom lab = new Classroom();
+        lab.setId(10);
+        lab.setRoomTypeId(2);
+        lab.setCapacity(10);
+        Specialization science = new Specialization();
+        science.setId(3);
+        science.setName("Science");
+        science.setRoomTypeId(2);
+
+        SchedulingContext context = SchedulingContext.of(List.of(teacher), List.of(lab), List.of(science));
+        Map<Integer, Integer> sectionsNeeded = new HashMap<>();
+        for (Course course : courses) {
+            sectionsNeeded.put(course.getId(), 1);
+        }
+        return new ScheduleProblem(List.of(courses), sectionsNeeded, context,
+                scheduleGenerator.createAvailabilityGrid());
+    }
+
+    static Course createCourse(int id, String code, String courseType, int hoursPerWeek) {
+        Course course = new Course();
+        course.setId(id);
+        course.setCode(code);
+        course.setCourseType(courseType);
+        course.setHoursPerWeek(hoursPerWeek);
+        course.setSpecializationId(3);
+        return course;
+    }
+
+    static void assertNoTeacherDayOverMaxHours(List<PlannedSection> sections) {
+        int[] hoursPerDay = new int[AvailabilityGrid.DAYS.length];
+        for (PlannedSection section : sections) {
+            for (ScheduleGenerator.TimeSlot slot : section.getTimeSlots()) {
+                hoursPerDay[slot.dayIndex] += slot.hours;
+            }
+        }
+        for (int hours : hoursPerDay) {
+            assertTrue(hours <= 4, "Teacher exceeds 4 hours on a day");
+        }
+    }
+
+    /**
+     * A published section of the given course with a single meeting and ten seats.
+     */
+    static SectionCatalog.Entry createEntry(int sectionId, int courseId, String day, String start, String end) {
+        CourseDto course = new CourseDto();
+        course.setId(courseId);
+        MeetingDto meeting = new MeetingDto();
+        meeting.setDayOfWeek(day);
+        meeting.setStartTime(start);
+        meeting.setEndTime(end);
+        return new SectionCatalog.Entry(sectionId, courseId, null, 10, course, null, null, List.of(meeting),
+                ConflictValidator.maskOf(meeting));
+    }
+}
@@ -1,12 +1,10 @@
 package com.maplewood.service;
 
+import com.maplewood.config.SchedulingProperties;
 import com.maplewood.entity.*;
-import com.maplewood.repository.*;
-import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Collections;
@@ -20,27 +18,11 @@ import static org.mockito.Mockito.when;
 @ExtendWith(MockitoExtension.class)
 class ScheduleGeneratorTest {
 
-    @Mock
-    private TeacherRepository teacherRepository;
-    @Mock
-    private ClassroomRepository classroomRepository;
-    @Mock
-    private SpecializationRepository specializationRepository;
-    @Mock
-    private CourseSectionRepository courseSectionRepository;
-    @Mock
-    private CourseSectionMeetingRepository meetingRepository;
-    @Mock
-    private EntityManager entityManager;
-
     private ScheduleGenerator scheduleGenerator;
 
     @BeforeEach
     void setUp() {
-        scheduleGenerator = new ScheduleGenerator(
-                teacherRepository, classroomRepository, specializationRepository,
-                courseSectionRepository, meetingRepository, entityManager
-        );
+        scheduleGenerator = new ScheduleGenerator(new SchedulingProperties());
     }
 
     @Test
@@ -72,5 +54,61 @@ class ScheduleGeneratorTest {
         int sections = scheduleGenerator.calculateSectionsNeeded(course);
         assertEquals(1, sections); // Minimum 1 section
     }
-}
 
+    @Test
+    void testPlanSection_UsesContextTeachersAndRooms() {
+        SchedulingContext context = SchedulingContext.of(
+                List.of(createTeacher(7, 1)),
+                List.of(createClassroom(30, 1)),
+                List.of(createSpecialization(1, null)));
+        AvailabilityGrid grid = scheduleGenerator.createAvailabilityGrid();
+
+        Course course = new Course();
+        course.setCode("MAT101");
+        course.setSpecializationId(1);
+        course.setHoursPerWeek(4);
+
+        PlannedSection section = scheduleGenerator.planSection(course, context, grid);
+
+        assertNotNull(section);
+        assertEquals(7, section.getTeacherId());
+        assertEquals(30, section.getClassroomId()); // Default classroom type when specialization has none
+        assertEquals(4, grid.teacherSlotsOnDay(7, 0) + grid.teacherSlotsOnDay(7, 1)
+                + grid.teacherSlotsOnDay(7, 2) + grid.teacherSlotsOnDay(7, 3) + grid.teacherSlotsOnDay(7, 4));
+    }
+
+    @Test
+    void testPlanSection_NoTeachersForSpecialization() {
+        SchedulingContext context = SchedulingContext.of(
+                List.of(), List.of(createClassroom(30, 1)), List.of(createSpecialization(1, 1)));
+        Course course = new Course();
+        course.setCode("MAT101");
+        course.setSpecializationId(1);
+        course.setHoursPerWeek(4);
+
+        assertNull(scheduleGenerator.planSection(course, context, scheduleGenerator.createAvailabilityGrid()));
+    }
+
+    private Teacher createTeacher(int id, int specializationId) {
+        Teacher teacher = new Teacher();
+        teacher.setId(id);
+        teacher.setSpecializationId(specializationId);
+        return teacher;
+    }
+
+    private Classroom createClassroom(int id, int roomTypeId) {
+        Classroom classroom = new Classroom();
+        classroom.setId(id);
+        classroom.setRoomTypeId(roomTypeId);
+        classroom.setCapacity(10);
+        return classroom;
+    }
+
+    private Specialization createSpecialization(int id, Integer roomTypeId) {
+        Specialization specialization = new Specialization();
+        specialization.setId(id);
+        specialization.setName("Specialization " + id);
+        specialization.setRoomTypeId(roomTypeId);
+        return specialization;
+    }
+}
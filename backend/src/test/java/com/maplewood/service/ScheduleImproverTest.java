@@ -0,0 +1,65 @@
+package com.maplewood.service;
+
+import com.maplewood.config.SchedulingProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.maplewood.service.ScheduleFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScheduleImproverTest {
+
+    private ScheduleGenerator scheduleGenerator;
+    private GreedyScheduleStrategy greedy;
+    private ScheduleImprover improver;
+
+    @BeforeEach
+    void setUp() {
+        SchedulingProperties properties = new SchedulingProperties();
+        scheduleGenerator = new ScheduleGenerator(properties);
+        greedy = new GreedyScheduleStrategy(scheduleGenerator);
+        improver = new ScheduleImprover(scheduleGenerator, properties);
+    }
+
+    @Test
+    void testRepairsCourseGreedyLeftUnassigned() {
+        // Greedy packs every course from Monday and strands the last elective
+        ScheduleProblem problem = singleTeacherProblem(scheduleGenerator, 
+                createCourse(1, "SCI101", "core", 3), createCourse(2, "SCI102", "core", 3),
+                createCourse(3, "SCI201", "elective", 6), createCourse(4, "SCI202", "elective", 6));
+        ScheduleResult initial = greedy.solve(problem);
+        assertEquals(1, initial.getUnassignedCourses().size());
+
+        ScheduleResult result = improver.improve(problem, initial, 500, 7L);
+
+        assertTrue(result.getUnassignedCourses().isEmpty());
+        assertEquals(4, result.getSections().size());
+        assertEquals("greedy+local-search", result.getStrategy());
+        assertNoTeacherDayOverMaxHours(result.getSections());
+    }
+
+    @Test
+    void testNeverReturnsWorseSchedule() {
+        ScheduleProblem problem = singleTeacherProblem(scheduleGenerator, 
+                createCourse(1, "SCI101", "core", 6), createCourse(2, "SCI102", "core", 6),
+                createCourse(3, "SCI103", "core", 6), createCourse(4, "SCI104", "core", 6));
+        ScheduleResult initial = greedy.solve(problem);
+
+        ScheduleResult result = improver.improve(problem, initial, 200, 7L);
+
+        assertTrue(ScheduleObjective.score(problem, result.getSections())
+                <= ScheduleObjective.score(problem, initial.getSections()));
+        assertEquals(3, result.getSections().size());
+        assertEquals(1, result.getUnplacedSections());
+    }
+
+    @Test
+    void testZeroBudgetReturnsInitialResult() {
+        ScheduleProblem problem = singleTeacherProblem(scheduleGenerator, createCourse(1, "SCI101", "core", 3));
+        ScheduleResult initial = greedy.solve(problem);
+
+        assertSame(initial, improver.improve(problem, initial, 0, 7L));
+    }
+}
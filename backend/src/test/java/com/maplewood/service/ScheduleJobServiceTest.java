@@ -0,0 +1,115 @@
+package com.maplewood.service;
+
+import com.maplewood.config.SchedulingProperties;
+import com.maplewood.dto.ScheduleResponse;
+import com.maplewood.dto.ScheduleSummary;
+import com.maplewood.exception.ConflictException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduleJobServiceTest {
+
+    @Mock
+    private MasterScheduleService scheduleService;
+
+    private ScheduleJobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        jobService = new ScheduleJobService(scheduleService, new SchedulingProperties());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobService.shutdown();
+    }
+
+    @Test
+    void testJobRunsInBackgroundAndKeepsResult() throws Exception {
+        ScheduleResponse response = new ScheduleResponse();
+        response.setSummary(new ScheduleSummary());
+        when(scheduleService.generateSchedule(eq(1), eq("greedy"), eq(0L), any())).thenReturn(response);
+
+        ScheduleJob job = jobService.submit(1, "greedy", 0L);
+        job.getFuture().get(5, TimeUnit.SECONDS);
+
+        assertEquals(ScheduleJob.Status.SUCCEEDED, job.getStatus());
+        assertSame(response, jobService.getJob(job.getId()).getResult());
+        assertNotNull(job.getFinishedAt());
+    }
+
+    @Test
+    void testSecondJobForSameSemesterIsRejected() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        when(scheduleService.generateSchedule(eq(1), any(), anyLong(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            ScheduleProgress progress = invocation.getArgument(3);
+            while (!progress.isCancelled()) {
+                Thread.sleep(5);
+            }
+            throw new CancellationException("cancelled");
+        });
+
+        ScheduleJob job = jobService.submit(1, null, 0L);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(ConflictException.class, () -> jobService.submit(1, null, 0L));
+        assertThrows(ConflictException.class, () -> jobService.runNow(1, null, 0L));
+
+        jobService.cancel(job.getId());
+        job.getFuture().get(5, TimeUnit.SECONDS);
+        assertEquals(ScheduleJob.Status.CANCELLED, job.getStatus());
+    }
+
+    @Test
+    void testFailedJobRecordsErrorAndFreesSemester() throws Exception {
+        when(scheduleService.generateSchedule(eq(2), eq("nope"), anyLong(), any()))
+                .thenThrow(new IllegalArgumentException("Unknown scheduling strategy: nope"));
+
+        ScheduleJob job = jobService.submit(2, "nope", 0L);
+        job.getFuture().get(5, TimeUnit.SECONDS);
+
+        assertEquals(ScheduleJob.Status.FAILED, job.getStatus());
+        assertEquals("Unknown scheduling strategy: nope", job.getError());
+        when(scheduleService.generateSchedule(2, null, 0L)).thenReturn(new ScheduleResponse());
+        assertNotNull(jobService.runNow(2, null, 0L));
+    }
+
+    @Test
+    void testProgressSumsComponentReports() {
+        ScheduleJob job = new ScheduleJob(1, null, 0L);
+        ScheduleProblem first = new ScheduleProblem(List.of(), Map.of(), null, null);
+        ScheduleProblem second = new ScheduleProblem(List.of(), Map.of(), null, null);
+
+        job.phase("solving");
+        job.report(first, 3, 100);
+        job.report(second, 2, 50);
+        job.report(first, 4, 90);
+
+        assertEquals(6, job.getSectionsPlaced());
+        assertEquals(140L, job.getBestScore());
+
+        job.phase("writing");
+        assertNull(job.getBestScore());
+    }
+
+    @Test
+    void testUnknownJobIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> jobService.getJob("missing"));
+    }
+}
@@ -0,0 +1,135 @@
+package com.maplewood.service;
+
+import com.maplewood.dto.ReplanRequest;
+import com.maplewood.dto.ReplanResponse;
+import com.maplewood.entity.*;
+import com.maplewood.repository.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class ScheduleReplannerTest {
+
+    @Autowired
+    private ScheduleReplanner scheduleReplanner;
+
+    @Autowired
+    private MasterScheduleService scheduleService;
+
+    @Autowired
+    private SemesterRepository semesterRepository;
+
+    @Autowired
+    private StudentCourseEnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testRemovedTeacherOnlyMovesTheirSections() {
+        Semester semester = semesterRepository.findAll().get(0);
+        var schedule = scheduleService.generateSchedule(semester.getId());
+        var section = schedule.getSections().get(0);
+        Integer removedTeacherId = section.getTeacher().getId();
+        StudentCourseEnrollment enrollment = new StudentCourseEnrollment();
+        enrollment.setStudentId(1);
+        enrollment.setCourseSectionId(section.getId());
+        enrollment.setEnrolledAt(java.time.LocalDateTime.now());
+        enrollmentRepository.saveAndFlush(enrollment);
+        Map<Integer, Integer> teachersBefore = teachersBySection(semester.getId());
+
+        ReplanRequest request = new ReplanRequest();
+        request.setSemesterId(semester.getId());
+        request.setRemovedTeacherIds(List.of(removedTeacherId));
+        ReplanResponse response = scheduleReplanner.replan(request);
+
+        int affected = (int) teachersBefore.values().stream().filter(removedTeacherId::equals).count();
+        assertEquals(schedule.getSummary().getScheduleVersionId(), response.getScheduleVersionId());
+        assertEquals(teachersBefore.size() - affected, response.getKeptSections());
+        assertEquals(affected, response.getReassignedSections() + response.getRescheduledSections()
+                + response.getDroppedSections());
+        assertTrue(response.getMovedEnrollments().stream()
+                .anyMatch(move -> move.getEnrollmentId().equals(enrollment.getId())));
+
+        Map<Integer, Integer> teachersAfter = teachersBySection(semester.getId());
+        assertFalse(teachersAfter.containsValue(removedTeacherId), "Removed teacher must not keep any section");
+        teachersBefore.forEach((sectionId, teacherId) -> {
+            if (!teacherId.equals(removedTeacherId)) {
+                assertEquals(teacherId, teachersAfter.get(sectionId), "Unaffected sections stay pinned");
+            }
+        });
+        if (!"DROPPED".equals(response.getMovedEnrollments().get(0).getChange())) {
+            assertTrue(teachersAfter.containsKey(section.getId()), "A re-placed section keeps its id");
+        }
+    }
+
+    @Test
+    public void testSectionMovedToSmallerRoomTakesItsCapacityAndReportsOverflow() {
+        Semester semester = semesterRepository.findAll().get(0);
+        var schedule = scheduleService.generateSchedule(semester.getId());
+        var section = schedule.getSections().get(0);
+        Integer removedRoomId = section.getClassroom().getId();
+        for (int studentId = 1; studentId <= 5; studentId++) {
+            jdbcTemplate.update("INSERT INTO student_course_enrollments (student_id, course_section_id, enrolled_at) "
+                    + "VALUES (?, ?, ?)", studentId, section.getId(), "2024-08-01 10:00:0" + studentId);
+        }
+        jdbcTemplate.update("UPDATE classrooms SET capacity = 3 WHERE id <> ?", removedRoomId);
+        referenceDataCache.invalidateAll();
+        try {
+            ReplanRequest request = new ReplanRequest();
+            request.setSemesterId(semester.getId());
+            request.setRemovedClassroomIds(List.of(removedRoomId));
+            ReplanResponse response = scheduleReplanner.replan(request);
+
+            var moves = response.getMovedEnrollments().stream()
+                    .filter(move -> move.getCourseSectionId().equals(section.getId())).toList();
+            assertEquals(5, moves.size());
+            assertNotEquals(ScheduleReplanner.DROPPED, moves.get(0).getChange());
+            assertEquals(3, jdbcTemplate.queryForObject("SELECT capacity FROM course_sections WHERE id = ?",
+                    Integer.class, section.getId()));
+            assertEquals(List.of(4, 5), moves.stream().filter(move -> move.isOverCapacity())
+                    .map(move -> move.getStudentId()).sorted().toList(), "The latest enrollments are over capacity");
+            assertTrue(response.getOverCapacityEnrollments() >= 2);
+        } finally {
+            // The rollback restores the rooms, but not what the cache loaded meanwhile
+            referenceDataCache.invalidateAll();
+        }
+    }
+
+    @Test
+    public void testAddedCourseAlreadyScheduledIsRejected() {
+        Semester semester = semesterRepository.findAll().get(0);
+        var schedule = scheduleService.generateSchedule(semester.getId());
+
+        ReplanRequest request = new ReplanRequest();
+        request.setSemesterId(semester.getId());
+        request.setAddedCourseIds(List.of(schedule.getSections().get(0).getCourse().getId()));
+
+        assertThrows(IllegalArgumentException.class, () -> scheduleReplanner.replan(request));
+    }
+
+    private Map<Integer, Integer> teachersBySection(Integer semesterId) {
+        return jdbcTemplate.queryForList("""
+                        SELECT cs.id, cs.teacher_id FROM course_sections cs
+                        JOIN semesters s ON s.id = cs.semester_id
+                        WHERE cs.semester_id = ? AND cs.schedule_version_id = s.published_schedule_version_id
+                        """, semesterId).stream()
+                .collect(Collectors.toMap(row -> ((Number) row.get("id")).intValue(),
+                        row -> ((Number) row.get("teacher_id")).intValue()));
+    }
+}
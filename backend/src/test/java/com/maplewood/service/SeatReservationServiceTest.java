@@ -0,0 +1,91 @@
+package com.maplewood.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatReservationServiceTest {
+
+    // Counts query returns no rows: every section starts empty
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SeatReservationService seatReservationService;
+
+    @BeforeEach
+    void setUp() {
+        seatReservationService = new SeatReservationService(jdbcTemplate);
+    }
+
+    @Test
+    void testConcurrentReservationsNeverExceedCapacity() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger granted = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new java.util.ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    if (seatReservationService.tryReserve(7, 10)) {
+                        granted.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(10, granted.get());
+        assertEquals(10, seatReservationService.taken(List.of(7)).get(7));
+    }
+
+    @Test
+    void testReserveAllIsAllOrNothing() {
+        Map<Integer, Integer> capacities = new LinkedHashMap<>();
+        capacities.put(2, 5);
+        capacities.put(1, 0);
+
+        List<Integer> full = seatReservationService.reserveAll(capacities);
+
+        assertEquals(List.of(1), full);
+        assertEquals(0, seatReservationService.taken(List.of(2)).get(2), "Seat in the free section is given back");
+    }
+
+    @Test
+    void testFullCounterIsReconciledBeforeRejecting() {
+        // The counter holds a seat the database does not know about, e.g. from a rolled-back insert
+        assertTrue(seatReservationService.tryReserve(4, 1));
+
+        List<Integer> full = seatReservationService.reserveAll(Map.of(4, 1));
+
+        assertTrue(full.isEmpty());
+        assertEquals(1, seatReservationService.taken(List.of(4)).get(4));
+    }
+
+    @Test
+    void testReleaseNeverGoesNegative() {
+        seatReservationService.release(3);
+
+        assertEquals(0, seatReservationService.taken(List.of(3)).get(3));
+        assertTrue(seatReservationService.tryReserve(3, 1));
+        assertFalse(seatReservationService.tryReserve(3, 1));
+    }
+}
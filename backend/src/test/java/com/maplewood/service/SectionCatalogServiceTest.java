@@ -0,0 +1,83 @@
+package com.maplewood.service;
+
+import com.maplewood.dto.AvailableSectionDto;
+import com.maplewood.entity.*;
+import com.maplewood.repository.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class SectionCatalogServiceTest {
+
+    @Autowired
+    private SectionCatalogService sectionCatalogService;
+
+    @Autowired
+    private MasterScheduleService scheduleService;
+
+    @Autowired
+    private StudentPlanningService studentPlanningService;
+
+    @Autowired
+    private SemesterRepository semesterRepository;
+
+    @Autowired
+    private StudentCourseEnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private CourseSectionMeetingRepository meetingRepository;
+
+    @Autowired
+    private ConflictValidator conflictValidator;
+
+    @Test
+    public void testPublishSwapsCatalog() {
+        Semester semester = semesterRepository.findAll().get(0);
+        var first = scheduleService.generateSchedule(semester.getId());
+        SectionCatalog firstCatalog = sectionCatalogService.get(semester.getId());
+
+        assertEquals(first.getSummary().getScheduleVersionId(), firstCatalog.getScheduleVersionId());
+        assertEquals(first.getSections().size(), firstCatalog.getSections().size());
+        assertSame(firstCatalog, sectionCatalogService.get(semester.getId()), "Snapshot is reused between reads");
+        firstCatalog.getSections().forEach(entry -> assertFalse(entry.getWeekMask().isEmpty()));
+
+        var second = scheduleService.generateSchedule(semester.getId());
+        SectionCatalog secondCatalog = sectionCatalogService.get(semester.getId());
+
+        assertNotSame(firstCatalog, secondCatalog);
+        assertEquals(second.getSummary().getScheduleVersionId(), secondCatalog.getScheduleVersionId());
+    }
+
+    @Test
+    public void testPlanConflictsMatchMeetingComparison() {
+        Semester semester = semesterRepository.findAll().get(0);
+        var schedule = scheduleService.generateSchedule(semester.getId());
+        Integer enrolledSectionId = schedule.getSections().get(0).getId();
+        StudentCourseEnrollment enrollment = new StudentCourseEnrollment();
+        enrollment.setStudentId(1);
+        enrollment.setCourseSectionId(enrolledSectionId);
+        enrollment.setEnrolledAt(java.time.LocalDateTime.now());
+        enrollmentRepository.saveAndFlush(enrollment);
+
+        var plan = studentPlanningService.getStudentPlan(1, semester.getId());
+
+        assertEquals(1, plan.getEnrolledSections().size());
+        assertEquals(enrolledSectionId, plan.getEnrolledSections().get(0).getId());
+        assertEquals(schedule.getSections().size() - 1, plan.getAvailableSections().size());
+        List<CourseSectionMeeting> enrolledMeetings = meetingRepository.findByCourseSectionId(enrolledSectionId);
+        for (AvailableSectionDto section : plan.getAvailableSections()) {
+            boolean expected = conflictValidator.hasTimeConflict(
+                    meetingRepository.findByCourseSectionId(section.getId()), enrolledMeetings);
+            assertEquals(expected, section.getHasTimeConflict(), "Section " + section.getId());
+        }
+    }
+}
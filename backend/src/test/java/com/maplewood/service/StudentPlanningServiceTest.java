@@ -0,0 +1,163 @@
+package com.maplewood.service;
+
+import com.maplewood.dto.EnrollRequest;
+import com.maplewood.dto.EnrollResponse;
+import com.maplewood.entity.Semester;
+import com.maplewood.entity.Student;
+import com.maplewood.repository.SemesterRepository;
+import com.maplewood.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class StudentPlanningServiceTest {
+
+    private static final int CONCURRENT_STUDENTS = 8;
+
+    @Autowired
+    private StudentPlanningService studentPlanningService;
+
+    @Autowired
+    private SectionCatalogService sectionCatalogService;
+
+    @Autowired
+    private MasterScheduleService scheduleService;
+
+    @Autowired
+    private SeatReservationService seatReservationService;
+
+    @Autowired
+    private EligibilityIndex eligibilityIndex;
+
+    @Autowired
+    private SemesterRepository semesterRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    public void testLastSeatGoesToOneStudentOnly() {
+        Semester semester = semesterRepository.findAll().get(0);
+        var section = scheduleService.generateSchedule(semester.getId()).getSections().get(0);
+        jdbcTemplate.update("UPDATE course_sections SET capacity = 1 WHERE id = ?", section.getId());
+        entityManager.clear();
+        List<Student> eligible = eligibleStudents(section.getCourse().getId());
+        assertTrue(eligible.size() >= 2, "Test data should have two eligible students");
+
+        EnrollResponse first = enroll(eligible.get(0), semester, section.getId());
+        EnrollResponse second = enroll(eligible.get(1), semester, section.getId());
+
+        assertTrue(first.getSuccess(), () -> String.valueOf(first.getErrors()));
+        assertFalse(second.getSuccess());
+        assertTrue(second.getErrors().contains("Course section " + section.getId() + " is full"),
+                () -> String.valueOf(second.getErrors()));
+        assertFalse(seatReservationService.insertEnrollment(eligible.get(1).getId(), section.getId(), 5),
+                "The database guard refuses the row even without the counters");
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM student_course_enrollments WHERE course_section_id = ?", Integer.class,
+                section.getId()));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void testConcurrentRequestsForTheLastSeatWriteOneRow() throws Exception {
+        // Committed state, as real requests see it: a published section of the active semester that
+        // nobody is enrolled in yet, cut down to one seat, and students with nothing else that term
+        Semester semester = semesterRepository.findAll().stream()
+                .filter(candidate -> Boolean.TRUE.equals(candidate.getIsActive()))
+                .findFirst().orElseThrow();
+        Set<Integer> busyStudentIds = Set.copyOf(jdbcTemplate.queryForList(
+                "SELECT e.student_id FROM student_course_enrollments e "
+                        + "JOIN course_sections s ON s.id = e.course_section_id WHERE s.semester_id = ?",
+                Integer.class, semester.getId()));
+        Integer sectionId = null;
+        List<Student> students = List.of();
+        for (Map<String, Object> row : jdbcTemplate.queryForList(
+                "SELECT s.id, s.course_id FROM course_sections s "
+                        + "JOIN semesters m ON m.published_schedule_version_id = s.schedule_version_id "
+                        + "WHERE m.id = ? AND NOT EXISTS "
+                        + "(SELECT 1 FROM student_course_enrollments e WHERE e.course_section_id = s.id) "
+                        + "ORDER BY s.id", semester.getId())) {
+            students = eligibleStudents(((Number) row.get("course_id")).intValue()).stream()
+                    .filter(student -> !busyStudentIds.contains(student.getId()))
+                    .limit(CONCURRENT_STUDENTS)
+                    .toList();
+            if (students.size() == CONCURRENT_STUDENTS) {
+                sectionId = ((Number) row.get("id")).intValue();
+                break;
+            }
+        }
+        assertNotNull(sectionId, "Test data should have a section with enough eligible students");
+
+        Integer capacity = jdbcTemplate.queryForObject(
+                "SELECT capacity FROM course_sections WHERE id = ?", Integer.class, sectionId);
+        jdbcTemplate.update("UPDATE course_sections SET capacity = 1 WHERE id = ?", sectionId);
+        sectionCatalogService.refresh(semester.getId());
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_STUDENTS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<EnrollResponse>> futures = new ArrayList<>();
+            for (Student student : students) {
+                Integer section = sectionId;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return enroll(student, semester, section);
+                }));
+            }
+            start.countDown();
+            int succeeded = 0;
+            for (Future<EnrollResponse> future : futures) {
+                if (future.get(30, TimeUnit.SECONDS).getSuccess()) {
+                    succeeded++;
+                }
+            }
+
+            assertEquals(1, succeeded);
+            assertEquals(1, jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM student_course_enrollments WHERE course_section_id = ?", Integer.class,
+                    sectionId));
+        } finally {
+            executor.shutdownNow();
+            jdbcTemplate.update("DELETE FROM student_course_enrollments WHERE course_section_id = ?", sectionId);
+            jdbcTemplate.update("UPDATE course_sections SET capacity = ? WHERE id = ?", capacity, sectionId);
+            seatReservationService.reconcile(List.of(sectionId));
+            sectionCatalogService.refresh(semester.getId());
+        }
+    }
+
+    private EnrollResponse enroll(Student student, Semester semester, Integer sectionId) {
+        EnrollRequest request = new EnrollRequest();
+        request.setSemesterId(semester.getId());
+        request.setCourseSectionIds(List.of(sectionId));
+        return studentPlanningService.enrollStudent(student.getId(), request);
+    }
+
+    private List<Student> eligibleStudents(Integer courseId) {
+        return studentRepository.findAll().stream()
+                .filter(student -> eligibilityIndex.forStudent(student.getId(), student.getGradeLevel())
+                        .isEligible(courseId))
+                .toList();
+    }
+}
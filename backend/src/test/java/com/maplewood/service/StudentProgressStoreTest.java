@@ -0,0 +1,85 @@
+package com.maplewood.service;
+
+import com.maplewood.dto.AcademicProgressDto;
+import com.maplewood.entity.Student;
+import com.maplewood.entity.StudentCourseHistory;
+import com.maplewood.repository.StudentCourseHistoryRepository;
+import com.maplewood.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class StudentProgressStoreTest {
+
+    @Autowired
+    private StudentProgressStore progressStore;
+
+    @Autowired
+    private ProgressCalculator progressCalculator;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentCourseHistoryRepository historyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    public void testStoredProgressMatchesHistory() {
+        for (Student student : studentRepository.findAll().subList(0, 40)) {
+            assertSameProgress(progressCalculator.calculateProgress(student,
+                    historyRepository.findByStudentId(student.getId())), progressStore.get(student, null));
+        }
+    }
+
+    @Test
+    public void testHistoryWritesUpdateStoredProgress() {
+        StudentCourseHistory failed = historyRepository.findAll().stream()
+                .filter(history -> "failed".equals(history.getStatus())).findFirst().orElseThrow();
+        Student student = studentRepository.findById(failed.getStudentId()).orElseThrow();
+        AcademicProgressDto before = progressStore.get(student, null);
+
+        jdbcTemplate.update("UPDATE student_course_history SET status = 'passed' WHERE id = ?", failed.getId());
+        entityManager.clear();
+
+        AcademicProgressDto after = progressStore.get(student, null);
+        assertTrue(after.getGpa().compareTo(before.getGpa()) > 0);
+        assertSameProgress(progressCalculator.calculateProgress(student,
+                historyRepository.findByStudentId(student.getId())), after);
+    }
+
+    @Test
+    public void testDriftCheckRepairsRows() {
+        Student student = studentRepository.findAll().get(0);
+        AcademicProgressDto expected = progressStore.get(student, null);
+        assertEquals(0, progressStore.checkForDrift());
+
+        jdbcTemplate.update("UPDATE student_progress SET earned_tenths = earned_tenths + 100 WHERE student_id = ?",
+                student.getId());
+        jdbcTemplate.update("DELETE FROM student_progress WHERE student_id = ?", studentRepository.findAll().get(1).getId());
+
+        assertEquals(2, progressStore.checkForDrift());
+        assertSameProgress(expected, progressStore.get(student, null));
+    }
+
+    private void assertSameProgress(AcademicProgressDto expected, AcademicProgressDto actual) {
+        assertEquals(expected.getCreditsEarned(), actual.getCreditsEarned());
+        assertEquals(expected.getCoreCoursesCompleted(), actual.getCoreCoursesCompleted());
+        assertEquals(0, expected.getGpa().compareTo(actual.getGpa()));
+        assertEquals(expected.getGraduationStatus(), actual.getGraduationStatus());
+    }
+}
@@ -0,0 +1,73 @@
+package com.maplewood.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.maplewood.service.ScheduleFixtures.createEntry;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimetableBuilderTest {
+
+    @Test
+    void testPicksSectionsThatAvoidEachOther() {
+        SectionCatalog.Entry algebra = createEntry(1, 10, "MONDAY", "09:00", "11:00");
+        SectionCatalog.Entry biologyMonday = createEntry(2, 20, "MONDAY", "10:00", "12:00");
+        SectionCatalog.Entry biologyTuesday = createEntry(3, 20, "TUESDAY", "09:00", "11:00");
+        List<TimetableBuilder.Candidate> candidates = List.of(
+                new TimetableBuilder.Candidate(10, 1, List.of(algebra)),
+                new TimetableBuilder.Candidate(20, 1, List.of(biologyMonday, biologyTuesday)));
+
+        List<TimetableBuilder.Timetable> result =
+                new TimetableBuilder.Search(candidates, 5, 3, TimetableBuilder.MAX_NODES).run(WeekMask.EMPTY);
+
+        assertEquals(2, result.get(0).getScore());
+        assertEquals(List.of(algebra, biologyTuesday), result.get(0).getSections());
+        assertTrue(result.stream().skip(1).allMatch(timetable -> timetable.getScore() == 1));
+    }
+
+    @Test
+    void testRespectsFreeSlotsAndFixedSchedule() {
+        SectionCatalog.Entry high = createEntry(1, 10, "MONDAY", "09:00", "10:00");
+        SectionCatalog.Entry middle = createEntry(2, 20, "TUESDAY", "09:00", "10:00");
+        SectionCatalog.Entry low = createEntry(3, 30, "WEDNESDAY", "09:00", "10:00");
+        List<TimetableBuilder.Candidate> candidates = List.of(
+                new TimetableBuilder.Candidate(30, 1, List.of(low)),
+                new TimetableBuilder.Candidate(10, 5, List.of(high)),
+                new TimetableBuilder.Candidate(20, 3, List.of(middle)));
+        WeekMask enrolled = createEntry(9, 90, "TUESDAY", "09:30", "10:30").getWeekMask();
+
+        List<TimetableBuilder.Timetable> result =
+                new TimetableBuilder.Search(candidates, 2, 1, TimetableBuilder.MAX_NODES).run(enrolled);
+
+        assertEquals(1, result.size());
+        assertEquals(6, result.get(0).getScore());
+        assertEquals(List.of(high, low), result.get(0).getSections());
+    }
+
+    @Test
+    void testBoundPrunesLargeSearch() {
+        // 12 courses x 8 non-overlapping sections: exhaustive search would visit millions of nodes
+        List<TimetableBuilder.Candidate> candidates = new ArrayList<>();
+        int sectionId = 0;
+        for (int course = 0; course < 12; course++) {
+            List<SectionCatalog.Entry> sections = new ArrayList<>();
+            for (int section = 0; section < 8; section++) {
+                String day = List.of("MONDAY", "TUESDAY", "WEDNESDAY", "THURSDAY", "FRIDAY").get(section % 5);
+                String start = String.format("%02d:%02d", 8 + course / 4, (course % 4) * 15);
+                String end = String.format("%02d:%02d", 8 + course / 4, (course % 4) * 15 + 14);
+                sections.add(createEntry(++sectionId, course, day, start, end));
+            }
+            candidates.add(new TimetableBuilder.Candidate(course, 12 - course, sections));
+        }
+
+        TimetableBuilder.Search search = new TimetableBuilder.Search(candidates, 5, 3, TimetableBuilder.MAX_NODES);
+        List<TimetableBuilder.Timetable> result = search.run(WeekMask.EMPTY);
+
+        assertEquals(12 + 11 + 10 + 9 + 8, result.get(0).getScore());
+        assertEquals(3, result.size());
+        assertFalse(search.isTruncated());
+        assertTrue(search.getNodes() < 1000, "Visited " + search.getNodes() + " nodes");
+    }
+}
@@ -0,0 +1,241 @@
+package com.maplewood.service;
+
+import com.maplewood.dto.DropResponse;
+import com.maplewood.dto.EnrollRequest;
+import com.maplewood.dto.WaitlistEntryDto;
+import com.maplewood.dto.WaitlistPlacementRequest;
+import com.maplewood.dto.WaitlistRequest;
+import com.maplewood.entity.Semester;
+import com.maplewood.entity.Student;
+import com.maplewood.repository.SemesterRepository;
+import com.maplewood.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class WaitlistServiceTest {
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private StudentPlanningService planningService;
+
+    @Autowired
+    private MasterScheduleService scheduleService;
+
+    @Autowired
+    private SectionCatalogService sectionCatalogService;
+
+    @Autowired
+    private EligibilityIndex eligibilityIndex;
+
+    @Autowired
+    private SemesterRepository semesterRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @AfterTransaction
+    void dropRolledBackState() {
+        eligibilityIndex.invalidate();
+        waitlistService.reload();
+    }
+
+    @Test
+    public void testWaitlistOrdersByPriorityThenJoinOrder() {
+        WaitlistService.SectionWaitlist waitlist = new WaitlistService.SectionWaitlist();
+        waitlist.add(entry(1, 0, 1));
+        waitlist.add(entry(2, 5, 2));
+        waitlist.add(entry(3, 0, 3));
+        waitlist.add(entry(4, 5, 4));
+
+        assertFalse(waitlist.add(entry(1, 9, 5)), "A student waits once per section");
+        assertEquals(List.of(2, 4, 1, 3), waitlist.inOrder().stream().map(WaitlistService.WaitlistEntry::getStudentId).toList());
+        assertEquals(2, waitlist.next().getStudentId());
+
+        WaitlistService.WaitlistEntry head = waitlist.next();
+        assertEquals(List.of(4, 1), studentIds(waitlist.slice(head, 2)));
+        waitlist.remove(2);
+        assertEquals(List.of(4, 1, 3), studentIds(waitlist.slice(head, 5)), "Walking on from a removed entry");
+        waitlist.remove(4);
+        assertEquals(1, waitlist.next().getStudentId());
+        assertEquals(2, waitlist.positionOf(3));
+        assertTrue(waitlist.slice(waitlist.get(3), 5).isEmpty());
+    }
+
+    @Test
+    public void testDropPromotesWaitingStudent() {
+        FullSection full = fullSection(2);
+        Integer first = full.students.get(0);
+        Integer second = full.students.get(1);
+        Integer sectionId = full.sectionId;
+
+        WaitlistRequest request = new WaitlistRequest();
+        request.setCourseSectionId(sectionId);
+        WaitlistEntryDto joined = waitlistService.join(second, request);
+        assertEquals(1, joined.getPosition());
+        assertEquals(WaitlistService.DEFAULT_PRIORITY, joined.getPriority());
+        assertThrows(IllegalArgumentException.class, () -> waitlistService.join(second, request));
+        assertEquals(1, waitlistRows(sectionId));
+
+        DropResponse dropped = planningService.dropEnrollment(first, sectionId);
+
+        assertEquals(List.of(second), dropped.getPromotedStudentIds());
+        assertEquals(List.of(second), jdbcTemplate.queryForList(
+                "SELECT student_id FROM student_course_enrollments WHERE course_section_id = ?", Integer.class,
+                sectionId));
+        assertEquals(0, waitlistRows(sectionId));
+        assertTrue(waitlistService.forStudent(second).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> planningService.dropEnrollment(first, sectionId));
+    }
+
+    @Test
+    public void testOnlyPlacementSetsPriority() {
+        FullSection full = fullSection(3);
+        Integer second = full.students.get(1);
+        Integer third = full.students.get(2);
+
+        WaitlistRequest request = new WaitlistRequest();
+        request.setCourseSectionId(full.sectionId);
+        waitlistService.join(second, request);
+        waitlistService.join(third, request);
+
+        WaitlistPlacementRequest placement = new WaitlistPlacementRequest();
+        placement.setStudentId(third);
+        placement.setCourseSectionId(full.sectionId);
+        placement.setPriority(10);
+        WaitlistEntryDto placed = waitlistService.place(placement);
+
+        assertEquals(10, placed.getPriority());
+        assertEquals(1, placed.getPosition());
+        assertEquals(2, waitlistService.forStudent(second).get(0).getPosition());
+        assertEquals(10, jdbcTemplate.queryForObject("SELECT priority FROM section_waitlist_entries "
+                + "WHERE course_section_id = ? AND student_id = ?", Integer.class, full.sectionId, third));
+    }
+
+    @Test
+    public void testPromotionRemovesStudentsWhoCanNoLongerTakeTheSection() {
+        FullSection full = fullSection(3);
+        Integer first = full.students.get(0);
+        Integer second = full.students.get(1);
+        Integer third = full.students.get(2);
+
+        WaitlistRequest request = new WaitlistRequest();
+        request.setCourseSectionId(full.sectionId);
+        waitlistService.join(second, request);
+        waitlistService.join(third, request);
+        // The second student passes the course elsewhere while waiting
+        jdbcTemplate.update("INSERT INTO student_course_history (student_id, course_id, semester_id, status) "
+                + "VALUES (?, ?, 1, 'passed')", second, full.courseId);
+        eligibilityIndex.refreshNow();
+
+        DropResponse dropped = planningService.dropEnrollment(first, full.sectionId);
+
+        assertEquals(List.of(third), dropped.getPromotedStudentIds());
+        assertTrue(waitlistService.forStudent(second).isEmpty(), "A lasting failure leaves the waitlist");
+        assertEquals(0, waitlistRows(full.sectionId));
+    }
+
+    /**
+     * A generated section with one seat, taken by the first of {@code students} eligible students.
+     */
+    @Test
+    public void testRepublishMovesWaitlistToTheNewVersion() {
+        FullSection full = fullSection(3);
+        Integer second = full.students.get(1);
+        Integer third = full.students.get(2);
+        WaitlistRequest request = new WaitlistRequest();
+        request.setCourseSectionId(full.sectionId);
+        waitlistService.join(second, request);
+        WaitlistPlacementRequest placement = new WaitlistPlacementRequest();
+        placement.setStudentId(third);
+        placement.setCourseSectionId(full.sectionId);
+        placement.setPriority(10);
+        waitlistService.place(placement);
+        Semester semester = semesterRepository.findAll().get(0);
+
+        Integer versionId = scheduleService.generateSchedule(semester.getId()).getSummary().getScheduleVersionId();
+        // What the commit of the publish would trigger
+        entityManager.clear();
+        waitlistService.reload();
+
+        assertEquals(0, waitlistRows(full.sectionId));
+        List<Integer> sectionIds = jdbcTemplate.queryForList("SELECT w.course_section_id FROM section_waitlist_entries w "
+                + "JOIN course_sections cs ON cs.id = w.course_section_id "
+                + "WHERE cs.schedule_version_id = ? AND cs.course_id = ?", Integer.class, versionId, full.courseId);
+        assertEquals(2, sectionIds.size());
+        WaitlistEntryDto placed = waitlistService.forStudent(third).get(0);
+        assertEquals(sectionIds.get(0), placed.getCourseSectionId());
+        assertNotNull(placed.getCourse(), "The entry points at a published section");
+        assertEquals(10, placed.getPriority());
+        assertEquals(1, placed.getPosition());
+        assertEquals(2, waitlistService.forStudent(second).get(0).getPosition());
+    }
+
+    private FullSection fullSection(int students) {
+        Semester semester = semesterRepository.findAll().get(0);
+        var section = scheduleService.generateSchedule(semester.getId()).getSections().get(0);
+        jdbcTemplate.update("UPDATE course_sections SET capacity = 1 WHERE id = ?", section.getId());
+        entityManager.clear();
+        sectionCatalogService.refresh(semester.getId());
+        List<Integer> eligible = studentRepository.findAll().stream()
+                .filter(student -> eligibilityIndex.forStudent(student.getId(), student.getGradeLevel())
+                        .isEligible(section.getCourse().getId()))
+                .map(Student::getId)
+                .limit(students)
+                .toList();
+        assertEquals(students, eligible.size(), "Test data should have enough eligible students");
+
+        EnrollRequest enroll = new EnrollRequest();
+        enroll.setSemesterId(semester.getId());
+        enroll.setCourseSectionIds(List.of(section.getId()));
+        assertTrue(planningService.enrollStudent(eligible.get(0), enroll).getSuccess());
+        assertFalse(planningService.enrollStudent(eligible.get(1), enroll).getSuccess());
+        return new FullSection(section.getId(), section.getCourse().getId(), eligible);
+    }
+
+    private static final class FullSection {
+        private final Integer sectionId;
+        private final Integer courseId;
+        private final List<Integer> students;
+
+        private FullSection(Integer sectionId, Integer courseId, List<Integer> students) {
+            this.sectionId = sectionId;
+            this.courseId = courseId;
+            this.students = students;
+        }
+    }
+
+    private static List<Integer> studentIds(List<WaitlistService.WaitlistEntry> entries) {
+        return entries.stream().map(WaitlistService.WaitlistEntry::getStudentId).toList();
+    }
+
+    private int waitlistRows(Integer sectionId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM section_waitlist_entries WHERE course_section_id = ?", Integer.class, sectionId);
+    }
+
+    private WaitlistService.WaitlistEntry entry(int studentId, int priority, long sequence) {
+        return new WaitlistService.WaitlistEntry(7, studentId, priority, sequence, LocalDateTime.now());
+    }
+}
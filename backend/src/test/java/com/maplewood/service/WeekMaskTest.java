@@ -0,0 +1,57 @@
+package com.maplewood.service;
+
+import com.maplewood.entity.CourseSectionMeeting.DayOfWeek;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeekMaskTest {
+
+    @Test
+    void testAdjacentMeetingsDoNotIntersect() {
+        WeekMask first = WeekMask.of(DayOfWeek.MONDAY, "09:00", "10:00");
+        WeekMask second = WeekMask.of(DayOfWeek.MONDAY, "10:00", "11:00");
+
+        assertFalse(first.intersects(second));
+        assertEquals(24, first.or(second).slotCount());
+    }
+
+    @Test
+    void testBackToBackMeetingsOnTenAndTwentyMinuteGridsDoNotIntersect() {
+        assertFalse(WeekMask.of(DayOfWeek.MONDAY, "09:10", "10:10")
+                .intersects(WeekMask.of(DayOfWeek.MONDAY, "10:10", "11:10")));
+        assertFalse(WeekMask.of(DayOfWeek.TUESDAY, "09:20", "10:40")
+                .intersects(WeekMask.of(DayOfWeek.TUESDAY, "10:40", "11:20")));
+        assertTrue(WeekMask.of(DayOfWeek.TUESDAY, "09:20", "10:40")
+                .intersects(WeekMask.of(DayOfWeek.TUESDAY, "10:20", "11:00")));
+    }
+
+    @Test
+    void testHalfHourOverlapIntersects() {
+        WeekMask first = WeekMask.of(DayOfWeek.WEDNESDAY, "09:30", "10:30");
+        WeekMask second = WeekMask.of(DayOfWeek.WEDNESDAY, "10:00", "11:00");
+
+        assertTrue(first.intersects(second));
+        assertFalse(first.intersects(WeekMask.of(DayOfWeek.THURSDAY, "10:00", "11:00")));
+    }
+
+    @Test
+    void testOffGridTimesCoverTouchedSlots() {
+        // 10:02-10:18 touches the 10:00, 10:05, 10:10 and 10:15 slots
+        WeekMask mask = WeekMask.of(DayOfWeek.FRIDAY, "10:02", "10:18");
+
+        assertEquals(4, mask.slotCount());
+        assertTrue(mask.intersects(WeekMask.of(DayOfWeek.FRIDAY, "10:15", "10:30")));
+        assertFalse(mask.intersects(WeekMask.of(DayOfWeek.FRIDAY, "10:20", "11:00")));
+    }
+
+    @Test
+    void testLastDayUsesLastWord() {
+        WeekMask lateFriday = WeekMask.of(DayOfWeek.FRIDAY, "23:00", "24:00");
+
+        assertEquals(12, lateFriday.slotCount());
+        assertTrue(WeekMask.EMPTY.isEmpty());
+        assertFalse(lateFriday.isEmpty());
+        assertEquals(lateFriday, WeekMask.EMPTY.or(lateFriday));
+    }
+}
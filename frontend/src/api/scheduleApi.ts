@@ -1,5 +1,5 @@
 import { apiClient } from './client';
-import type { ScheduleResponse, GenerateScheduleRequest, TeacherWorkload, RoomUsage, Semester } from '../types';
+import type { ScheduleResponse, GenerateScheduleRequest, ScheduleJob, ReplanRequest, ReplanResponse, BulkEnrollRequest, BulkEnrollResponse, AutoEnrollRequest, AutoEnrollResponse, WaitlistPlacementRequest, WaitlistEntry, StudentProgress, CacheStats, TeacherWorkload, RoomUsage, Semester } from '../types';
 
 export const scheduleApi = {
   generateSchedule: async (request: GenerateScheduleRequest): Promise<ScheduleResponse> => {
@@ -7,6 +7,50 @@ export const scheduleApi = {
     return response.data;
   },
 
+  submitScheduleJob: async (request: GenerateScheduleRequest): Promise<ScheduleJob> => {
+    const response = await apiClient.post<ScheduleJob>('/admin/schedules/jobs', request);
+    return response.data;
+  },
+
+  getScheduleJob: async (jobId: string): Promise<ScheduleJob> => {
+    const response = await apiClient.get<ScheduleJob>(`/admin/schedules/jobs/${jobId}`);
+    return response.data;
+  },
+
+  cancelScheduleJob: async (jobId: string): Promise<ScheduleJob> => {
+    const response = await apiClient.delete<ScheduleJob>(`/admin/schedules/jobs/${jobId}`);
+    return response.data;
+  },
+
+  replanSchedule: async (request: ReplanRequest): Promise<ReplanResponse> => {
+    const response = await apiClient.post<ReplanResponse>('/admin/schedules/replan', request);
+    return response.data;
+  },
+
+  bulkEnroll: async (request: BulkEnrollRequest): Promise<BulkEnrollResponse> => {
+    const response = await apiClient.post<BulkEnrollResponse>('/admin/enrollments/bulk', request);
+    return response.data;
+  },
+
+  autoEnroll: async (request: AutoEnrollRequest): Promise<AutoEnrollResponse> => {
+    const response = await apiClient.post<AutoEnrollResponse>('/admin/enrollments/auto', request);
+    return response.data;
+  },
+
+  placeOnWaitlist: async (request: WaitlistPlacementRequest): Promise<WaitlistEntry> => {
+    const response = await apiClient.put<WaitlistEntry>('/admin/waitlists', request);
+    return response.data;
+  },
+
+  // Newline-delimited JSON, one student per line
+  getAllProgress: async (): Promise<StudentProgress[]> => {
+    const response = await apiClient.get<string>('/admin/progress', { responseType: 'text' });
+    return response.data
+      .split('\n')
+      .filter((line) => line.trim() !== '')
+      .map((line) => JSON.parse(line) as StudentProgress);
+  },
+
   getSchedule: async (semesterId: number): Promise<ScheduleResponse> => {
     const response = await apiClient.get<ScheduleResponse>(`/admin/schedules/${semesterId}`);
     return response.data;
@@ -26,5 +70,9 @@ export const scheduleApi = {
     const response = await apiClient.get<Semester[]>('/admin/semesters');
     return response.data;
   },
-};
 
+  getCacheStats: async (): Promise<CacheStats[]> => {
+    const response = await apiClient.get<CacheStats[]>('/admin/cache/stats');
+    return response.data;
+  },
+};
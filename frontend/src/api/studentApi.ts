@@ -1,10 +1,10 @@
 import { apiClient } from './client';
-import type { StudentPlanResponse, EnrollRequest, EnrollResponse, AcademicProgress } from '../types';
+import type { StudentPlanResponse, EnrollRequest, EnrollResponse, TimetableRequest, TimetableResponse, AcademicProgress, DropResponse, WaitlistRequest, WaitlistEntry, NextCourse, GraduationPlan } from '../types';
 
 export const studentApi = {
-  getStudentPlan: async (studentId: number, semesterId: number): Promise<StudentPlanResponse> => {
+  getStudentPlan: async (studentId: number, semesterId: number, eligibleOnly = false): Promise<StudentPlanResponse> => {
     const response = await apiClient.get<StudentPlanResponse>(
-      `/students/${studentId}/plan?semesterId=${semesterId}`
+      `/students/${studentId}/plan?semesterId=${semesterId}&eligibleOnly=${eligibleOnly}`
     );
     return response.data;
   },
@@ -14,6 +14,42 @@ export const studentApi = {
     return response.data;
   },
 
+  dropEnrollment: async (studentId: number, sectionId: number): Promise<DropResponse> => {
+    const response = await apiClient.delete<DropResponse>(`/students/${studentId}/enrollments/${sectionId}`);
+    return response.data;
+  },
+
+  getWaitlist: async (studentId: number): Promise<WaitlistEntry[]> => {
+    const response = await apiClient.get<WaitlistEntry[]>(`/students/${studentId}/waitlist`);
+    return response.data;
+  },
+
+  joinWaitlist: async (studentId: number, request: WaitlistRequest): Promise<WaitlistEntry> => {
+    const response = await apiClient.post<WaitlistEntry>(`/students/${studentId}/waitlist`, request);
+    return response.data;
+  },
+
+  leaveWaitlist: async (studentId: number, sectionId: number): Promise<void> => {
+    await apiClient.delete(`/students/${studentId}/waitlist/${sectionId}`);
+  },
+
+  buildTimetables: async (studentId: number, request: TimetableRequest): Promise<TimetableResponse> => {
+    const response = await apiClient.post<TimetableResponse>(`/students/${studentId}/timetables`, request);
+    return response.data;
+  },
+
+  getNextCourses: async (studentId: number, semesterId?: number): Promise<NextCourse[]> => {
+    const query = semesterId !== undefined ? `?semesterId=${semesterId}` : '';
+    const response = await apiClient.get<NextCourse[]>(`/students/${studentId}/next-courses${query}`);
+    return response.data;
+  },
+
+  getGraduationPlan: async (studentId: number, semesterId?: number): Promise<GraduationPlan> => {
+    const query = semesterId !== undefined ? `?semesterId=${semesterId}` : '';
+    const response = await apiClient.get<GraduationPlan>(`/students/${studentId}/graduation-plan${query}`);
+    return response.data;
+  },
+
   getStudentProgress: async (studentId: number): Promise<AcademicProgress> => {
     const response = await apiClient.get<AcademicProgress>(`/students/${studentId}/progress`);
     return response.data;
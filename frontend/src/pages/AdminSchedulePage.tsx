@@ -1,4 +1,4 @@
-import { useState, useEffect } from 'react';
+import { useState, useEffect, useRef } from 'react';
 import {
   Typography,
   Button,
@@ -18,9 +18,12 @@ import {
   InputLabel,
   Card,
   CardContent,
+  LinearProgress,
 } from '@mui/material';
 import { scheduleApi } from '../api/scheduleApi';
-import type { ScheduleResponse, Semester } from '../types';
+import type { ScheduleJob, ScheduleResponse, Semester } from '../types';
+
+const JOB_POLL_INTERVAL_MS = 1000;
 
 export default function AdminSchedulePage() {
   const [semesterId, setSemesterId] = useState<number | ''>('');
@@ -30,6 +33,18 @@ export default function AdminSchedulePage() {
   const [generating, setGenerating] = useState(false);
   const [semesters, setSemesters] = useState<Semester[]>([]);
   const [loadingSemesters, setLoadingSemesters] = useState(true);
+  const [job, setJob] = useState<ScheduleJob | null>(null);
+  const pollTimer = useRef<number | null>(null);
+
+  const stopPolling = () => {
+    if (pollTimer.current !== null) {
+      window.clearTimeout(pollTimer.current);
+      pollTimer.current = null;
+    }
+  };
+
+  // Stop polling when the page unmounts
+  useEffect(() => stopPolling, []);
 
   // Fetch semesters from API
   useEffect(() => {
@@ -56,15 +71,49 @@ export default function AdminSchedulePage() {
     setGenerating(true);
     setError(null);
     try {
-      const response = await scheduleApi.generateSchedule({ semesterId: Number(semesterId) });
-      setSchedule(response);
+      const submitted = await scheduleApi.submitScheduleJob({ semesterId: Number(semesterId) });
+      setJob(submitted);
+      pollJob(submitted.jobId);
     } catch (err: any) {
       setError(err.response?.data?.message || 'Failed to generate schedule');
-    } finally {
       setGenerating(false);
     }
   };
 
+  // Poll the generation job until it finishes; the page stays usable meanwhile
+  const pollJob = (jobId: string) => {
+    stopPolling();
+    pollTimer.current = window.setTimeout(async () => {
+      try {
+        const current = await scheduleApi.getScheduleJob(jobId);
+        setJob(current);
+        if (current.status === 'SUCCEEDED') {
+          setSchedule(current.result ?? null);
+          setGenerating(false);
+        } else if (current.status === 'FAILED') {
+          setError(current.error || 'Failed to generate schedule');
+          setGenerating(false);
+        } else if (current.status === 'CANCELLED') {
+          setGenerating(false);
+        } else {
+          pollJob(jobId);
+        }
+      } catch (err: any) {
+        setError(err.response?.data?.message || 'Failed to check schedule generation');
+        setGenerating(false);
+      }
+    }, JOB_POLL_INTERVAL_MS);
+  };
+
+  const handleCancel = async () => {
+    if (!job) return;
+    try {
+      setJob(await scheduleApi.cancelScheduleJob(job.jobId));
+    } catch (err: any) {
+      setError(err.response?.data?.message || 'Failed to cancel schedule generation');
+    }
+  };
+
   const handleLoadSchedule = async () => {
     if (!semesterId) {
       setError('Please select a semester');
@@ -127,6 +176,11 @@ export default function AdminSchedulePage() {
         >
           {generating ? <CircularProgress size={24} /> : 'Generate Schedule'}
         </Button>
+        {generating && (
+          <Button variant="outlined" color="error" onClick={handleCancel}>
+            Cancel
+          </Button>
+        )}
         <Button
           variant="outlined"
           onClick={handleLoadSchedule}
@@ -136,6 +190,19 @@ export default function AdminSchedulePage() {
         </Button>
       </Box>
 
+      {generating && job && (
+        <Box sx={{ mb: 2, width: '100%', maxWidth: '600px' }}>
+          <Typography variant="body2" sx={{ mb: 1 }}>
+            {job.status === 'QUEUED' ? 'Waiting to start...' : `Generating (${job.phase || 'starting'}): `
+              + `${job.sectionsPlaced} of ${job.sectionsNeeded || '?'} sections placed`}
+          </Typography>
+          <LinearProgress
+            variant={job.sectionsNeeded ? 'determinate' : 'indeterminate'}
+            value={job.sectionsNeeded ? (100 * job.sectionsPlaced) / job.sectionsNeeded : 0}
+          />
+        </Box>
+      )}
+
       {error && (
         <Alert severity="error" sx={{ mb: 2 }}>
           {error}
@@ -159,6 +159,13 @@ export default function StudentPlanPage() {
         </Alert>
       )}
 
+      {plan && plan.needsReenrollment && plan.needsReenrollment.length > 0 && (
+        <Alert severity="warning" sx={{ mb: 2 }}>
+          The schedule was regenerated and these enrollments could not be moved to the new sections; please
+          re-enroll: {plan.needsReenrollment.map((s) => s.course?.code ?? `section ${s.id}`).join(', ')}
+        </Alert>
+      )}
+
       {loading && <CircularProgress />}
 
       {plan && (
@@ -222,7 +229,7 @@ export default function StudentPlanPage() {
                                 <Chip label="Prereq Missing" color="error" size="small" />
                               )}
                               {section.hasTimeConflict && (
-                                <Chip label="Time Conflict" color="warning" size="small" />
+                                <Chip label="Time Conflict" color="warning" size="small" title={section.conflictReason} />
                               )}
                               {section.remainingCapacity <= 0 && (
                                 <Chip label="Full" color="default" size="small" />
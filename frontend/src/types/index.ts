@@ -57,13 +57,19 @@ export interface ScheduleResponse {
     totalCourses: number;
     unassignedCourses: number;
     message: string;
+    strategy?: string;
+    scheduleVersionId?: number;
+    enrollmentsCarriedOver?: number;
+    enrollmentsNeedingReenrollment?: number;
   };
 }
 
 export interface AvailableSection extends CourseSection {
   prerequisitesMet: boolean;
+  eligible?: boolean;
   hasTimeConflict: boolean;
   conflictReason?: string;
+  conflictingSectionId?: number;
 }
 
 export interface EnrolledSection {
@@ -81,7 +87,40 @@ export interface AcademicProgress {
   coreCoursesRequired: number;
   gpa: number;
   graduationStatus: string;
-  projectedGraduationYear: number;
+  projectedGraduationYear?: number;
+}
+
+export interface NextCourse {
+  course: Course;
+  unlocks: number;
+  chainLength: number;
+}
+
+export interface PlannedSemester {
+  name: string;
+  year: number;
+  gradeLevel: number;
+  credits: number;
+  courses: Course[];
+}
+
+export interface GraduationPlan {
+  studentId: number;
+  feasible: boolean;
+  plannedCredits: number;
+  creditsRequired: number;
+  plannedCoreCourses: number;
+  coreCoursesRequired: number;
+  projectedGraduationYear?: number;
+  semesters: PlannedSemester[];
+}
+
+export interface StudentProgress {
+  studentId: number;
+  firstName: string;
+  lastName: string;
+  gradeLevel: number;
+  progress: AcademicProgress;
 }
 
 export interface Student {
@@ -98,6 +137,7 @@ export interface StudentPlanResponse {
   semesterName: string;
   availableSections: AvailableSection[];
   enrolledSections: EnrolledSection[];
+  needsReenrollment?: EnrolledSection[];
   progress: AcademicProgress;
 }
 
@@ -129,7 +169,177 @@ export interface RoomUsage {
   utilizationPercentage: number;
 }
 
+export type ScheduleJobStatus = 'QUEUED' | 'RUNNING' | 'SUCCEEDED' | 'FAILED' | 'CANCELLED';
+
+export interface ScheduleJob {
+  jobId: string;
+  semesterId: number;
+  strategy?: string;
+  status: ScheduleJobStatus;
+  phase?: string;
+  sectionsPlaced: number;
+  sectionsNeeded: number;
+  bestScore?: number;
+  submittedAt: string;
+  startedAt?: string;
+  finishedAt?: string;
+  error?: string;
+  result?: ScheduleResponse;
+}
+
 export interface GenerateScheduleRequest {
   semesterId: number;
+  strategy?: 'greedy' | 'backtracking' | 'portfolio';
+  improveTimeMillis?: number;
+}
+
+export interface ReplanRequest {
+  semesterId: number;
+  removedTeacherIds?: number[];
+  removedClassroomIds?: number[];
+  addedCourseIds?: number[];
+}
+
+export interface EnrollmentMove {
+  enrollmentId: number;
+  studentId: number;
+  courseSectionId: number;
+  courseCode: string;
+  change: 'REASSIGNED' | 'RESCHEDULED' | 'DROPPED';
+  overCapacity: boolean;
+}
+
+export interface ReplanResponse {
+  semesterId: number;
+  scheduleVersionId: number;
+  keptSections: number;
+  reassignedSections: number;
+  rescheduledSections: number;
+  droppedSections: number;
+  addedSections: number;
+  unplacedSections: number;
+  movedEnrollments: EnrollmentMove[];
+  overCapacityEnrollments: number;
+  message: string;
+}
+
+export interface CacheStats {
+  region: string;
+  size: number;
+  maxEntries: number;
+  hits: number;
+  misses: number;
+  evictions: number;
+  invalidations: number;
+  dataVersion?: number;
+}
+
+export interface BulkEnrollRow {
+  studentId: number;
+  courseSectionIds: number[];
+}
+
+export interface BulkEnrollRequest {
+  semesterId: number;
+  rows: BulkEnrollRow[];
+}
+
+export interface BulkEnrollRowResult {
+  row: number;
+  studentId: number;
+  courseSectionIds: number[];
+  success: boolean;
+  errors: string[];
+}
+
+export interface BulkEnrollResponse {
+  semesterId: number;
+  totalRows: number;
+  enrolledRows: number;
+  rejectedRows: number;
+  elapsedMillis: number;
+  results: BulkEnrollRowResult[];
+}
+
+export interface TimetableWish {
+  courseId: number;
+  priority?: number;
+}
+
+export interface TimetableRequest {
+  semesterId: number;
+  courses: TimetableWish[];
+  alternatives?: number;
+}
+
+export interface TimetableOption {
+  rank: number;
+  score: number;
+  sections: EnrolledSection[];
+  omittedCourseIds: number[];
+}
+
+export interface TimetableResponse {
+  studentId: number;
+  semesterId: number;
+  options: TimetableOption[];
+  unavailableCourses: string[];
+  searchedNodes: number;
+  complete: boolean;
 }
 
+export interface DropResponse {
+  success: boolean;
+  message: string;
+  courseSectionId: number;
+  promotedStudentIds: number[];
+}
+
+export interface WaitlistRequest {
+  courseSectionId: number;
+}
+
+export interface WaitlistPlacementRequest {
+  studentId: number;
+  courseSectionId: number;
+  priority: number;
+}
+
+export interface WaitlistEntry {
+  courseSectionId: number;
+  course: Course;
+  priority: number;
+  position: number;
+  waiting: number;
+  joinedAt: string;
+}
+
+export interface AutoEnrollStudentRequest {
+  studentId: number;
+  courseIds: number[];
+}
+
+export interface AutoEnrollRequest {
+  semesterId: number;
+  students: AutoEnrollStudentRequest[];
+  dryRun?: boolean;
+}
+
+export interface AutoEnrollAssignment {
+  studentId: number;
+  courseSectionIds: number[];
+  assignedCourseIds: number[];
+  unassignedCourseIds: number[];
+  errors: string[];
+}
+
+export interface AutoEnrollResponse {
+  semesterId: number;
+  dryRun: boolean;
+  students: number;
+  requestedCourses: number;
+  assignedCourses: number;
+  fullyServedStudents: number;
+  elapsedMillis: number;
+  assignments: AutoEnrollAssignment[];
+}